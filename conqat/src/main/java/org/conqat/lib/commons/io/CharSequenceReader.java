@@ -0,0 +1,108 @@
+/*-------------------------------------------------------------------------+
+|                                                                          |
+| Copyright 2005-2011 The ConQAT Project                                   |
+|                                                                          |
+| Licensed under the Apache License, Version 2.0 (the "License");          |
+| you may not use this file except in compliance with the License.         |
+| You may obtain a copy of the License at                                  |
+|                                                                          |
+|    http://www.apache.org/licenses/LICENSE-2.0                            |
+|                                                                          |
+| Unless required by applicable law or agreed to in writing, software      |
+| distributed under the License is distributed on an "AS IS" BASIS,        |
+| WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. |
+| See the License for the specific language governing permissions and      |
+| limitations under the License.                                           |
++-------------------------------------------------------------------------*/
+package org.conqat.lib.commons.io;
+
+import java.io.Reader;
+
+/**
+ * A reader reading the characters of a {@link CharSequence} without copying
+ * the sequence. Strings are read in bulk using
+ * {@link String#getChars(int, int, char[], int)}. Instances may be reused for
+ * further sequences using {@link #reset(CharSequence)}.
+ * 
+ * @author $Author$
+ * @version $Rev$
+ */
+public class CharSequenceReader extends Reader {
+
+	/** The sequence to read. */
+	private CharSequence input;
+
+	/** The index of the next character to read. */
+	private int position;
+
+	/** Constructor. */
+	public CharSequenceReader(CharSequence input) {
+		reset(input);
+	}
+
+	/** Starts reading the given sequence from its first character. */
+	public void reset(CharSequence input) {
+		if (input == null) {
+			throw new NullPointerException("input");
+		}
+		this.input = input;
+		position = 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read(char[] buffer, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > buffer.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (length == 0) {
+			return 0;
+		}
+		int remaining = input.length() - position;
+		if (remaining <= 0) {
+			return -1;
+		}
+		int count = Math.min(length, remaining);
+		if (input instanceof String) {
+			((String) input).getChars(position, position + count, buffer,
+					offset);
+		} else {
+			for (int i = 0; i < count; i++) {
+				buffer[offset + i] = input.charAt(position + i);
+			}
+		}
+		position += count;
+		return count;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int read() {
+		if (position >= input.length()) {
+			return -1;
+		}
+		return input.charAt(position++);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public long skip(long n) {
+		int count = (int) Math.max(0,
+				Math.min(n, input.length() - position));
+		position += count;
+		return count;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean ready() {
+		return true;
+	}
+
+	/** Releases the sequence. */
+	@Override
+	public void close() {
+		input = "";
+		position = 0;
+	}
+}
@@ -0,0 +1,100 @@
+/*-------------------------------------------------------------------------+
+|                                                                          |
+| Copyright 2005-2011 The ConQAT Project                                   |
+|                                                                          |
+| Licensed under the Apache License, Version 2.0 (the "License");          |
+| you may not use this file except in compliance with the License.         |
+| You may obtain a copy of the License at                                  |
+|                                                                          |
+|    http://www.apache.org/licenses/LICENSE-2.0                            |
+|                                                                          |
+| Unless required by applicable law or agreed to in writing, software      |
+| distributed under the License is distributed on an "AS IS" BASIS,        |
+| WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. |
+| See the License for the specific language governing permissions and      |
+| limitations under the License.                                           |
++-------------------------------------------------------------------------*/
+package org.conqat.lib.scanner;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.conqat.lib.commons.io.CharSequenceReader;
+
+/**
+ * A per-thread pool of lenient scanners. Creating a scanner allocates its
+ * (comparatively large) input buffer. Scanners obtained from this pool are
+ * reset to their new input instead (see
+ * {@link IScanner#reset(java.io.Reader, String)}), such that scanning many
+ * files in a row allocates the buffers only once per thread and language.
+ * Each thread keeps at most one idle scanner per language. Use
+ * {@link TokenStream#open(ELanguage, CharSequence, String)} to scan with a
+ * pooled scanner.
+ * 
+ * @author $Author$
+ * @version $Rev$
+ */
+public class ScannerPool {
+
+	/** The idle scanners of the current thread. */
+	private static final ThreadLocal<Map<ELanguage, PooledScanner>> IDLE = ThreadLocal
+			.withInitial(() -> new EnumMap<>(ELanguage.class));
+
+	/** Prevent instantiation. */
+	private ScannerPool() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Returns an idle scanner of the current thread reset to the given input,
+	 * or a new scanner if there is no idle scanner for the language. The
+	 * scanner must be passed to {@link #release(PooledScanner)} when it is no
+	 * longer used.
+	 */
+	/* package */static PooledScanner acquire(ELanguage language,
+			CharSequence input, String originId) {
+		PooledScanner pooled = IDLE.get().remove(language);
+		if (pooled == null) {
+			return new PooledScanner(language, input, originId);
+		}
+		pooled.reader.reset(input);
+		pooled.scanner.reset(pooled.reader, originId);
+		return pooled;
+	}
+
+	/**
+	 * Returns the given scanner to the pool of the current thread. The input of
+	 * the scanner is released.
+	 */
+	/* package */static void release(PooledScanner pooled) {
+		pooled.reader.close();
+		IDLE.get().putIfAbsent(pooled.language, pooled);
+	}
+
+	/** Discards the idle scanners of the current thread. */
+	public static void clear() {
+		IDLE.remove();
+	}
+
+	/** A scanner together with the reader it reads from. */
+	/* package */static class PooledScanner {
+
+		/** The language of the scanner. */
+		private final ELanguage language;
+
+		/** The reader the scanner reads from. */
+		private final CharSequenceReader reader;
+
+		/** The scanner. */
+		/* package */final ILenientScanner scanner;
+
+		/** Constructor. */
+		private PooledScanner(ELanguage language, CharSequence input,
+				String originId) {
+			this.language = language;
+			reader = new CharSequenceReader(input);
+			scanner = ScannerFactory.newLenientScanner(language, reader,
+					originId);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*-------------------------------------------------------------------------+
+|                                                                          |
+| Copyright 2005-2011 The ConQAT Project                                   |
+|                                                                          |
+| Licensed under the Apache License, Version 2.0 (the "License");          |
+| you may not use this file except in compliance with the License.         |
+| You may obtain a copy of the License at                                  |
+|                                                                          |
+|    http://www.apache.org/licenses/LICENSE-2.0                            |
+|                                                                          |
+| Unless required by applicable law or agreed to in writing, software      |
+| distributed under the License is distributed on an "AS IS" BASIS,        |
+| WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. |
+| See the License for the specific language governing permissions and      |
+| limitations under the License.                                           |
++-------------------------------------------------------------------------*/
+package org.conqat.lib.scanner;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.conqat.lib.scanner.ScannerPool.PooledScanner;
+
+/**
+ * Iterates the tokens of a {@link CharSequence} using a pooled lenient scanner
+ * (see {@link ScannerPool}). In contrast to {@link ScannerFactory}, the scanner
+ * and its buffers are reused for subsequent inputs of the same thread. The
+ * tokens themselves are created by the scanner and may be retained. Use
+ * {@link TokenTextSet} to count distinct token texts without collecting the
+ * tokens. The scanner is returned to the pool by {@link #close()}.
+ * 
+ * <pre>
+ * try (TokenStream tokens = TokenStream.open(language, content, originId)) {
+ * 	while (tokens.next()) {
+ * 		IToken token = tokens.getToken();
+ * 		// process token
+ * 	}
+ * }
+ * </pre>
+ * 
+ * @author $Author$
+ * @version $Rev$
+ */
+public class TokenStream implements Closeable {
+
+	/** The scanned input. */
+	private final CharSequence input;
+
+	/** The pooled scanner. Is <code>null</code> if this stream is closed. */
+	private PooledScanner pooled;
+
+	/** The current token. Is <code>null</code> before the first token. */
+	private IToken token;
+
+	/** Constructor. */
+	private TokenStream(CharSequence input, PooledScanner pooled) {
+		this.input = input;
+		this.pooled = pooled;
+	}
+
+	/**
+	 * Opens a token stream for the given input using a scanner of the pool of
+	 * the current thread.
+	 * 
+	 * @param language
+	 *            the language of the input
+	 * @param input
+	 *            the input to scan
+	 * @param originId
+	 *            origin id that denotes the resource the tokens stem from
+	 */
+	public static TokenStream open(ELanguage language, CharSequence input,
+			String originId) {
+		if (language == null || input == null) {
+			throw new NullPointerException();
+		}
+		return new TokenStream(input, ScannerPool.acquire(language, input,
+				originId));
+	}
+
+	/**
+	 * Advances to the next token.
+	 * 
+	 * @return <code>true</code> if there is a next token, <code>false</code>
+	 *         if the input is entirely scanned (the type of the current token
+	 *         is {@link ETokenType#EOF} then) or if this stream is closed.
+	 * @throws IOException
+	 *             Thrown if the scanner encounters problem during I/O.
+	 */
+	public boolean next() throws IOException {
+		if (pooled == null) {
+			return false;
+		}
+		if (token != null && token.getType() == ETokenType.EOF) {
+			return false;
+		}
+		token = pooled.scanner.getNextToken();
+		return token.getType() != ETokenType.EOF;
+	}
+
+	/** Returns the scanned input. */
+	public CharSequence getInput() {
+		return input;
+	}
+
+	/**
+	 * Returns the current token.
+	 * 
+	 * @throws IllegalStateException
+	 *             if {@link #next()} has not been called yet.
+	 */
+	public IToken getToken() {
+		if (token == null) {
+			throw new IllegalStateException("next() has not been called yet");
+		}
+		return token;
+	}
+
+	/** Returns the scanner to the pool. Subsequent calls have no effect. */
+	@Override
+	public void close() {
+		if (pooled != null) {
+			ScannerPool.release(pooled);
+			pooled = null;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		return token == null ? "TOKEN STREAM (not started)" : token.toString();
+	}
+}
@@ -0,0 +1,190 @@
+/*-------------------------------------------------------------------------+
+|                                                                          |
+| Copyright 2005-2011 The ConQAT Project                                   |
+|                                                                          |
+| Licensed under the Apache License, Version 2.0 (the "License");          |
+| you may not use this file except in compliance with the License.         |
+| You may obtain a copy of the License at                                  |
+|                                                                          |
+|    http://www.apache.org/licenses/LICENSE-2.0                            |
+|                                                                          |
+| Unless required by applicable law or agreed to in writing, software      |
+| distributed under the License is distributed on an "AS IS" BASIS,        |
+| WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. |
+| See the License for the specific language governing permissions and      |
+| limitations under the License.                                           |
++-------------------------------------------------------------------------*/
+package org.conqat.lib.scanner;
+
+import java.util.Arrays;
+
+/**
+ * A set of distinct character ranges. Two ranges are considered equal if they
+ * contain the same characters. The ranges are hashed and compared character by
+ * character, i.e. no strings are created. This is used to count distinct token
+ * texts (e.g. the distinct operands of the Halstead metrics) of a
+ * {@link TokenStream}. Ranges either refer to the input this set was reset to
+ * (see {@link #add(int, int)}) or to the text of a token (see
+ * {@link #add(IToken)}).
+ * 
+ * @author $Author$
+ * @version $Rev$
+ */
+public class TokenTextSet {
+
+	/** Marks an empty slot in {@link #slots}. */
+	private static final int EMPTY = -1;
+
+	/** The initial capacity of the hash table (must be a power of two). */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** The characters the ranges of {@link #add(int, int)} refer to. */
+	private CharSequence input = "";
+
+	/** Hash table storing the indices of the ranges (or {@link #EMPTY}). */
+	private int[] slots = newSlots(INITIAL_CAPACITY);
+
+	/** The characters the ranges refer to. */
+	private CharSequence[] sources = new CharSequence[INITIAL_CAPACITY / 2];
+
+	/** The begin offsets of the ranges (inclusive). */
+	private int[] begins = new int[INITIAL_CAPACITY / 2];
+
+	/** The end offsets of the ranges (exclusive). */
+	private int[] ends = new int[INITIAL_CAPACITY / 2];
+
+	/** The hash codes of the ranges. */
+	private int[] hashes = new int[INITIAL_CAPACITY / 2];
+
+	/** The number of ranges in this set. */
+	private int size = 0;
+
+	/**
+	 * Clears this set and sets the characters subsequently added ranges refer
+	 * to. The capacity of the set is retained.
+	 */
+	public void reset(CharSequence input) {
+		if (input == null) {
+			throw new NullPointerException();
+		}
+		this.input = input;
+		Arrays.fill(slots, EMPTY);
+		Arrays.fill(sources, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Adds the text of the given token (see {@link IToken#getText()}). Note
+	 * that the text may differ from the characters of the input the token
+	 * stems from, for instance, if unicode escapes have been decoded. The
+	 * text is retained only if it was not contained yet.
+	 * 
+	 * @return <code>true</code> if the text was not contained yet.
+	 */
+	public boolean add(IToken token) {
+		String text = token.getText();
+		return add(text, 0, text.length());
+	}
+
+	/**
+	 * Adds the characters of the input in the given range.
+	 * 
+	 * @param begin
+	 *            the begin offset (inclusive)
+	 * @param end
+	 *            the end offset (exclusive)
+	 * @return <code>true</code> if the characters were not contained yet.
+	 */
+	public boolean add(int begin, int end) {
+		if (begin < 0 || end < begin || end > input.length()) {
+			throw new IndexOutOfBoundsException("Invalid range [" + begin
+					+ ", " + end + ") of input with length " + input.length());
+		}
+		return add(input, begin, end);
+	}
+
+	/** Adds the characters of the given source in the given range. */
+	private boolean add(CharSequence source, int begin, int end) {
+		int hash = hash(source, begin, end);
+		int mask = slots.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int index = slots[slot];
+			if (index == EMPTY) {
+				slots[slot] = size;
+				append(source, begin, end, hash);
+				return true;
+			}
+			if (hashes[index] == hash && equal(index, source, begin, end)) {
+				return false;
+			}
+		}
+	}
+
+	/** Returns the number of distinct ranges. */
+	public int size() {
+		return size;
+	}
+
+	/** Appends a range and grows the table if it is half full. */
+	private void append(CharSequence source, int begin, int end, int hash) {
+		if (size == begins.length) {
+			sources = Arrays.copyOf(sources, size * 2);
+			begins = Arrays.copyOf(begins, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+			hashes = Arrays.copyOf(hashes, size * 2);
+		}
+		sources[size] = source;
+		begins[size] = begin;
+		ends[size] = end;
+		hashes[size] = hash;
+		size++;
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+	}
+
+	/** Rebuilds the hash table with the given capacity. */
+	private void rehash(int capacity) {
+		slots = newSlots(capacity);
+		int mask = capacity - 1;
+		for (int index = 0; index < size; index++) {
+			int slot = hashes[index] & mask;
+			while (slots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = index;
+		}
+	}
+
+	/** Returns whether the range at the given index has the given characters. */
+	private boolean equal(int index, CharSequence source, int begin, int end) {
+		CharSequence other = sources[index];
+		int otherBegin = begins[index];
+		if (ends[index] - otherBegin != end - begin) {
+			return false;
+		}
+		for (int i = 0; i < end - begin; i++) {
+			if (source.charAt(begin + i) != other.charAt(otherBegin + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Returns the hash code of the range (as {@link String#hashCode()}). */
+	private static int hash(CharSequence source, int begin, int end) {
+		int hash = 0;
+		for (int i = begin; i < end; i++) {
+			hash = 31 * hash + source.charAt(i);
+		}
+		// spread the bits as the table index uses the lower bits only
+		return hash ^ (hash >>> 16);
+	}
+
+	/** Returns a hash table with the given capacity. */
+	private static int[] newSlots(int capacity) {
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, EMPTY);
+		return slots;
+	}
+}
@@ -280,9 +280,10 @@ public final class UnicodeEscapes extends FilterReader {
     return offset + 5 * index;
   }
   
-  /** Resets the stored offsets. */
+  /** Resets the stored offsets and the backslash parity. */
   /*package*/ void resetOffsets () {
   	fatCharacterOffsets.clear ();
+  	even = false;
   }
  
   private int value() {
@@ -0,0 +1,186 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * Caches the contents (and information derived from the contents) of a file.
+ * Blobs are content-addressed. That is, files sharing the same contents
+ * (according to {@link #getId()}) may share the same blob---even across
+ * revisions---such that the contents of a file that did not change between
+ * two revisions are read, decoded, and analyzed only once (see
+ * {@link BlobStore} and {@link VCSEngine#getBlob(VCSFile)}).
+ *
+ * Only information that depends on the contents alone is cached. Whether a
+ * file is binary, for example, depends on its name as well (see
+ * {@link VCSFile#isBinary()}) and, thus, is not cached by a blob.
+ *
+ * The bytes and the decoded text of a blob are softly referenced to avoid an
+ * {@link OutOfMemoryError}. The charset is kept as long as the blob itself is
+ * referenced. Each value is computed by the {@link Loader} passed to the
+ * corresponding getter the first time (or after the value has been garbage
+ * collected) it is requested.
+ */
+public final class Blob {
+
+	/**
+	 * Computes a value of a blob.
+	 *
+	 * @param <T>
+	 *     	The type of the value to compute.
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		/**
+		 * Computes the value.
+		 *
+		 * @return
+		 * 		The computed value.
+		 * @throws IOException
+		 * 		If an error occurred while reading the contents of a file.
+		 */
+		T load() throws IOException;
+	}
+
+	/**
+	 * The id of this blob. Is {@code null} if this blob is not shared.
+	 */
+	private final String id;
+
+	/**
+	 * The contents of this blob.
+	 */
+	private SoftReference<byte[]> bytes = new SoftReference<>(null);
+
+	/**
+	 * The decoded contents of this blob split into lines.
+	 */
+	private SoftReference<TextLines> lines = new SoftReference<>(null);
+
+	/**
+	 * The charset of this blob. Is {@code null} if it has not been computed
+	 * yet.
+	 */
+	private Optional<Charset> charset = null;
+
+	/**
+	 * Creates a blob that is not shared.
+	 */
+	Blob() {
+		id = null;
+	}
+
+	/**
+	 * Creates a blob with given id.
+	 *
+	 * @param pId
+	 * 		The id of the blob to create.
+	 * @throws NullPointerException
+	 * 		If {@code pId} is {@code null}.
+	 */
+	Blob(final String pId) throws NullPointerException {
+		id = Validate.notNull(pId);
+	}
+
+	/**
+	 * Returns the id of this blob. Blobs that are not shared have no id.
+	 *
+	 * @return
+	 * 		The id of this blob.
+	 */
+	public Optional<String> getId() {
+		return Optional.ofNullable(id);
+	}
+
+	/**
+	 * Returns the contents of this blob. Uses {@code pLoader} to read the
+	 * contents if necessary.
+	 *
+	 * @param pLoader
+	 * 		Reads the contents of this blob.
+	 * @return
+	 * 		The contents of this blob.
+	 * @throws NullPointerException
+	 * 		If {@code pLoader} is {@code null} or returns {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the contents.
+	 */
+	public synchronized byte[] readAllBytes(final Loader<byte[]> pLoader)
+			throws NullPointerException, IOException {
+		Validate.notNull(pLoader);
+		byte[] result = bytes.get();
+		if (result == null) {
+			result = Validate.notNull(pLoader.load());
+			bytes = new SoftReference<>(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the contents of this blob unless they are already cached. Allows
+	 * engines to reuse contents that have been read to compute the id of
+	 * this blob.
+	 *
+	 * @param pBytes
+	 * 		The contents of this blob.
+	 * @throws NullPointerException
+	 * 		If {@code pBytes} is {@code null}.
+	 */
+	public synchronized void offerBytes(final byte[] pBytes)
+			throws NullPointerException {
+		Validate.notNull(pBytes);
+		if (bytes.get() == null) {
+			bytes = new SoftReference<>(pBytes);
+		}
+	}
+
+	/**
+	 * Returns the charset of this blob. Uses {@code pLoader} to guess the
+	 * charset if necessary.
+	 *
+	 * @param pLoader
+	 * 		Guesses the charset of this blob.
+	 * @return
+	 * 		The charset of this blob.
+	 * @throws NullPointerException
+	 * 		If {@code pLoader} is {@code null} or returns {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while guessing the charset.
+	 */
+	public synchronized Optional<Charset> guessCharset(
+			final Loader<Optional<Charset>> pLoader)
+			throws NullPointerException, IOException {
+		Validate.notNull(pLoader);
+		if (charset == null) {
+			charset = Validate.notNull(pLoader.load());
+		}
+		return charset;
+	}
+
+	/**
+	 * Returns the decoded contents of this blob split into lines. Uses
+	 * {@code pLoader} to decode the contents if necessary.
+	 *
+	 * @param pLoader
+	 * 		Decodes the contents of this blob.
+	 * @return
+	 * 		The decoded contents of this blob split into lines.
+	 * @throws NullPointerException
+	 * 		If {@code pLoader} is {@code null} or returns {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while decoding the contents.
+	 */
+	synchronized TextLines readLines(final Loader<String> pLoader)
+			throws NullPointerException, IOException {
+		Validate.notNull(pLoader);
+		TextLines result = lines.get();
+		if (result == null) {
+			result = new TextLines(pLoader.load());
+			lines = new SoftReference<>(result);
+		}
+		return result;
+	}
+}
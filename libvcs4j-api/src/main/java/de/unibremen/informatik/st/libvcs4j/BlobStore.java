@@ -0,0 +1,101 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A content-addressed store of {@link Blob} instances. The store is bounded
+ * by the number of blobs it holds. If the capacity is exceeded, the least
+ * recently used blob is evicted. Since the contents of a blob are softly
+ * referenced, the memory used by a store is bounded by the garbage collector
+ * as well. This class is thread-safe.
+ */
+public class BlobStore {
+
+	/**
+	 * The default capacity of a store.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * The maximum number of blobs held by this store.
+	 */
+	private final int capacity;
+
+	/**
+	 * Maps the ids of the blobs to the blobs. Iterates from least recently
+	 * to most recently used blob.
+	 */
+	private final Map<String, Blob> blobs;
+
+	/**
+	 * Creates a store with {@link #DEFAULT_CAPACITY}.
+	 */
+	public BlobStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a store with given capacity.
+	 *
+	 * @param pCapacity
+	 * 		The maximum number of blobs held by the store to create.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pCapacity <= 0}.
+	 */
+	public BlobStore(final int pCapacity) throws IllegalArgumentException {
+		capacity = Validate.isPositive(pCapacity,
+				"Capacity (%d) <= 0", pCapacity);
+		blobs = new LinkedHashMap<String, Blob>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<String, Blob> pEldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the blob with given id. Creates (and stores) a new blob if
+	 * there is no such blob in this store.
+	 *
+	 * @param pId
+	 * 		The id of the blob to return.
+	 * @return
+	 * 		The blob with id {@code pId}.
+	 * @throws NullPointerException
+	 * 		If {@code pId} is {@code null}.
+	 */
+	public synchronized Blob resolve(final String pId)
+			throws NullPointerException {
+		Validate.notNull(pId);
+		return blobs.computeIfAbsent(pId, Blob::new);
+	}
+
+	/**
+	 * Returns the number of blobs held by this store.
+	 *
+	 * @return
+	 * 		The number of blobs held by this store.
+	 */
+	public synchronized int size() {
+		return blobs.size();
+	}
+
+	/**
+	 * Returns the maximum number of blobs held by this store.
+	 *
+	 * @return
+	 * 		The maximum number of blobs held by this store.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Removes all blobs from this store.
+	 */
+	public synchronized void clear() {
+		blobs.clear();
+	}
+}
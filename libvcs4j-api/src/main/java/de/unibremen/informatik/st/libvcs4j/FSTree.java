@@ -2,20 +2,20 @@ package de.unibremen.informatik.st.libvcs4j;
 
 import java.io.File;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -39,6 +39,19 @@ public class FSTree<V> {
 	 */
 	public static final String ROOT_DIRECTORY = "/";
 
+	/**
+	 * The minimum number of (recursively) sub files a tree must contain such
+	 * that {@link #getValue()} aggregates the values of its sub nodes in
+	 * parallel.
+	 */
+	private static final int PARALLELISM_THRESHOLD = 1 << 14;
+
+	/**
+	 * The minimum number of (recursively) sub files a directory must contain
+	 * such that its value is aggregated in a separate fork-join task.
+	 */
+	private static final int FORK_THRESHOLD = 1 << 10;
+
 	/**
 	 * A simple visitor to process {@link FSTree} instances.
 	 *
@@ -95,6 +108,38 @@ public class FSTree<V> {
 		}
 	}
 
+	/**
+	 * Computes the value of a tree (see {@link #getValue()}) within a
+	 * {@link ForkJoinPool}.
+	 *
+	 * @param <E>
+	 * 		The type of the values attached to the files.
+	 */
+	private static class Aggregation<E> extends RecursiveTask<Optional<E>> {
+
+		private static final long serialVersionUID = 1;
+
+		/**
+		 * The tree whose value is computed.
+		 */
+		private final FSTree<E> tree;
+
+		/**
+		 * Creates a task that computes the value of the given tree.
+		 *
+		 * @param pTree
+		 * 		The tree whose value is computed.
+		 */
+		private Aggregation(final FSTree<E> pTree) {
+			tree = pTree;
+		}
+
+		@Override
+		protected Optional<E> compute() {
+			return tree.computeValue(true);
+		}
+	}
+
 	/**
 	 * The parent of a tree. Is {@code null} for the root node.
 	 */
@@ -109,6 +154,13 @@ public class FSTree<V> {
 	 */
 	private final String path;
 
+	/**
+	 * The name of the referenced file or directory. That is, the last segment
+	 * of {@link #path} or, in case of a virtual root node, {@link #path}
+	 * itself.
+	 */
+	private final String name;
+
 	/**
 	 * The referenced file. Is {@code null} if {@link #nodes} is present.
 	 */
@@ -131,6 +183,19 @@ public class FSTree<V> {
 	 */
 	private final BinaryOperator<V> aggregator;
 
+	/**
+	 * The number of (recursively) sub files of this tree. Is {@code 1} if
+	 * this tree is a file. Is updated while a tree is constructed.
+	 */
+	private int numFiles;
+
+	/**
+	 * Caches the result of {@link #getValue()}. Is {@code null} as long as
+	 * the value has not been computed. Since a tree is not modified once it
+	 * has been constructed, the cached value never becomes stale.
+	 */
+	private volatile Optional<V> cachedValue;
+
 	/**
 	 * Creates a file with given parent, {@link VCSFile}, and value function.
 	 *
@@ -148,10 +213,14 @@ public class FSTree<V> {
 			final Function<VCSFile, V> pValueOf) {
 		parent = pParent;
 		file = Validate.notNull(pFile);
-		path = file.toRelativePath().toString();
+		final Path relativePath = file.toRelativePath();
+		path = relativePath.toString();
+		final Path fileName = relativePath.getFileName();
+		name = fileName == null ? path : fileName.toString();
 		value = Validate.notNull(pValueOf).apply(file);
 		nodes = null;
 		aggregator = null;
+		numFiles = 1;
 	}
 
 	/**
@@ -163,16 +232,20 @@ public class FSTree<V> {
 	 * 		nodes.
 	 * @param pPath
 	 *      The relative path of the directory to create.
+	 * @param pName
+	 * 		The name of the directory to create.
 	 * @param pAggregator
 	 * 		The aggregation function used to calculate the value of a
 	 * 		directory. The function must not handle {@code null} values.
 	 * @throws NullPointerException
-	 *      If {@code pPath} or {@code pAggregator} is {@code null}.
+	 *      If {@code pPath}, {@code pName}, or {@code pAggregator} is
+	 *      {@code null}.
 	 */
 	private FSTree(final FSTree<V> pParent, final String pPath,
-			final BinaryOperator<V> pAggregator) {
+			final String pName, final BinaryOperator<V> pAggregator) {
 		parent = pParent;
 		path = Validate.notNull(pPath);
+		name = Validate.notNull(pName);
 		nodes = new ArrayList<>();
 		aggregator = Validate.notNull(pAggregator);
 		file = null;
@@ -182,7 +255,10 @@ public class FSTree<V> {
 	/**
 	 * Creates a tree from the given list of {@link VCSFile} instances.
 	 * {@code null} values and duplicates (according to
-	 * {@link Object#equals(Object)}) are filtered.
+	 * {@link Object#equals(Object)}) are filtered. The tree is built as a
+	 * trie over the (shared) segments of the relative path of each file.
+	 * Thus, inserting a file costs O(depth). Files whose path points "into"
+	 * another file (e.g., "A.java/B.java") are filtered as well.
 	 *
 	 * @param pFiles
 	 * 		The files to create the tree from.
@@ -191,7 +267,8 @@ public class FSTree<V> {
 	 * 		may return {@code null}.
 	 * @param pAggregator
 	 * 		The aggregation function used to calculate the value of a
-	 * 		directory. The function must not handle {@code null} values.
+	 * 		directory. The function must not handle {@code null} values and
+	 * 		should be associative (see {@link #getValue()}).
 	 * @param <V>
 	 *     	The type of the values attached to files.
 	 * @return
@@ -207,57 +284,77 @@ public class FSTree<V> {
 		Validate.notNull(pValueOf);
 		Validate.notNull(pAggregator);
 
-		final Set<FSTree<V>> treesWithoutParent = new HashSet<>();
-		final Map<String, FSTree<V>> cache = new HashMap<>();
-		pFiles.stream().filter(Objects::nonNull).distinct().forEach(f -> {
+		// Maps the names of the nodes without parent to the corresponding
+		// node.
+		final Map<String, FSTree<V>> treesWithoutParent = new LinkedHashMap<>();
+		// Maps each directory to the names of its sub nodes.
+		final Map<FSTree<V>, Map<String, FSTree<V>>> subNodes =
+				new IdentityHashMap<>();
+		// Equal directory names share the same string instance.
+		final Map<String, String> segments = new HashMap<>();
+		files:
+		for (final VCSFile f : pFiles) {
+			if (f == null) {
+				continue;
+			}
 			// (1) "home/user/file.txt" -> "home", "user", "file.txt"
 			final Path relativePath = f.toRelativePath();
-			final List<String> parts = new ArrayList<>();
-			relativePath.forEach(p -> parts.add(p.toString()));
+			final int depth = relativePath.getNameCount();
 
 			// (2) For each directory ("home", "user")...
 			FSTree<V> parent = null;
-			for (int i = 0; i < parts.size() - 1; i++) {
-				final String path = String.join(
-						File.separator, parts.subList(0, i + 1));
-				FSTree<V> dir = cache.get(path);
+			Map<String, FSTree<V>> siblings = treesWithoutParent;
+			for (int i = 0; i < depth - 1; i++) {
+				final String segment = segments.computeIfAbsent(
+						relativePath.getName(i).toString(),
+						Function.identity());
+				FSTree<V> dir = siblings.get(segment);
 				if (dir == null) {
-					dir = new FSTree<>(parent, path, pAggregator);
-					cache.put(path, dir);
+					final String path = parent == null
+							? segment
+							: parent.path + File.separator + segment;
+					dir = new FSTree<>(parent, path, segment, pAggregator);
+					siblings.put(segment, dir);
 					if (parent != null) {
 						parent.nodes.add(dir);
 					}
-				}
-				if (parent == null) {
-					treesWithoutParent.add(dir);
+				} else if (dir.isFile()) {
+					continue files;
 				}
 				parent = dir;
+				siblings = subNodes.computeIfAbsent(
+						dir, d -> new HashMap<>());
 			}
 
-			// (3) Add file ("file.txt").
-			final String relativePathStr = relativePath.toString();
-			FSTree<V> file = cache.get(relativePathStr);
-			if (file == null) {
-				file = new FSTree<>(parent, f, pValueOf);
-				cache.put(relativePathStr, file);
+			// (3) Add file ("file.txt") unless there already is a file or
+			// directory with the same path.
+			final String fileName = relativePath.getName(depth - 1)
+					.toString();
+			if (!siblings.containsKey(fileName)) {
+				final FSTree<V> file = new FSTree<>(parent, f, pValueOf);
+				siblings.put(fileName, file);
 				if (parent != null) {
 					parent.nodes.add(file);
 				}
+				for (FSTree<V> dir = parent; dir != null; dir = dir.parent) {
+					dir.numFiles++;
+				}
 			}
-			if (parent == null) {
-				treesWithoutParent.add(file);
-			}
-		});
+		}
 
 		if (treesWithoutParent.isEmpty()) {
-			return new FSTree<>(null, EMPTY_DIRECTORY, pAggregator);
+			return new FSTree<>(null, EMPTY_DIRECTORY, EMPTY_DIRECTORY,
+					pAggregator);
 		} else if (treesWithoutParent.size() > 1) {
 			final FSTree<V> root = new FSTree<>(
-					null, ROOT_DIRECTORY, pAggregator);
-			root.nodes.addAll(treesWithoutParent);
+					null, ROOT_DIRECTORY, ROOT_DIRECTORY, pAggregator);
+			treesWithoutParent.values().forEach(tree -> {
+				root.nodes.add(tree);
+				root.numFiles += tree.numFiles;
+			});
 			return root;
 		} else {
-			return treesWithoutParent.iterator().next();
+			return treesWithoutParent.values().iterator().next();
 		}
 	}
 
@@ -308,9 +405,7 @@ public class FSTree<V> {
 	 * 		The name of this file or directory.
 	 */
 	public String getName() {
-		return isVirtualRoot()
-				? path
-				: Paths.get(path).getFileName().toString();
+		return name;
 	}
 
 	/**
@@ -333,26 +428,70 @@ public class FSTree<V> {
 	 * 		(recursively) sub files. If this file has no value (or this
 	 * 		directory contains only files without a value), an empty
 	 * 		{@link Optional} is returned.
+	 *
+	 * The value of a directory is computed bottom-up by aggregating the
+	 * values of its sub nodes from left to right, which is why the
+	 * aggregation function should be associative. The values of large trees
+	 * are aggregated in parallel using the common {@link ForkJoinPool}. Once
+	 * computed, the value is cached.
 	 */
 	public Optional<V> getValue() {
-		final List<V> values = new ArrayList<>();
-		final Visitor<V> visitor = new Visitor<V>() {
-			@Override
-			protected void visitFile(final FSTree<V> pTree) {
-				if (pTree.value != null) {
-					values.add(pTree.value);
+		final Optional<V> cached = cachedValue;
+		if (cached != null) {
+			return cached;
+		}
+		return numFiles >= PARALLELISM_THRESHOLD
+				? ForkJoinPool.commonPool().invoke(new Aggregation<>(this))
+				: computeValue(false);
+	}
+
+	/**
+	 * Computes (and caches) the result of {@link #getValue()} bottom-up. If
+	 * {@code pFork} is {@code true}, the values of large sub directories are
+	 * computed in separate fork-join tasks.
+	 *
+	 * @param pFork
+	 * 		Whether to fork tasks for large sub directories. Must only be
+	 * 		{@code true} if this method is called from within a
+	 * 		{@link ForkJoinPool}.
+	 * @return
+	 * 		The value of this tree.
+	 */
+	private Optional<V> computeValue(final boolean pFork) {
+		Optional<V> result = cachedValue;
+		if (result != null) {
+			return result;
+		}
+		if (isFile()) {
+			result = Optional.ofNullable(value);
+		} else {
+			final Queue<Aggregation<V>> forked = new ArrayDeque<>();
+			if (pFork) {
+				for (final FSTree<V> node : nodes) {
+					if (node.isDirectory() && node.numFiles >= FORK_THRESHOLD) {
+						final Aggregation<V> task = new Aggregation<>(node);
+						task.fork();
+						forked.add(task);
+					}
 				}
-				super.visitFile(pTree);
 			}
-		};
-		visitor.visit(this);
-		if (values.isEmpty()) {
-			return Optional.empty();
-		} else if (values.size() == 1) {
-			return Optional.ofNullable(values.get(0));
-		} else {
-			return values.stream().reduce(aggregator);
+			// Aggregate from left to right to preserve the order of values.
+			V aggregated = null;
+			for (final FSTree<V> node : nodes) {
+				final Optional<V> nodeValue =
+						!forked.isEmpty() && forked.peek().tree == node
+								? forked.poll().join()
+								: node.computeValue(pFork);
+				if (nodeValue.isPresent()) {
+					aggregated = aggregated == null
+							? nodeValue.get()
+							: aggregator.apply(aggregated, nodeValue.get());
+				}
+			}
+			result = Optional.ofNullable(aggregated);
 		}
+		cachedValue = result;
+		return result;
 	}
 
 	/**
@@ -544,11 +683,10 @@ public class FSTree<V> {
 				&& current.nodes.get(0).isDirectory()) {
 			current = current.nodes.get(0);
 		}
-		final String path = current.path;
 		final T value = current.value;
-		final BinaryOperator<T> aggregator = current.aggregator;
 		final FSTree<T> compacted = current.isDirectory()
-				? new FSTree<>(pParent, path, aggregator)
+				? new FSTree<>(pParent, current.path, current.name,
+						current.aggregator)
 				: new FSTree<>(pParent, current.file, f -> value);
 
 		// Compact sub nodes in case of a directory. Ignore empty directories.
@@ -558,9 +696,12 @@ public class FSTree<V> {
 				final FSTree<T> compactedNode = compact(node, compacted);
 				if (compactedNode.isFile() || !compactedNode.nodes.isEmpty()) {
 					compacted.nodes.add(compactedNode);
+					compacted.numFiles += compactedNode.numFiles;
 				}
 			});
 		}
+		// Empty directories do not contribute to the value of a directory.
+		compacted.cachedValue = current.cachedValue;
 
 		return compacted;
 	}
@@ -0,0 +1,518 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a list of {@link FileChange}s in compact form. Each distinct relative
+ * path is stored only once in a path table. A file change consists of the
+ * index of its old and new path into the path table. Its type is derived from
+ * the indices (see {@link FileChange#getType()}). {@link FileChange} and
+ * {@link VCSFile} instances are created on first access with the
+ * {@link VCSModelFactory} of the engine and are cached afterwards. Hence,
+ * clients that access only a few file changes of a large list (for example,
+ * with {@link #filterByPath(Predicate)}) create only a few objects. New files
+ * are the instances returned by {@link Revision#getFiles()} of the "to"
+ * revision.
+ *
+ * In contrast to {@link PackedRanges}, file change lists are modifiable. The
+ * first modification materializes all file changes into a private list that
+ * replaces the compact form of the modified instance. {@link #copy()} creates
+ * a list that shares the compact form and the cached file changes with this
+ * list. File change lists are created with {@link Builder}.
+ */
+public final class FileChangeList extends AbstractList<FileChange>
+		implements RandomAccess {
+
+	/**
+	 * The compact form of the file changes. Shared by copies and filtered
+	 * views.
+	 */
+	private static final class Table {
+
+		/**
+		 * The "from" revision the old files belong to.
+		 */
+		private final Revision oldRevision;
+
+		/**
+		 * The "to" revision the new files belong to.
+		 */
+		private final Revision newRevision;
+
+		private final VCSEngine engine;
+
+		/**
+		 * The relative paths of the path table.
+		 */
+		private final String[] paths;
+
+		/**
+		 * The index into the path table of the old file of each file
+		 * change. Is {@code -1} if a file change has no old file.
+		 */
+		private final int[] oldPaths;
+
+		/**
+		 * The index into the path table of the new file of each file
+		 * change. Is {@code -1} if a file change has no new file.
+		 */
+		private final int[] newPaths;
+
+		/**
+		 * The materialized file changes.
+		 */
+		private final AtomicReferenceArray<FileChange> cache;
+
+		/**
+		 * Maps the relative paths of the files of {@link #newRevision} to
+		 * the files (see {@link Revision#getFiles()}). Is used only if
+		 * {@link #newRevision} is not a {@link LazyRevision}. Is {@code null}
+		 * as long as no new file has been materialized.
+		 */
+		private Map<String, VCSFile> newFiles = null;
+
+		private Table(final Revision pOldRevision,
+				final Revision pNewRevision, final VCSEngine pEngine,
+				final String[] pPaths, final int[] pOldPaths,
+				final int[] pNewPaths) {
+			oldRevision = pOldRevision;
+			newRevision = pNewRevision;
+			engine = pEngine;
+			paths = pPaths;
+			oldPaths = pOldPaths;
+			newPaths = pNewPaths;
+			cache = new AtomicReferenceArray<>(pOldPaths.length);
+		}
+
+		private FileChange materialize(final int pEntry) {
+			final FileChange cached = cache.get(pEntry);
+			if (cached != null) {
+				return cached;
+			}
+			final VCSModelFactory factory = engine.getModelFactory();
+			final VCSFile oldFile = oldPaths[pEntry] < 0 ? null
+					: factory.createVCSFile(paths[oldPaths[pEntry]],
+							oldRevision, engine);
+			final VCSFile newFile = newPaths[pEntry] < 0 ? null
+					: newFileOf(paths[newPaths[pEntry]]);
+			// Concurrent readers must observe the same instance.
+			cache.compareAndSet(pEntry, null,
+					factory.createFileChange(oldFile, newFile, engine));
+			return cache.get(pEntry);
+		}
+
+		/**
+		 * Returns the file of {@link #newRevision} located at the given
+		 * path. New files are taken from {@link #newRevision} such that a
+		 * file change and its revision share the same instance. If
+		 * {@link #newRevision} is a {@link LazyRevision}, only the requested
+		 * file is created. Otherwise, {@link Revision#getFiles()} is mapped
+		 * once. Falls back to {@link VCSModelFactory#createVCSFile(String,
+		 * Revision, VCSEngine)} if the revision has no such file.
+		 *
+		 * @param pPath
+		 * 		The relative path of the file.
+		 * @return
+		 * 		The file located at {@code pPath}.
+		 */
+		private synchronized VCSFile newFileOf(final String pPath) {
+			if (newRevision instanceof LazyRevision) {
+				final VCSFile file =
+						((LazyRevision) newRevision).getFile(pPath);
+				if (file != null) {
+					return file;
+				}
+			}
+			if (newFiles == null) {
+				newFiles = new HashMap<>();
+				if (!(newRevision instanceof LazyRevision)) {
+					newRevision.getFiles().forEach(f ->
+							newFiles.put(f.getRelativePath(), f));
+				}
+			}
+			return newFiles.computeIfAbsent(pPath, p -> engine
+					.getModelFactory().createVCSFile(p, newRevision, engine));
+		}
+
+		private FileChange.Type typeOf(final int pEntry) {
+			if (oldPaths[pEntry] < 0) {
+				return FileChange.Type.ADD;
+			}
+			if (newPaths[pEntry] < 0) {
+				return FileChange.Type.REMOVE;
+			}
+			return oldPaths[pEntry] == newPaths[pEntry]
+					? FileChange.Type.MODIFY : FileChange.Type.RELOCATE;
+		}
+	}
+
+	private final Table table;
+
+	/**
+	 * The entries of {@link #table} contained in this list. Is {@code null}
+	 * if this list contains all entries.
+	 */
+	private final int[] selection;
+
+	/**
+	 * The file changes of this list after the first modification. Is
+	 * {@code null} as long as this list has not been modified.
+	 */
+	private List<FileChange> modified;
+
+	private FileChangeList(final Table pTable, final int[] pSelection,
+			final List<FileChange> pModified) {
+		table = pTable;
+		selection = pSelection;
+		modified = pModified;
+	}
+
+	@Override
+	public int size() {
+		if (modified != null) {
+			return modified.size();
+		}
+		return selection == null ? table.oldPaths.length : selection.length;
+	}
+
+	@Override
+	public FileChange get(final int pIndex)
+			throws IndexOutOfBoundsException {
+		if (modified != null) {
+			return modified.get(pIndex);
+		}
+		return table.materialize(entryOf(pIndex));
+	}
+
+	@Override
+	public FileChange set(final int pIndex, final FileChange pChange)
+			throws IndexOutOfBoundsException {
+		return modifiable().set(pIndex, pChange);
+	}
+
+	@Override
+	public void add(final int pIndex, final FileChange pChange)
+			throws IndexOutOfBoundsException {
+		modifiable().add(pIndex, pChange);
+		modCount++;
+	}
+
+	@Override
+	public FileChange remove(final int pIndex)
+			throws IndexOutOfBoundsException {
+		final FileChange change = modifiable().remove(pIndex);
+		modCount++;
+		return change;
+	}
+
+	/**
+	 * Returns the type of the file change at the given index without
+	 * creating any {@link FileChange} or {@link VCSFile}.
+	 *
+	 * @param pIndex
+	 * 		The index of the file change.
+	 * @return
+	 * 		The type of the file change.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public FileChange.Type getType(final int pIndex)
+			throws IndexOutOfBoundsException {
+		if (modified != null) {
+			return modified.get(pIndex).getType();
+		}
+		return table.typeOf(entryOf(pIndex));
+	}
+
+	/**
+	 * Returns the relative path of the old file of the file change at the
+	 * given index without creating any {@link FileChange} or
+	 * {@link VCSFile}.
+	 *
+	 * @param pIndex
+	 * 		The index of the file change.
+	 * @return
+	 * 		The relative path of the old file or an empty {@link Optional} if
+	 * 		the file change has no old file.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public Optional<String> getOldPath(final int pIndex)
+			throws IndexOutOfBoundsException {
+		if (modified != null) {
+			return modified.get(pIndex).getOldFile()
+					.map(VCSFile::getRelativePath);
+		}
+		final int path = table.oldPaths[entryOf(pIndex)];
+		return path < 0 ? Optional.empty() : Optional.of(table.paths[path]);
+	}
+
+	/**
+	 * Returns the relative path of the new file of the file change at the
+	 * given index without creating any {@link FileChange} or
+	 * {@link VCSFile}.
+	 *
+	 * @param pIndex
+	 * 		The index of the file change.
+	 * @return
+	 * 		The relative path of the new file or an empty {@link Optional} if
+	 * 		the file change has no new file.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public Optional<String> getNewPath(final int pIndex)
+			throws IndexOutOfBoundsException {
+		if (modified != null) {
+			return modified.get(pIndex).getNewFile()
+					.map(VCSFile::getRelativePath);
+		}
+		final int path = table.newPaths[entryOf(pIndex)];
+		return path < 0 ? Optional.empty() : Optional.of(table.paths[path]);
+	}
+
+	/**
+	 * Returns a new list containing the file changes of this list whose old
+	 * or new relative path matches {@code pPredicate}. Unless this list has
+	 * been modified, the paths are tested on the path table, that is, the
+	 * predicate is applied at most once per distinct path and file changes are
+	 * created for matching entries only (and only on access).
+	 *
+	 * @param pPredicate
+	 * 		The predicate to test the relative paths with.
+	 * @return
+	 * 		A new list containing the matching file changes.
+	 * @throws NullPointerException
+	 * 		If {@code pPredicate} is {@code null}.
+	 */
+	public FileChangeList filterByPath(final Predicate<String> pPredicate)
+			throws NullPointerException {
+		Validate.notNull(pPredicate);
+		if (modified != null) {
+			return filterModified(fc -> fc.getOldFile()
+					.map(VCSFile::getRelativePath)
+					.map(pPredicate::test)
+					.orElse(false) || fc.getNewFile()
+					.map(VCSFile::getRelativePath)
+					.map(pPredicate::test)
+					.orElse(false));
+		}
+		// 0: not tested yet, 1: matches, 2: does not match
+		final byte[] matches = new byte[table.paths.length];
+		return filterEntries(entry -> matches(table.oldPaths[entry],
+				pPredicate, matches) || matches(table.newPaths[entry],
+				pPredicate, matches));
+	}
+
+	/**
+	 * Returns a new list containing the file changes of this list that have
+	 * the given type. Unless this list has been modified, no file change is
+	 * created.
+	 *
+	 * @param pType
+	 * 		The type of the file changes to return.
+	 * @return
+	 * 		A new list containing the file changes of type {@code pType}.
+	 * @throws NullPointerException
+	 * 		If {@code pType} is {@code null}.
+	 */
+	public FileChangeList filterByType(final FileChange.Type pType)
+			throws NullPointerException {
+		Validate.notNull(pType);
+		if (modified != null) {
+			return filterModified(fc -> fc.getType() == pType);
+		}
+		return filterEntries(entry -> table.typeOf(entry) == pType);
+	}
+
+	/**
+	 * Creates a copy of this list. Unless this list has been modified, the
+	 * copy shares the compact form and the created file changes with this
+	 * list. Modifications of the copy do not affect this list and vice
+	 * versa.
+	 *
+	 * @return
+	 * 		A copy of this list.
+	 */
+	public FileChangeList copy() {
+		return new FileChangeList(table, selection,
+				modified == null ? null : new ArrayList<>(modified));
+	}
+
+	private int entryOf(final int pIndex) {
+		Objects.checkIndex(pIndex, size());
+		return selection == null ? pIndex : selection[pIndex];
+	}
+
+	private List<FileChange> modifiable() {
+		if (modified == null) {
+			final List<FileChange> changes = new ArrayList<>(size());
+			for (int i = 0; i < size(); i++) {
+				changes.add(table.materialize(entryOf(i)));
+			}
+			modified = changes;
+		}
+		return modified;
+	}
+
+	private FileChangeList filterEntries(final EntryPredicate pPredicate) {
+		final int[] entries = new int[size()];
+		int size = 0;
+		for (int i = 0; i < entries.length; i++) {
+			final int entry = entryOf(i);
+			if (pPredicate.test(entry)) {
+				entries[size++] = entry;
+			}
+		}
+		return new FileChangeList(table, Arrays.copyOf(entries, size), null);
+	}
+
+	private FileChangeList filterModified(
+			final Predicate<FileChange> pPredicate) {
+		return new FileChangeList(table, new int[0], modified.stream()
+				.filter(pPredicate)
+				.collect(Collectors.toList()));
+	}
+
+	private boolean matches(final int pPath,
+			final Predicate<String> pPredicate, final byte[] pMatches) {
+		if (pPath < 0) {
+			return false;
+		}
+		if (pMatches[pPath] == 0) {
+			pMatches[pPath] = (byte) (pPredicate.test(table.paths[pPath])
+					? 1 : 2);
+		}
+		return pMatches[pPath] == 1;
+	}
+
+	/**
+	 * A predicate on the entries of a {@link Table}.
+	 */
+	@FunctionalInterface
+	private interface EntryPredicate {
+		boolean test(int pEntry);
+	}
+
+	/**
+	 * Creates {@link FileChangeList} instances. Relative paths are interned
+	 * such that each distinct path is stored only once.
+	 */
+	public static final class Builder {
+
+		private final Revision oldRevision;
+		private final Revision newRevision;
+		private final VCSEngine engine;
+
+		/**
+		 * Maps the relative paths of the path table to their index.
+		 */
+		private final Map<String, Integer> indices = new HashMap<>();
+
+		private final List<String> paths = new ArrayList<>();
+
+		private int[] oldPaths = new int[8];
+		private int[] newPaths = new int[8];
+
+		/**
+		 * The number of added file changes.
+		 */
+		private int size = 0;
+
+		/**
+		 * Creates a builder for file changes between the given revisions.
+		 *
+		 * @param pOldRevision
+		 * 		The revision of the old files. May be {@code null} if only
+		 * 		additions are added.
+		 * @param pNewRevision
+		 * 		The revision of the new files.
+		 * @param pEngine
+		 * 		The engine used to create file changes and files.
+		 * @throws NullPointerException
+		 * 		If {@code pNewRevision} or {@code pEngine} is {@code null}.
+		 */
+		public Builder(final Revision pOldRevision,
+				final Revision pNewRevision, final VCSEngine pEngine)
+				throws NullPointerException {
+			oldRevision = pOldRevision;
+			newRevision = Validate.notNull(pNewRevision);
+			engine = Validate.notNull(pEngine);
+		}
+
+		/**
+		 * Adds a file change with given old and new relative path. The type
+		 * of the file change is derived from the paths (see
+		 * {@link FileChange#getType()}).
+		 *
+		 * @param pOldPath
+		 * 		The relative path of the old file. {@code null} for additions.
+		 * @param pNewPath
+		 * 		The relative path of the new file. {@code null} for removals.
+		 * @return
+		 * 		This builder.
+		 * @throws IllegalArgumentException
+		 * 		If both paths are {@code null} or if {@code pOldPath} is not
+		 * 		{@code null}, but this builder has no old revision.
+		 */
+		public Builder add(final String pOldPath, final String pNewPath)
+				throws IllegalArgumentException {
+			Validate.isFalse(pOldPath == null && pNewPath == null,
+					"At least one of the given paths must not be null");
+			Validate.isTrue(pOldPath == null || oldRevision != null,
+					"There is no old revision for '%s'", pOldPath);
+			if (size == oldPaths.length) {
+				oldPaths = Arrays.copyOf(oldPaths, size * 2);
+				newPaths = Arrays.copyOf(newPaths, size * 2);
+			}
+			oldPaths[size] = indexOf(pOldPath);
+			newPaths[size] = indexOf(pNewPath);
+			size++;
+			return this;
+		}
+
+		/**
+		 * Returns the number of added file changes.
+		 *
+		 * @return
+		 * 		The number of added file changes.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Creates a file change list containing the file changes added so
+		 * far.
+		 *
+		 * @return
+		 * 		The created file change list.
+		 */
+		public FileChangeList build() {
+			return new FileChangeList(new Table(oldRevision, newRevision,
+					engine, paths.toArray(new String[0]),
+					Arrays.copyOf(oldPaths, size),
+					Arrays.copyOf(newPaths, size)), null, null);
+		}
+
+		private int indexOf(final String pPath) {
+			if (pPath == null) {
+				return -1;
+			}
+			return indices.computeIfAbsent(pPath, __ -> {
+				paths.add(pPath);
+				return paths.size() - 1;
+			});
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+/**
+ * Receives measurements of a {@link VCSEngine} (see
+ * {@link VCSEngine#addInstrumentationListener(InstrumentationListener)}).
+ * Allows to find out where mining time goes and to detect performance
+ * regressions. All methods have an empty default implementation such that
+ * listeners may implement the methods they are interested in only.
+ *
+ * Listeners are notified synchronously by the thread performing the measured
+ * operation. Stateless operations (see Note 2 of {@link VCSEngine}) may be
+ * called by multiple threads concurrently. Hence, implementations must be
+ * thread-safe and should return quickly.
+ */
+public interface InstrumentationListener {
+
+	/**
+	 * The measured phases of a {@link VCSEngine}.
+	 */
+	enum Phase {
+
+		/**
+		 * Checking out a revision.
+		 */
+		CHECKOUT,
+
+		/**
+		 * Computing the changes between two revisions.
+		 */
+		CREATE_CHANGES,
+
+		/**
+		 * Post-processing (mapping and filtering) the computed changes.
+		 */
+		MAP_CHANGES,
+
+		/**
+		 * Listing the files of a revision (see
+		 * {@link VCSEngine#listFilesInOutput()}).
+		 */
+		LIST_FILES,
+
+		/**
+		 * Reading the meta data of a commit.
+		 */
+		CREATE_COMMIT,
+
+		/**
+		 * Looking up the issues of a commit (see {@link ITEngine}).
+		 */
+		ISSUE_LOOKUP,
+
+		/**
+		 * Reading the contents of a file (see
+		 * {@link VCSEngine#readAllBytes(VCSFile)}).
+		 */
+		READ_ALL_BYTES,
+
+		/**
+		 * Reading the line information of a file (see
+		 * {@link VCSEngine#readLineInfo(VCSFile)}).
+		 */
+		READ_LINE_INFO,
+
+		/**
+		 * Computing the line changes of a file change (see
+		 * {@link VCSEngine#computeDiff(FileChange)}).
+		 */
+		COMPUTE_DIFF
+	}
+
+	/**
+	 * The counters of a {@link VCSEngine}.
+	 */
+	enum Counter {
+
+		/**
+		 * The number of bytes read by
+		 * {@link VCSEngine#readAllBytes(VCSFile)}.
+		 */
+		BYTES_READ,
+
+		/**
+		 * The number of files changed (added, removed, modified, or
+		 * relocated) by the extracted revision ranges.
+		 */
+		FILES_TOUCHED
+	}
+
+	/**
+	 * Called when {@code engine} completed a phase, regardless of whether
+	 * the phase completed normally or with an exception.
+	 *
+	 * @param engine
+	 * 		The measured engine.
+	 * @param phase
+	 * 		The completed phase.
+	 * @param nanos
+	 * 		The duration of the phase in nanoseconds.
+	 */
+	default void phaseCompleted(final VCSEngine engine, final Phase phase,
+			final long nanos) {}
+
+	/**
+	 * Called when {@code engine} incremented a counter.
+	 *
+	 * @param engine
+	 * 		The measured engine.
+	 * @param counter
+	 * 		The incremented counter.
+	 * @param delta
+	 * 		The (non-negative) increment.
+	 */
+	default void counterIncremented(final VCSEngine engine,
+			final Counter counter, final long delta) {}
+
+	/**
+	 * Called when {@code engine} has no more revision ranges to extract,
+	 * that is, when {@link VCSEngine#next()} returns an empty
+	 * {@link java.util.Optional} for the first time.
+	 *
+	 * @param engine
+	 * 		The measured engine.
+	 */
+	default void engineFinished(final VCSEngine engine) {}
+}
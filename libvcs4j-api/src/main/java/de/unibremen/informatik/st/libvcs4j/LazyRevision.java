@@ -0,0 +1,159 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link Revision} created by
+ * {@link VCSModelFactory#createRevision(String, List, VCSEngine)}. Stores the
+ * relative paths of its files only. A {@link VCSFile} is created on first
+ * access, either by {@link #getFiles()} or by {@link #getFile(String)}, and
+ * is memoized afterwards. Thus, {@link FileChangeList} and
+ * {@link #getFiles()} share the same instances without creating the files of
+ * paths that are never accessed.
+ */
+final class LazyRevision implements Revision {
+
+	/**
+	 * The id of this revision.
+	 */
+	private final String id;
+
+	/**
+	 * The relative paths of the files of this revision.
+	 */
+	private final String[] paths;
+
+	/**
+	 * The factory used to create the files of this revision.
+	 */
+	private final VCSModelFactory factory;
+
+	/**
+	 * The engine of this revision.
+	 */
+	private final VCSEngine engine;
+
+	/**
+	 * The files created so far (by index into {@link #paths}).
+	 */
+	private final VCSFile[] files;
+
+	/**
+	 * An open addressing hash table mapping the hash of a path to its index
+	 * into {@link #paths} plus one ({@code 0} marks an empty slot). Its
+	 * length is a power of two. Is {@code null} as long as
+	 * {@link #getFile(String)} has not been called.
+	 */
+	private int[] indices = null;
+
+	/**
+	 * Creates a revision with given id and files.
+	 *
+	 * @param pId
+	 * 		The id of the revision to create.
+	 * @param pPaths
+	 * 		The relative paths of the files of the revision to create. Must
+	 * 		not contain {@code null} values.
+	 * @param pFactory
+	 * 		The factory used to create the files.
+	 * @param pEngine
+	 * 		The engine of the revision to create.
+	 */
+	LazyRevision(final String pId, final List<String> pPaths,
+			final VCSModelFactory pFactory, final VCSEngine pEngine) {
+		id = pId;
+		paths = pPaths.toArray(new String[0]);
+		factory = pFactory;
+		engine = pEngine;
+		files = new VCSFile[paths.length];
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public synchronized List<VCSFile> getFiles() {
+		final List<VCSFile> result = new ArrayList<>(paths.length);
+		for (int i = 0; i < paths.length; i++) {
+			result.add(fileAt(i));
+		}
+		return result;
+	}
+
+	@Override
+	public VCSEngine getVCSEngine() {
+		return engine;
+	}
+
+	/**
+	 * Returns the file located at the given relative path. Creates only the
+	 * requested file.
+	 *
+	 * @param pPath
+	 * 		The relative path of the file.
+	 * @return
+	 * 		The file located at {@code pPath}, or {@code null} if this
+	 * 		revision has no such file.
+	 */
+	synchronized VCSFile getFile(final String pPath) {
+		if (indices == null) {
+			indices = createIndices();
+		}
+		final int mask = indices.length - 1;
+		for (int slot = pPath.hashCode() & mask; indices[slot] != 0;
+				slot = (slot + 1) & mask) {
+			final int index = indices[slot] - 1;
+			if (paths[index].equals(pPath)) {
+				return fileAt(index);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the file at the given index into {@link #paths}. Creates the
+	 * file if necessary.
+	 *
+	 * @param pIndex
+	 * 		The index of the file.
+	 * @return
+	 * 		The file at {@code pIndex}.
+	 */
+	private VCSFile fileAt(final int pIndex) {
+		if (files[pIndex] == null) {
+			files[pIndex] = factory.createVCSFile(paths[pIndex], this, engine);
+		}
+		return files[pIndex];
+	}
+
+	/**
+	 * Creates the hash table of {@link #indices}. The load factor is at most
+	 * 0.5.
+	 *
+	 * @return
+	 * 		The created hash table.
+	 */
+	private int[] createIndices() {
+		final int capacity = Integer.highestOneBit(
+				Math.max(paths.length, 1) * 2 - 1) * 2;
+		final int[] table = new int[capacity];
+		final int mask = capacity - 1;
+		for (int i = 0; i < paths.length; i++) {
+			int slot = paths[i].hashCode() & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i + 1;
+		}
+		return table;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Revision(id=%s, output=%s, files=%d)",
+				getId(), getOutput().toString(), paths.length);
+	}
+}
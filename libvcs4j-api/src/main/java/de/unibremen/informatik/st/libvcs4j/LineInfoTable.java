@@ -0,0 +1,388 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Stores the {@link LineInfo} of all lines of a {@link VCSFile} in columnar
+ * form. The commit information (id, author, message, and datetime) of each
+ * distinct commit is stored only once in a commit table. Each line refers to
+ * its commit by index. This way, the memory used by a table depends on the
+ * number of lines and the number of distinct commits rather than on the
+ * product of both.
+ *
+ * Tables are unmodifiable lists whose elements are lightweight views that
+ * are created on first access. Subsequent calls of {@link #get(int)} return
+ * the same view. Tables are created with {@link Builder}.
+ */
+public final class LineInfoTable extends AbstractList<LineInfo>
+		implements RandomAccess {
+
+	/**
+	 * The file the lines belong to.
+	 */
+	private final VCSFile file;
+
+	/**
+	 * The engine used to create the lines.
+	 */
+	private final VCSEngine engine;
+
+	/**
+	 * The ids of the commit table.
+	 */
+	private final String[] ids;
+
+	/**
+	 * The authors of the commit table.
+	 */
+	private final String[] authors;
+
+	/**
+	 * The messages of the commit table.
+	 */
+	private final String[] messages;
+
+	/**
+	 * The datetimes of the commit table.
+	 */
+	private final LocalDateTime[] dateTimes;
+
+	/**
+	 * The commit (index into the commit table) of each line.
+	 */
+	private final int[] commits;
+
+	/**
+	 * The line number of each line.
+	 */
+	private final int[] lines;
+
+	/**
+	 * The content of each line.
+	 */
+	private final String[] contents;
+
+	/**
+	 * The views created so far (by index). Lazily initialized.
+	 */
+	private LineInfo[] views;
+
+	private LineInfoTable(final Builder pBuilder) {
+		file = pBuilder.file;
+		engine = pBuilder.engine;
+		final int numCommits = pBuilder.ids.size();
+		ids = pBuilder.ids.toArray(new String[numCommits]);
+		authors = pBuilder.authors.toArray(new String[numCommits]);
+		messages = pBuilder.messages.toArray(new String[numCommits]);
+		dateTimes = pBuilder.dateTimes.toArray(
+				new LocalDateTime[numCommits]);
+		commits = Arrays.copyOf(pBuilder.commits, pBuilder.size);
+		lines = Arrays.copyOf(pBuilder.lines, pBuilder.size);
+		contents = Arrays.copyOf(pBuilder.contents, pBuilder.size);
+	}
+
+	@Override
+	public int size() {
+		return commits.length;
+	}
+
+	@Override
+	public synchronized LineInfo get(final int pIndex)
+			throws IndexOutOfBoundsException {
+		Objects.checkIndex(pIndex, size());
+		if (views == null) {
+			views = new LineInfo[size()];
+		}
+		if (views[pIndex] == null) {
+			views[pIndex] = new View(pIndex);
+		}
+		return views[pIndex];
+	}
+
+	/**
+	 * Returns the number of distinct commits of this table.
+	 *
+	 * @return
+	 * 		The number of distinct commits of this table.
+	 */
+	public int numCommits() {
+		return ids.length;
+	}
+
+	/**
+	 * A lightweight {@link LineInfo} view of a single line of a table.
+	 */
+	private class View implements LineInfo {
+
+		/**
+		 * The index of the line.
+		 */
+		private final int index;
+
+		private View(final int pIndex) {
+			index = pIndex;
+		}
+
+		@Override
+		public String getId() {
+			return ids[commits[index]];
+		}
+
+		@Override
+		public String getAuthor() {
+			return authors[commits[index]];
+		}
+
+		@Override
+		public String getMessage() {
+			return messages[commits[index]];
+		}
+
+		@Override
+		public LocalDateTime getDateTime() {
+			return dateTimes[commits[index]];
+		}
+
+		@Override
+		public int getLine() {
+			return lines[index];
+		}
+
+		@Override
+		public String getContent() {
+			return contents[index];
+		}
+
+		@Override
+		public VCSFile getFile() {
+			return file;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			return engine;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("LineInfo(id=%s, author=%s, " +
+					"message=%s, dateTime=%s, line=%d, content=%s, " +
+					"file=%s)", getId(), getAuthor(), getMessage(),
+					getDateTime().toString(), getLine(), getContent(),
+					getFile().toString());
+		}
+	}
+
+	/**
+	 * Creates {@link LineInfoTable} instances. Commits are interned by their
+	 * id, author, message, and datetime (see
+	 * {@link #commit(String, String, String, LocalDateTime)}).
+	 */
+	public static final class Builder {
+
+		/**
+		 * The file of the table to create.
+		 */
+		private final VCSFile file;
+
+		/**
+		 * The engine of the table to create.
+		 */
+		private final VCSEngine engine;
+
+		/**
+		 * Maps the commits of the commit table (as list of id, author,
+		 * message, and datetime) to their index.
+		 */
+		private final Map<List<Object>, Integer> indices = new HashMap<>();
+
+		private final List<String> ids = new ArrayList<>();
+		private final List<String> authors = new ArrayList<>();
+		private final List<String> messages = new ArrayList<>();
+		private final List<LocalDateTime> dateTimes = new ArrayList<>();
+
+		private int[] commits = new int[64];
+		private int[] lines = new int[64];
+		private String[] contents = new String[64];
+
+		/**
+		 * The number of added lines.
+		 */
+		private int size = 0;
+
+		/**
+		 * Creates a builder for a table of the given file.
+		 *
+		 * @param pFile
+		 * 		The file the lines belong to.
+		 * @param pEngine
+		 * 		The engine used to create the lines.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 */
+		public Builder(final VCSFile pFile, final VCSEngine pEngine)
+				throws NullPointerException {
+			file = Validate.notNull(pFile);
+			engine = Validate.notNull(pEngine);
+		}
+
+		/**
+		 * Adds the given commit to the commit table (if absent) and returns
+		 * its index. The returned index may be passed to
+		 * {@link #add(int, int, String)}.
+		 *
+		 * @param pId
+		 * 		The id of the commit.
+		 * @param pAuthor
+		 * 		The author of the commit.
+		 * @param pMessage
+		 * 		The message of the commit.
+		 * @param pDateTime
+		 * 		The datetime of the commit.
+		 * @return
+		 * 		The index of the commit.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 * @throws IllegalArgumentException
+		 * 		If {@code pId} is empty.
+		 */
+		public int commit(final String pId, final String pAuthor,
+				final String pMessage, final LocalDateTime pDateTime)
+				throws NullPointerException, IllegalArgumentException {
+			Validate.notEmpty(pId);
+			Validate.notNull(pAuthor);
+			Validate.notNull(pMessage);
+			Validate.notNull(pDateTime);
+			return indices.computeIfAbsent(
+					Arrays.asList(pId, pAuthor, pMessage, pDateTime), __ -> {
+						ids.add(pId);
+						authors.add(pAuthor);
+						messages.add(pMessage);
+						dateTimes.add(pDateTime);
+						return ids.size() - 1;
+					});
+		}
+
+		/**
+		 * Adds a line referring to the given commit.
+		 *
+		 * @param pCommit
+		 * 		The index of the commit of the line (see
+		 * 		{@link #commit(String, String, String, LocalDateTime)}).
+		 * @param pLine
+		 * 		The line number of the line.
+		 * @param pContent
+		 * 		The content of the line.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If {@code pContent} is {@code null}.
+		 * @throws IllegalArgumentException
+		 * 		If {@code pCommit} is not a valid commit index, or if
+		 * 		{@code pLine < 1}.
+		 */
+		public Builder add(final int pCommit, final int pLine,
+				final String pContent) throws NullPointerException,
+				IllegalArgumentException {
+			Validate.isTrue(pCommit >= 0 && pCommit < ids.size(),
+					"Invalid commit index: %d", pCommit);
+			Validate.isPositive(pLine, "Line (%d) < 1", pLine);
+			Validate.notNull(pContent);
+			if (size == commits.length) {
+				commits = Arrays.copyOf(commits, size * 2);
+				lines = Arrays.copyOf(lines, size * 2);
+				contents = Arrays.copyOf(contents, size * 2);
+			}
+			commits[size] = pCommit;
+			lines[size] = pLine;
+			contents[size] = pContent;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Adds a line. Shortcut for {@link #commit(String, String, String,
+		 * LocalDateTime)} and {@link #add(int, int, String)}.
+		 *
+		 * @param pId
+		 * 		The commit id of the line.
+		 * @param pAuthor
+		 * 		The author of the line.
+		 * @param pMessage
+		 * 		The commit message of the line.
+		 * @param pDateTime
+		 * 		The datetime of the line.
+		 * @param pLine
+		 * 		The line number of the line.
+		 * @param pContent
+		 * 		The content of the line.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}.
+		 * @throws IllegalArgumentException
+		 * 		If {@code pId} is empty, or if {@code pLine < 1}.
+		 */
+		public Builder add(final String pId, final String pAuthor,
+				final String pMessage, final LocalDateTime pDateTime,
+				final int pLine, final String pContent)
+				throws NullPointerException, IllegalArgumentException {
+			return add(commit(pId, pAuthor, pMessage, pDateTime),
+					pLine, pContent);
+		}
+
+		/**
+		 * Returns the commit index of the most recently added line.
+		 *
+		 * @return
+		 * 		The commit index of the most recently added line.
+		 * @throws IllegalStateException
+		 * 		If no line has been added yet.
+		 */
+		public int lastCommit() throws IllegalStateException {
+			Validate.validateState(size > 0, "No line added yet");
+			return commits[size - 1];
+		}
+
+		/**
+		 * Returns the line number of the most recently added line.
+		 *
+		 * @return
+		 * 		The line number of the most recently added line.
+		 * @throws IllegalStateException
+		 * 		If no line has been added yet.
+		 */
+		public int lastLine() throws IllegalStateException {
+			Validate.validateState(size > 0, "No line added yet");
+			return lines[size - 1];
+		}
+
+		/**
+		 * Returns the number of added lines.
+		 *
+		 * @return
+		 * 		The number of added lines.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Creates a table containing the lines added so far.
+		 *
+		 * @return
+		 * 		The created table.
+		 */
+		public LineInfoTable build() {
+			return new LineInfoTable(this);
+		}
+	}
+}
@@ -0,0 +1,533 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Stores a list of {@link VCSFile.Range}s in packed form. Each distinct pair
+ * of file and tab size is stored only once in a file table. A range consists
+ * of an index into the file table and of its begin and end offset, which are
+ * packed into a single {@code long}. Lines and columns are not stored at all,
+ * but derived from the line index of the referenced file (see
+ * {@link VCSFile#positionOf(int, int)}) when a range is accessed. This way, a
+ * range occupies twelve bytes rather than a {@link VCSFile.Range} and two
+ * {@link VCSFile.Position}s.
+ *
+ * Packed ranges are unmodifiable lists. In contrast to {@link LineInfoTable},
+ * the elements returned by {@link #get(int)} are not cached, but created on
+ * each access. Clients that process many ranges should therefore prefer the
+ * accessors operating on indices (for example, {@link #getFile(int)} and
+ * {@link #getBeginOffset(int)}) and create {@link VCSFile.Range} instances
+ * only if necessary. Packed ranges are created with {@link Builder} or
+ * {@link #of(Collection)}.
+ *
+ * {@link #subList(int, int)} returns packed ranges that share the file table
+ * and the offsets of the original instance. Clients that store many small
+ * lists of ranges (for example, the code smells of a revision) should pack
+ * all of them into a single instance with {@link Builder} and keep a sublist
+ * each. This way, a client pays for a single object rather than for an
+ * object and three arrays.
+ */
+public final class PackedRanges extends AbstractList<VCSFile.Range>
+		implements RandomAccess {
+
+	/**
+	 * The empty instance.
+	 */
+	private static final PackedRanges EMPTY = new Builder().build();
+
+	/**
+	 * The files of the file table.
+	 */
+	private final VCSFile[] files;
+
+	/**
+	 * The tab sizes of the file table.
+	 */
+	private final int[] tabSizes;
+
+	/**
+	 * The index into the file table of each range. Is {@code null} if the
+	 * file table has at most one entry.
+	 */
+	private final int[] entries;
+
+	/**
+	 * The begin (upper 32 bits) and end (lower 32 bits) offset of each range.
+	 */
+	private final long[] offsets;
+
+	/**
+	 * The index of the first range of this instance in {@link #entries} and
+	 * {@link #offsets} (see {@link #subList(int, int)}).
+	 */
+	private final int start;
+
+	/**
+	 * The number of ranges of this instance.
+	 */
+	private final int size;
+
+	private PackedRanges(final VCSFile[] pFiles, final int[] pTabSizes,
+			final int[] pEntries, final long[] pOffsets, final int pStart,
+			final int pSize) {
+		files = pFiles;
+		tabSizes = pTabSizes;
+		entries = pFiles.length <= 1 ? null : pEntries;
+		offsets = pOffsets;
+		start = pStart;
+		size = pSize;
+	}
+
+	/**
+	 * Packs the given ranges. Returns a shared instance if {@code pRanges} is
+	 * empty.
+	 *
+	 * @param pRanges
+	 * 		The ranges to pack.
+	 * @return
+	 * 		The packed ranges.
+	 * @throws NullPointerException
+	 * 		If {@code pRanges} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pRanges} contains {@code null}.
+	 */
+	public static PackedRanges of(final Collection<VCSFile.Range> pRanges)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.noNullElements(pRanges);
+		if (pRanges instanceof PackedRanges) {
+			return (PackedRanges) pRanges;
+		}
+		if (pRanges.isEmpty()) {
+			return EMPTY;
+		}
+		final Builder builder = new Builder();
+		pRanges.forEach(builder::add);
+		return builder.build();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a view of the ranges between {@code pFromIndex} (inclusive)
+	 * and {@code pToIndex} (exclusive). The returned instance shares the
+	 * file table and the offsets of this instance, that is, no array is
+	 * copied.
+	 *
+	 * @param pFromIndex
+	 * 		The index of the first range of the view.
+	 * @param pToIndex
+	 * 		The index after the last range of the view.
+	 * @return
+	 * 		The view of the given range of indices.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pFromIndex < 0}, {@code pToIndex > size()}, or
+	 * 		{@code pFromIndex > pToIndex}.
+	 */
+	@Override
+	public PackedRanges subList(final int pFromIndex, final int pToIndex)
+			throws IndexOutOfBoundsException {
+		Objects.checkFromToIndex(pFromIndex, pToIndex, size);
+		return new PackedRanges(files, tabSizes, entries, offsets,
+				start + pFromIndex, pToIndex - pFromIndex);
+	}
+
+	/**
+	 * Creates a {@link VCSFile.Range} from the range at the given index.
+	 *
+	 * @param pIndex
+	 * 		The index of the range.
+	 * @return
+	 * 		The created range.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 * @throws IllegalStateException
+	 * 		If the offsets of the range do not exist in its file.
+	 * @throws UncheckedIOException
+	 * 		If an error occurred while reading the file content.
+	 */
+	@Override
+	public VCSFile.Range get(final int pIndex)
+			throws IndexOutOfBoundsException, IllegalStateException,
+			UncheckedIOException {
+		final VCSFile file = getFile(pIndex);
+		final int tabSize = getTabSize(pIndex);
+		try {
+			final VCSFile.Position begin = file
+					.positionOf(getBeginOffset(pIndex), tabSize)
+					.orElseThrow(() -> new IllegalStateException(
+							"Begin offset does not exist in " + file));
+			final VCSFile.Position end = file
+					.positionOf(getEndOffset(pIndex), tabSize)
+					.orElseThrow(() -> new IllegalStateException(
+							"End offset does not exist in " + file));
+			return new VCSFile.Range(begin, end);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the file of the range at the given index.
+	 *
+	 * @param pIndex
+	 * 		The index of the range.
+	 * @return
+	 * 		The file of the range.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public VCSFile getFile(final int pIndex)
+			throws IndexOutOfBoundsException {
+		return files[entryOf(pIndex)];
+	}
+
+	/**
+	 * Returns the tab size of the range at the given index.
+	 *
+	 * @param pIndex
+	 * 		The index of the range.
+	 * @return
+	 * 		The tab size of the range.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public int getTabSize(final int pIndex)
+			throws IndexOutOfBoundsException {
+		return tabSizes[entryOf(pIndex)];
+	}
+
+	/**
+	 * Returns the begin offset of the range at the given index.
+	 *
+	 * @param pIndex
+	 * 		The index of the range.
+	 * @return
+	 * 		The begin offset of the range.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public int getBeginOffset(final int pIndex)
+			throws IndexOutOfBoundsException {
+		return (int) (offsets[indexOf(pIndex)] >>> 32);
+	}
+
+	/**
+	 * Returns the end offset (inclusive) of the range at the given index.
+	 *
+	 * @param pIndex
+	 * 		The index of the range.
+	 * @return
+	 * 		The end offset of the range.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} is out of range.
+	 */
+	public int getEndOffset(final int pIndex)
+			throws IndexOutOfBoundsException {
+		return (int) offsets[indexOf(pIndex)];
+	}
+
+	/**
+	 * Returns the distinct files referenced by the ranges.
+	 *
+	 * @return
+	 * 		An unmodifiable list of the files referenced by the ranges.
+	 */
+	public List<VCSFile> getFiles() {
+		// The file table may be shared with other instances and entries of
+		// the file table may differ in their tab size only.
+		final Set<VCSFile> result = new LinkedHashSet<>();
+		for (int i = 0; i < size; i++) {
+			result.add(getFile(i));
+		}
+		return Collections.unmodifiableList(new ArrayList<>(result));
+	}
+
+	/**
+	 * Tests whether the range at index {@code pIndex} and the range of
+	 * {@code pOther} at index {@code pOtherIndex} are equal according to
+	 * {@link VCSFile.Range#RELATIVE_PATH_PREDICATE}, that is, whether they
+	 * have the same offsets and their files have the same relative path. In
+	 * contrast to {@link VCSFile.Range#RELATIVE_PATH_PREDICATE}, no
+	 * {@link VCSFile.Range} is created.
+	 *
+	 * @param pIndex
+	 * 		The index of the range of this instance.
+	 * @param pOther
+	 * 		The other packed ranges.
+	 * @param pOtherIndex
+	 * 		The index of the range of {@code pOther}.
+	 * @return
+	 * 		{@code true} if both ranges are equal, {@code false} otherwise.
+	 * @throws NullPointerException
+	 * 		If {@code pOther} is {@code null}.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex} or {@code pOtherIndex} is out of range.
+	 */
+	public boolean matches(final int pIndex, final PackedRanges pOther,
+			final int pOtherIndex) throws NullPointerException,
+			IndexOutOfBoundsException {
+		Validate.notNull(pOther);
+		if (offsets[indexOf(pIndex)] !=
+				pOther.offsets[pOther.indexOf(pOtherIndex)]) {
+			return false;
+		}
+		final VCSFile file = getFile(pIndex);
+		final VCSFile otherFile = pOther.getFile(pOtherIndex);
+		return file == otherFile || file.toRelativePath().equals(
+				otherFile.toRelativePath());
+	}
+
+	/**
+	 * Tests whether these ranges and {@code pOther} have the same number of
+	 * ranges and each range of this instance matches a distinct range of
+	 * {@code pOther} (see {@link #matches(int, PackedRanges, int)}).
+	 *
+	 * @param pOther
+	 * 		The other packed ranges.
+	 * @return
+	 * 		{@code true} if the ranges of {@code pOther} match with these
+	 * 		ranges, {@code false} otherwise.
+	 * @throws NullPointerException
+	 * 		If {@code pOther} is {@code null}.
+	 */
+	public boolean matches(final PackedRanges pOther)
+			throws NullPointerException {
+		Validate.notNull(pOther);
+		if (size() != pOther.size()) {
+			return false;
+		}
+		// Do not reuse a range of `pOther` in case of a match.
+		final boolean[] matched = new boolean[pOther.size()];
+		int numMatched = 0;
+		for (int i = 0; i < size(); i++) {
+			for (int j = 0; j < pOther.size(); j++) {
+				if (!matched[j] && matches(i, pOther, j)) {
+					matched[j] = true;
+					numMatched++;
+					break;
+				}
+			}
+		}
+		return numMatched == pOther.size();
+	}
+
+	/**
+	 * Creates a copy of these ranges whose files are replaced with the files
+	 * returned by {@code pMapper}. The offsets and tab sizes are retained.
+	 * Hence, the files returned by {@code pMapper} must have the same content
+	 * as the files they replace. This allows to move ranges to another
+	 * revision without computing a single position, for example, if it is
+	 * known that a file has not been changed. If this instance shares its
+	 * file table (see {@link #subList(int, int)}), {@code pMapper} is
+	 * applied to the files of this instance only.
+	 *
+	 * @param pMapper
+	 * 		Maps the files of the file table.
+	 * @return
+	 * 		A copy of these ranges referencing the mapped files.
+	 * @throws NullPointerException
+	 * 		If {@code pMapper} is {@code null} or returns {@code null}.
+	 */
+	public PackedRanges mapFiles(final Function<VCSFile, VCSFile> pMapper)
+			throws NullPointerException {
+		Validate.notNull(pMapper);
+		if (start != 0 || size != offsets.length) {
+			return new Builder().addAll(this).build().mapFiles(pMapper);
+		}
+		final VCSFile[] mapped = new VCSFile[files.length];
+		for (int i = 0; i < files.length; i++) {
+			mapped[i] = Validate.notNull(pMapper.apply(files[i]),
+					"Mapper returned null for %s", files[i]);
+		}
+		return new PackedRanges(mapped, tabSizes, entries, offsets, start,
+				size);
+	}
+
+	/**
+	 * Returns the index of the range at the given index in {@link #entries}
+	 * and {@link #offsets}.
+	 */
+	private int indexOf(final int pIndex) {
+		return start + Objects.checkIndex(pIndex, size);
+	}
+
+	private int entryOf(final int pIndex) {
+		final int index = indexOf(pIndex);
+		return entries == null ? 0 : entries[index];
+	}
+
+	/**
+	 * Creates {@link PackedRanges} instances. Files are interned by file and
+	 * tab size. Builders can be used to pack the ranges of many
+	 * clients (for example, the code smells of a revision) into a single
+	 * instance.
+	 */
+	public static final class Builder {
+
+		/**
+		 * Maps the entries of the file table (as list of file and tab size)
+		 * to their index.
+		 */
+		private final Map<List<Object>, Integer> indices = new HashMap<>();
+
+		private final List<VCSFile> files = new ArrayList<>();
+		private final List<Integer> tabSizes = new ArrayList<>();
+
+		private int[] entries = new int[8];
+		private long[] offsets = new long[8];
+
+		/**
+		 * The number of added ranges.
+		 */
+		private int size = 0;
+
+		/**
+		 * Adds a range with given file, offsets, and tab size. The offsets
+		 * are not checked against the content of {@code pFile}.
+		 *
+		 * @param pFile
+		 * 		The file of the range.
+		 * @param pBegin
+		 * 		The begin offset of the range.
+		 * @param pEnd
+		 * 		The end offset (inclusive) of the range.
+		 * @param pTabSize
+		 * 		The tab size of the range.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If {@code pFile} is {@code null}.
+		 * @throws IllegalArgumentException
+		 * 		If {@code pBegin < 0}, {@code pBegin > pEnd}, or
+		 * 		{@code pTabSize < 1}.
+		 */
+		public Builder add(final VCSFile pFile, final int pBegin,
+				final int pEnd, final int pTabSize)
+				throws NullPointerException, IllegalArgumentException {
+			Validate.notNull(pFile);
+			Validate.notNegative(pBegin, "begin < 0");
+			Validate.isTrue(pBegin <= pEnd, "Begin must not be after end.");
+			Validate.isPositive(pTabSize, "tab size < 1");
+			final int entry = indices.computeIfAbsent(
+					Arrays.asList(pFile, pTabSize), __ -> {
+						files.add(pFile);
+						tabSizes.add(pTabSize);
+						return files.size() - 1;
+					});
+			if (size == offsets.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+				offsets = Arrays.copyOf(offsets, size * 2);
+			}
+			entries[size] = entry;
+			offsets[size] = ((long) pBegin << 32) | pEnd;
+			size++;
+			return this;
+		}
+
+		/**
+		 * Adds the given range.
+		 *
+		 * @param pRange
+		 * 		The range to add.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If {@code pRange} is {@code null}.
+		 */
+		public Builder add(final VCSFile.Range pRange)
+				throws NullPointerException {
+			Validate.notNull(pRange);
+			return add(pRange.getFile(), pRange.getBegin().getOffset(),
+					pRange.getEnd().getOffset(),
+					pRange.getBegin().getTabSize());
+		}
+
+		/**
+		 * Adds all ranges of the given packed ranges. Neither positions nor
+		 * {@link VCSFile.Range}s are created.
+		 *
+		 * @param pRanges
+		 * 		The ranges to add.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If {@code pRanges} is {@code null}.
+		 */
+		public Builder addAll(final PackedRanges pRanges)
+				throws NullPointerException {
+			return addAll(pRanges, Function.identity());
+		}
+
+		/**
+		 * Adds all ranges of the given packed ranges whose files are
+		 * replaced with the files returned by {@code pMapper} (see
+		 * {@link PackedRanges#mapFiles(Function)}). Neither positions nor
+		 * {@link VCSFile.Range}s are created.
+		 *
+		 * @param pRanges
+		 * 		The ranges to add.
+		 * @param pMapper
+		 * 		Maps the files of {@code pRanges}.
+		 * @return
+		 * 		This builder.
+		 * @throws NullPointerException
+		 * 		If any of the given arguments is {@code null}, or if
+		 * 		{@code pMapper} returns {@code null}.
+		 */
+		public Builder addAll(final PackedRanges pRanges,
+				final Function<VCSFile, VCSFile> pMapper)
+				throws NullPointerException {
+			Validate.notNull(pRanges);
+			Validate.notNull(pMapper);
+			for (int i = 0; i < pRanges.size(); i++) {
+				final VCSFile file = pRanges.getFile(i);
+				add(Validate.notNull(pMapper.apply(file),
+						"Mapper returned null for %s", file),
+						pRanges.getBeginOffset(i), pRanges.getEndOffset(i),
+						pRanges.getTabSize(i));
+			}
+			return this;
+		}
+
+		/**
+		 * Returns the number of added ranges.
+		 *
+		 * @return
+		 * 		The number of added ranges.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Creates packed ranges containing the ranges added so far.
+		 *
+		 * @return
+		 * 		The created packed ranges.
+		 */
+		public PackedRanges build() {
+			return new PackedRanges(
+					files.toArray(new VCSFile[0]),
+					tabSizes.stream().mapToInt(Integer::intValue).toArray(),
+					Arrays.copyOf(entries, size),
+					Arrays.copyOf(offsets, size), 0, size);
+		}
+	}
+}
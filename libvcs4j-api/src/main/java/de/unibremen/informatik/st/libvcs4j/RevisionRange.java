@@ -4,13 +4,18 @@ import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static de.unibremen.informatik.st.libvcs4j.FileChange.Type.*;
@@ -80,30 +85,49 @@ public interface RevisionRange extends VCSModelElement {
 	 * Returns all files that have changed between
 	 * {@link #getPredecessorRevision()} and {@link #getRevision()}. The
 	 * default implementation, if necessary, merges the file changes of all
-	 * commits listed in {@link #getCommits()}.
+	 * commits listed in {@link #getCommits()}. The changes of each commit are
+	 * indexed by their relative paths such that merging takes linear time
+	 * with respect to the number of file changes. The result is not cached;
+	 * implementations may memoize it.
 	 *
 	 * @return
 	 * 		The list of file changes.
 	 */
 	default List<FileChange> getFileChanges() {
-		if (getCommits().size() == 1) {
-			return getCommits().get(0).getFileChanges();
+		final List<Commit> commits = getCommits();
+		if (commits.size() == 1) {
+			return commits.get(0).getFileChanges();
 		} else {
 			// Accumulates the result
 			final List<FileChange> accum = new ArrayList<>(
-					getCommits().get(0).getFileChanges());
+					commits.get(0).getFileChanges());
 			// Merge subsequent commits one after another
-			for (int i = 1; i < getCommits().size(); i++) {
-				// Try to find a match in this list
-				final List<FileChange> toProcess = new ArrayList<>(
-						getCommits().get(i).getFileChanges());
+			for (int i = 1; i < commits.size(); i++) {
+				final List<FileChange> toProcess =
+						commits.get(i).getFileChanges();
+				// Index the changes of this commit by the relative paths a
+				// accumulated change may be matched against. The order of
+				// toProcess is preserved within each index.
+				final Map<Path, Deque<FileChange>> byOldPath = new HashMap<>();
+				final Map<Path, Deque<FileChange>> byNewPath = new HashMap<>();
+				final Map<Path, Deque<FileChange>> byOldOrAddedPath =
+						new HashMap<>();
+				for (final FileChange c : toProcess) {
+					index(byOldPath, c.getOldFile(), c);
+					index(byNewPath, c.getNewFile(), c);
+					index(byOldOrAddedPath, c.getType() != ADD
+							? c.getOldFile()
+							: c.getNewFile(), c); // < indicates a bug
+				}
+				// Changes of toProcess that have been merged into accum
+				final Set<FileChange> matched = Collections.newSetFromMap(
+						new IdentityHashMap<>());
 				// Use a ListIterator to remove/set the current value
 				final ListIterator<FileChange> iter = accum.listIterator();
 				while (iter.hasNext()) {
 					final FileChange change = iter.next();
 					final FileChange.Type type = change.getType();
-					// Used to export the match from within a lambda
-					final Deque<FileChange> matches = new ArrayDeque<>();
+					FileChange match = null;
 					if (type == ADD || type == REMOVE) {
 						final Path path = type == ADD
 								? change.getNewFile()
@@ -112,14 +136,10 @@ public interface RevisionRange extends VCSModelElement {
 								: change.getOldFile()
 									.orElseThrow(IllegalStateException::new)
 									.toRelativePath();
-						toProcess.stream().filter(c ->
-								(type == ADD
-										? c.getOldFile()
-										: c.getNewFile())
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false))
-						.findAny().ifPresent(match -> {
+						match = firstUnmatched(type == ADD
+								? byOldPath
+								: byNewPath, path, matched);
+						if (match != null) {
 							final FileChange.Type oType = match.getType();
 							Validate.validateState(
 									!(type == ADD && oType == ADD),
@@ -129,25 +149,19 @@ public interface RevisionRange extends VCSModelElement {
 									!(type == REMOVE && oType == REMOVE),
 									"'%s' has been removed after being removed",
 									path);
-							toProcess.remove(match);
+							matched.add(match);
 							if (oType == REMOVE) {
 								iter.remove();
-							} else {
-								matches.add(match);
+								match = null;
 							}
-						});
+						}
 					} else {
 						final Path path = change.getNewFile()
 								.orElseThrow(IllegalStateException::new)
 								.toRelativePath();
-						toProcess.stream().filter(c ->
-								(c.getType() != ADD
-										? c.getOldFile()
-										: c.getNewFile()) // < indicates a bug
-								.map(VCSFile::toRelativePath)
-								.map(p -> p.equals(path))
-								.orElse(false)
-						).findAny().ifPresent(match -> {
+						match = firstUnmatched(byOldOrAddedPath, path,
+								matched);
+						if (match != null) {
 							final FileChange.Type oType = match.getType();
 							Validate.validateState(
 									!(type == MODIFY && oType == ADD),
@@ -157,15 +171,10 @@ public interface RevisionRange extends VCSModelElement {
 									!(type == RELOCATE && oType == ADD),
 									"'%s' has been added after being relocated to this path",
 									path);
-							toProcess.remove(match);
-							matches.add(match);
-						});
+							matched.add(match);
+						}
 					}
-					Validate.validateState(matches.size() <= 1,
-							"Unexpected number of matches (%d)",
-							matches.size());
-					if (!matches.isEmpty()) {
-						final FileChange match = matches.poll();
+					if (match != null) {
 						final VCSEngine engine = getVCSEngine();
 						iter.set(engine.getModelFactory().createFileChange(
 								change.getOldFile().orElse(null),
@@ -173,7 +182,9 @@ public interface RevisionRange extends VCSModelElement {
 								engine));
 					}
 				}
-				accum.addAll(toProcess);
+				toProcess.stream()
+						.filter(c -> !matched.contains(c))
+						.forEach(accum::add);
 			}
 			// Postprocessing: Replace accumulated file changes such that the
 			// revisions of the referenced files match with the predecessor and
@@ -223,9 +234,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		All files that have been added.
 	 */
 	default List<FileChange> getAddedFiles() {
-		return getFileChanges().stream()
-				.filter(fc -> fc.getType() == ADD)
-				.collect(Collectors.toList());
+		return filterByType(getFileChanges(), ADD);
 	}
 
 	/**
@@ -235,9 +244,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		All files that have been removed.
 	 */
 	default List<FileChange> getRemovedFiles() {
-		return getFileChanges().stream()
-				.filter(fc -> fc.getType() == REMOVE)
-				.collect(Collectors.toList());
+		return filterByType(getFileChanges(), REMOVE);
 	}
 
 	/**
@@ -247,9 +254,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		All files that have been modified.
 	 */
 	default List<FileChange> getModifiedFiles() {
-		return getFileChanges().stream()
-				.filter(fc -> fc.getType() == MODIFY)
-				.collect(Collectors.toList());
+		return filterByType(getFileChanges(), MODIFY);
 	}
 
 	/**
@@ -259,9 +264,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		All files that have been relocated.
 	 */
 	default List<FileChange> getRelocatedFiles() {
-		return getFileChanges().stream()
-				.filter(fc -> fc.getType() == RELOCATE)
-				.collect(Collectors.toList());
+		return filterByType(getFileChanges(), RELOCATE);
 	}
 
 	/**
@@ -280,19 +283,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		{@code suffix}.
 	 */
 	default List<FileChange> getFileChangesBySuffix(final String suffix) {
-		return getFileChanges().stream()
-				.filter(fc -> {
-					final boolean old = fc.getOldFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.endsWith(suffix))
-							.orElse(false);
-					final boolean nev = fc.getNewFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.endsWith(suffix))
-							.orElse(false);
-					return old || nev;
-				})
-				.collect(Collectors.toList());
+		return filterByPath(getFileChanges(), p -> p.endsWith(suffix));
 	}
 
 	/**
@@ -312,19 +303,7 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		{@code prefix}.
 	 */
 	default List<FileChange> getFileChangesByPrefix(final String prefix) {
-		return getFileChanges().stream()
-				.filter(fc -> {
-					final boolean old = fc.getOldFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.startsWith(prefix))
-							.orElse(false);
-					final boolean nev = fc.getNewFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.startsWith(prefix))
-							.orElse(false);
-					return old || nev;
-				})
-				.collect(Collectors.toList());
+		return filterByPath(getFileChanges(), p -> p.startsWith(prefix));
 	}
 
 	/**
@@ -339,19 +318,9 @@ public interface RevisionRange extends VCSModelElement {
 	 * 		{@code regex}.
 	 */
 	default List<FileChange> getFileChangesByRegex(final String regex) {
-		return getFileChanges().stream()
-				.filter(fc -> {
-					final boolean old = fc.getOldFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.matches(regex))
-							.orElse(false);
-					final boolean nev = fc.getNewFile()
-							.map(VCSFile::getRelativePath)
-							.map(p -> p.matches(regex))
-							.orElse(false);
-					return old || nev;
-				})
-				.collect(Collectors.toList());
+		final Pattern pattern = Pattern.compile(regex);
+		return filterByPath(getFileChanges(),
+				p -> pattern.matcher(p).matches());
 	}
 
 	/**
@@ -440,4 +409,109 @@ public interface RevisionRange extends VCSModelElement {
 				predecessor.getPredecessorRevision().orElse(null), commits,
 				getVCSEngine());
 	}
+
+	/**
+	 * Returns the file changes of {@code changes} that have the given type.
+	 * If {@code changes} is a {@link FileChangeList}, the filter is applied to
+	 * its compact form (see {@link FileChangeList#filterByType(
+	 * FileChange.Type)}).
+	 *
+	 * @param changes
+	 * 		The file changes to filter.
+	 * @param type
+	 * 		The type of the file changes to return.
+	 * @return
+	 * 		The file changes of type {@code type}.
+	 */
+	private static List<FileChange> filterByType(
+			final List<FileChange> changes, final FileChange.Type type) {
+		if (changes instanceof FileChangeList) {
+			return ((FileChangeList) changes).filterByType(type);
+		}
+		return changes.stream()
+				.filter(fc -> fc.getType() == type)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the file changes of {@code changes} whose old or new relative
+	 * path matches {@code predicate}. If {@code changes} is a
+	 * {@link FileChangeList}, the filter is applied to its path table (see
+	 * {@link FileChangeList#filterByPath(Predicate)}).
+	 *
+	 * @param changes
+	 * 		The file changes to filter.
+	 * @param predicate
+	 * 		The predicate to test the relative paths with.
+	 * @return
+	 * 		The file changes whose old or new relative path matches
+	 * 		{@code predicate}.
+	 */
+	private static List<FileChange> filterByPath(
+			final List<FileChange> changes,
+			final Predicate<String> predicate) {
+		if (changes instanceof FileChangeList) {
+			return ((FileChangeList) changes).filterByPath(predicate);
+		}
+		return changes.stream()
+				.filter(fc -> {
+					final boolean old = fc.getOldFile()
+							.map(VCSFile::getRelativePath)
+							.map(predicate::test)
+							.orElse(false);
+					final boolean nev = fc.getNewFile()
+							.map(VCSFile::getRelativePath)
+							.map(predicate::test)
+							.orElse(false);
+					return old || nev;
+				})
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Adds {@code change} to the entries of {@code index} that are
+	 * associated with the relative path of {@code file}, if present.
+	 *
+	 * @param index
+	 * 		The index to update.
+	 * @param file
+	 * 		The file whose relative path is used as key.
+	 * @param change
+	 * 		The change to add.
+	 */
+	private static void index(final Map<Path, Deque<FileChange>> index,
+			final Optional<VCSFile> file, final FileChange change) {
+		file.map(VCSFile::toRelativePath).ifPresent(path -> index
+				.computeIfAbsent(path, p -> new ArrayDeque<>(1))
+				.add(change));
+	}
+
+	/**
+	 * Returns the first change of {@code index} that is associated with
+	 * {@code path} and is not contained in {@code matched}. Changes
+	 * contained in {@code matched} are removed from {@code index} on the
+	 * fly.
+	 *
+	 * @param index
+	 * 		The index to query.
+	 * @param path
+	 * 		The relative path to look up.
+	 * @param matched
+	 * 		The changes that have been matched already.
+	 * @return
+	 * 		The first unmatched change or {@code null} if there is no such
+	 * 		change.
+	 */
+	private static FileChange firstUnmatched(
+			final Map<Path, Deque<FileChange>> index, final Path path,
+			final Set<FileChange> matched) {
+		final Deque<FileChange> candidates = index.get(path);
+		if (candidates == null) {
+			return null;
+		}
+		while (!candidates.isEmpty() && matched.contains(candidates.peek())) {
+			candidates.poll();
+		}
+		return candidates.peek();
+	}
 }
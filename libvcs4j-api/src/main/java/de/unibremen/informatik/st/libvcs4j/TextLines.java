@@ -0,0 +1,230 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Splits a string into lines in a single pass and provides unmodifiable list
+ * views of the lines (with and without EOL characters) which are backed by
+ * the string. The following EOLs are supported: '\n', '\r\n', '\r'. A
+ * trailing EOL does not start a new (empty) line. Accordingly, an empty
+ * string has no lines.
+ */
+final class TextLines {
+
+	/**
+	 * The string that has been split.
+	 */
+	private final String content;
+
+	/**
+	 * The offset of the first character of each line in {@link #content}. The
+	 * last element is the length of {@link #content}, such that the i-th line
+	 * (including its EOL) spans {@code [offsets[i], offsets[i + 1])}.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Splits the given string.
+	 *
+	 * @param pContent
+	 * 		The string to split.
+	 * @throws NullPointerException
+	 * 		If {@code pContent} is {@code null}.
+	 */
+	TextLines(final String pContent) throws NullPointerException {
+		content = Validate.notNull(pContent);
+		final int length = content.length();
+		int[] starts = new int[Math.max(16, length / 32)];
+		int size = 0;
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			final char ch = content.charAt(i);
+			if (ch == '\n' || ch == '\r') {
+				if (ch == '\r' && i + 1 < length
+						&& content.charAt(i + 1) == '\n') {
+					i++; // Windows EOL
+				}
+				if (size + 1 >= starts.length) {
+					starts = Arrays.copyOf(starts, starts.length * 2);
+				}
+				starts[size++] = start;
+				start = i + 1;
+			}
+		}
+		if (start < length) { // last line without EOL
+			if (size + 1 >= starts.length) {
+				starts = Arrays.copyOf(starts, starts.length + 1);
+			}
+			starts[size++] = start;
+		}
+		starts[size] = length;
+		offsets = Arrays.copyOf(starts, size + 1);
+	}
+
+	/**
+	 * Returns the string that has been split.
+	 *
+	 * @return
+	 * 		The string that has been split.
+	 */
+	String getContent() {
+		return content;
+	}
+
+	/**
+	 * Returns the number of lines.
+	 *
+	 * @return
+	 * 		The number of lines.
+	 */
+	int size() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns an unmodifiable view of the lines including EOL characters.
+	 *
+	 * @return
+	 * 		The lines including EOL characters.
+	 */
+	List<String> withEOL() {
+		return new LineView(true);
+	}
+
+	/**
+	 * Returns an unmodifiable view of the lines excluding EOL characters.
+	 *
+	 * @return
+	 * 		The lines excluding EOL characters.
+	 */
+	List<String> withoutEOL() {
+		return new LineView(false);
+	}
+
+	/**
+	 * Returns the offset of the first character of the given line.
+	 *
+	 * @param pIndex
+	 * 		The index of the line.
+	 * @return
+	 * 		The offset of the first character of the line.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pIndex < 0} or {@code pIndex >= size()}.
+	 */
+	int offsetOf(final int pIndex) throws IndexOutOfBoundsException {
+		if (pIndex < 0 || pIndex >= size()) {
+			throw new IndexOutOfBoundsException(String.format(
+					"Index: %d, Size: %d", pIndex, size()));
+		}
+		return offsets[pIndex];
+	}
+
+	/**
+	 * Returns the index of the line containing the given offset using binary
+	 * search. The EOL characters of a line belong to the line.
+	 *
+	 * @param pOffset
+	 * 		The offset to look up.
+	 * @return
+	 * 		The index of the line containing {@code pOffset}, or {@code -1} if
+	 * 		{@code pOffset < 0} or {@code pOffset >= getContent().length()}.
+	 */
+	int indexOf(final int pOffset) {
+		if (pOffset < 0 || pOffset >= content.length()) {
+			return -1;
+		}
+		final int idx = Arrays.binarySearch(offsets, pOffset);
+		// Insertion point - 1 is the line starting before `pOffset`.
+		return idx >= 0 ? idx : -idx - 2;
+	}
+
+	/**
+	 * Returns the text lines backing the given list if it is a view created
+	 * by {@link #withEOL()} or {@link #withoutEOL()}.
+	 *
+	 * @param pLines
+	 * 		The list to unwrap.
+	 * @return
+	 * 		The text lines backing {@code pLines}, or {@code null} if
+	 * 		{@code pLines} is not a view of text lines.
+	 */
+	static TextLines backing(final List<String> pLines) {
+		return pLines instanceof LineView
+				? ((LineView) pLines).getTextLines()
+				: null;
+	}
+
+	/**
+	 * Returns the offset of the end (exclusive) of the given line.
+	 *
+	 * @param pIndex
+	 * 		The index of the line.
+	 * @param pWithEOL
+	 * 		Whether to include the EOL characters of the line.
+	 * @return
+	 * 		The offset of the end of the line.
+	 */
+	private int endOf(final int pIndex, final boolean pWithEOL) {
+		final int start = offsets[pIndex];
+		int end = offsets[pIndex + 1];
+		if (!pWithEOL) {
+			if (end > start && content.charAt(end - 1) == '\n') {
+				end--;
+			}
+			if (end > start && content.charAt(end - 1) == '\r') {
+				end--;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * An unmodifiable list view of the lines.
+	 */
+	private class LineView extends AbstractList<String>
+			implements RandomAccess {
+
+		/**
+		 * Whether to include EOL characters.
+		 */
+		private final boolean withEOL;
+
+		/**
+		 * Creates a new view.
+		 *
+		 * @param pWithEOL
+		 * 		Whether to include EOL characters.
+		 */
+		private LineView(final boolean pWithEOL) {
+			withEOL = pWithEOL;
+		}
+
+		/**
+		 * Returns the text lines backing this view.
+		 *
+		 * @return
+		 * 		The text lines backing this view.
+		 */
+		private TextLines getTextLines() {
+			return TextLines.this;
+		}
+
+		@Override
+		public String get(final int pIndex) {
+			if (pIndex < 0 || pIndex >= size()) {
+				throw new IndexOutOfBoundsException(String.format(
+						"Index: %d, Size: %d", pIndex, size()));
+			}
+			return content.substring(
+					offsets[pIndex], endOf(pIndex, withEOL));
+		}
+
+		@Override
+		public int size() {
+			return TextLines.this.size();
+		}
+	}
+}
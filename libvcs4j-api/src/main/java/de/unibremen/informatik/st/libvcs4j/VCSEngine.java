@@ -109,6 +109,33 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 */
 	Optional<Charset> guessCharset(VCSFile file) throws IOException;
 
+	/**
+	 * Returns the content-addressed blob of {@code file} (see {@link Blob}).
+	 * Files with equal contents may share the same blob such that the
+	 * contents of a file that did not change between two revisions are read
+	 * and analyzed only once. This method does not depend on the current
+	 * state of this engine (see Note 2 above). The default implementation
+	 * returns an empty {@link Optional}, that is, blobs are not shared.
+	 *
+	 * @param file
+	 * 		The file whose blob is returned.
+	 * @return
+	 * 		The blob of {@code file} or an empty {@link Optional} if this
+	 * 		engine does not share blobs.
+	 * @throws NullPointerException
+	 * 		If {@code file} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code file} is unknown to this engine.
+	 * @throws IOException
+	 * 		If an error occurred while computing the id of the blob.
+	 */
+	default Optional<Blob> getBlob(final VCSFile file)
+			throws NullPointerException, IllegalArgumentException,
+			IOException {
+		Validate.notNull(file);
+		return Optional.empty();
+	}
+
 	/**
 	 * Returns the currently checked out revision.
 	 *
@@ -208,6 +235,40 @@ public interface VCSEngine extends Iterable<RevisionRange> {
 	 */
 	Optional<ITEngine> getITEngine();
 
+	/**
+	 * Adds a listener that is notified about the duration of the phases and
+	 * the values of the counters of this engine. Adding the same listener
+	 * twice has no effect. The default implementation does not support
+	 * instrumentation and throws an {@link UnsupportedOperationException}.
+	 *
+	 * @param listener
+	 * 		The listener to add.
+	 * @throws NullPointerException
+	 * 		If {@code listener} is {@code null}.
+	 * @throws UnsupportedOperationException
+	 * 		If this engine does not support instrumentation.
+	 */
+	default void addInstrumentationListener(
+			final InstrumentationListener listener)
+			throws NullPointerException, UnsupportedOperationException {
+		Validate.notNull(listener);
+		throw new UnsupportedOperationException(
+				"Instrumentation is not supported by this engine");
+	}
+
+	/**
+	 * Removes the given listener. Has no effect if {@code listener} has not
+	 * been added. The default implementation does nothing as it does not
+	 * support adding listeners (see
+	 * {@link #addInstrumentationListener(InstrumentationListener)}).
+	 *
+	 * @param listener
+	 * 		The listener to remove.
+	 */
+	default void removeInstrumentationListener(
+			final InstrumentationListener listener) {
+	}
+
 	/**
 	 * Returns the factory used to create vcs model instances.
 	 *
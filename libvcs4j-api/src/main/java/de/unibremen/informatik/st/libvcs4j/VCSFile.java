@@ -2,7 +2,6 @@ package de.unibremen.informatik.st.libvcs4j;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,7 +14,6 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
@@ -768,7 +766,8 @@ public interface VCSFile extends VCSModelElement {
 
 	/**
 	 * Returns the content of this file as a list of strings excluding EOL
-	 * characters.
+	 * characters. The following EOLs are supported: '\n', '\r\n', '\r'. The
+	 * returned list is an unmodifiable view backed by {@link #readContent()}.
 	 *
 	 * @return
 	 * 		The content of this file as a list of strings excluding EOLs.
@@ -778,18 +777,13 @@ public interface VCSFile extends VCSModelElement {
 	 * 		If an error occurred while reading the file content.
 	 */
 	default List<String> readLines() throws IOException {
-		final List<String> lines = new ArrayList<>();
-		try (final Scanner scanner = new Scanner(readContent())) {
-			while (scanner.hasNextLine()) {
-				lines.add(scanner.nextLine());
-			}
-			return lines;
-		}
+		return new TextLines(readContent()).withoutEOL();
 	}
 
 	/**
 	 * Returns the content of this file as a list of strings including EOL
-	 * characters. The following EOLs are supported: '\n', '\r\n', '\r'.
+	 * characters. The following EOLs are supported: '\n', '\r\n', '\r'. The
+	 * returned list is an unmodifiable view backed by {@link #readContent()}.
 	 *
 	 * @return
 	 * 		The content of this file as a list of strings including EOLs.
@@ -799,37 +793,7 @@ public interface VCSFile extends VCSModelElement {
 	 * 		If an error occurred while reading the file content.
 	 */
 	default List<String> readLinesWithEOL() throws IOException {
-		final StringReader reader = new StringReader(readContent());
-		final List<String> lines = new ArrayList<>();
-		final StringBuilder builder = new StringBuilder();
-		int code;
-		while ((code = reader.read()) != -1) {
-			char ch = (char) code;
-			builder.append(ch);
-
-			if (ch == '\n') { // Unix EOL
-				lines.add(builder.toString());
-				builder.setLength(0);
-			} else if ( ch == '\r') {
-				reader.mark(1);
-				code = reader.read();
-				ch = (char) code;
-
-				if (ch == '\n') { // Windows EOL
-					builder.append(ch);
-				} else if (code == -1) { // old Mac EOL followed by EOF
-					break;
-				} else { // old Mac EOL followed by regular char
-					reader.reset();
-				}
-				lines.add(builder.toString());
-				builder.setLength(0);
-			}
-		}
-		if (builder.length() > 0) { // skip empty lines
-			lines.add(builder.toString());
-		}
-		return lines;
+		return new TextLines(readContent()).withEOL();
 	}
 
 	/**
@@ -1038,6 +1002,17 @@ public interface VCSFile extends VCSModelElement {
 
 		int line = 1;
 		int offsetInLine = offset;
+		// Skip preceding lines with binary search if the line offsets are
+		// known.
+		final TextLines textLines = TextLines.backing(lines);
+		if (textLines != null) {
+			final int idx = textLines.indexOf(offset);
+			if (idx < 0) {
+				return Optional.empty();
+			}
+			line = idx + 1;
+			offsetInLine = offset - textLines.offsetOf(idx);
+		}
 		while (line <= lines.size()) {
 			final String lineStr = lines.get(line - 1);
 			final int lineLen = lineStr.length();
@@ -1107,11 +1082,13 @@ public interface VCSFile extends VCSModelElement {
 			if (c == '\n' || c == '\r' || col > column) {
 				return Optional.empty();
 			} else if (col == column) {
-				final int offset = offsetInLine +
-						lines.subList(0, lineIdx).stream()
+				final TextLines textLines = TextLines.backing(lines);
+				final int offset = offsetInLine + (textLines != null
+						? textLines.offsetOf(lineIdx)
+						: lines.subList(0, lineIdx).stream()
 								.map(String::length)
 								.mapToInt(Integer::intValue)
-								.sum();
+								.sum());
 				return Optional.of(new Position(this, line, column, offset,
 						offsetInLine, tabSize));
 			}
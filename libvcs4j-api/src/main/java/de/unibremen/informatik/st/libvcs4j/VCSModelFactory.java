@@ -1,7 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j;
 
 import java.io.IOException;
-import java.lang.ref.SoftReference;
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -9,8 +8,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -78,7 +75,11 @@ public interface VCSModelFactory {
 		Validate.notNull(dateTime);
 		Validate.notNull(engine);
 		final List<String> _parentIds = createCopy(parentIds);
-		final List<FileChange> _fileChanges = createCopy(fileChanges);
+		// File change lists are copied lazily (see FileChangeList#copy()).
+		final List<FileChange> _fileChanges =
+				fileChanges instanceof FileChangeList
+						? ((FileChangeList) fileChanges).copy()
+						: createCopy(fileChanges);
 		final List<Issue> _issues = createCopy(issues);
 		return new Commit() {
 			@Override
@@ -108,7 +109,9 @@ public interface VCSModelFactory {
 
 			@Override
 			public List<FileChange> getFileChanges() {
-				return new ArrayList<>(_fileChanges);
+				return _fileChanges instanceof FileChangeList
+						? ((FileChangeList) _fileChanges).copy()
+						: new ArrayList<>(_fileChanges);
 			}
 
 			@Override
@@ -247,6 +250,10 @@ public interface VCSModelFactory {
 	/**
 	 * Creates a new {@link LineInfo}.
 	 *
+	 * The engines of this library read the line information of a file as a
+	 * whole and pass it to {@link #createLineInfoTable(LineInfoTable)}, which
+	 * calls this method for each line if a factory overrides this method.
+	 *
 	 * @param id
 	 * 		The id of the line info to create.
 	 * @param author
@@ -334,6 +341,48 @@ public interface VCSModelFactory {
 		};
 	}
 
+	/**
+	 * Creates the line information of a file from the given table. Engines
+	 * call this method with the table they have read (see
+	 * {@link VCSEngine#readLineInfo(VCSFile)}).
+	 *
+	 * If this factory overrides {@link #createLineInfo(String, String,
+	 * String, LocalDateTime, int, String, VCSFile, VCSEngine)}, the default
+	 * implementation maps each element of {@code table} with that method.
+	 * Otherwise, {@code table} is returned as is such that the line
+	 * information is kept in columnar form.
+	 *
+	 * @param table
+	 * 		The line information read by an engine.
+	 * @return
+	 * 		The line information of the file of {@code table}.
+	 * @throws NullPointerException
+	 * 		If {@code table} is {@code null}.
+	 */
+	default List<LineInfo> createLineInfoTable(final LineInfoTable table)
+			throws NullPointerException {
+		Validate.notNull(table);
+		final Class<?> declaringClass;
+		try {
+			declaringClass = getClass().getMethod("createLineInfo",
+					String.class, String.class, String.class,
+					LocalDateTime.class, int.class, String.class,
+					VCSFile.class, VCSEngine.class).getDeclaringClass();
+		} catch (final NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+		if (declaringClass == VCSModelFactory.class) {
+			return table;
+		}
+		final List<LineInfo> lineInfo = new ArrayList<>(table.size());
+		for (final LineInfo li : table) {
+			lineInfo.add(createLineInfo(li.getId(), li.getAuthor(),
+					li.getMessage(), li.getDateTime(), li.getLine(),
+					li.getContent(), li.getFile(), li.getVCSEngine()));
+		}
+		return lineInfo;
+	}
+
 	/**
 	 * Creates a new {@link Revision}. List arguments are flat copied. If any
 	 * of the given lists is {@code null}, an empty list is used as fallback.
@@ -357,33 +406,7 @@ public interface VCSModelFactory {
 			IllegalArgumentException {
 		Validate.notEmpty(id);
 		Validate.notNull(engine);
-		final List<VCSFile> _files = new ArrayList<>();
-		final Revision revision = new Revision() {
-			@Override
-			public String getId() {
-				return id;
-			}
-
-			@Override
-			public List<VCSFile> getFiles() {
-				return new ArrayList<>(_files);
-			}
-
-			@Override
-			public VCSEngine getVCSEngine() {
-				return engine;
-			}
-
-			@Override
-			public String toString() {
-				return String.format("Revision(id=%s, output=%s, files=%d)",
-						getId(), getOutput().toString(), getFiles().size());
-			}
-		};
-		createCopy(files).stream()
-				.map(f -> createVCSFile(f, revision, engine))
-				.forEach(_files::add);
-		return revision;
+		return new LazyRevision(id, createCopy(files), this, engine);
 	}
 
 	/**
@@ -418,6 +441,15 @@ public interface VCSModelFactory {
 		final List<Commit> _commits = createCopy(commits);
 		Validate.notEmpty(_commits, "There must be at least one commit");
 		return new RevisionRange() {
+
+			/**
+			 * Caches the merged file changes of all commits (see
+			 * {@link #getFileChanges()}). Is {@code null} as long as the file
+			 * changes have not been merged or if this range consists of a
+			 * single commit.
+			 */
+			private List<FileChange> fileChangesCache = null;
+
 			@Override
 			public int getOrdinal() {
 				return ordinal;
@@ -443,6 +475,17 @@ public interface VCSModelFactory {
 				return engine;
 			}
 
+			@Override
+			public List<FileChange> getFileChanges() {
+				if (_commits.size() == 1) {
+					return _commits.get(0).getFileChanges();
+				}
+				if (fileChangesCache == null) {
+					fileChangesCache = RevisionRange.super.getFileChanges();
+				}
+				return new ArrayList<>(fileChangesCache);
+			}
+
 			@Override
 			public String toString() {
 				return String.format("RevisionRange(ordinal=%d, " +
@@ -478,22 +521,22 @@ public interface VCSModelFactory {
 		return new VCSFile() {
 
 			/**
-			 * Caches the contents of this file (see {@link #readAllBytes()}).
-			 * Use a {@link SoftReference} to avoid an {@link OutOfMemoryError}
-			 * due to hundrets of thousands of cached file contents.
+			 * Caches the contents of this file and the information derived
+			 * from the contents (see {@link #readAllBytes()},
+			 * {@link #readContent()}, and {@link #guessCharset()}). The blob
+			 * is resolved with {@link VCSEngine#getBlob(VCSFile)} such that
+			 * files with equal contents share their caches. If the engine
+			 * does not provide a blob, a blob that is private to this file is
+			 * used.
 			 */
-			private SoftReference<byte[]> contentsCache =
-					new SoftReference<>(null);
+			private Blob blob = null;
 
 			/**
-			 * Caches the charset of this file (see {@link #guessCharset()}).
+			 * Whether this file is binary. Is {@code null} if it has not been
+			 * computed yet. Not cached by {@link #blob} because
+			 * {@link VCSFile#isBinary()} depends on the name of this file.
 			 */
-			private AtomicReference<Charset> charsetCache = null;
-
-			/**
-			 * Caches the information whether this file is binary.
-			 */
-			private AtomicBoolean binary = null;
+			private Boolean binary = null;
 
 			@Override
 			public String getRelativePath() {
@@ -512,29 +555,72 @@ public interface VCSModelFactory {
 
 			@Override
 			public byte[] readAllBytes() throws IOException {
-				byte[] bytes = contentsCache.get();
-				if (bytes == null) {
-					bytes = VCSFile.super.readAllBytes();
-					contentsCache = new SoftReference<>(bytes);
-				}
-				return bytes;
+				return getBlob().readAllBytes(VCSFile.super::readAllBytes);
+			}
+
+			@Override
+			public String readContent() throws IOException {
+				return readTextLines().getContent();
+			}
+
+			@Override
+			public List<String> readLines() throws IOException {
+				return readTextLines().withoutEOL();
+			}
+
+			@Override
+			public List<String> readLinesWithEOL() throws IOException {
+				return readTextLines().withEOL();
 			}
 
 			@Override
 			public Optional<Charset> guessCharset() throws IOException {
-				if (charsetCache == null) {
-					charsetCache = new AtomicReference<>(
-							VCSFile.super.guessCharset().orElse(null));
-				}
-				return Optional.ofNullable(charsetCache.get());
+				return getBlob().guessCharset(VCSFile.super::guessCharset);
 			}
 
 			@Override
-			public boolean isBinary() throws IOException {
+			public synchronized boolean isBinary() throws IOException {
 				if (binary == null) {
-					binary = new AtomicBoolean(VCSFile.super.isBinary());
+					binary = VCSFile.super.isBinary();
+				}
+				return binary;
+			}
+
+			/**
+			 * Returns the (cached) decoded content of this file split into
+			 * lines. Checks whether this file is binary before the blob is
+			 * asked, as the blob may have been decoded by a text file with
+			 * equal contents.
+			 *
+			 * @return
+			 * 		The decoded content of this file split into lines.
+			 * @throws BinaryFileException
+			 * 		If this file is binary (see {@link #isBinary()}).
+			 * @throws IOException
+			 * 		If an error occurred while reading the file content.
+			 */
+			private TextLines readTextLines() throws IOException {
+				if (isBinary()) {
+					throw new BinaryFileException(String.format(
+							"'%s' is a binary file", getPath()));
+				}
+				return getBlob().readLines(VCSFile.super::readContent);
+			}
+
+			/**
+			 * Returns the blob of this file. Resolves the blob on first
+			 * access.
+			 *
+			 * @return
+			 * 		The blob of this file.
+			 * @throws IOException
+			 * 		If an error occurred while resolving the blob.
+			 */
+			private synchronized Blob getBlob() throws IOException {
+				if (blob == null) {
+					blob = engine.getBlob(this).orElseGet(Blob::new);
 				}
-				return binary.get();
+				return blob;
 			}
 
 			@Override
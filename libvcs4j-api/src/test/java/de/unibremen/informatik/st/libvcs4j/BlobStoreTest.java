@@ -0,0 +1,111 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlobStoreTest {
+
+	@Test
+	public void resolveReturnsSameBlob() {
+		BlobStore store = new BlobStore();
+		Blob blob = store.resolve("abc");
+		assertThat(blob.getId()).hasValue("abc");
+		assertThat(store.resolve("abc")).isSameAs(blob);
+		assertThat(store.resolve("def")).isNotSameAs(blob);
+		assertThat(store.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		BlobStore store = new BlobStore(2);
+		Blob a = store.resolve("a");
+		Blob b = store.resolve("b");
+		store.resolve("a");
+		store.resolve("c");
+		assertThat(store.size()).isEqualTo(2);
+		assertThat(store.resolve("a")).isSameAs(a);
+		assertThat(store.resolve("b")).isNotSameAs(b);
+	}
+
+	@Test
+	public void invalidCapacity() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new BlobStore(0));
+	}
+
+	@Test
+	public void filesShareBlob() throws IOException {
+		BlobStore store = new BlobStore();
+		Revision rev1 = mock(Revision.class);
+		when(rev1.getOutput()).thenReturn(Paths.get("output"));
+		Revision rev2 = mock(Revision.class);
+		when(rev2.getOutput()).thenReturn(Paths.get("output"));
+		VCSEngine engine = mock(VCSEngine.class);
+		when(engine.getBlob(any()))
+				.thenReturn(Optional.of(store.resolve("blob")));
+		when(engine.readAllBytes(any()))
+				.thenReturn("foo\nbar".getBytes(StandardCharsets.UTF_8));
+		when(engine.guessCharset(any()))
+				.thenReturn(Optional.of(StandardCharsets.UTF_8));
+
+		VCSModelFactory factory = new VCSModelFactory() {};
+		VCSFile f1 = factory.createVCSFile("A.java", rev1, engine);
+		VCSFile f2 = factory.createVCSFile("A.java", rev2, engine);
+
+		assertThat(f1.readLines()).containsExactly("foo", "bar");
+		assertThat(f2.readLines()).containsExactly("foo", "bar");
+		assertThat(f2.readContent()).isSameAs(f1.readContent());
+		verify(engine, times(1)).readAllBytes(any());
+		verify(engine, times(1)).guessCharset(any());
+	}
+
+	@Test
+	public void binaryIsNotShared() throws IOException {
+		// The detection of binary files depends on the file name.
+		Path png = Files.createTempFile(null, "a.png");
+		try {
+			assumeTrue("image/png".equals(Files.probeContentType(png)));
+		} finally {
+			Files.delete(png);
+		}
+
+		BlobStore store = new BlobStore();
+		Revision rev = mock(Revision.class);
+		when(rev.getOutput()).thenReturn(Paths.get("output"));
+		VCSEngine engine = mock(VCSEngine.class);
+		when(engine.getBlob(any()))
+				.thenReturn(Optional.of(store.resolve("empty")));
+		when(engine.readAllBytes(any())).thenReturn(new byte[0]);
+		when(engine.guessCharset(any()))
+				.thenReturn(Optional.of(StandardCharsets.UTF_8));
+
+		VCSModelFactory factory = new VCSModelFactory() {};
+		VCSFile text = factory.createVCSFile("A.java", rev, engine);
+		VCSFile binary = factory.createVCSFile("a.png", rev, engine);
+
+		assertThat(text.isBinary()).isFalse();
+		assertThat(text.readLines()).isEmpty();
+		assertThat(binary.isBinary()).isTrue();
+		assertThatExceptionOfType(BinaryFileException.class)
+				.isThrownBy(binary::readContent);
+		assertThatExceptionOfType(BinaryFileException.class)
+				.isThrownBy(binary::readLines);
+		verify(engine, times(1)).readAllBytes(any());
+	}
+}
@@ -3,8 +3,10 @@ package de.unibremen.informatik.st.libvcs4j;
 import org.junit.Test;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -83,4 +85,51 @@ public class FSTreeTest {
 				.orElseThrow(AssertionError::new);
 		assertThat(file.getRoot()).isSameAs(root);
 	}
+
+	@Test
+	public void duplicatePaths() {
+		VCSFile a = mock(VCSFile.class);
+		when(a.toRelativePath()).thenReturn(Paths.get("src", "A.java"));
+		VCSFile b = mock(VCSFile.class);
+		when(b.toRelativePath()).thenReturn(Paths.get("src", "A.java"));
+		VCSFile c = mock(VCSFile.class);
+		when(c.toRelativePath()).thenReturn(
+				Paths.get("src", "A.java", "C.java"));
+
+		FSTree<Integer> tree = FSTree.of(
+				Arrays.asList(a, b, c, a),
+				f -> 1,
+				Integer::sum);
+
+		assertThat(tree.getNodes())
+				.extracting(FSTree::getFile)
+				.extracting(Optional::get)
+				.containsExactly(a);
+		assertThat(tree.getValue()).hasValue(1);
+	}
+
+	@Test
+	public void aggregateLargeTree() {
+		List<VCSFile> files = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			for (int j = 0; j < 1000; j++) {
+				VCSFile file = mock(VCSFile.class);
+				when(file.toRelativePath()).thenReturn(Paths.get(
+						"src", "dir" + i, "sub" + (j % 3), j + ".java"));
+				files.add(file);
+			}
+		}
+
+		FSTree<Integer> tree = FSTree.of(files, f -> 1, Integer::sum);
+
+		assertThat(tree.getValue()).hasValue(40000);
+		assertThat(tree.getDirectories()).hasSize(40);
+		assertThat(tree.navigateTo("dir7"))
+				.flatMap(FSTree::getValue)
+				.hasValue(1000);
+		assertThat(tree.navigateTo("dir7/sub1"))
+				.map(FSTree::getName)
+				.hasValue("sub1");
+		assertThat(tree.compact().getValue()).hasValue(40000);
+	}
 }
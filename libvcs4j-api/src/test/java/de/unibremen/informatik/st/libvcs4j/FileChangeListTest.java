@@ -0,0 +1,218 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FileChangeListTest {
+
+	private final VCSModelFactory factory = spy(new VCSModelFactory() {});
+
+	private final VCSEngine engine = mock(VCSEngine.class);
+
+	private final Revision oldRevision;
+
+	private final Revision newRevision;
+
+	public FileChangeListTest() {
+		when(engine.getModelFactory()).thenReturn(factory);
+		oldRevision = factory.createRevision("1",
+				Arrays.asList("A.java", "B.java", "c.txt"), engine);
+		newRevision = factory.createRevision("2",
+				Arrays.asList("A.java", "C.java", "d.txt"), engine);
+	}
+
+	/**
+	 * Creates: MODIFY A.java, REMOVE B.java, ADD C.java, RELOCATE c.txt to
+	 * d.txt.
+	 */
+	private FileChangeList createList() {
+		return new FileChangeList.Builder(oldRevision, newRevision, engine)
+				.add("A.java", "A.java")
+				.add("B.java", null)
+				.add(null, "C.java")
+				.add("c.txt", "d.txt")
+				.build();
+	}
+
+	private List<String> summarize(final List<FileChange> changes) {
+		return changes.stream()
+				.map(fc -> fc.getType() + " "
+						+ fc.getOldFile().map(VCSFile::getRelativePath)
+								.orElse("-") + " "
+						+ fc.getNewFile().map(VCSFile::getRelativePath)
+								.orElse("-"))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void revisionCreatesFilesOnDemand() {
+		verify(factory, never()).createVCSFile(any(), any(), any());
+		assertThat(newRevision.getFiles()).hasSize(3);
+		verify(factory, times(3)).createVCSFile(any(), any(), any());
+		assertThat(newRevision.getFiles().get(0))
+				.isSameAs(newRevision.getFiles().get(0));
+		verify(factory, times(3)).createVCSFile(any(), any(), any());
+	}
+
+	@Test
+	public void materializesOnAccess() {
+		FileChangeList list = createList();
+		assertThat(list).hasSize(4);
+		assertThat(list.getType(3)).isEqualTo(FileChange.Type.RELOCATE);
+		assertThat(list.getOldPath(2)).isEmpty();
+		assertThat(list.getNewPath(3)).contains("d.txt");
+		verify(factory, never()).createFileChange(any(), any(), any());
+
+		FileChange change = list.get(0);
+		assertThat(change.getType()).isEqualTo(FileChange.Type.MODIFY);
+		assertThat(change.getOldFile().orElseThrow().getRevision())
+				.isSameAs(oldRevision);
+		assertThat(change.getNewFile().orElseThrow().getRevision())
+				.isSameAs(newRevision);
+		assertThat(list.get(0)).isSameAs(change);
+		assertThat(list.copy().get(0)).isSameAs(change);
+		verify(factory, times(1)).createFileChange(any(), any(), any());
+
+		assertThat(summarize(list)).containsExactly(
+				"MODIFY A.java A.java",
+				"REMOVE B.java -",
+				"ADD - C.java",
+				"RELOCATE c.txt d.txt");
+	}
+
+	@Test
+	public void sharesNewFilesWithRevision() {
+		FileChangeList list = createList();
+		List<VCSFile> files = newRevision.getFiles();
+		assertThat(list.get(0).getNewFile().orElseThrow())
+				.isSameAs(files.get(0));
+		assertThat(list.get(2).getNewFile().orElseThrow())
+				.isSameAs(files.get(1));
+		assertThat(list.get(3).getNewFile().orElseThrow())
+				.isSameAs(files.get(2));
+		assertThat(list.get(0).getOldFile().orElseThrow().getRevision())
+				.isSameAs(oldRevision);
+
+		// Paths that are not part of the revision.
+		FileChange added = new FileChangeList.Builder(
+				oldRevision, newRevision, engine)
+				.add(null, "E.java")
+				.build().get(0);
+		assertThat(added.getNewFile().orElseThrow().getRelativePath())
+				.isEqualTo("E.java");
+		assertThat(added.getNewFile().orElseThrow().getRevision())
+				.isSameAs(newRevision);
+	}
+
+	@Test
+	public void resolvesNewFilesOneAtATime() {
+		FileChangeList added = createList().filterByType(
+				FileChange.Type.ADD);
+		VCSFile file = added.get(0).getNewFile().orElseThrow();
+		verify(factory, times(1)).createVCSFile(any(), any(), any());
+		verify(factory).createVCSFile("C.java", newRevision, engine);
+
+		// The remaining files are created on demand and `file` is shared.
+		List<VCSFile> files = newRevision.getFiles();
+		verify(factory, times(3)).createVCSFile(any(), any(), any());
+		assertThat(files.get(1)).isSameAs(file);
+	}
+
+	@Test
+	public void filtersWithoutMaterializing() {
+		FileChangeList list = createList();
+		FileChangeList java = list.filterByPath(p -> p.endsWith(".java"));
+		FileChangeList relocated = list.filterByType(
+				FileChange.Type.RELOCATE);
+		verify(factory, never()).createFileChange(any(), any(), any());
+
+		assertThat(summarize(java)).containsExactly(
+				"MODIFY A.java A.java",
+				"REMOVE B.java -",
+				"ADD - C.java");
+		assertThat(summarize(relocated)).containsExactly(
+				"RELOCATE c.txt d.txt");
+		assertThat(summarize(java.filterByPath(p -> p.startsWith("C"))))
+				.containsExactly("ADD - C.java");
+		// The file changes are shared with `list`.
+		assertThat(java.get(2)).isSameAs(list.get(2));
+	}
+
+	@Test
+	public void modificationsAreLocal() {
+		FileChangeList list = createList();
+		FileChangeList copy = list.copy();
+		FileChange removed = copy.remove(1);
+		copy.add(removed);
+
+		assertThat(summarize(copy)).containsExactly(
+				"MODIFY A.java A.java",
+				"ADD - C.java",
+				"RELOCATE c.txt d.txt",
+				"REMOVE B.java -");
+		assertThat(list.get(1)).isSameAs(removed);
+		assertThat(summarize(list).get(1)).isEqualTo("REMOVE B.java -");
+		assertThat(copy.getType(3)).isEqualTo(FileChange.Type.REMOVE);
+		assertThat(summarize(copy.filterByPath(p -> p.endsWith(".java"))))
+				.containsExactly(
+						"MODIFY A.java A.java",
+						"ADD - C.java",
+						"REMOVE B.java -");
+		assertThat(summarize(copy.filterByType(FileChange.Type.ADD)))
+				.containsExactly("ADD - C.java");
+	}
+
+	@Test
+	public void revisionRangeFiltersCompactList() {
+		Commit commit = factory.createCommit("2", "author", "message",
+				LocalDateTime.now(), Collections.singletonList("1"),
+				createList(), Collections.emptyList(), engine);
+		RevisionRange range = factory.createRevisionRange(2, newRevision,
+				oldRevision, Collections.singletonList(commit), engine);
+
+		assertThat(range.getFileChanges()).isInstanceOf(FileChangeList.class);
+		assertThat(summarize(range.getFileChangesBySuffix(".txt")))
+				.containsExactly("RELOCATE c.txt d.txt");
+		assertThat(summarize(range.getFileChangesByRegex("[AB]\\.java")))
+				.containsExactly(
+						"MODIFY A.java A.java",
+						"REMOVE B.java -");
+		assertThat(summarize(range.getFileChangesByPrefix("d")))
+				.containsExactly("RELOCATE c.txt d.txt");
+		assertThat(summarize(range.getRemovedFiles()))
+				.containsExactly("REMOVE B.java -");
+		verify(factory, times(3)).createFileChange(any(), any(), any());
+		// Modifying the returned list does not affect the range.
+		range.getFileChanges().clear();
+		assertThat(range.getFileChanges()).hasSize(4);
+	}
+
+	@Test
+	public void invalidPaths() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new FileChangeList.Builder(oldRevision, newRevision, engine)
+						.add(null, null));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new FileChangeList.Builder(null, newRevision, engine)
+						.add("A.java", null));
+		assertThat(new FileChangeList.Builder(null, newRevision, engine)
+				.add(null, "A.java").build().get(0).getOldFile())
+				.isEqualTo(Optional.empty());
+	}
+}
@@ -0,0 +1,144 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class LineInfoTableTest {
+
+	private final VCSFile file = mock(VCSFile.class);
+
+	private final VCSEngine engine = mock(VCSEngine.class);
+
+	private final LocalDateTime first = LocalDateTime.of(2019, 1, 1, 12, 0);
+
+	private final LocalDateTime second = LocalDateTime.of(2019, 2, 1, 12, 0);
+
+	@Test
+	public void internCommits() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		for (int i = 0; i < 1000; i++) {
+			if (i % 2 == 0) {
+				builder.add("a", "alice", "first", first, i + 1, "x" + i);
+			} else {
+				builder.add("b", "bob", "second", second, i + 1, "y" + i);
+			}
+		}
+		LineInfoTable table = builder.build();
+
+		assertThat(table).hasSize(1000);
+		assertThat(table.numCommits()).isEqualTo(2);
+		LineInfo even = table.get(10);
+		assertThat(even.getId()).isEqualTo("a");
+		assertThat(even.getAuthor()).isEqualTo("alice");
+		assertThat(even.getMessage()).isEqualTo("first");
+		assertThat(even.getDateTime()).isEqualTo(first);
+		assertThat(even.getLine()).isEqualTo(11);
+		assertThat(even.getContent()).isEqualTo("x10");
+		assertThat(even.getFile()).isSameAs(file);
+		assertThat(even.getVCSEngine()).isSameAs(engine);
+		LineInfo odd = table.get(11);
+		assertThat(odd.getId()).isEqualTo("b");
+		assertThat(odd.getMessage()).isSameAs(table.get(999).getMessage());
+		assertThat(odd.getContent()).isEqualTo("y11");
+	}
+
+	@Test
+	public void distinguishCommitsWithSameId() {
+		LineInfoTable table = new LineInfoTable.Builder(file, engine)
+				.add("a", "alice", "msg", first, 1, "x")
+				.add("a", "bob", "msg", first, 2, "y")
+				.add("a", "alice", "msg", first, 3, "z")
+				.build();
+		assertThat(table.numCommits()).isEqualTo(2);
+		assertThat(table).extracting(LineInfo::getAuthor)
+				.containsExactly("alice", "bob", "alice");
+	}
+
+	@Test
+	public void viewsAreCreatedOnce() {
+		LineInfoTable table = new LineInfoTable.Builder(file, engine)
+				.add("a", "alice", "msg", first, 1, "x")
+				.build();
+		assertThat(table.get(0)).isSameAs(table.get(0));
+		assertThat(table).containsExactly(table.get(0));
+	}
+
+	@Test
+	public void repeatLastLine() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		builder.add("a", "alice", "msg", first, 1, "x");
+		builder.add(builder.lastCommit(), builder.lastLine(), "y");
+		LineInfoTable table = builder.build();
+		assertThat(table).extracting(LineInfo::getLine).containsExactly(1, 1);
+		assertThat(table.get(1).getId()).isEqualTo("a");
+		assertThat(table.get(1).getContent()).isEqualTo("y");
+	}
+
+	@Test
+	public void emptyTable() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		assertThat(builder.build()).isEmpty();
+		assertThatThrownBy(builder::lastCommit)
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void invalidArguments() {
+		LineInfoTable.Builder builder = new LineInfoTable.Builder(file, engine);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> builder.add(0, 1, "x"));
+		int commit = builder.commit("a", "alice", "msg", first);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> builder.add(commit, 0, "x"));
+		assertThatThrownBy(() -> builder.add(commit, 1, null))
+				.isInstanceOf(NullPointerException.class);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> builder.commit("", "alice", "msg", first));
+		assertThatThrownBy(() -> builder.build().get(0))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	public void modelFactoryReturnsTable() {
+		LineInfoTable table = new LineInfoTable.Builder(file, engine)
+				.add("a", "alice", "msg", first, 1, "x")
+				.build();
+		VCSModelFactory factory = new VCSModelFactory() {};
+		assertThat(factory.createLineInfoTable(table)).isSameAs(table);
+		assertThatThrownBy(() -> factory.createLineInfoTable(null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	public void modelFactoryMapsTableWithCreateLineInfo() {
+		LineInfoTable table = new LineInfoTable.Builder(file, engine)
+				.add("a", "alice", "msg", first, 1, "x")
+				.add("b", "bob", "msg", second, 2, "y")
+				.build();
+		VCSModelFactory factory = new VCSModelFactory() {
+			@Override
+			public LineInfo createLineInfo(String id, String author,
+					String message, LocalDateTime dateTime, int line,
+					String content, VCSFile file, VCSEngine engine) {
+				return VCSModelFactory.super.createLineInfo(id,
+						author.toUpperCase(), message, dateTime, line,
+						content, file, engine);
+			}
+		};
+		List<LineInfo> lineInfo = factory.createLineInfoTable(table);
+		assertThat(lineInfo).isNotInstanceOf(LineInfoTable.class);
+		assertThat(lineInfo).extracting(LineInfo::getAuthor)
+				.containsExactly("ALICE", "BOB");
+		assertThat(lineInfo).extracting(LineInfo::getLine)
+				.containsExactly(1, 2);
+		assertThat(lineInfo.get(1).getDateTime()).isEqualTo(second);
+		assertThat(lineInfo.get(1).getFile()).isSameAs(file);
+	}
+}
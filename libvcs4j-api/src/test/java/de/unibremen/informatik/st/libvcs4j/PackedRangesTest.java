@@ -0,0 +1,221 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PackedRangesTest {
+
+	private static class VCSFileMock implements VCSFile {
+		private final String content;
+		private final String path;
+
+		public VCSFileMock(final String content, final String path) {
+			this.content = content;
+			this.path = path;
+		}
+
+		@Override
+		public Optional<Charset> guessCharset() {
+			return Optional.of(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public byte[] readAllBytes() {
+			return content.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getRelativePath() {
+			return path;
+		}
+
+		@Override
+		public Revision getRevision() {
+			Revision revision = mock(Revision.class);
+			when(revision.getId()).thenReturn("1");
+			return revision;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isBinary() {
+			return false;
+		}
+	}
+
+	private final VCSFile file = new VCSFileMock(
+			"class A {\n\tint a;\r\n\tint b;\n}", "A.java");
+
+	private final VCSFile other = new VCSFileMock(
+			"class B {\n}\n", "B.java");
+
+	private VCSFile.Range range(final VCSFile file, final int begin,
+			final int end, final int tabSize) throws IOException {
+		return new VCSFile.Range(
+				file.positionOf(begin, tabSize).orElseThrow(),
+				file.positionOf(end, tabSize).orElseThrow());
+	}
+
+	@Test
+	public void viewsEqualOriginalRanges() throws IOException {
+		VCSFile.Range a = range(file, 11, 16, 4);
+		VCSFile.Range b = range(file, 20, 25, 8);
+		VCSFile.Range c = range(other, 0, 10, 4);
+		PackedRanges ranges = PackedRanges.of(Arrays.asList(a, b, c));
+
+		assertThat(ranges).hasSize(3);
+		for (int i = 0; i < 3; i++) {
+			VCSFile.Range expected = Arrays.asList(a, b, c).get(i);
+			VCSFile.Range actual = ranges.get(i);
+			assertThat(actual.getFile()).isSameAs(expected.getFile());
+			assertThat(actual.toString()).isEqualTo(expected.toString());
+		}
+		assertThat(ranges.get(1).getBegin().getLine()).isEqualTo(3);
+		assertThat(ranges.get(1).getBegin().getColumn()).isEqualTo(9);
+		assertThat(ranges.getTabSize(2)).isEqualTo(4);
+		assertThat(ranges.getFiles()).containsExactly(file, other);
+	}
+
+	@Test
+	public void builderInternsFiles() {
+		PackedRanges.Builder builder = new PackedRanges.Builder();
+		for (int i = 0; i < 100; i++) {
+			builder.add(i % 2 == 0 ? file : other, i, i + 1, 4);
+		}
+		PackedRanges ranges = builder.build();
+
+		assertThat(ranges).hasSize(100);
+		assertThat(ranges.getFiles()).containsExactly(file, other);
+		assertThat(ranges.getFile(42)).isSameAs(file);
+		assertThat(ranges.getFile(43)).isSameAs(other);
+		assertThat(ranges.getBeginOffset(43)).isEqualTo(43);
+		assertThat(ranges.getEndOffset(43)).isEqualTo(44);
+	}
+
+	@Test
+	public void subListsShareRanges() throws IOException {
+		PackedRanges ranges = new PackedRanges.Builder()
+				.add(file, 11, 16, 4)
+				.add(other, 0, 10, 4)
+				.add(file, 20, 25, 8)
+				.build();
+		PackedRanges tail = ranges.subList(1, 3);
+
+		assertThat(tail).hasSize(2);
+		assertThat(tail.getFile(0)).isSameAs(other);
+		assertThat(tail.getBeginOffset(1)).isEqualTo(20);
+		assertThat(tail.getTabSize(1)).isEqualTo(8);
+		assertThat(tail.get(1).readContent()).isEqualTo("int b;");
+		assertThat(tail.toString())
+				.isEqualTo(ranges.subList(1, 3).toString());
+		assertThat(tail.matches(0, ranges, 1)).isTrue();
+		assertThat(ranges.subList(1, 2).getFiles()).containsExactly(other);
+		assertThat(tail.subList(1, 2).getBeginOffset(0)).isEqualTo(20);
+		assertThat(PackedRanges.of(tail)).isSameAs(tail);
+		assertThatThrownBy(() -> tail.getFile(2))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> ranges.subList(2, 4))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+
+		// Only the files of the view are mapped.
+		VCSFile copy = new VCSFileMock("class B {\n}\n", "B.java");
+		PackedRanges mapped = ranges.subList(1, 2).mapFiles(f -> {
+			assertThat(f).isSameAs(other);
+			return copy;
+		});
+		assertThat(mapped).hasSize(1);
+		assertThat(mapped.getFile(0)).isSameAs(copy);
+
+		PackedRanges copied = new PackedRanges.Builder()
+				.addAll(tail).addAll(tail, f -> copy).build();
+		assertThat(copied).hasSize(4);
+		assertThat(copied.getFiles()).containsExactly(other, file, copy);
+		assertThat(copied.getEndOffset(3)).isEqualTo(25);
+	}
+
+	@Test
+	public void matchesByOffsetsAndRelativePath() throws IOException {
+		VCSFile copy = new VCSFileMock("class A {\n\tint a;\r\n\tint b;\n}",
+				"A.java");
+		PackedRanges ranges = PackedRanges.of(Arrays.asList(
+				range(file, 11, 16, 4), range(other, 0, 10, 4)));
+		PackedRanges mapped = ranges.mapFiles(f -> f == file ? copy : f);
+
+		assertThat(mapped.getFile(0)).isSameAs(copy);
+		assertThat(mapped.get(0).readContent()).isEqualTo("int a;");
+		assertThat(ranges.matches(0, mapped, 0)).isTrue();
+		assertThat(ranges.matches(1, mapped, 1)).isTrue();
+		assertThat(ranges.matches(0, mapped, 1)).isFalse();
+		assertThat(VCSFile.Range.RELATIVE_PATH_PREDICATE
+				.test(ranges.get(0), mapped.get(0))).isTrue();
+
+		PackedRanges reversed = PackedRanges.of(
+				Arrays.asList(mapped.get(1), mapped.get(0)));
+		assertThat(ranges.matches(reversed)).isTrue();
+		assertThat(ranges.matches(PackedRanges.of(
+				Arrays.asList(mapped.get(0), mapped.get(0))))).isFalse();
+		assertThat(ranges.matches(PackedRanges.of(
+				Collections.singletonList(mapped.get(0))))).isFalse();
+	}
+
+	@Test
+	public void emptyRanges() {
+		PackedRanges ranges = PackedRanges.of(Collections.emptyList());
+		assertThat(ranges).isEmpty();
+		assertThat(ranges.getFiles()).isEmpty();
+	}
+
+	@Test
+	public void invalidOffsets() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new PackedRanges.Builder().add(file, -1, 2, 4));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new PackedRanges.Builder().add(file, 3, 2, 4));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new PackedRanges.Builder().add(file, 0, 2, 0));
+		// Offset 9 points to '\n'.
+		PackedRanges ranges = new PackedRanges.Builder()
+				.add(file, 0, 9, 4).build();
+		assertThatThrownBy(() -> ranges.get(0))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void positionOfUsesLineIndex() throws IOException {
+		// Compare the binary search of `positionOf(int, int)` with the
+		// position computed from line and column.
+		String content = file.readContent();
+		for (int offset = 0; offset < content.length(); offset++) {
+			Optional<VCSFile.Position> position = file.positionOf(offset, 4);
+			char c = content.charAt(offset);
+			if (c == '\n' || c == '\r') {
+				assertThat(position).isEmpty();
+			} else {
+				VCSFile.Position expected = file.positionOf(
+						position.orElseThrow().getLine(),
+						position.orElseThrow().getColumn(), 4)
+						.orElseThrow();
+				assertThat(position.get().getOffset())
+						.isEqualTo(expected.getOffset())
+						.isEqualTo(offset);
+			}
+		}
+		assertThat(file.positionOf(content.length(), 4)).isEmpty();
+	}
+}
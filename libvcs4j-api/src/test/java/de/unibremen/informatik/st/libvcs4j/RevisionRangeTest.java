@@ -13,6 +13,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RevisionRangeTest {
@@ -362,6 +364,52 @@ public class RevisionRangeTest {
         assertThat(range.getFileChanges()).containsExactly(add);
     }
 
+    @Test
+    public void mergedFileChangesAreCached() {
+        Revision rev1 = mock(Revision.class);
+        when(rev1.getId()).thenReturn("1");
+        Revision rev2 = mock(Revision.class);
+        when(rev2.getId()).thenReturn("2");
+
+        VCSFile oldFile = mock(VCSFile.class);
+        when(oldFile.getRelativePath()).thenReturn("A.java");
+        when(oldFile.toRelativePath()).thenReturn(Paths.get("A.java"));
+        when(oldFile.getRevision()).thenReturn(rev1);
+        VCSFile newFile = mock(VCSFile.class);
+        when(newFile.getRelativePath()).thenReturn("A.java");
+        when(newFile.toRelativePath()).thenReturn(Paths.get("A.java"));
+        when(newFile.getRevision()).thenReturn(rev2);
+
+        FileChange m1 = mock(FileChange.class);
+        when(m1.getOldFile()).thenReturn(Optional.of(oldFile));
+        when(m1.getNewFile()).thenReturn(Optional.of(newFile));
+        when(m1.getType()).thenReturn(FileChange.Type.MODIFY);
+        FileChange m2 = mock(FileChange.class);
+        when(m2.getOldFile()).thenReturn(Optional.of(newFile));
+        when(m2.getNewFile()).thenReturn(Optional.of(newFile));
+        when(m2.getType()).thenReturn(FileChange.Type.MODIFY);
+
+        Commit c1 = mock(Commit.class);
+        when(c1.getFileChanges()).thenReturn(singletonList(m1));
+        Commit c2 = mock(Commit.class);
+        when(c2.getFileChanges()).thenReturn(singletonList(m2));
+
+        VCSModelFactory factory = new VCSModelFactory() {};
+        VCSEngine engine = mock(VCSEngine.class);
+        when(engine.getModelFactory()).thenReturn(factory);
+
+        RevisionRange range = factory.createRevisionRange(
+                2, rev2, rev1, Arrays.asList(c1, c2), engine);
+        List<FileChange> changes = range.getFileChanges();
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getOldFile()).hasValue(oldFile);
+        assertThat(changes.get(0).getNewFile()).hasValue(newFile);
+
+        changes.clear();
+        assertThat(range.getFileChanges()).hasSize(1);
+        verify(c2, times(1)).getFileChanges();
+    }
+
     @Test
     public void getLatestCommit() {
         Commit c1 = mock(Commit.class);
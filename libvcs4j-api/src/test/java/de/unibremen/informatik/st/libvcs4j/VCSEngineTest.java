@@ -102,4 +102,17 @@ public class VCSEngineTest {
 
 		assertThat(engine.listFilesInOutput()).hasSize(7);
 	}
+
+	@Test
+	public void testInstrumentationIsUnsupportedByDefault() {
+		VCSEngine engine = spy(VCSEngine.class);
+		InstrumentationListener listener =
+				new InstrumentationListener() {};
+
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+				.isThrownBy(() -> engine.addInstrumentationListener(listener));
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> engine.addInstrumentationListener(null));
+		engine.removeInstrumentationListener(listener);
+	}
 }
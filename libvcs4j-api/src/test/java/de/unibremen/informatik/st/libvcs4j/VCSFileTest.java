@@ -10,7 +10,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class VCSFileTest {
@@ -123,6 +126,47 @@ public class VCSFileTest {
 				.contains("first", "second", "third");
 	}
 
+	@Test
+	public void readLinesEmptyLines() throws IOException {
+		VCSFile file = new VCSFileMock("\n\r\nfoo\r\rbar\n\n");
+
+		assertThat(file.readLines())
+				.containsExactly("", "", "foo", "", "bar", "");
+		assertThat(file.readLinesWithEOL())
+				.containsExactly("\n", "\r\n", "foo\r", "\r", "bar\n", "\n");
+	}
+
+	@Test
+	public void readLinesIsUnmodifiable() throws IOException {
+		VCSFile file = new VCSFileMock("foo\nbar");
+
+		List<String> lines = file.readLines();
+		assertThatThrownBy(() -> lines.add("baz"))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> lines.get(2))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+	}
+
+	@Test
+	public void readContentIsCached() throws IOException {
+		Revision revision = mock(Revision.class);
+		VCSEngine engine = mock(VCSEngine.class);
+		VCSFile file = new VCSModelFactory() {}
+				.createVCSFile("A.java", revision, engine);
+		when(engine.readAllBytes(file))
+				.thenReturn("foo\nbar\n".getBytes(StandardCharsets.UTF_8));
+		when(engine.guessCharset(file))
+				.thenReturn(Optional.of(StandardCharsets.UTF_8));
+		when(revision.getOutput()).thenReturn(Paths.get("output"));
+
+		String content = file.readContent();
+		assertThat(content).isEqualTo("foo\nbar\n");
+		assertThat(file.readContent()).isSameAs(content);
+		assertThat(file.readLines()).containsExactly("foo", "bar");
+		assertThat(file.readLinesWithEOL()).containsExactly("foo\n", "bar\n");
+		verify(engine, times(1)).guessCharset(file);
+	}
+
 	@Test
 	public void isBinaryFromString() throws IOException {
 		VCSFile file = mock(VCSFile.class);
@@ -0,0 +1,122 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the VCS engines on synthetic repositories (see
+ * {@link RepositoryGenerator}). The repository of a trial is generated once.
+ * {@link #next(Blackhole)} processes the whole history with a fresh engine,
+ * whereas {@link #computeDiff(Blackhole)} and {@link #readLineInfo(Blackhole)}
+ * operate on the file changes and files collected during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class EngineBenchmark {
+
+	@Param({"GIT", "SVN"})
+	public SyntheticRepository.Kind kind;
+
+	@Param({"100", "1000"})
+	public int numFiles;
+
+	@Param({"50"})
+	public int numCommits;
+
+	@Param({"0.05"})
+	public double churnRate;
+
+	@Param({"0.01"})
+	public double renameRate;
+
+	private SyntheticRepository repository;
+
+	/**
+	 * The file changes of all ranges.
+	 */
+	private final List<FileChange> fileChanges = new ArrayList<>();
+
+	/**
+	 * The files of the last revision.
+	 */
+	private final List<VCSFile> files = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		repository = new SyntheticRepository(kind, new RepositoryGenerator()
+				.withNumFiles(numFiles)
+				.withNumCommits(numCommits)
+				.withChurnRate(churnRate)
+				.withRenameRate(renameRate));
+		final VCSEngine engine = repository.createEngineBuilder().build();
+		RevisionRange last = null;
+		for (final RevisionRange range : engine) {
+			fileChanges.addAll(range.getFileChanges());
+			last = range;
+		}
+		if (last != null) {
+			files.addAll(last.getRevision().getFiles());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		repository.close();
+	}
+
+	/**
+	 * Processes all revisions with {@link VCSEngine#next()}.
+	 */
+	@Benchmark
+	public void next(final Blackhole blackhole) throws IOException {
+		final VCSEngine engine = repository.createEngineBuilder().build();
+		for (final RevisionRange range : engine) {
+			blackhole.consume(range);
+		}
+	}
+
+	/**
+	 * Computes the line changes of all file changes.
+	 */
+	@Benchmark
+	public void computeDiff(final Blackhole blackhole) throws IOException {
+		for (final FileChange fileChange : fileChanges) {
+			blackhole.consume(fileChange.computeDiff());
+		}
+	}
+
+	/**
+	 * Reads the line info of all files of the last revision.
+	 */
+	@Benchmark
+	public void readLineInfo(final Blackhole blackhole) throws IOException {
+		for (final VCSFile file : files) {
+			blackhole.consume(file.readLineInfo());
+		}
+	}
+}
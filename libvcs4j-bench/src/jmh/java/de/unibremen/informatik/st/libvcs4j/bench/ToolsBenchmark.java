@@ -0,0 +1,167 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.mapping.Mapping;
+import de.unibremen.informatik.st.libvcs4j.spoon.BuildException;
+import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
+import de.unibremen.informatik.st.libvcs4j.spoon.EnvironmentBuilder;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmell;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmellDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.GodClassDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.LongMethodDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.LongParameterListDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler.CycleDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler.MethodChainDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.dispensable.CommentsDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.dispensable.DataClassDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.dispensable.UnusedCodeDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.missingJavadoc.JavadocDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.ooabusers.SwitchStatementDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.ooabusers.TemporaryFieldDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the tools on a synthetic Git repository (see
+ * {@link RepositoryGenerator}). During setup, the history is processed once
+ * to collect the ranges, the environment of the last revision, and the code
+ * smells of each revision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ToolsBenchmark {
+
+	@Param({"100", "1000"})
+	public int numFiles;
+
+	@Param({"20"})
+	public int numCommits;
+
+	@Param({"0.05"})
+	public double churnRate;
+
+	private SyntheticRepository repository;
+
+	/**
+	 * All ranges of the repository.
+	 */
+	private final List<RevisionRange> ranges = new ArrayList<>();
+
+	/**
+	 * The code smells of each range.
+	 */
+	private final List<List<CodeSmell>> codeSmells = new ArrayList<>();
+
+	/**
+	 * The environment of the last revision.
+	 */
+	private Environment environment;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, BuildException {
+		repository = new SyntheticRepository(SyntheticRepository.Kind.GIT,
+				new RepositoryGenerator()
+						.withNumFiles(numFiles)
+						.withNumCommits(numCommits)
+						.withChurnRate(churnRate));
+		final VCSEngine engine = repository.createEngineBuilder().build();
+		final EnvironmentBuilder builder = new EnvironmentBuilder();
+		for (final RevisionRange range : engine) {
+			ranges.add(range);
+			environment = builder.update(range);
+			codeSmells.add(detectAll(environment));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		repository.close();
+	}
+
+	/**
+	 * Runs all code smell detectors on the given environment.
+	 *
+	 * @param environment
+	 * 		The environment to analyze.
+	 * @return
+	 * 		The detected code smells.
+	 */
+	static List<CodeSmell> detectAll(final Environment environment) {
+		final List<CodeSmellDetector> detectors = Arrays.asList(
+				new GodClassDetector(environment),
+				new LongMethodDetector(environment),
+				new LongParameterListDetector(environment),
+				new CycleDetector(environment),
+				new MethodChainDetector(environment),
+				new CommentsDetector(environment),
+				new DataClassDetector(environment),
+				new UnusedCodeDetector(environment),
+				new JavadocDetector(environment),
+				new SwitchStatementDetector(environment),
+				new TemporaryFieldDetector(environment));
+		final List<CodeSmell> codeSmells = new ArrayList<>();
+		for (final CodeSmellDetector detector : detectors) {
+			detector.scan(environment.getCtModel());
+			codeSmells.addAll(detector.getCodeSmells());
+		}
+		return codeSmells;
+	}
+
+	/**
+	 * Builds the Spoon model of each revision with a single
+	 * {@link EnvironmentBuilder}. Includes the time to check out the
+	 * revisions as the model is built from the working copy.
+	 */
+	@Benchmark
+	public void environmentUpdate(final Blackhole blackhole)
+			throws BuildException {
+		final VCSEngine engine = repository.createEngineBuilder().build();
+		final EnvironmentBuilder builder = new EnvironmentBuilder();
+		for (final RevisionRange range : engine) {
+			blackhole.consume(builder.update(range));
+		}
+	}
+
+	/**
+	 * Runs all code smell detectors on the last revision.
+	 */
+	@Benchmark
+	public List<CodeSmell> detectorSuite() {
+		return detectAll(environment);
+	}
+
+	/**
+	 * Maps the code smells of each revision to the code smells of its
+	 * successor.
+	 */
+	@Benchmark
+	public void map(final Blackhole blackhole) throws IOException {
+		final Mapping<String> mapping = new Mapping<>();
+		for (int i = 0; i < ranges.size(); i++) {
+			blackhole.consume(mapping.map(codeSmells.get(i), ranges.get(i)));
+		}
+	}
+}
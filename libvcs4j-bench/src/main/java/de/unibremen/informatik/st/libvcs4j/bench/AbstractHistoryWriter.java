@@ -0,0 +1,144 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Base class of the {@link HistoryWriter}s operating on a working copy.
+ * Files are written to, moved within, and deleted from {@link #workingCopy}.
+ * Subclasses register these changes with their VCS.
+ */
+public abstract class AbstractHistoryWriter implements HistoryWriter {
+
+	/**
+	 * The root directory of the working copy.
+	 */
+	@Getter
+	private final Path workingCopy;
+
+	/**
+	 * Creates a writer for the given working copy.
+	 *
+	 * @param workingCopy
+	 * 		The root directory of the working copy.
+	 * @throws NullPointerException
+	 * 		If {@code workingCopy} is {@code null}.
+	 */
+	protected AbstractHistoryWriter(@NonNull final Path workingCopy)
+			throws NullPointerException {
+		this.workingCopy = workingCopy;
+	}
+
+	/**
+	 * Resolves the given relative path against {@link #workingCopy}.
+	 *
+	 * @param path
+	 * 		The relative path to resolve.
+	 * @return
+	 * 		The resolved path.
+	 * @throws IllegalArgumentException
+	 * 		If {@code path} is not a path within {@link #workingCopy}.
+	 */
+	protected Path resolve(@NonNull final String path)
+			throws IllegalArgumentException {
+		final Path resolved = workingCopy.resolve(path).normalize();
+		Validate.isTrue(resolved.startsWith(workingCopy),
+				"'%s' is not within the working copy", path);
+		return resolved;
+	}
+
+	@Override
+	public void write(@NonNull final String path,
+			@NonNull final String content) throws IOException {
+		final Path file = resolve(path);
+		final boolean exists = Files.exists(file);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(UTF_8));
+		if (!exists) {
+			added(path);
+		}
+	}
+
+	@Override
+	public void delete(@NonNull final String path) throws IOException {
+		Files.delete(resolve(path));
+		deleted(path);
+	}
+
+	@Override
+	public void rename(@NonNull final String from, @NonNull final String to)
+			throws IOException {
+		move(from, to);
+	}
+
+	/**
+	 * Moves the file located at {@code from} to {@code to} (within
+	 * {@link #workingCopy}) and registers the move with the VCS. The default
+	 * implementation moves the file with {@link #moveFile(String, String)}
+	 * and registers the move as deletion of {@code from} and addition of
+	 * {@code to}. Subclasses override this method if their VCS records moves
+	 * as such.
+	 *
+	 * @param from
+	 * 		The old path of the file.
+	 * @param to
+	 * 		The new path of the file.
+	 * @throws IOException
+	 * 		If an error occurred while moving the file or registering the
+	 * 		move.
+	 */
+	protected void move(final String from, final String to)
+			throws IOException {
+		moveFile(from, to);
+		deleted(from);
+		added(to);
+	}
+
+	/**
+	 * Moves the file located at {@code from} to {@code to} (within
+	 * {@link #workingCopy}) without registering the move with the VCS.
+	 * Creates the parent directories of {@code to} if necessary.
+	 *
+	 * @param from
+	 * 		The old path of the file.
+	 * @param to
+	 * 		The new path of the file.
+	 * @throws IOException
+	 * 		If an error occurred while moving the file.
+	 */
+	protected void moveFile(final String from, final String to)
+			throws IOException {
+		final Path target = resolve(to);
+		Files.createDirectories(target.getParent());
+		Files.move(resolve(from), target);
+	}
+
+	/**
+	 * Registers the file located at {@code path}, which has just been
+	 * created, with the VCS.
+	 *
+	 * @param path
+	 * 		The path of the created file.
+	 * @throws IOException
+	 * 		If an error occurred while registering the file.
+	 */
+	protected abstract void added(String path) throws IOException;
+
+	/**
+	 * Unregisters the file located at {@code path}, which has just been
+	 * deleted, from the VCS.
+	 *
+	 * @param path
+	 * 		The path of the deleted file.
+	 * @throws IOException
+	 * 		If an error occurred while unregistering the file.
+	 */
+	protected abstract void deleted(String path) throws IOException;
+}
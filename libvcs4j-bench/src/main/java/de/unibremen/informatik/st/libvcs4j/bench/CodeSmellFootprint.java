@@ -0,0 +1,230 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.PackedRanges;
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmell;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the retained heap of the ranges of single-range code smells in
+ * three representations:
+ *
+ *  - {@code Range}: a list of {@link VCSFile.Range}s per code smell (each
+ *    with its own {@link VCSFile.Position}s).
+ *
+ *  - {@code PackedRanges per smell}: a {@link PackedRanges} instance per code
+ *    smell (see {@link PackedRanges#of(java.util.Collection)}).
+ *
+ *  - {@code shared PackedRanges}: a view of a single shared
+ *    {@link PackedRanges} instance per code smell (see
+ *    {@link CodeSmell#pack(List)}).
+ *
+ * The retained heap is the difference of the used heap before and after
+ * creating the ranges of all code smells (measured after garbage
+ * collection). Run with {@code ./gradlew :libvcs4j-bench:codeSmellFootprint}.
+ * The number of code smells can be passed as first argument.
+ */
+public class CodeSmellFootprint {
+
+	/**
+	 * The number of lines of a file.
+	 */
+	private static final int LINES_PER_FILE = 50;
+
+	/**
+	 * The revision of all {@link SyntheticFile}s.
+	 */
+	private static final Revision REVISION = new Revision() {
+		@Override
+		public String getId() {
+			return "1";
+		}
+
+		@Override
+		public List<VCSFile> getFiles() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	/**
+	 * A file with synthetic content that does not depend on a
+	 * {@link VCSEngine}.
+	 */
+	private static final class SyntheticFile implements VCSFile {
+
+		private final String relativePath;
+
+		private final byte[] content;
+
+		private SyntheticFile(final String pRelativePath) {
+			relativePath = pRelativePath;
+			content = IntStream.range(0, LINES_PER_FILE)
+					.mapToObj(i -> "\tint field" + i + " = " + i + ";\n")
+					.collect(Collectors.joining())
+					.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getRelativePath() {
+			return relativePath;
+		}
+
+		@Override
+		public Revision getRevision() {
+			return REVISION;
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public byte[] readAllBytes() {
+			return content;
+		}
+
+		@Override
+		public Optional<Charset> guessCharset() {
+			return Optional.of(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public boolean isBinary() {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates the files of {@code pNumSmells} code smells. Each file has
+	 * {@link #LINES_PER_FILE} lines, one code smell per line.
+	 *
+	 * @param pNumSmells
+	 * 		The number of code smells.
+	 * @return
+	 * 		The created files.
+	 */
+	static List<VCSFile> createFiles(final int pNumSmells) {
+		return IntStream.range(0, (pNumSmells - 1) / LINES_PER_FILE + 1)
+				.mapToObj(i -> new SyntheticFile("src/A" + i + ".java"))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Creates the single range of each of {@code pNumSmells} code smells
+	 * (see {@link #createFiles(int)}).
+	 *
+	 * @param pFiles
+	 * 		The files of the code smells.
+	 * @param pNumSmells
+	 * 		The number of code smells.
+	 * @return
+	 * 		The ranges of the code smells.
+	 * @throws IOException
+	 * 		If an error occurred while computing a position.
+	 */
+	static List<List<VCSFile.Range>> createRanges(
+			@NonNull final List<VCSFile> pFiles, final int pNumSmells)
+			throws IOException {
+		final List<List<VCSFile.Range>> ranges = new ArrayList<>(pNumSmells);
+		int offset = 0;
+		for (int i = 0; i < pNumSmells; i++) {
+			final VCSFile file = pFiles.get(i / LINES_PER_FILE);
+			if (i % LINES_PER_FILE == 0) {
+				offset = 0;
+			}
+			final int length = file.readLines().get(i % LINES_PER_FILE)
+					.length();
+			final VCSFile.Position begin =
+					file.positionOf(offset + 1, 4).orElseThrow();
+			final VCSFile.Position end =
+					file.positionOf(offset + length - 1, 4).orElseThrow();
+			ranges.add(new ArrayList<>(Collections.singletonList(
+					new VCSFile.Range(begin, end))));
+			offset += length + 1;
+		}
+		return ranges;
+	}
+
+	/**
+	 * Measures the retained heap of the object created by
+	 * {@code pSupplier}.
+	 *
+	 * @param pSupplier
+	 * 		Creates the object to measure.
+	 * @return
+	 * 		The retained heap in bytes.
+	 */
+	static long measure(@NonNull final Supplier<Object> pSupplier) {
+		final long before = usedHeap();
+		final Object object = pSupplier.get();
+		final long after = usedHeap();
+		Reference.reachabilityFence(object);
+		return after - before;
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int numSmells = args.length > 0
+				? Integer.parseInt(args[0])
+				: 200_000;
+		final CodeSmell.Definition definition =
+				new CodeSmell.Definition("Smell", new Thresholds());
+
+		final List<VCSFile> files = createFiles(numSmells);
+		final long ranges = measure(() -> {
+			try {
+				return createRanges(files, numSmells);
+			} catch (final IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		final List<List<VCSFile.Range>> template =
+				createRanges(files, numSmells);
+		final long perSmell = measure(() -> template.stream()
+				.map(PackedRanges::of)
+				.collect(Collectors.toList()));
+		final List<CodeSmell> codeSmells = template.stream()
+				.map(r -> new CodeSmell(definition, r, null, null))
+				.collect(Collectors.toList());
+		final long shared = measure(() -> CodeSmell.pack(codeSmells)
+				.stream()
+				.map(CodeSmell::getPackedRanges)
+				.collect(Collectors.toList()));
+
+		System.out.printf("%d code smells with one range each%n", numSmells);
+		System.out.printf("%-24s %8.1f bytes per code smell%n", "Range",
+				(double) ranges / numSmells);
+		System.out.printf("%-24s %8.1f bytes per code smell%n",
+				"PackedRanges per smell", (double) perSmell / numSmells);
+		System.out.printf("%-24s %8.1f bytes per code smell%n",
+				"shared PackedRanges", (double) shared / numSmells);
+	}
+}
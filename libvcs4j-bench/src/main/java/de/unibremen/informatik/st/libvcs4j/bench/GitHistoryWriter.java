@@ -0,0 +1,89 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import lombok.NonNull;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Writes a history into a non-bare Git repository using JGit. Renames are
+ * recorded as delete and add, which Git detects as rename.
+ */
+public class GitHistoryWriter extends AbstractHistoryWriter {
+
+	/**
+	 * The repository to write into.
+	 */
+	private final Git git;
+
+	/**
+	 * Initializes a Git repository in {@code directory}.
+	 *
+	 * @param directory
+	 * 		The directory to initialize the repository in.
+	 * @throws NullPointerException
+	 * 		If {@code directory} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while initializing the repository.
+	 */
+	public GitHistoryWriter(@NonNull final Path directory)
+			throws NullPointerException, IOException {
+		super(directory.toAbsolutePath());
+		try {
+			git = Git.init().setDirectory(getWorkingCopy().toFile()).call();
+		} catch (final GitAPIException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void added(final String path) throws IOException {
+		// Staged on commit.
+	}
+
+	@Override
+	protected void deleted(final String path) throws IOException {
+		try {
+			git.rm().addFilepattern(path).call();
+		} catch (final GitAPIException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void commit(@NonNull final String message,
+			@NonNull final String author,
+			@NonNull final LocalDateTime dateTime) throws IOException {
+		final PersonIdent ident = new PersonIdent(author,
+				author.toLowerCase() + "@example.com",
+				Date.from(dateTime.toInstant(ZoneOffset.UTC)),
+				TimeZone.getTimeZone("UTC"));
+		try {
+			git.add().addFilepattern(".").call();
+			git.commit()
+					.setAuthor(ident)
+					.setCommitter(ident)
+					.setMessage(message)
+					.call();
+		} catch (final GitAPIException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public String getRepository() {
+		return getWorkingCopy().toString();
+	}
+
+	@Override
+	public void close() {
+		git.close();
+	}
+}
@@ -0,0 +1,135 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import com.aragost.javahg.DateTime;
+import com.aragost.javahg.Repository;
+import com.aragost.javahg.commands.flags.AddCommandFlags;
+import com.aragost.javahg.commands.flags.CommitCommandFlags;
+import com.aragost.javahg.commands.flags.RemoveCommandFlags;
+import com.aragost.javahg.commands.flags.RenameCommandFlags;
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a history into a Mercurial repository using JavaHG. Requires the
+ * {@code hg} executable (see {@link #isAvailable()}). Renames are recorded
+ * with {@code hg rename --after}.
+ */
+public class HGHistoryWriter extends AbstractHistoryWriter {
+
+	/**
+	 * The repository to write into.
+	 */
+	private final Repository repository;
+
+	/**
+	 * Initializes a Mercurial repository in {@code directory}.
+	 *
+	 * @param directory
+	 * 		The directory to initialize the repository in.
+	 * @throws NullPointerException
+	 * 		If {@code directory} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while initializing the repository.
+	 */
+	public HGHistoryWriter(@NonNull final Path directory)
+			throws NullPointerException, IOException {
+		super(directory.toAbsolutePath());
+		try {
+			repository = Repository.create(getWorkingCopy().toFile());
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Returns whether the {@code hg} executable is available.
+	 *
+	 * @return
+	 * 		{@code true} if {@code hg} is available, {@code false} otherwise.
+	 */
+	public static boolean isAvailable() {
+		try {
+			final Process process = new ProcessBuilder("hg", "--version")
+					.redirectErrorStream(true)
+					.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+					.start();
+			return process.waitFor(10, TimeUnit.SECONDS)
+					&& process.exitValue() == 0;
+		} catch (final IOException e) {
+			return false;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	protected void added(final String path) throws IOException {
+		try {
+			AddCommandFlags.on(repository).execute(file(path));
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void deleted(final String path) throws IOException {
+		try {
+			RemoveCommandFlags.on(repository).after().execute(file(path));
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void move(final String from, final String to)
+			throws IOException {
+		moveFile(from, to);
+		try {
+			RenameCommandFlags.on(repository).after()
+					.execute(file(from), file(to));
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void commit(@NonNull final String message,
+			@NonNull final String author,
+			@NonNull final LocalDateTime dateTime) throws IOException {
+		try {
+			CommitCommandFlags.on(repository)
+					.message(message)
+					.user(author + " <" + author.toLowerCase()
+							+ "@example.com>")
+					.date(new DateTime(
+							Date.from(dateTime.toInstant(ZoneOffset.UTC)),
+							TimeZone.getTimeZone("UTC")))
+					.execute();
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private File file(final String path) {
+		return resolve(path).toFile();
+	}
+
+	@Override
+	public String getRepository() {
+		return getWorkingCopy().toString();
+	}
+
+	@Override
+	public void close() {
+		repository.close();
+	}
+}
@@ -0,0 +1,74 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the history generated by {@link RepositoryGenerator} into a
+ * repository of a particular VCS. Paths are relative to the root of the
+ * repository and use '/' as separator. Changes are staged until the next
+ * call of {@link #commit(String, String, LocalDateTime)}.
+ */
+public interface HistoryWriter extends Closeable {
+
+	/**
+	 * Adds or modifies the file located at {@code path}.
+	 *
+	 * @param path
+	 * 		The path of the file to write.
+	 * @param content
+	 * 		The content of the file to write.
+	 * @throws IOException
+	 * 		If an error occurred while writing the file.
+	 */
+	void write(String path, String content) throws IOException;
+
+	/**
+	 * Deletes the file located at {@code path}.
+	 *
+	 * @param path
+	 * 		The path of the file to delete.
+	 * @throws IOException
+	 * 		If an error occurred while deleting the file.
+	 */
+	void delete(String path) throws IOException;
+
+	/**
+	 * Renames the file located at {@code from} to {@code to}. The content of
+	 * the renamed file may be modified with {@link #write(String, String)}
+	 * within the same commit.
+	 *
+	 * @param from
+	 * 		The path of the file to rename.
+	 * @param to
+	 * 		The new path of the file.
+	 * @throws IOException
+	 * 		If an error occurred while renaming the file.
+	 */
+	void rename(String from, String to) throws IOException;
+
+	/**
+	 * Commits all staged changes.
+	 *
+	 * @param message
+	 * 		The commit message.
+	 * @param author
+	 * 		The author of the commit.
+	 * @param dateTime
+	 * 		The datetime of the commit (UTC).
+	 * @throws IOException
+	 * 		If an error occurred while committing.
+	 */
+	void commit(String message, String author, LocalDateTime dateTime)
+			throws IOException;
+
+	/**
+	 * Returns the repository in the form expected by
+	 * {@link de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder}.
+	 *
+	 * @return
+	 * 		The repository.
+	 */
+	String getRepository();
+}
@@ -0,0 +1,381 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a deterministic, synthetic history of Java source files. The
+ * history consists of {@link #numCommits} commits. The first commit adds
+ * {@link #numFiles} files whose number of lines is drawn from
+ * {@link #sizeDistribution}. Each subsequent commit modifies every file with
+ * probability {@link #churnRate} (but at least one file) and renames every
+ * modified file with probability {@link #renameRate}. A modification
+ * replaces, inserts, and deletes statements of the methods of a file such
+ * that the files remain compilable. Two generators with equal parameters
+ * (including {@link #seed}) generate equal histories.
+ */
+@Getter
+public class RepositoryGenerator {
+
+	/**
+	 * The distributions the number of lines of a file may be drawn from.
+	 */
+	public enum SizeDistribution {
+
+		/**
+		 * Uniformly distributed in [{@link RepositoryGenerator#minLines},
+		 * {@link RepositoryGenerator#maxLines}].
+		 */
+		UNIFORM {
+			@Override
+			int draw(final Random random, final int min, final int max) {
+				return min + random.nextInt(max - min + 1);
+			}
+		},
+
+		/**
+		 * Pareto distributed (shape 1.16, the 80-20 rule) with scale
+		 * {@link RepositoryGenerator#minLines} and truncated at
+		 * {@link RepositoryGenerator#maxLines}. Most files are small, a few
+		 * files are large.
+		 */
+		PARETO {
+			@Override
+			int draw(final Random random, final int min, final int max) {
+				final double u = 1.0 - random.nextDouble(); // (0, 1]
+				final double lines = min / Math.pow(u, 1.0 / 1.16);
+				return (int) Math.min(max, Math.round(lines));
+			}
+		};
+
+		abstract int draw(Random random, int min, int max);
+	}
+
+	/**
+	 * The authors of the generated commits (round robin).
+	 */
+	private static final String[] AUTHORS = {
+			"Alice", "Bob", "Carol", "Dave"
+	};
+
+	/**
+	 * The datetime of the first commit.
+	 */
+	private static final LocalDateTime START =
+			LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	/**
+	 * The number of statements of a generated method.
+	 */
+	private static final int STATEMENTS_PER_METHOD = 8;
+
+	/**
+	 * The number of lines of a method in addition to its statements
+	 * (signature, declaration, return statement, closing brace, and blank
+	 * line).
+	 */
+	private static final int METHOD_OVERHEAD = 5;
+
+	/**
+	 * The seed of the random number generator. The default value is 42.
+	 */
+	private long seed = 42;
+
+	/**
+	 * The number of files added by the first commit. The default value is
+	 * 100.
+	 */
+	private int numFiles = 100;
+
+	/**
+	 * The total number of commits. The default value is 100.
+	 */
+	private int numCommits = 100;
+
+	/**
+	 * The probability of a file to be modified by a commit. The default value
+	 * is 0.05.
+	 */
+	private double churnRate = 0.05;
+
+	/**
+	 * The probability of a modified file to be renamed. The default value is
+	 * 0.01.
+	 */
+	private double renameRate = 0.01;
+
+	/**
+	 * The minimum number of lines of a generated file. The default value is
+	 * 20.
+	 */
+	private int minLines = 20;
+
+	/**
+	 * The maximum number of lines of a generated file. The default value is
+	 * 2000.
+	 */
+	private int maxLines = 2000;
+
+	/**
+	 * The distribution the number of lines of a file is drawn from. The
+	 * default value is {@link SizeDistribution#PARETO}.
+	 */
+	private SizeDistribution sizeDistribution = SizeDistribution.PARETO;
+
+	/**
+	 * Sets the seed of the random number generator.
+	 *
+	 * @param seed
+	 * 		The seed to set.
+	 * @return
+	 * 		This generator.
+	 */
+	public RepositoryGenerator withSeed(final long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Sets the number of files added by the first commit.
+	 *
+	 * @param numFiles
+	 * 		The number of files to set.
+	 * @return
+	 * 		This generator.
+	 * @throws IllegalArgumentException
+	 * 		If {@code numFiles <= 0}.
+	 */
+	public RepositoryGenerator withNumFiles(final int numFiles)
+			throws IllegalArgumentException {
+		this.numFiles = Validate.isPositive(numFiles,
+				"Number of files (%d) <= 0", numFiles);
+		return this;
+	}
+
+	/**
+	 * Sets the total number of commits.
+	 *
+	 * @param numCommits
+	 * 		The number of commits to set.
+	 * @return
+	 * 		This generator.
+	 * @throws IllegalArgumentException
+	 * 		If {@code numCommits <= 0}.
+	 */
+	public RepositoryGenerator withNumCommits(final int numCommits)
+			throws IllegalArgumentException {
+		this.numCommits = Validate.isPositive(numCommits,
+				"Number of commits (%d) <= 0", numCommits);
+		return this;
+	}
+
+	/**
+	 * Sets the probability of a file to be modified by a commit.
+	 *
+	 * @param churnRate
+	 * 		The probability to set.
+	 * @return
+	 * 		This generator.
+	 * @throws IllegalArgumentException
+	 * 		If {@code churnRate} is not in [0, 1].
+	 */
+	public RepositoryGenerator withChurnRate(final double churnRate)
+			throws IllegalArgumentException {
+		Validate.isTrue(churnRate >= 0 && churnRate <= 1,
+				"Churn rate (%f) not in [0, 1]", churnRate);
+		this.churnRate = churnRate;
+		return this;
+	}
+
+	/**
+	 * Sets the probability of a modified file to be renamed.
+	 *
+	 * @param renameRate
+	 * 		The probability to set.
+	 * @return
+	 * 		This generator.
+	 * @throws IllegalArgumentException
+	 * 		If {@code renameRate} is not in [0, 1].
+	 */
+	public RepositoryGenerator withRenameRate(final double renameRate)
+			throws IllegalArgumentException {
+		Validate.isTrue(renameRate >= 0 && renameRate <= 1,
+				"Rename rate (%f) not in [0, 1]", renameRate);
+		this.renameRate = renameRate;
+		return this;
+	}
+
+	/**
+	 * Sets the size distribution of the generated files.
+	 *
+	 * @param distribution
+	 * 		The distribution the number of lines is drawn from.
+	 * @param minLines
+	 * 		The minimum number of lines of a file.
+	 * @param maxLines
+	 * 		The maximum number of lines of a file.
+	 * @return
+	 * 		This generator.
+	 * @throws NullPointerException
+	 * 		If {@code distribution} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code minLines <= 0} or {@code maxLines < minLines}.
+	 */
+	public RepositoryGenerator withSizeDistribution(
+			@NonNull final SizeDistribution distribution, final int minLines,
+			final int maxLines) throws NullPointerException,
+			IllegalArgumentException {
+		Validate.isPositive(minLines, "Min lines (%d) <= 0", minLines);
+		Validate.isTrue(maxLines >= minLines,
+				"Max lines (%d) < min lines (%d)", maxLines, minLines);
+		this.sizeDistribution = distribution;
+		this.minLines = minLines;
+		this.maxLines = maxLines;
+		return this;
+	}
+
+	/**
+	 * Generates the history and passes it to {@code writer}. Does not close
+	 * {@code writer}.
+	 *
+	 * @param writer
+	 * 		The writer to pass the history to.
+	 * @throws NullPointerException
+	 * 		If {@code writer} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing the history.
+	 */
+	public void generate(@NonNull final HistoryWriter writer)
+			throws NullPointerException, IOException {
+		final Random random = new Random(seed);
+		final List<SourceFile> files = new ArrayList<>(numFiles);
+		for (int i = 0; i < numFiles; i++) {
+			final int lines = sizeDistribution.draw(
+					random, minLines, maxLines);
+			final int numMethods = Math.max(1,
+					lines / (STATEMENTS_PER_METHOD + METHOD_OVERHEAD));
+			final SourceFile file = new SourceFile("p" + (i % 10),
+					"C" + i, numMethods, random);
+			files.add(file);
+			writer.write(file.getPath(), file.getContent());
+		}
+		writer.commit("Initial commit", AUTHORS[0], START);
+
+		for (int c = 1; c < numCommits; c++) {
+			boolean modified = false;
+			for (int i = 0; i < files.size(); i++) {
+				final boolean last = i == files.size() - 1;
+				if (random.nextDouble() >= churnRate && (modified || !last)) {
+					continue;
+				}
+				modified = true;
+				final SourceFile file = files.get(i);
+				if (random.nextDouble() < renameRate) {
+					final String from = file.getPath();
+					file.rename(file.className + "R" + c);
+					writer.rename(from, file.getPath());
+				}
+				file.modify(random);
+				writer.write(file.getPath(), file.getContent());
+			}
+			writer.commit("Commit " + c, AUTHORS[c % AUTHORS.length],
+					START.plusHours(c));
+		}
+	}
+
+	/**
+	 * A generated Java source file. Each method computes a value from its
+	 * parameters with a sequence of statements.
+	 */
+	private static class SourceFile {
+
+		private final String packageName;
+
+		private String className;
+
+		/**
+		 * The statements of each method.
+		 */
+		private final List<List<String>> methods = new ArrayList<>();
+
+		/**
+		 * Used to create unique statements.
+		 */
+		private int counter = 0;
+
+		private SourceFile(final String packageName, final String className,
+				final int numMethods, final Random random) {
+			this.packageName = packageName;
+			this.className = className;
+			for (int m = 0; m < numMethods; m++) {
+				final List<String> statements = new ArrayList<>();
+				for (int s = 0; s < STATEMENTS_PER_METHOD; s++) {
+					statements.add(statement(random));
+				}
+				methods.add(statements);
+			}
+		}
+
+		private String getPath() {
+			return packageName + "/" + className + ".java";
+		}
+
+		private void rename(final String newClassName) {
+			className = newClassName;
+		}
+
+		/**
+		 * Replaces, inserts, and deletes a few statements of a random method.
+		 */
+		private void modify(final Random random) {
+			final List<String> statements =
+					methods.get(random.nextInt(methods.size()));
+			final int edits = 1 + random.nextInt(3);
+			for (int e = 0; e < edits; e++) {
+				final int op = random.nextInt(3);
+				if (op == 0 || statements.isEmpty()) {
+					statements.add(random.nextInt(statements.size() + 1),
+							statement(random));
+				} else if (op == 1) {
+					statements.set(random.nextInt(statements.size()),
+							statement(random));
+				} else {
+					statements.remove(random.nextInt(statements.size()));
+				}
+			}
+		}
+
+		private String statement(final Random random) {
+			final int n = counter++;
+			return String.format("\t\tr = r * %d + a %s b; // s%d",
+					1 + random.nextInt(31), random.nextBoolean() ? "+" : "-",
+					n);
+		}
+
+		private String getContent() {
+			final StringBuilder builder = new StringBuilder();
+			builder.append("package ").append(packageName).append(";\n\n");
+			builder.append("public class ").append(className)
+					.append(" {\n\n");
+			for (int m = 0; m < methods.size(); m++) {
+				builder.append("\tpublic int m").append(m)
+						.append("(int a, int b) {\n");
+				builder.append("\t\tint r = ").append(m).append(";\n");
+				for (final String statement : methods.get(m)) {
+					builder.append(statement).append('\n');
+				}
+				builder.append("\t\treturn r;\n");
+				builder.append("\t}\n\n");
+			}
+			builder.append("}\n");
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import lombok.NonNull;
+import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.SVNRevisionProperty;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.internal.util.SVNDate;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Writes a history into a local ({@code file://}) SVN repository using
+ * SVNKit. Renames are recorded as moves. The author and datetime of a commit
+ * are set as revision properties after the commit.
+ */
+public class SVNHistoryWriter extends AbstractHistoryWriter {
+
+	/**
+	 * The URL of the repository.
+	 */
+	private final SVNURL url;
+
+	/**
+	 * Used to operate on the working copy.
+	 */
+	private final SVNClientManager manager;
+
+	/**
+	 * Used to set revision properties.
+	 */
+	private final SVNRepository repository;
+
+	/**
+	 * Creates a repository in {@code repository} and checks it out to
+	 * {@code workingCopy}.
+	 *
+	 * @param repository
+	 * 		The directory to create the repository in.
+	 * @param workingCopy
+	 * 		The directory to check out the repository to.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while creating the repository.
+	 */
+	public SVNHistoryWriter(@NonNull final Path repository,
+			@NonNull final Path workingCopy)
+			throws NullPointerException, IOException {
+		super(workingCopy.toAbsolutePath());
+		FSRepositoryFactory.setup();
+		manager = SVNClientManager.newInstance();
+		try {
+			// Enables revision property changes.
+			url = SVNRepositoryFactory.createLocalRepository(
+					repository.toAbsolutePath().toFile(), true, false);
+			manager.getUpdateClient().doCheckout(url,
+					getWorkingCopy().toFile(), SVNRevision.HEAD,
+					SVNRevision.HEAD, SVNDepth.INFINITY, false);
+			this.repository = manager.createRepository(url, true);
+		} catch (final SVNException e) {
+			manager.dispose();
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void added(final String path) throws IOException {
+		try {
+			manager.getWCClient().doAdd(resolve(path).toFile(), false, false,
+					false, SVNDepth.EMPTY, false, true);
+		} catch (final SVNException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void deleted(final String path) throws IOException {
+		try {
+			manager.getWCClient().doDelete(resolve(path).toFile(),
+					true, false);
+		} catch (final SVNException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	protected void move(final String from, final String to)
+			throws IOException {
+		// SVN moves the file itself.
+		try {
+			manager.getMoveClient().doMove(
+					resolve(from).toFile(), resolve(to).toFile());
+		} catch (final SVNException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void commit(@NonNull final String message,
+			@NonNull final String author,
+			@NonNull final LocalDateTime dateTime) throws IOException {
+		try {
+			final SVNCommitInfo info = manager.getCommitClient().doCommit(
+					new File[]{getWorkingCopy().toFile()}, false, message,
+					null, null, false, false, SVNDepth.INFINITY);
+			final long revision = info.getNewRevision();
+			repository.setRevisionPropertyValue(revision,
+					SVNRevisionProperty.AUTHOR,
+					SVNPropertyValue.create(author));
+			repository.setRevisionPropertyValue(revision,
+					SVNRevisionProperty.DATE,
+					SVNPropertyValue.create(SVNDate.formatDate(Date.from(
+							dateTime.toInstant(ZoneOffset.UTC)))));
+		} catch (final SVNException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public String getRepository() {
+		return url.toString();
+	}
+
+	@Override
+	public void close() {
+		repository.closeSession();
+		manager.dispose();
+	}
+}
@@ -0,0 +1,136 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A repository generated by {@link RepositoryGenerator} in a temporary
+ * directory. The directory is deleted by {@link #close()}.
+ */
+public class SyntheticRepository implements Closeable {
+
+	/**
+	 * The supported VCSs.
+	 */
+	public enum Kind {
+		GIT, HG, SVN
+	}
+
+	/**
+	 * The VCS of this repository.
+	 */
+	@Getter
+	private final Kind kind;
+
+	/**
+	 * The temporary directory containing the repository and the targets of
+	 * the engines created by {@link #createEngineBuilder()}.
+	 */
+	@Getter
+	private final Path directory;
+
+	/**
+	 * The repository in the form expected by {@link VCSEngineBuilder}.
+	 */
+	@Getter
+	private final String repository;
+
+	/**
+	 * The number of targets created so far.
+	 */
+	private int numTargets = 0;
+
+	/**
+	 * Generates a repository of the given kind.
+	 *
+	 * @param kind
+	 * 		The VCS of the repository to generate.
+	 * @param generator
+	 * 		The generator of the history.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IllegalStateException
+	 * 		If {@code kind} is {@link Kind#HG} and
+	 * 		{@link HGHistoryWriter#isAvailable()} returns {@code false}.
+	 * @throws IOException
+	 * 		If an error occurred while generating the repository.
+	 */
+	public SyntheticRepository(@NonNull final Kind kind,
+			@NonNull final RepositoryGenerator generator)
+			throws NullPointerException, IllegalStateException, IOException {
+		this.kind = kind;
+		directory = Files.createTempDirectory("libvcs4j-bench");
+		try (HistoryWriter writer = createWriter()) {
+			generator.generate(writer);
+			repository = writer.getRepository();
+		} catch (final IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	private HistoryWriter createWriter() throws IOException {
+		switch (kind) {
+			case GIT:
+				return new GitHistoryWriter(directory.resolve("repository"));
+			case HG:
+				if (!HGHistoryWriter.isAvailable()) {
+					throw new IllegalStateException(
+							"Mercurial is not available");
+				}
+				return new HGHistoryWriter(directory.resolve("repository"));
+			case SVN:
+				return new SVNHistoryWriter(directory.resolve("repository"),
+						directory.resolve("working-copy"));
+			default:
+				throw new IllegalStateException("Unknown kind: " + kind);
+		}
+	}
+
+	/**
+	 * Creates a builder of an engine processing this repository. Each builder
+	 * has its own target directory.
+	 *
+	 * @return
+	 * 		A builder of an engine processing this repository.
+	 */
+	public synchronized VCSEngineBuilder createEngineBuilder() {
+		final VCSEngineBuilder builder = new VCSEngineBuilder(repository)
+				.withTarget(directory.resolve("target" + numTargets++));
+		switch (kind) {
+			case GIT:
+				return builder.withGit();
+			case HG:
+				return builder.withHG();
+			default:
+				return builder.withSVN();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!Files.exists(directory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package de.unibremen.informatik.st.libvcs4j.bench;
+
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class RepositoryGeneratorTest {
+
+	/**
+	 * Records the operations it receives.
+	 */
+	private static class RecordingWriter implements HistoryWriter {
+
+		private final List<String> operations = new ArrayList<>();
+
+		private int numCommits = 0;
+
+		@Override
+		public void write(String path, String content) {
+			operations.add("write " + path + "\n" + content);
+		}
+
+		@Override
+		public void delete(String path) {
+			operations.add("delete " + path);
+		}
+
+		@Override
+		public void rename(String from, String to) {
+			operations.add("rename " + from + " " + to);
+		}
+
+		@Override
+		public void commit(String message, String author,
+				LocalDateTime dateTime) {
+			operations.add("commit " + message + " " + author + " " + dateTime);
+			numCommits++;
+		}
+
+		@Override
+		public String getRepository() {
+			return "";
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private RepositoryGenerator generator() {
+		return new RepositoryGenerator()
+				.withNumFiles(20)
+				.withNumCommits(10)
+				.withChurnRate(0.1)
+				.withRenameRate(0.5)
+				.withSizeDistribution(
+						RepositoryGenerator.SizeDistribution.PARETO, 20, 400);
+	}
+
+	@Test
+	public void deterministic() throws IOException {
+		RecordingWriter first = new RecordingWriter();
+		generator().generate(first);
+		RecordingWriter second = new RecordingWriter();
+		generator().generate(second);
+		assertThat(first.operations).isEqualTo(second.operations);
+		assertThat(first.numCommits).isEqualTo(10);
+		assertThat(first.operations.stream()
+				.anyMatch(op -> op.startsWith("rename"))).isTrue();
+
+		RecordingWriter other = new RecordingWriter();
+		generator().withSeed(7).generate(other);
+		assertThat(other.operations).isNotEqualTo(first.operations);
+	}
+
+	@Test
+	public void fileSizes() throws IOException {
+		RecordingWriter writer = new RecordingWriter();
+		generator().withNumCommits(1)
+				.withSizeDistribution(
+						RepositoryGenerator.SizeDistribution.UNIFORM, 50, 100)
+				.generate(writer);
+		assertThat(writer.operations).hasSize(21);
+		writer.operations.stream()
+				.filter(op -> op.startsWith("write"))
+				.mapToLong(op -> op.chars().filter(c -> c == '\n').count() - 1)
+				.forEach(lines -> assertThat(lines).isBetween(40L, 110L));
+	}
+
+	@Test
+	public void invalidParameters() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new RepositoryGenerator().withNumFiles(0));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new RepositoryGenerator().withChurnRate(2));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new RepositoryGenerator()
+						.withSizeDistribution(
+								RepositoryGenerator.SizeDistribution.UNIFORM,
+								10, 5));
+	}
+
+	@Test
+	public void gitRepository() throws IOException {
+		assertRevisions(SyntheticRepository.Kind.GIT);
+	}
+
+	@Test
+	public void svnRepository() throws IOException {
+		assertRevisions(SyntheticRepository.Kind.SVN);
+	}
+
+	private void assertRevisions(SyntheticRepository.Kind kind)
+			throws IOException {
+		try (SyntheticRepository repository =
+				new SyntheticRepository(kind, generator())) {
+			VCSEngine engine = repository.createEngineBuilder().build();
+			int numRanges = 0;
+			for (RevisionRange range : engine) {
+				assertThat(range.getRevision().getFiles()).hasSize(20);
+				if (numRanges > 0) {
+					assertThat(range.getFileChanges()).isNotEmpty();
+				}
+				numRanges++;
+			}
+			assertThat(numRanges).isEqualTo(10);
+		}
+	}
+}
@@ -4,14 +4,21 @@ import de.unibremen.informatik.st.libvcs4j.FSTree;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 
-import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -32,6 +39,22 @@ public class TreeMap {
 	 */
 	private static final double EPSILON = 0.0001;
 
+	/**
+	 * The name of the cells that aggregate the files falling below
+	 * {@link #otherThreshold}.
+	 */
+	public static final String OTHER_NAME = "<other>";
+
+	/**
+	 * The resource containing the HTML template.
+	 */
+	private static final String HTML_TEMPLATE = "/treemap.html.in";
+
+	/**
+	 * The resource containing the D3 script.
+	 */
+	private static final String D3_SCRIPT = "/d3.v3.min.js";
+
 	/**
 	 * Stores the values that are required to build the TreeMap.
 	 */
@@ -158,6 +181,13 @@ public class TreeMap {
 	 */
 	private final double maxColor;
 
+	/**
+	 * Files whose size is less than {@code otherThreshold} times the size of
+	 * all files are aggregated into a single cell (per directory). {@code 0}
+	 * disables aggregation. Domain: [0, 1].
+	 */
+	private double otherThreshold = 0;
+
 	/**
 	 * Creates a new TreeMap.
 	 *
@@ -247,115 +277,345 @@ public class TreeMap {
 	}
 
 	/**
-	 * Generates the resulting HTML page as a string.
+	 * Sets the threshold (relative to the size of all visualized files) below
+	 * which the files of a directory are aggregated into a single cell named
+	 * {@link #OTHER_NAME}. This allows to cap the size of the generated output
+	 * for large repositories consisting of many small files. A single file
+	 * falling below the threshold is not aggregated. Pass {@code 0} (the
+	 * default) to disable aggregation.
+	 *
+	 * @param pThreshold
+	 * 		The threshold to use. Domain: [0, 1].
+	 * @throws IllegalArgumentException
+	 * 		If {@code pThreshold} is not in [0, 1].
+	 */
+	public void setOtherThreshold(final double pThreshold)
+			throws IllegalArgumentException {
+		otherThreshold = Validate.hasRange(pThreshold, 0.0, 1.0);
+	}
+
+	/**
+	 * Returns the threshold set by {@link #setOtherThreshold(double)}.
+	 *
+	 * @return
+	 * 		The threshold below which files are aggregated.
+	 */
+	public double getOtherThreshold() {
+		return otherThreshold;
+	}
+
+	/**
+	 * Generates the resulting HTML page as a string. Use
+	 * {@link #writeHTML(Writer)} to avoid keeping the whole page in memory.
 	 *
 	 * @return
 	 * 		The resulting HTML page as a string.
 	 */
 	public String generateHTML() {
-		final String json = generateJSON();
-		final String d3 = readD3File();
-		return readHTMLFile()
-				.replace("@MIN_COLOR@", String.valueOf(minColor))
-				.replace("@MAX_COLOR@", String.valueOf(maxColor))
-				.replace("@D3_SCRIPT@", d3)
-				.replace("@JSON_STRING@", json);
+		final StringWriter writer = new StringWriter();
+		try {
+			writeHTML(writer);
+		} catch (final IOException e) {
+			// StringWriter does not throw IOExceptions.
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
 	}
 
 	/**
-	 * Generates the JSON string that is used by the HTML page.
+	 * Generates the JSON string that is used by the HTML page. Use
+	 * {@link #writeJSON(Appendable)} to avoid keeping the whole string in
+	 * memory.
 	 *
 	 * @return
 	 * 		The JSON string that is used by the HTML page.
 	 */
 	public String generateJSON() {
 		final StringBuilder builder = new StringBuilder();
-		final FSTree<Cell> tree = createTree();
-		final FSTree.Visitor<Cell> visitor = new FSTree.Visitor<Cell>() {
-			@Override
-			public void visit(final FSTree<Cell> pTree) {
-				super.visit(pTree);
-				if (pTree.isRoot() && builder.length() > 0) {
-					// Remove ',' generated by last sub node.
-					builder.setLength(builder.length() - 1);
+		try {
+			writeJSON(builder);
+		} catch (final IOException e) {
+			// StringBuilder does not throw IOExceptions.
+			throw new UncheckedIOException(e);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes the resulting HTML page to {@code pOut}. The HTML template, the
+	 * D3 script, and the JSON string are streamed in a single pass, that is,
+	 * neither of them is materialized as a string. {@code pOut} is flushed,
+	 * but not closed.
+	 *
+	 * @param pOut
+	 * 		The writer to write the HTML page to.
+	 * @throws NullPointerException
+	 * 		If {@code pOut} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing the page or reading one of the
+	 * 		required resources.
+	 */
+	public void writeHTML(final Writer pOut) throws NullPointerException,
+			IOException {
+		Validate.notNull(pOut);
+		try (Reader template = openResource(HTML_TEMPLATE)) {
+			final StringBuilder placeholder = new StringBuilder();
+			boolean inPlaceholder = false;
+			int c;
+			while ((c = template.read()) != -1) {
+				if (!inPlaceholder) {
+					if (c == '@') {
+						inPlaceholder = true;
+						placeholder.setLength(0);
+					} else {
+						pOut.write(c);
+					}
+				} else if (c == '@') {
+					writePlaceholder(placeholder.toString(), pOut);
+					inPlaceholder = false;
+				} else if (c == '_' || Character.isUpperCase(c)
+						|| Character.isDigit(c)) {
+					placeholder.append((char) c);
+				} else {
+					// Not a placeholder.
+					pOut.write('@');
+					pOut.append(placeholder);
+					pOut.write(c);
+					inPlaceholder = false;
 				}
 			}
-
-			@Override
-			protected void visitDirectory(final FSTree<Cell> pDirectory) {
-				final String name = pDirectory.getName();
-				final Cell cell = pDirectory.getValue()
-						.orElseThrow(IllegalStateException::new);
-				builder.append("{");
-				builder.append("\"name\": ");
-				builder.append("\"").append(name).append("\"");
-				builder.append(",");
-				builder.append("\"color\":");
-				builder.append(colorToString(cell.getColor()));
-				builder.append(",");
-				builder.append("\"children\": [");
-				super.visitDirectory(pDirectory);
-				// Remove ',' generated by last sub node.
-				builder.setLength(builder.length() - 1);
-				builder.append("]");
-				builder.append("},");
+			if (inPlaceholder) {
+				pOut.write('@');
+				pOut.append(placeholder);
 			}
+		}
+		pOut.flush();
+	}
+
+	/**
+	 * Writes the JSON string that is used by the HTML page to {@code pOut}.
+	 * The string is generated while traversing the tree of files, that is,
+	 * it is not materialized as a whole. Names are escaped according to
+	 * RFC 8259.
+	 *
+	 * @param pOut
+	 * 		The appendable to write the JSON string to.
+	 * @throws NullPointerException
+	 * 		If {@code pOut} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pOut}.
+	 */
+	public void writeJSON(final Appendable pOut) throws NullPointerException,
+			IOException {
+		Validate.notNull(pOut);
+		final FSTree<Cell> tree = createTree();
+		final double minSize = otherThreshold == 0 ? 0 : otherThreshold *
+				tree.getValue().map(Cell::getSize).orElse(0.0);
+		writeNode(tree, minSize, pOut);
+	}
+
+	/**
+	 * Writes the substitution of the given placeholder (without enclosing
+	 * '@') of the HTML template to {@code pOut}. Unknown placeholders are
+	 * written as is.
+	 *
+	 * @param pPlaceholder
+	 * 		The placeholder to substitute.
+	 * @param pOut
+	 * 		The writer to write the substitution to.
+	 * @throws IOException
+	 * 		If an error occurred while writing the substitution.
+	 */
+	private void writePlaceholder(final String pPlaceholder,
+			final Writer pOut) throws IOException {
+		switch (pPlaceholder) {
+			case "MIN_COLOR":
+				pOut.write(String.valueOf(minColor));
+				break;
+			case "MAX_COLOR":
+				pOut.write(String.valueOf(maxColor));
+				break;
+			case "D3_SCRIPT":
+				try (Reader d3 = openResource(D3_SCRIPT)) {
+					d3.transferTo(pOut);
+				}
+				break;
+			case "JSON_STRING":
+				// The JSON string is embedded in a single quoted JavaScript
+				// string literal.
+				writeJSON(new JSStringAppendable(pOut));
+				break;
+			default:
+				pOut.write('@');
+				pOut.write(pPlaceholder);
+				pOut.write('@');
+		}
+	}
+
+	/**
+	 * Recursively writes {@code pTree} as JSON object to {@code pOut}. Files
+	 * of a directory whose size is less than {@code pMinSize} are aggregated
+	 * into a single cell named {@link #OTHER_NAME}.
+	 *
+	 * @param pTree
+	 * 		The tree to write.
+	 * @param pMinSize
+	 * 		The size below which files are aggregated.
+	 * @param pOut
+	 * 		The appendable to write the JSON object to.
+	 * @return
+	 * 		The (aggregated) cell of {@code pTree}. {@code null} if
+	 * 		{@code pTree} is an empty directory.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pOut}.
+	 */
+	private Cell writeNode(final FSTree<Cell> pTree, final double pMinSize,
+			final Appendable pOut) throws IOException {
+		if (pTree.isFile()) {
+			final Cell cell = pTree.getValue()
+					.orElseThrow(IllegalStateException::new);
+			writeFile(pTree.getName(), cell, pOut);
+			return cell;
+		}
 
-			@Override
-			protected void visitFile(final FSTree<Cell> pFile) {
-				final String name = pFile.getName();
-				final Cell cell = pFile.getValue()
+		pOut.append("{\"name\":");
+		appendString(pTree.getName(), pOut);
+		pOut.append(",\"children\":[");
+		Cell aggregated = null;
+		FSTree<Cell> firstOther = null;
+		Cell other = null;
+		int numOthers = 0;
+		for (final FSTree<Cell> node : pTree.getNodes()) {
+			if (node.isFile()) {
+				final Cell cell = node.getValue()
 						.orElseThrow(IllegalStateException::new);
-				builder.append("{");
-				builder.append("\"name\": ");
-				builder.append("\"").append(name).append("\"");
-				builder.append(",");
-				builder.append("\"value\": ");
-				builder.append(sizeToString(cell.getSize()));
-				builder.append(",");
-				builder.append("\"color\" :");
-				builder.append(colorToString(cell.getColor()));
-				builder.append("},");
-				super.visitFile(pFile);
+				if (cell.getSize() < pMinSize) {
+					firstOther = firstOther == null ? node : firstOther;
+					other = other == null ? cell : other.aggregate(other, cell);
+					numOthers++;
+					continue;
+				}
 			}
-		};
-		visitor.visit(tree);
-		return builder.toString();
+			if (aggregated != null) {
+				pOut.append(',');
+			}
+			final Cell cell = writeNode(node, pMinSize, pOut);
+			aggregated = aggregated == null
+					? cell : aggregated.aggregate(aggregated, cell);
+		}
+		if (other != null) {
+			if (aggregated != null) {
+				pOut.append(',');
+			}
+			writeFile(numOthers == 1 ? firstOther.getName() : OTHER_NAME,
+					other, pOut);
+			aggregated = aggregated == null
+					? other : aggregated.aggregate(aggregated, other);
+		}
+		pOut.append("],\"color\":");
+		pOut.append(colorToString(aggregated == null
+				? minColor : aggregated.getColor()));
+		pOut.append('}');
+		return aggregated;
 	}
 
 	/**
-	 * Reads the D3 script.
+	 * Writes a file with given name and cell as JSON object to {@code pOut}.
 	 *
-	 * @return
-	 * 		The D3 script.
+	 * @param pName
+	 * 		The name of the file.
+	 * @param pCell
+	 * 		The cell of the file.
+	 * @param pOut
+	 * 		The appendable to write the JSON object to.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pOut}.
 	 */
-	private String readD3File() {
-		final BufferedInputStream bis = new BufferedInputStream(getClass()
-				.getResourceAsStream("/d3.v3.min.js"));
-		try (Scanner scanner = new Scanner(bis)) {
-			return scanner.useDelimiter("\\A").next();
+	private void writeFile(final String pName, final Cell pCell,
+			final Appendable pOut) throws IOException {
+		pOut.append("{\"name\":");
+		appendString(pName, pOut);
+		pOut.append(",\"value\":");
+		pOut.append(sizeToString(pCell.getSize()));
+		pOut.append(",\"color\":");
+		pOut.append(colorToString(pCell.getColor()));
+		pOut.append('}');
+	}
+
+	/**
+	 * Writes {@code pString} as quoted and escaped JSON string to
+	 * {@code pOut}.
+	 *
+	 * @param pString
+	 * 		The string to write.
+	 * @param pOut
+	 * 		The appendable to write the JSON string to.
+	 * @throws IOException
+	 * 		If an error occurred while writing to {@code pOut}.
+	 */
+	private static void appendString(final String pString,
+			final Appendable pOut) throws IOException {
+		pOut.append('"');
+		for (int i = 0; i < pString.length(); i++) {
+			final char c = pString.charAt(i);
+			switch (c) {
+				case '"':
+					pOut.append("\\\"");
+					break;
+				case '\\':
+					pOut.append("\\\\");
+					break;
+				case '\b':
+					pOut.append("\\b");
+					break;
+				case '\f':
+					pOut.append("\\f");
+					break;
+				case '\n':
+					pOut.append("\\n");
+					break;
+				case '\r':
+					pOut.append("\\r");
+					break;
+				case '\t':
+					pOut.append("\\t");
+					break;
+				default:
+					if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+						pOut.append(String.format("\\u%04x", (int) c));
+					} else {
+						pOut.append(c);
+					}
+			}
 		}
+		pOut.append('"');
 	}
 
 	/**
-	 * Reads the HTML template.
+	 * Opens the given resource as UTF-8 encoded reader.
 	 *
+	 * @param pResource
+	 * 		The resource to open.
 	 * @return
-	 * 		The HTML template.
+	 * 		The reader of {@code pResource}.
+	 * @throws IOException
+	 * 		If {@code pResource} does not exist.
 	 */
-	private String readHTMLFile() {
-		final BufferedInputStream bis = new BufferedInputStream(getClass()
-				.getResourceAsStream("/treemap.html.in"));
-		try (Scanner scanner = new Scanner(bis)) {
-			return scanner.useDelimiter("\\A").next();
+	private Reader openResource(final String pResource) throws IOException {
+		final InputStream is = getClass().getResourceAsStream(pResource);
+		if (is == null) {
+			throw new IOException(String.format(
+					"Missing resource '%s'", pResource));
 		}
+		return new BufferedReader(
+				new InputStreamReader(is, StandardCharsets.UTF_8));
 	}
 
 	/**
-	 * Creates the tree that is parsed by {@link #generateJSON()}.
+	 * Creates the tree that is parsed by {@link #writeJSON(Appendable)}.
 	 *
 	 * @return
-	 * 		The tree that is parsed by {@link #generateJSON()}.
+	 * 		The tree that is parsed by {@link #writeJSON(Appendable)}.
 	 */
 	private FSTree<Cell> createTree() {
 		final Map<VCSFile, Cell> mapping = new HashMap<>();
@@ -376,4 +636,62 @@ public class TreeMap {
 				(c1, c2) -> c1.aggregate(c1, c2))
 				.compact();
 	}
+
+	/**
+	 * An {@link Appendable} that escapes the appended characters such that
+	 * they can be embedded in a single quoted JavaScript string literal
+	 * within a HTML script element.
+	 */
+	private static class JSStringAppendable implements Appendable {
+
+		/**
+		 * The delegate to write the escaped characters to.
+		 */
+		private final Appendable delegate;
+
+		/**
+		 * Creates a new appendable that escapes all characters appended to
+		 * it and writes them to {@code pDelegate}.
+		 *
+		 * @param pDelegate
+		 * 		The delegate to write the escaped characters to.
+		 */
+		private JSStringAppendable(final Appendable pDelegate) {
+			delegate = pDelegate;
+		}
+
+		@Override
+		public Appendable append(final CharSequence pSequence)
+				throws IOException {
+			return append(pSequence, 0, pSequence.length());
+		}
+
+		@Override
+		public Appendable append(final CharSequence pSequence,
+				final int pStart, final int pEnd) throws IOException {
+			for (int i = pStart; i < pEnd; i++) {
+				append(pSequence.charAt(i));
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(final char pChar) throws IOException {
+			switch (pChar) {
+				case '\\':
+					delegate.append("\\\\");
+					break;
+				case '\'':
+					delegate.append("\\'");
+					break;
+				case '<':
+					// Prevents "</script>" from closing the script element.
+					delegate.append("\\x3c");
+					break;
+				default:
+					delegate.append(pChar);
+			}
+			return this;
+		}
+	}
 }
@@ -4,22 +4,21 @@ import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import org.conqat.lib.scanner.ELanguage;
 import org.conqat.lib.scanner.ETokenType;
-import org.conqat.lib.scanner.IScanner;
 import org.conqat.lib.scanner.IToken;
-import org.conqat.lib.scanner.ScannerException;
-import org.conqat.lib.scanner.ScannerFactory;
+import org.conqat.lib.scanner.TokenStream;
+import org.conqat.lib.scanner.TokenTextSet;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Provides methods to calculate different metrics. Subclasses may override
  * {@link #isCommentType(IToken)}, {@link #isControlType(IToken)}, and
  * {@link #getLanguage(VCSFile)} to adapt the behavior of the computation
  * methods to their own requirements.
+ *
+ * The tokens are scanned with a {@link TokenStream}. That is, the scanners are
+ * reused within a thread.
  */
 public class Metrics {
 
@@ -46,21 +45,18 @@ public class Metrics {
 
 		final ELanguage lang = maybeLang.get();
 		final String content = pFile.readContent();
-		final IScanner scanner = ScannerFactory
-				.newLenientScanner(lang, content, "");
 
-		final String LINE_SEP = "\\r?\\n";
 		int loc  = 0;
 		int sloc = 0;
 		int cloc = 0;
 		int not  = 0;
 		int snot = 0;
 		int cnot = 0;
-		IToken lastToken = null;
-		try {
-			for (IToken token = scanner.getNextToken();
-				 token.getType() != ETokenType.EOF;
-				 lastToken = token, token = scanner.getNextToken()) {
+		// End line of the last token (-1 if there is no last token).
+		int lastEndLine = -1;
+		try (TokenStream tokens = TokenStream.open(lang, content, "")) {
+			while (tokens.next()) {
+				final IToken token = tokens.getToken();
 				not++;
 				final boolean comment = isCommentType(token);
 				if (comment) {
@@ -68,42 +64,24 @@ public class Metrics {
 				} else {
 					snot++;
 				}
-				if (lastToken == null) {
-					if (comment) {
-						cloc = token.getText().split(LINE_SEP).length;
-					} else {
-						sloc = 1;
-					}
+				final int lines = countLines(content,
+						token.getOffset(), token.getEndOffset() + 1);
+				int linesToAdd = lines;
+				if (lastEndLine == -1 && !comment) {
+					linesToAdd = 1;
+				} else if (lastEndLine == token.getLineNumber()) {
+					linesToAdd--;
+				}
+				if (comment) {
+					cloc += linesToAdd;
 				} else {
-					final String ltText = content.substring(
-							lastToken.getOffset(),
-							lastToken.getEndOffset() + 1);
-					final int ltEndLine = lastToken.getLineNumber() +
-							ltText.split(LINE_SEP).length - 1;
-					final String text = content.substring(
-							token.getOffset(),
-							token.getEndOffset() + 1);
-					int linesToAdd = text.split(LINE_SEP).length;
-					if (ltEndLine == token.getLineNumber()) {
-						linesToAdd--;
-					}
-					if (comment) {
-						cloc += linesToAdd;
-					} else {
-						sloc += linesToAdd;
-					}
+					sloc += linesToAdd;
 				}
+				lastEndLine = token.getLineNumber() + lines - 1;
 			}
-		} catch (final ScannerException e) {
-			throw new IOException(e);
 		}
-		if (lastToken != null) {
-			final String text = content.substring(
-					lastToken.getOffset(),
-					lastToken.getEndOffset() + 1);
-			final int endLine = lastToken.getLineNumber()
-					+ text.split(LINE_SEP).length - 1;
-			loc = endLine + 1;
+		if (lastEndLine != -1) {
+			loc = lastEndLine + 1;
 		}
 
 		final Size size = new Size(loc, sloc, cloc, not, snot, cnot);
@@ -133,52 +111,85 @@ public class Metrics {
 
 		final ELanguage lang = maybeLang.get();
 		final String content = pFile.readContent();
-		final IScanner scanner = ScannerFactory
-				.newLenientScanner(lang, content, "");
 
-		final List<IToken> operators = new ArrayList<>();
-		final List<IToken> operands = new ArrayList<>();
+		// Distinct texts are counted without collecting the tokens.
+		final TokenTextSet distinctOperators = new TokenTextSet();
+		final TokenTextSet distinctOperands = new TokenTextSet();
+		int operators = 0;
+		int operands = 0;
 		int mccabe = 1;
-		try {
-			for (IToken token = scanner.getNextToken();
-				 token.getType() != ETokenType.EOF;
-				 token = scanner.getNextToken()) {
+		try (TokenStream tokens = TokenStream.open(lang, content, "")) {
+			while (tokens.next()) {
+				final IToken token = tokens.getToken();
 				if (isCommentType(token) || token.getType().isError()) {
 					continue;
 				} else if (token.getType().isOperator()) {
-					operators.add(token);
+					operators++;
+					distinctOperators.add(token);
 				} else {
-					operands.add(token);
+					operands++;
+					distinctOperands.add(token);
 				}
 
 				if (isControlType(token)) {
 					mccabe++;
 				}
 			}
-		} catch (final ScannerException e) {
-			throw new IOException(e);
 		}
-		final List<String> distinctOperators =
-				operators.stream()
-						.map(IToken::getText)
-						.distinct()
-						.collect(Collectors.toList());
-		final List<String> distinctOperands =
-				operands.stream()
-						.map(IToken::getText)
-						.distinct()
-						.collect(Collectors.toList());
 
 		final Complexity.Halstead halstead =
 				new Complexity.Halstead(
 						distinctOperators.size(),
 						distinctOperands.size(),
-						operators.size(),
-						operands.size());
+						operators,
+						operands);
 		final Complexity complexity = new Complexity(mccabe, halstead);
 		return Optional.of(complexity);
 	}
 
+	/**
+	 * Counts the lines of the characters of {@code pContent} in the given
+	 * range. Yields the same result as {@code pContent.substring(pBegin,
+	 * pEnd).split("\\r?\\n").length} without creating any string.
+	 *
+	 * @param pContent
+	 * 		The content to count the lines of.
+	 * @param pBegin
+	 * 		The begin offset (inclusive).
+	 * @param pEnd
+	 * 		The end offset (exclusive).
+	 * @return
+	 * 		The number of lines in the given range.
+	 */
+	private static int countLines(final String pContent, final int pBegin,
+			final int pEnd) {
+		if (pBegin == pEnd) {
+			return 1;
+		}
+		// Like `String#split`, trailing empty lines are not counted.
+		int line = 0;
+		int lastNonEmptyLine = -1;
+		int length = 0;
+		for (int i = pBegin; i < pEnd; i++) {
+			if (pContent.charAt(i) == '\n') {
+				if (length > 0 && pContent.charAt(i - 1) == '\r') {
+					length--;
+				}
+				if (length > 0) {
+					lastNonEmptyLine = line;
+				}
+				line++;
+				length = 0;
+			} else {
+				length++;
+			}
+		}
+		if (length > 0) {
+			lastNonEmptyLine = line;
+		}
+		return lastNonEmptyLine + 1;
+	}
+
 	/**
 	 * Returns whether the given token is a comment.
 	 *
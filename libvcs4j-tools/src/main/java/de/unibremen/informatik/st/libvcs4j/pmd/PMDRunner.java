@@ -1,29 +1,41 @@
 package de.unibremen.informatik.st.libvcs4j.pmd;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.pmd.PMD;
-import org.xml.sax.SAXException;
+import net.sourceforge.pmd.PMDConfiguration;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleContext;
+import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSetNotFoundException;
+import net.sourceforge.pmd.RuleSets;
+import net.sourceforge.pmd.RulesetsFactoryUtils;
+import net.sourceforge.pmd.lang.Language;
+import net.sourceforge.pmd.lang.LanguageFilenameFilter;
+import net.sourceforge.pmd.renderers.Renderer;
+import net.sourceforge.pmd.util.datasource.DataSource;
+import net.sourceforge.pmd.util.datasource.FileDataSource;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -114,6 +126,92 @@ public class PMDRunner {
 	 */
 	protected PMDDetectionResult analyze(@NonNull final Revision revision)
 			throws IOException {
+		return new PMDDetectionResult(run(revision.getFiles()));
+	}
+
+	/**
+	 * Analyzes the files that have been added, modified, or relocated in
+	 * {@code range} and carries over the violations of all other files from
+	 * {@code previous}. Carried over violations are mapped to the files of
+	 * {@link RevisionRange#getRevision()} (see
+	 * {@link VCSFile.Range#mapTo(VCSFile)}). Falls back to
+	 * {@link #analyze(Revision)} if {@code previous} is {@code null} or if
+	 * {@code range} is the first range.
+	 *
+	 * Note that carrying over violations is sound for rules that analyze
+	 * single files (for instance, {@code UnusedPrivateMethod}) only. Rules
+	 * whose result depends on other files may yield outdated violations for
+	 * unchanged files.
+	 *
+	 * @param range
+	 * 		The range to analyze.
+	 * @param previous
+	 * 		The detection result of the predecessor revision of
+	 * 		{@code range}. May be {@code null}.
+	 * @return
+	 * 		The detection result.
+	 * @throws NullPointerException
+	 * 		If {@code range} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while analyzing {@code range}.
+	 */
+	protected PMDDetectionResult analyze(@NonNull final RevisionRange range,
+			final PMDDetectionResult previous) throws IOException {
+		final Revision revision = range.getRevision();
+		if (previous == null || range.isFirst()) {
+			return analyze(revision);
+		}
+
+		// Relative paths of all files that are affected by a change.
+		final Set<String> changed = new HashSet<>();
+		final List<VCSFile> toAnalyze = new ArrayList<>();
+		for (final FileChange fc : range.getFileChanges()) {
+			fc.getOldFile()
+					.map(VCSFile::getRelativePath)
+					.ifPresent(changed::add);
+			fc.getNewFile().ifPresent(file -> {
+				changed.add(file.getRelativePath());
+				toAnalyze.add(file);
+			});
+		}
+		log.info("Analyzing {} changed files", toAnalyze.size());
+		final List<PMDViolation> violations = run(toAnalyze);
+
+		// Carry over the violations of unchanged files.
+		final Map<String, VCSFile> path2File = new HashMap<>();
+		revision.getFiles().forEach(f -> path2File.put(f.getRelativePath(), f));
+		for (final PMDViolation v : previous.getViolations()) {
+			final String path = v.getRange().getFile().getRelativePath();
+			final VCSFile file = path2File.get(path);
+			if (changed.contains(path) || file == null) {
+				continue;
+			}
+			final Optional<VCSFile.Range> mapped = v.getRange().mapTo(file);
+			if (mapped.isPresent()) {
+				violations.add(new PMDViolation(
+						mapped.get(), v.getRule(), v.getRuleSet()));
+			} else {
+				log.warn("Unable to carry over violation '{}'", v);
+			}
+		}
+		return new PMDDetectionResult(violations);
+	}
+
+	/**
+	 * Runs PMD (in-process) on the given files. Violations are streamed into
+	 * {@link PMDViolation} objects using {@link PMDViolationRenderer}. Files
+	 * that are not supported by any of the languages of {@link #rules} are
+	 * skipped.
+	 *
+	 * @param files
+	 * 		The files to analyze.
+	 * @return
+	 * 		The detected violations.
+	 * @throws IOException
+	 * 		If an error occurred while running PMD.
+	 */
+	private List<PMDViolation> run(final List<VCSFile> files)
+			throws IOException {
 		Validate.validateState(!rules.isEmpty());
 
 		if (incremental && cacheFile == null) {
@@ -130,51 +228,48 @@ public class PMDRunner {
 				}
 			}));
 		}
-		final List<String> args = new ArrayList<>();
-		// input
-		args.add("-d");
-		args.add(revision.getOutput().toString());
-		// format
-		args.add("-f");
-		args.add("xml");
-		// rules
-		args.add("-R");
-		args.add(String.join(",", rules));
-		// cache
+		final PMDConfiguration config = new PMDConfiguration();
+		config.setRuleSets(String.join(",", rules));
 		if (incremental) {
-			args.add("-cache");
-			args.add(cacheFile.toString());
+			config.setAnalysisCacheLocation(cacheFile.toString());
+		} else {
+			config.setIgnoreIncrementalAnalysis(true);
 		}
-		// threads
-		args.add("-t");
-		args.add(String.valueOf(Runtime.getRuntime().availableProcessors()));
-
-		// Temporarily redirect stdout to a string.
-		final PrintStream stdout = System.out;
-		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		final PrintStream ps = new PrintStream(bos);
-		System.setOut(ps);
+		config.setThreads(Runtime.getRuntime().availableProcessors());
+
 		try {
-			PMD.run(args.toArray(String[]::new));
-			// According to PMD the resulting xml is UTF-8 encoded.
-			final String output = bos.toString(StandardCharsets.UTF_8.name());
-
-			// Parse output
-			final SAXParserFactory factory = SAXParserFactory.newInstance();
-			final SAXParser saxParser = factory.newSAXParser();
-			final InputStream bis = new ByteArrayInputStream(
-					output.getBytes(StandardCharsets.UTF_8.name()));
-			PMDSaxHandler handler = new PMDSaxHandler(revision.getFiles());
-			saxParser.parse(bis, handler);
-
-			// Result
-			return new PMDDetectionResult(handler.getViolations());
-		} catch (final UnsupportedOperationException | SAXException
-				| ParserConfigurationException e) {
+			final RuleSetFactory factory =
+					RulesetsFactoryUtils.createFactory(config);
+			final RuleSets ruleSets = factory.createRuleSets(
+					config.getRuleSets());
+			final Set<Language> languages = ruleSets.getAllRules().stream()
+					.map(Rule::getLanguage)
+					.collect(Collectors.toSet());
+			final LanguageFilenameFilter filter =
+					new LanguageFilenameFilter(languages);
+			final List<VCSFile> applicable = files.stream()
+					.filter(f -> {
+						final File file = f.toFile();
+						return filter.accept(file.getParentFile(),
+								file.getName());
+					})
+					.collect(Collectors.toList());
+			final List<DataSource> dataSources = applicable.stream()
+					.map(VCSFile::toFile)
+					.map(FileDataSource::new)
+					.collect(Collectors.toList());
+
+			final PMDViolationRenderer renderer =
+					new PMDViolationRenderer(applicable);
+			final List<Renderer> renderers = new ArrayList<>();
+			renderers.add(renderer);
+			renderer.start();
+			PMD.processFiles(config, factory, dataSources,
+					new RuleContext(), renderers);
+			renderer.end();
+			return renderer.getViolations();
+		} catch (final RuleSetNotFoundException e) {
 			throw new IOException(e);
-		} finally {
-			// Make sure to reset stdout.
-			System.setOut(stdout);
 		}
 	}
 }
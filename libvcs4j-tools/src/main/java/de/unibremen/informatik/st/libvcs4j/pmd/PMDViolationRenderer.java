@@ -0,0 +1,164 @@
+package de.unibremen.informatik.st.libvcs4j.pmd;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import lombok.NonNull;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleViolation;
+import net.sourceforge.pmd.renderers.AbstractIncrementingRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A PMD renderer that converts the {@link RuleViolation}s reported by PMD
+ * directly into {@link PMDViolation}s and stores them in {@link #violations}.
+ * Unlike PMD's XML renderer, no intermediate report is written.
+ */
+class PMDViolationRenderer extends AbstractIncrementingRenderer {
+
+	/**
+	 * The tab size (see {@link VCSFile.Position#getTabSize()}) which is used
+	 * to create a position.
+	 */
+	private static final int TAB_SIZE = 8;
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(PMDViolationRenderer.class);
+
+	/**
+	 * Used to map paths reported by PMD to {@link VCSFile} instances.
+	 */
+	private final Map<String, VCSFile> path2File = new HashMap<>();
+
+	/**
+	 * Stores the detected violations.
+	 */
+	private final List<PMDViolation> violations = new ArrayList<>();
+
+	/**
+	 * Creates a new renderer which uses the given collection of
+	 * {@link VCSFile}s to link violations detected by PMD to their
+	 * corresponding {@link VCSFile} instance. {@code null} values in
+	 * {@code files} are filtered out.
+	 *
+	 * @param files
+	 * 		The files to link violations against.
+	 * @throws NullPointerException
+	 * 		If {@code files} is {@code null}.
+	 */
+	PMDViolationRenderer(@NonNull final Collection<VCSFile> files)
+			throws NullPointerException {
+		super("libvcs4j", "Converts violations into PMDViolation objects");
+		// PMD expects a writer, even though we do not write anything.
+		setWriter(Writer.nullWriter());
+		files.stream()
+				.filter(Objects::nonNull)
+				.forEach(f -> {
+					try {
+						path2File.put(f.toFile().getCanonicalPath(), f);
+					} catch (final IOException e) {
+						log.warn("Unable to get canonical path of file '{}'. " +
+								"Falling back to regular path.", f.getPath());
+						path2File.put(f.getPath(), f);
+					}
+				});
+	}
+
+	@Override
+	public String defaultFileExtension() {
+		return "";
+	}
+
+	@Override
+	public synchronized void renderFileViolations(
+			final Iterator<RuleViolation> pViolations) {
+		while (pViolations.hasNext()) {
+			convert(pViolations.next()).ifPresent(violations::add);
+		}
+	}
+
+	/**
+	 * Converts the given {@link RuleViolation} into a {@link PMDViolation}.
+	 * Returns an empty {@link Optional} if {@code violation} can not be
+	 * converted.
+	 *
+	 * @param violation
+	 * 		The violation to convert.
+	 * @return
+	 * 		The converted violation.
+	 */
+	private Optional<PMDViolation> convert(final RuleViolation violation) {
+		final String path = violation.getFilename();
+		if (path == null) {
+			log.warn("Skipping violation due to missing file name");
+			return Optional.empty();
+		}
+		final VCSFile file = path2File.get(path);
+		if (file == null) {
+			log.warn("Skipping violation due to missing file mapping ({})",
+					path);
+			return Optional.empty();
+		}
+		final Rule rule = violation.getRule();
+		if (rule == null || rule.getName() == null) {
+			log.warn("Skipping violation due to missing rule");
+			return Optional.empty();
+		}
+		if (rule.getRuleSetName() == null) {
+			log.warn("Skipping violation due to missing rule set");
+			return Optional.empty();
+		}
+
+		try {
+			final int bl = violation.getBeginLine();
+			final int bc = violation.getBeginColumn();
+			final Optional<VCSFile.Position> begin =
+					file.positionOf(bl, bc, TAB_SIZE);
+			if (!begin.isPresent()) {
+				log.warn("Skipping violation due to not existing begin position. " +
+								"file: {}, line: {}, column: {}, tab size: {}",
+						file.getPath(), bl, bc, TAB_SIZE);
+				return Optional.empty();
+			}
+			final int el = violation.getEndLine();
+			final int ec = violation.getEndColumn();
+			final Optional<VCSFile.Position> end =
+					file.positionOf(el, ec, TAB_SIZE);
+			if (!end.isPresent()) {
+				log.warn("Skipping violation due to not existing end position. " +
+								"file: {}, line: {}, column: {}, tab size: {}",
+						file.getPath(), el, ec, TAB_SIZE);
+				return Optional.empty();
+			}
+			return Optional.of(new PMDViolation(
+					new VCSFile.Range(begin.get(), end.get()),
+					rule.getName(), rule.getRuleSetName()));
+		} catch (final IOException e) {
+			log.warn("Skipping violation due to an IO error while creating its range");
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Returns a copy of the detected violations.
+	 *
+	 * @return
+	 * 		A copy of the detected violations.
+	 */
+	public synchronized List<PMDViolation> getViolations() {
+		return new ArrayList<>(violations);
+	}
+}
@@ -1,5 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import spoon.reflect.CtModel;
 import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtType;
@@ -40,6 +42,13 @@ public class Cache {
 	 */
 	private final Map<String, CtExecutable> executables = new HashMap<>();
 
+	/**
+	 * The index of the most recently requested model (see
+	 * {@link #getOrIndex(CtModel)}). Is {@code null} if no index has been
+	 * requested yet.
+	 */
+	private ModelIndex index = null;
+
 	/**
 	 * Returns the type referenced by {@code reference}. Returns an empty
 	 * {@link Optional} if {@code reference} is {@code null}.
@@ -102,4 +111,24 @@ public class Cache {
 					}
 				});
 	}
+
+	/**
+	 * Returns the index of {@code model}. The index is created once and
+	 * reused until the index of another model is requested.
+	 *
+	 * @param model
+	 * 		The model whose index is requested.
+	 * @return
+	 * 		The index of {@code model}.
+	 * @throws NullPointerException
+	 * 		If {@code model} is {@code null}.
+	 */
+	public synchronized ModelIndex getOrIndex(final CtModel model)
+			throws NullPointerException {
+		Validate.notNull(model);
+		if (index == null || index.getModel() != model) {
+			index = new ModelIndex(model);
+		}
+		return index;
+	}
 }
@@ -1,6 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j.spoon;
 
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import lombok.Getter;
 import lombok.NonNull;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.*;
@@ -17,6 +18,10 @@ import static spoon.reflect.cu.SourcePosition.NOPOSITION;
  */
 public abstract class ElementExtractor extends Scanner {
 
+	/**
+	 * The environment of the extracted elements.
+	 */
+	@Getter
 	@NonNull
 	private final Environment environment;
 
@@ -48,6 +48,16 @@ public class Environment {
 		return revisionRange.getRevision();
 	}
 
+	/**
+	 * Shortcut for {@code getCache().getOrIndex(getCtModel())}.
+	 *
+	 * @return
+	 * 		The index of the model of this environment.
+	 */
+	public ModelIndex getModelIndex() {
+		return cache.getOrIndex(ctModel);
+	}
+
 	/**
 	 * Returns all files referenced by {@code file}.
 	 *
@@ -0,0 +1,289 @@
+package de.unibremen.informatik.st.libvcs4j.spoon;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.Getter;
+import lombok.NonNull;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtModule;
+import spoon.reflect.visitor.CtScanner;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers the elements of a {@link CtModel} in the order in which they are
+ * visited by {@link CtScanner} (pre-order). Along with the pre-order number of
+ * an element, the pre-order number of its last descendant is stored, such
+ * that the elements of a subtree form a contiguous range of numbers.
+ * Furthermore, the elements are bucketed by their class in pre-order arrays.
+ * This allows to:
+ *
+ *  - Check whether an element is in scope of another element (see
+ *    {@link #isInScopeOf(CtElement, CtElement)}) with two integer
+ *    comparisons rather than walking the parent chain.
+ *
+ *  - Query all elements of a certain type within a subtree (see
+ *    {@link #getElements(CtElement, Class)}) by binary searching the
+ *    corresponding range rather than traversing the subtree.
+ *
+ * An element is indexed only if its parent (see {@link CtElement#getParent()})
+ * is the element through which it has been visited. Elements violating this
+ * rule (and their descendants) are not indexed, and queries involving them
+ * fall back to the behaviour of Spoon. The model must not be modified after it
+ * has been indexed. Instances of this class are threadsafe.
+ */
+public class ModelIndex {
+
+	/**
+	 * The indexed model.
+	 */
+	@Getter
+	private final CtModel model;
+
+	/**
+	 * Maps the indexed elements to their pre-order number.
+	 */
+	private final Map<CtElement, Integer> numbers = new IdentityHashMap<>();
+
+	/**
+	 * The indexed elements by pre-order number.
+	 */
+	private CtElement[] elements = new CtElement[1024];
+
+	/**
+	 * The pre-order number of the last descendant of an element (by
+	 * pre-order number). Is the element's own number if it has no
+	 * descendants.
+	 */
+	private int[] last = new int[1024];
+
+	/**
+	 * Whether the subtree of an element (by pre-order number) contains
+	 * elements that are not indexed.
+	 */
+	private boolean[] incomplete = new boolean[1024];
+
+	/**
+	 * The number of indexed elements.
+	 */
+	private int size = 0;
+
+	/**
+	 * Maps the classes of the indexed elements to the pre-order numbers of
+	 * their instances (in ascending order).
+	 */
+	private final Map<Class<?>, int[]> buckets = new IdentityHashMap<>();
+
+	/**
+	 * Caches the results of {@link #numbersOf(Class)}.
+	 */
+	private final Map<Class<?>, int[]> queries = new ConcurrentHashMap<>();
+
+	/**
+	 * Indexes the given model.
+	 *
+	 * @param model
+	 * 		The model to index.
+	 * @throws NullPointerException
+	 * 		If {@code model} is {@code null}.
+	 */
+	public ModelIndex(@NonNull final CtModel model)
+			throws NullPointerException {
+		this.model = model;
+		final Indexer indexer = new Indexer();
+		for (final CtModule module : model.getAllModules()) {
+			indexer.scan(module);
+		}
+		final Map<Class<?>, Integer> counts = new IdentityHashMap<>();
+		for (int i = 0; i < size; i++) {
+			counts.merge(elements[i].getClass(), 1, Integer::sum);
+		}
+		counts.forEach((cls, count) -> buckets.put(cls, new int[count]));
+		final Map<Class<?>, Integer> offsets = new IdentityHashMap<>();
+		for (int i = 0; i < size; i++) {
+			final Class<?> cls = elements[i].getClass();
+			final int offset = offsets.merge(cls, 1, Integer::sum) - 1;
+			buckets.get(cls)[offset] = i;
+		}
+	}
+
+	/**
+	 * Returns whether {@code element} is indexed.
+	 *
+	 * @param element
+	 * 		The element to check.
+	 * @return
+	 * 		{@code true} if {@code element} is indexed, {@code false}
+	 * 		otherwise.
+	 */
+	public boolean isIndexed(final CtElement element) {
+		return numbers.containsKey(element);
+	}
+
+	/**
+	 * Returns whether {@code element} is in scope of {@code scope}. An element
+	 * `n` is in scope of another element `m` if either `n` == `m` or if `m` is
+	 * a parent of `n` (similar to {@link CtElement#hasParent(CtElement)}).
+	 * Walks the parent chain of {@code element} if any of the given elements
+	 * is not indexed.
+	 *
+	 * @param element
+	 * 		The element that potentially is in scope of {@code scope}.
+	 * @param scope
+	 * 		The scope to check.
+	 * @return
+	 * 		{@code true} if {@code element} is in scope of {@code scope},
+	 * 		{@code false} otherwise.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public boolean isInScopeOf(final CtElement element, final CtElement scope)
+			throws NullPointerException {
+		Validate.notNull(element);
+		Validate.notNull(scope);
+		final Integer e = numbers.get(element);
+		final Integer s = numbers.get(scope);
+		if (e != null && s != null) {
+			return s <= e && e <= last[s];
+		}
+		CtElement current = element;
+		do {
+			if (current == scope) { // n == m
+				return true;
+			}
+			current = current.getParent();
+		} while (current != null);
+		return false;
+	}
+
+	/**
+	 * Returns all elements of type {@code kind} that are in scope of
+	 * {@code root} (see {@link #isInScopeOf(CtElement, CtElement)}) in
+	 * pre-order. The result is equal to
+	 * {@code root.getElements(new TypeFilter<>(kind))}, which is used as
+	 * fallback if the subtree of {@code root} is not fully indexed.
+	 *
+	 * @param root
+	 * 		The root of the subtree to query.
+	 * @param kind
+	 * 		The type of the requested elements.
+	 * @param <E>
+	 *     	The type of the requested elements.
+	 * @return
+	 * 		All elements of type {@code kind} in scope of {@code root}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public <E extends CtElement> List<E> getElements(
+			@NonNull final CtElement root, @NonNull final Class<E> kind)
+			throws NullPointerException {
+		final Integer number = numbers.get(root);
+		if (number == null || incomplete[number]) {
+			return root.getElements(new TypeFilter<>(kind));
+		}
+		final int[] candidates = numbersOf(kind);
+		final int from = lowerBound(candidates, number);
+		final int to = lowerBound(candidates, last[number] + 1);
+		final List<E> result = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			result.add(kind.cast(elements[candidates[i]]));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the pre-order numbers (in ascending order) of all indexed
+	 * elements of type {@code kind}.
+	 *
+	 * @param kind
+	 * 		The type of the requested elements.
+	 * @return
+	 * 		The pre-order numbers of all indexed elements of type
+	 * 		{@code kind}.
+	 */
+	private int[] numbersOf(final Class<?> kind) {
+		return queries.computeIfAbsent(kind, __ -> {
+			final int[] result = buckets.entrySet().stream()
+					.filter(e -> kind.isAssignableFrom(e.getKey()))
+					.map(Map.Entry::getValue)
+					.flatMapToInt(Arrays::stream)
+					.toArray();
+			Arrays.sort(result);
+			return result;
+		});
+	}
+
+	private static int lowerBound(final int[] array, final int key) {
+		int low = 0;
+		int high = array.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (array[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Assigns the pre-order numbers.
+	 */
+	private class Indexer extends CtScanner {
+
+		/**
+		 * The pre-order numbers of the elements that are currently visited.
+		 */
+		private int[] stack = new int[64];
+
+		/**
+		 * The size of {@link #stack}.
+		 */
+		private int depth = 0;
+
+		@Override
+		public void scan(final CtElement element) {
+			if (element == null) {
+				return;
+			}
+			final int parent = depth == 0 ? -1 : stack[depth - 1];
+			if (numbers.containsKey(element) || (parent >= 0 &&
+					(!element.isParentInitialized() ||
+					element.getParent() != elements[parent]))) {
+				if (parent >= 0) {
+					incomplete[parent] = true;
+				}
+				return;
+			}
+			final int number = add(element);
+			if (depth == stack.length) {
+				stack = Arrays.copyOf(stack, depth * 2);
+			}
+			stack[depth++] = number;
+			super.scan(element);
+			depth--;
+			last[number] = size - 1;
+			if (incomplete[number] && parent >= 0) {
+				incomplete[parent] = true;
+			}
+		}
+
+		private int add(final CtElement element) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+				last = Arrays.copyOf(last, size * 2);
+				incomplete = Arrays.copyOf(incomplete, size * 2);
+			}
+			elements[size] = element;
+			numbers.put(element, size);
+			return size++;
+		}
+	}
+}
@@ -17,6 +17,7 @@ import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.visitor.CtScanner;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -204,6 +205,8 @@ public class Scanner extends CtScanner {
 	 * Returns whether {@code element} is in scope of {@code scope}. An element
 	 * `n` is in scope of another element `m` if either `n` == `m` or if `m` is
 	 * a parent of `n` (similar to {@link CtElement#hasParent(CtElement)}).
+	 * Uses the {@link ModelIndex} of the model of {@code element} (see
+	 * {@link Cache#getOrIndex(CtModel)}).
 	 *
 	 * @param element
 	 * 			The element that potentially is in scope of {@code scope}.
@@ -219,13 +222,35 @@ public class Scanner extends CtScanner {
 			throws NullPointerException {
 		Validate.notNull(element);
 		Validate.notNull(scope);
-		CtElement current = element;
-		do {
-			if (current == scope) { // n == m
-				return true;
-			}
-			current = current.getParent();
-		} while (current != null);
-		return false;
+		return indexOf(element).isInScopeOf(element, scope);
+	}
+
+	/**
+	 * Returns all elements of type {@code kind} that are in scope of
+	 * {@code root} (see {@link #isInScopeOf(CtElement, CtElement)}). The
+	 * result is equal to {@code root.getElements(new TypeFilter<>(kind))},
+	 * but is computed with the {@link ModelIndex} of the model of
+	 * {@code root} (see {@link Cache#getOrIndex(CtModel)}).
+	 *
+	 * @param root
+	 * 		The root of the subtree to query.
+	 * @param kind
+	 * 		The type of the requested elements.
+	 * @param <E>
+	 *     	The type of the requested elements.
+	 * @return
+	 * 		All elements of type {@code kind} in scope of {@code root}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	public <E extends CtElement> List<E> getElements(final CtElement root,
+			final Class<E> kind) throws NullPointerException {
+		Validate.notNull(root);
+		Validate.notNull(kind);
+		return indexOf(root).getElements(root, kind);
+	}
+
+	private ModelIndex indexOf(final CtElement element) {
+		return cache.getOrIndex(element.getFactory().getModel());
 	}
 }
@@ -1,5 +1,6 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
 
+import de.unibremen.informatik.st.libvcs4j.PackedRanges;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.mapping.Mappable;
@@ -12,6 +13,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * An unmodifiable representation of a code smell.
@@ -53,10 +55,18 @@ public class CodeSmell implements Mappable<String> {
 	private final List<Metric> metrics;
 
 	/**
-	 * The ranges of a code smell.
+	 * The ranges of a code smell. Stored in packed form to reduce the memory
+	 * footprint of large sets of code smells. Usually, this is a view of
+	 * ranges shared with other code smells (see {@link #pack(List)}).
 	 */
 	@NonNull
-	private final List<VCSFile.Range> ranges;
+	private final PackedRanges ranges;
+
+	/**
+	 * Caches the ranges created by {@link #getRanges()}. Is {@code null} as
+	 * long as {@link #getRanges()} has not been called.
+	 */
+	private volatile List<VCSFile.Range> rangesCache = null;
 
 	/**
 	 * The signature of a code smell. Allows to uniquely identify a code smell
@@ -105,7 +115,7 @@ public class CodeSmell implements Mappable<String> {
 		Validate.isTrue(definition.getThresholds().test(metrics));
 		this.definition = definition;
 		this.metrics = new ArrayList<>(metrics);
-		this.ranges = new ArrayList<>(ranges);
+		this.ranges = PackedRanges.of(ranges);
 		this.signature = signature;
 		this.summary = summary;
 	}
@@ -157,13 +167,52 @@ public class CodeSmell implements Mappable<String> {
 	}
 
 	/**
-	 * Returns a copy of the ranges of this code smell.
+	 * Returns a copy of the ranges of this code smell. The ranges are created
+	 * from {@link #getPackedRanges()} on the first call and cached
+	 * afterwards.
 	 *
 	 * @return
 	 * 		A copy of the ranges of this code smell.
+	 * @throws java.io.UncheckedIOException
+	 * 		If an error occurred while reading the content of a file of this
+	 * 		code smell.
 	 */
 	public List<VCSFile.Range> getRanges() {
-		return new ArrayList<>(ranges);
+		List<VCSFile.Range> cache = rangesCache;
+		if (cache == null) {
+			cache = new ArrayList<>(ranges);
+			rangesCache = cache;
+		}
+		return new ArrayList<>(cache);
+	}
+
+	/**
+	 * Returns the ranges of this code smell in packed form.
+	 *
+	 * @return
+	 * 		The ranges of this code smell in packed form.
+	 */
+	public PackedRanges getPackedRanges() {
+		return ranges;
+	}
+
+	/**
+	 * Compares the packed ranges of this and the given code smell (see
+	 * {@link PackedRanges#matches(PackedRanges)}) without creating a single
+	 * {@link VCSFile.Range}. Delegates to the default implementation if
+	 * {@code mappable} is not a code smell.
+	 *
+	 * @param mappable
+	 * 		The mappable whose ranges to check.
+	 * @return
+	 * 		{@code true} if the ranges of {@code mappable} match with the
+	 * 		ranges of this code smell, {@code false} otherwise.
+	 */
+	@Override
+	public boolean rangesMatchWith(final Mappable<String> mappable) {
+		return mappable instanceof CodeSmell
+				? ranges.matches(((CodeSmell) mappable).ranges)
+				: Mappable.super.rangesMatchWith(mappable);
 	}
 
 	/**
@@ -180,4 +229,63 @@ public class CodeSmell implements Mappable<String> {
 	public Optional<String> getMetadata() {
 		return Optional.of(definition.getName());
 	}
+
+	/**
+	 * Packs the ranges of the given code smells into a single shared
+	 * {@link PackedRanges} instance (see {@link PackedRanges.Builder}) and
+	 * returns copies of the given code smells that keep a view of the shared
+	 * instance each (see {@link PackedRanges#subList(int, int)}). The order
+	 * of the code smells is retained.
+	 *
+	 * @param codeSmells
+	 * 		The code smells to pack.
+	 * @return
+	 * 		The packed copies of {@code codeSmells}.
+	 * @throws NullPointerException
+	 * 		If {@code codeSmells} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code codeSmells} contains {@code null}.
+	 */
+	public static List<CodeSmell> pack(
+			@NonNull final List<CodeSmell> codeSmells)
+			throws NullPointerException, IllegalArgumentException {
+		return pack(codeSmells, Function.identity());
+	}
+
+	/**
+	 * Packs the ranges of the given code smells (see {@link #pack(List)})
+	 * and replaces their files with the files returned by {@code mapper}
+	 * (see {@link PackedRanges#mapFiles(Function)}).
+	 *
+	 * @param codeSmells
+	 * 		The code smells to pack.
+	 * @param mapper
+	 * 		Maps the files of the ranges of {@code codeSmells}.
+	 * @return
+	 * 		The packed copies of {@code codeSmells}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}, or if
+	 * 		{@code mapper} returns {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code codeSmells} contains {@code null}.
+	 */
+	public static List<CodeSmell> pack(
+			@NonNull final List<CodeSmell> codeSmells,
+			@NonNull final Function<VCSFile, VCSFile> mapper)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.noNullElements(codeSmells);
+		final PackedRanges.Builder builder = new PackedRanges.Builder();
+		codeSmells.forEach(cs -> builder.addAll(cs.ranges, mapper));
+		final PackedRanges shared = builder.build();
+		final List<CodeSmell> packed = new ArrayList<>(codeSmells.size());
+		int start = 0;
+		for (final CodeSmell codeSmell : codeSmells) {
+			final int end = start + codeSmell.ranges.size();
+			packed.add(new CodeSmell(codeSmell.definition,
+					codeSmell.metrics, shared.subList(start, end),
+					codeSmell.signature, codeSmell.summary));
+			start = end;
+		}
+		return packed;
+	}
 }
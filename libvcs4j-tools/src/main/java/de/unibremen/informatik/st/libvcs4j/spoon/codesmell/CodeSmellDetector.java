@@ -29,6 +29,12 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 	@NonNull
 	private final List<CodeSmell> codeSmells = new ArrayList<>();
 
+	/**
+	 * Indicates whether the ranges of {@link #codeSmells} are packed into a
+	 * single shared instance (see {@link CodeSmell#pack(List)}).
+	 */
+	private boolean packed = true;
+
 	/**
 	 * Creates a new detector with given environment.
 	 *
@@ -42,6 +48,47 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 		super(environment);
 	}
 
+	/**
+	 * Describes which compilation units the code smells reported for a
+	 * compilation unit depend on (see {@link DetectionCache}).
+	 */
+	public enum DependencyScope {
+
+		/**
+		 * The code smells of a compilation unit depend on the unit only.
+		 */
+		UNIT,
+
+		/**
+		 * The code smells of a compilation unit depend on the unit, on the
+		 * units declaring the types referenced by the unit, and on the units
+		 * declaring the (transitive) supertypes of the types of the unit.
+		 */
+		REFERENCED_UNITS,
+
+		/**
+		 * The code smells of a compilation unit may depend on any unit of the
+		 * model.
+		 */
+		MODEL
+	}
+
+	/**
+	 * Returns the dependency scope of this detector (see
+	 * {@link DetectionCache}). Detectors with scope
+	 * {@link DependencyScope#UNIT} or {@link DependencyScope#REFERENCED_UNITS}
+	 * must report the same code smells regardless of whether the whole model
+	 * is scanned at once or its top-level types are scanned one after another
+	 * (see {@link #scan(CtElement)}). The default implementation returns
+	 * {@link DependencyScope#MODEL}.
+	 *
+	 * @return
+	 * 		The dependency scope of this detector.
+	 */
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.MODEL;
+	}
+
 	/**
 	 * Returns the definition of this detector.
 	 *
@@ -51,12 +98,22 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 	public abstract CodeSmell.Definition getDefinition();
 
 	/**
-	 * Returns a copy of the code smells of this detector.
+	 * Returns a copy of the code smells of this detector. The ranges of the
+	 * code smells are packed into a single shared instance (see
+	 * {@link CodeSmell#pack(List)}) on the first call after a code smell has
+	 * been added.
 	 *
 	 * @return
 	 * 		A copy of the code smells of this detector.
 	 */
 	public List<CodeSmell> getCodeSmells() {
+		if (!packed) {
+			final List<CodeSmell> packedCodeSmells =
+					CodeSmell.pack(codeSmells);
+			codeSmells.clear();
+			codeSmells.addAll(packedCodeSmells);
+			packed = true;
+		}
 		return new ArrayList<>(codeSmells);
 	}
 
@@ -103,6 +160,7 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 					Collections.singletonList(range.get()), signature,
 					summary);
 			codeSmells.add(map(codeSmell, Collections.singletonList(element)));
+			packed = false;
 			return Optional.of(codeSmell);
 		} catch (final IOException e) {
 			log.warn("Skipping element due to an unexpected IOException", e);
@@ -165,6 +223,7 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 					Collections.singletonList(range.get()), signature,
 					summary);
 			codeSmells.add(map(codeSmell, Arrays.asList(from, to)));
+			packed = false;
 			return Optional.of(codeSmell);
 		} catch (final IOException e) {
 			log.warn("Skipping element range due to an unexpected IOException",
@@ -227,6 +286,7 @@ public abstract class CodeSmellDetector extends ElementExtractor {
 		final CodeSmell codeSmell = new CodeSmell(getDefinition(), metrics,
 				ranges, signature, summary);
 		codeSmells.add(map(codeSmell, elements));
+		packed = false;
 		return Optional.of(codeSmell);
 	}
 
@@ -0,0 +1,382 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
+
+import de.unibremen.informatik.st.libvcs4j.PackedRanges;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
+import de.unibremen.informatik.st.libvcs4j.spoon.ModelIndex;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmellDetector.DependencyScope;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Caches the code smells detected by {@link CodeSmellDetector}s such that
+ * subsequent revisions of a repository re-evaluate only those compilation
+ * units that have changed, or whose dependencies (see
+ * {@link CodeSmellDetector#getDependencyScope()}) have changed.
+ *
+ * A compilation unit is identified by the relative path of its file (see
+ * {@link VCSFile#getRelativePath()}) and is considered unchanged if the
+ * content hash of its file is unchanged. The results of a detector are keyed
+ * by its class and definition (see {@link CodeSmellDetector#getDefinition()}).
+ * Hence, detectors with equal class and definition must be configured alike.
+ * For each unit, the cache records its content hash, the units it depends on,
+ * and the code smells whose ranges touch the unit. When a revision is
+ * processed (see {@link #detect(CodeSmellDetector)}):
+ *
+ *  - Units whose hash has changed, which have been added, or which have been
+ *    removed are changed units.
+ *
+ *  - Changed units and, depending on the scope of the detector, the units
+ *    depending on them are dirty units. The top-level types of dirty units
+ *    (and, for {@link DependencyScope#REFERENCED_UNITS}, of the units they
+ *    depend on) are scanned by the detector.
+ *
+ *  - New code smells touching a dirty unit and cached code smells touching
+ *    neither a dirty nor a removed unit form the result. The ranges of cached
+ *    code smells are re-anchored to the files of the current revision (see
+ *    {@link PackedRanges#mapFiles(java.util.function.Function)}). The ranges
+ *    of the result are packed into a single shared instance (see
+ *    {@link CodeSmell#pack(List, java.util.function.Function)}).
+ *
+ * Instances of this class are threadsafe.
+ */
+@Slf4j
+public class DetectionCache {
+
+	/**
+	 * Identifies the results of a detector.
+	 */
+	@Value
+	private static class Key {
+		private final Class<? extends CodeSmellDetector> type;
+		private final CodeSmell.Definition definition;
+	}
+
+	/**
+	 * The cached results of a detector.
+	 */
+	@Value
+	private static class Snapshot {
+
+		/**
+		 * Maps the path of each unit to its content hash.
+		 */
+		private final Map<String, String> hashes;
+
+		/**
+		 * Maps the path of each unit to the paths of the units it depends on.
+		 */
+		private final Map<String, Set<String>> dependencies;
+
+		/**
+		 * The detected code smells.
+		 */
+		private final List<CodeSmell> codeSmells;
+	}
+
+	/**
+	 * The compilation units of an environment.
+	 */
+	private static class Units {
+
+		/**
+		 * The analyzed environment.
+		 */
+		private final Environment environment;
+
+		/**
+		 * Maps the path of each unit to its file.
+		 */
+		private final Map<String, VCSFile> files = new LinkedHashMap<>();
+
+		/**
+		 * Maps the path of each unit to its content hash.
+		 */
+		private final Map<String, String> hashes = new HashMap<>();
+
+		/**
+		 * Maps the path of each unit to its top-level types.
+		 */
+		private final Map<String, List<CtType<?>>> types = new HashMap<>();
+
+		/**
+		 * Maps the path of each unit to the paths of the units declaring the
+		 * types referenced by the unit, and the units declaring the
+		 * (transitive) supertypes of the types of the unit. A unit does not
+		 * depend on itself.
+		 */
+		private final Map<String, Set<String>> dependencies = new HashMap<>();
+
+		private Units(final Environment environment) {
+			this.environment = environment;
+			final Map<File, VCSFile> filesByPath = new HashMap<>();
+			try {
+				for (final VCSFile file : environment.getRevision()
+						.getFiles()) {
+					filesByPath.put(file.toFile().getCanonicalFile(), file);
+				}
+				for (final CtType<?> type : environment.getCtModel()
+						.getAllTypes()) {
+					final SourcePosition position = type.getPosition();
+					if (position.getFile() == null) {
+						continue;
+					}
+					final VCSFile file = filesByPath.get(
+							position.getFile().getCanonicalFile());
+					if (file != null) {
+						final String path = file.getRelativePath();
+						if (!files.containsKey(path)) {
+							files.put(path, file);
+							hashes.put(path, hash(file.readAllBytes()));
+						}
+						types.computeIfAbsent(path, __ -> new ArrayList<>())
+								.add(type);
+					}
+				}
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			// Map the qualified names of all (nested) types to their unit and
+			// their direct supertypes.
+			final ModelIndex index = environment.getModelIndex();
+			final Map<String, String> declaringUnits = new HashMap<>();
+			final Map<String, Set<String>> supertypes = new HashMap<>();
+			types.forEach((path, topLevelTypes) -> {
+				for (final CtType<?> topLevelType : topLevelTypes) {
+					for (final CtType<?> type : index.getElements(
+							topLevelType, CtType.class)) {
+						final String name = type.getQualifiedName();
+						declaringUnits.put(name, path);
+						final Set<String> supers = supertypes
+								.computeIfAbsent(name, __ -> new HashSet<>());
+						Optional.ofNullable(type.getSuperclass())
+								.map(CtTypeReference::getQualifiedName)
+								.ifPresent(supers::add);
+						type.getSuperInterfaces().stream()
+								.map(CtTypeReference::getQualifiedName)
+								.forEach(supers::add);
+					}
+				}
+			});
+
+			types.forEach((path, topLevelTypes) -> {
+				final Set<String> names = new HashSet<>();
+				final Deque<String> supers = new ArrayDeque<>();
+				for (final CtType<?> topLevelType : topLevelTypes) {
+					for (final CtTypeReference<?> reference : index
+							.getElements(topLevelType,
+									CtTypeReference.class)) {
+						names.add(reference.getQualifiedName());
+					}
+					for (final CtType<?> type : index.getElements(
+							topLevelType, CtType.class)) {
+						supers.addAll(supertypes.getOrDefault(
+								type.getQualifiedName(),
+								Collections.emptySet()));
+					}
+				}
+				while (!supers.isEmpty()) {
+					final String name = supers.pop();
+					if (names.add(name)) {
+						supers.addAll(supertypes.getOrDefault(
+								name, Collections.emptySet()));
+					}
+				}
+				final Set<String> units = new HashSet<>();
+				for (final String name : names) {
+					final String unit = declaringUnits.get(name);
+					if (unit != null && !unit.equals(path)) {
+						units.add(unit);
+					}
+				}
+				dependencies.put(path, units);
+			});
+		}
+	}
+
+	/**
+	 * The cached results of each detector.
+	 */
+	private final Map<Key, Snapshot> snapshots = new HashMap<>();
+
+	/**
+	 * The units of the most recently processed environment.
+	 */
+	private Units units = null;
+
+	/**
+	 * Returns the code smells detected by {@code detector}. Only the dirty
+	 * compilation units (see {@link DetectionCache}) of the environment of
+	 * {@code detector} are scanned. Results of other units are taken from
+	 * this cache. On the first call for a detector, the whole model is
+	 * scanned. The order of the returned code smells may differ from the order
+	 * in which {@code detector} would report them when scanning the whole
+	 * model.
+	 *
+	 * @param detector
+	 * 		The detector to run. Must not have scanned any element yet.
+	 * @return
+	 * 		The code smells of the environment of {@code detector}.
+	 * @throws NullPointerException
+	 * 		If {@code detector} is {@code null}.
+	 * @throws UncheckedIOException
+	 * 		If an error occurred while reading a file.
+	 */
+	public synchronized List<CodeSmell> detect(
+			@NonNull final CodeSmellDetector detector)
+			throws NullPointerException, UncheckedIOException {
+		final Environment environment = detector.getEnvironment();
+		if (units == null || units.environment != environment) {
+			units = new Units(environment);
+		}
+		final Key key = new Key(detector.getClass(), detector.getDefinition());
+		final Snapshot snapshot = snapshots.get(key);
+		final DependencyScope scope = detector.getDependencyScope();
+
+		final Set<String> removed = new HashSet<>();
+		final Set<String> dirty = new HashSet<>();
+		if (snapshot == null) {
+			dirty.addAll(units.files.keySet());
+		} else {
+			removed.addAll(snapshot.hashes.keySet());
+			removed.removeAll(units.files.keySet());
+			final Set<String> changed = new HashSet<>(removed);
+			units.hashes.forEach((path, hash) -> {
+				if (!hash.equals(snapshot.hashes.get(path))) {
+					changed.add(path);
+				}
+			});
+			if (scope == DependencyScope.UNIT) {
+				dirty.addAll(changed);
+				dirty.removeAll(removed);
+			} else if (scope == DependencyScope.REFERENCED_UNITS) {
+				units.dependencies.forEach((path, dependencies) -> {
+					if (changed.contains(path) || !dependencies.equals(
+							snapshot.dependencies.get(path)) ||
+							dependencies.stream()
+									.anyMatch(changed::contains)) {
+						dirty.add(path);
+					}
+				});
+			} else if (!changed.isEmpty()) {
+				dirty.addAll(units.files.keySet());
+			}
+		}
+
+		final List<CodeSmell> codeSmells = new ArrayList<>();
+		if (snapshot != null) {
+			for (final CodeSmell codeSmell : snapshot.codeSmells) {
+				if (touches(codeSmell, dirty) || touches(codeSmell, removed)
+						|| !canReanchor(codeSmell)) {
+					continue;
+				}
+				codeSmells.add(codeSmell);
+			}
+		}
+		if (dirty.size() == units.files.size()) {
+			log.debug("Scanning all {} units with detector '{}'",
+					dirty.size(), key.definition.getName());
+			detector.scan(environment.getCtModel());
+			codeSmells.addAll(detector.getCodeSmells());
+		} else if (!dirty.isEmpty()) {
+			final Set<String> scan = new HashSet<>(dirty);
+			if (scope == DependencyScope.REFERENCED_UNITS) {
+				dirty.forEach(path ->
+						scan.addAll(units.dependencies.get(path)));
+			}
+			log.debug("Scanning {} of {} units with detector '{}'",
+					scan.size(), units.files.size(),
+					key.definition.getName());
+			for (final String path : units.files.keySet()) {
+				if (scan.contains(path)) {
+					units.types.get(path).forEach(detector::scan);
+				}
+			}
+			for (final CodeSmell codeSmell : detector.getCodeSmells()) {
+				if (touches(codeSmell, dirty)) {
+					codeSmells.add(codeSmell);
+				}
+			}
+		}
+
+		// Re-anchors the cached code smells. The files of the new code
+		// smells belong to the current revision already.
+		final List<CodeSmell> packed = CodeSmell.pack(codeSmells, file ->
+				units.files.getOrDefault(file.getRelativePath(), file));
+		snapshots.put(key, new Snapshot(new HashMap<>(units.hashes),
+				new HashMap<>(units.dependencies), packed));
+		return new ArrayList<>(packed);
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public synchronized void clear() {
+		snapshots.clear();
+		units = null;
+	}
+
+	private static boolean touches(final CodeSmell codeSmell,
+			final Set<String> paths) {
+		return !paths.isEmpty() && codeSmell.getPackedRanges().getFiles()
+				.stream()
+				.map(VCSFile::getRelativePath)
+				.anyMatch(paths::contains);
+	}
+
+	/**
+	 * Returns whether the ranges of the given code smell can be re-anchored
+	 * to the files of {@link #units}. As cached code smells belong to
+	 * unchanged units only, the offsets of their ranges are retained and
+	 * merely the files are replaced.
+	 */
+	private boolean canReanchor(final CodeSmell codeSmell) {
+		for (final VCSFile file : codeSmell.getPackedRanges().getFiles()) {
+			if (!units.files.containsKey(file.getRelativePath())) {
+				log.warn("Unable to re-anchor ranges of '{}'",
+						file.getRelativePath());
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the hexadecimal SHA-256 hash of the given bytes.
+	 */
+	private static String hash(final byte[] bytes) {
+		try {
+			final byte[] digest =
+					MessageDigest.getInstance("SHA-256").digest(bytes);
+			final StringBuilder builder = new StringBuilder();
+			for (final byte b : digest) {
+				builder.append(String.format("%02x", b));
+			}
+			return builder.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
 
 import de.unibremen.informatik.st.libvcs4j.Validate;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -37,6 +38,7 @@ import static de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds.Con
  * returns {@code false} for {@code null} and collections containing
  * {@code null}.
  */
+@EqualsAndHashCode
 public class Thresholds implements Predicate<Collection<Metric>> {
 
 	/**
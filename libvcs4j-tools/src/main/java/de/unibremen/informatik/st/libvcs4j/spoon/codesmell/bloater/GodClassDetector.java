@@ -99,6 +99,11 @@ public class GodClassDetector extends CodeSmellDetector {
 			}
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.REFERENCED_UNITS;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold nth = new Threshold(
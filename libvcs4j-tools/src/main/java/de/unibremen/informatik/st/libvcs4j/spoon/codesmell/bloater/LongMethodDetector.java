@@ -62,6 +62,11 @@ public class LongMethodDetector extends CodeSmellDetector {
 
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.UNIT;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold th = new Threshold(
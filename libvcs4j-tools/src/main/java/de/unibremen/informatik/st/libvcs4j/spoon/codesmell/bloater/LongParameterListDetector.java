@@ -65,6 +65,11 @@ public class LongParameterListDetector extends CodeSmellDetector {
 		}
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.UNIT;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold th = new Threshold(
@@ -68,6 +68,11 @@ public class CycleDetector extends CodeSmellDetector {
 		super.visitCtField(field);
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.REFERENCED_UNITS;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		return new CodeSmell.Definition("Cycle", new Thresholds());
@@ -82,6 +82,11 @@ public class MethodChainDetector extends CodeSmellDetector {
 		super.enter(element);
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.REFERENCED_UNITS;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		final Threshold th = new Threshold(
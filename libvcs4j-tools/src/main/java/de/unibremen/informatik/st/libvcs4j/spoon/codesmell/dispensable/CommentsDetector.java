@@ -14,7 +14,6 @@ import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtConstructor;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtElement;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -73,8 +72,8 @@ public class CommentsDetector extends CodeSmellDetector {
             return;
         }
 
-        final long numberOfComments = executable.getBody()
-                .getElements(new TypeFilter<>(CtComment.class))
+        final long numberOfComments = getElements(
+                executable.getBody(), CtComment.class)
                 .stream()
                 .filter(ctStatement -> !ctStatement.isImplicit())
                 .map(CtElement::getPosition)
@@ -96,6 +95,11 @@ public class CommentsDetector extends CodeSmellDetector {
         }
     }
 
+    @Override
+    public DependencyScope getDependencyScope() {
+        return DependencyScope.UNIT;
+    }
+
     @Override
     public CodeSmell.Definition getDefinition() {
         final Threshold rth = new Threshold(
@@ -80,6 +80,11 @@ public class DataClassDetector extends CodeSmellDetector {
 		super.visitCtMethod(method);
 	}
 
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.REFERENCED_UNITS;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		return new CodeSmell.Definition("Data Class", new Thresholds());
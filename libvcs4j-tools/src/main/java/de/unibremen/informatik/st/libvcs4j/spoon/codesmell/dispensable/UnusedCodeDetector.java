@@ -195,6 +195,19 @@ public class UnusedCodeDetector extends CodeSmellDetector {
 				createSignature(unusedElement).orElse(null), null);
 	}
 
+	/**
+	 * Returns {@link DependencyScope#MODEL} as executables are matched by
+	 * their signature regardless of their declaring type. Thus, whether an
+	 * element is unused may depend on any compilation unit of the model.
+	 *
+	 * @return
+	 * 		{@link DependencyScope#MODEL}.
+	 */
+	@Override
+	public DependencyScope getDependencyScope() {
+		return DependencyScope.MODEL;
+	}
+
 	@Override
 	public CodeSmell.Definition getDefinition() {
 		return new CodeSmell.Definition("Unused Code", new Thresholds());
@@ -0,0 +1,440 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell.missingJavadoc;
+
+import spoon.reflect.code.CtCatch;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtThrow;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtImport;
+import spoon.reflect.declaration.CtImportKind;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.TypeFactory;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This class precomputes the exception related information that is required by the JavadocDetector.
+ * Each type is scanned only once. The scan collects the thrown, caught, and invoked elements of all executables of
+ * the type, so that the detector does not have to query the subtree of each executable again and again.
+ * The exceptions that can be thrown by the executables called by an executable are memoized as well.
+ * Besides, the imports of a compilation unit and the qualified names resolved with Class.forName are cached.
+ *
+ * @version 1.0
+ */
+class ExceptionIndex {
+
+    /**
+     * The information that has been collected for an executable.
+     */
+    static class ExecutableInfo {
+        /**
+         * The types of all thrown expressions (CtThrow) of an executable. Does not contain null values.
+         */
+        private final List<CtTypeReference<?>> thrown = new ArrayList<>();
+        /**
+         * The types of the parameters of all catch blocks of an executable. Does not contain null values.
+         */
+        private final List<CtTypeReference<?>> catches = new ArrayList<>();
+        /**
+         * All invocations of an executable whose declaration could be resolved.
+         */
+        private final List<Call> calls = new ArrayList<>();
+
+        /**
+         * Returns the types of all thrown expressions.
+         *
+         * @return an unmodifiable list of the thrown types.
+         */
+        List<CtTypeReference<?>> getThrown() {
+            return Collections.unmodifiableList(thrown);
+        }
+
+        /**
+         * Returns the types of the parameters of all catch blocks.
+         *
+         * @return an unmodifiable list of the caught types.
+         */
+        List<CtTypeReference<?>> getCatches() {
+            return Collections.unmodifiableList(catches);
+        }
+    }
+
+    /**
+     * An invocation whose declaration could be resolved.
+     */
+    private static class Call {
+        /**
+         * The declaration of the invoked executable.
+         */
+        private final CtExecutable<?> declaration;
+        /**
+         * The types of the parameters of all catch blocks located inside the invocation.
+         */
+        private final List<CtTypeReference<?>> catches = new ArrayList<>();
+
+        /**
+         * Creates a new call with the given declaration.
+         *
+         * @param declaration is the declaration of the invoked executable.
+         */
+        private Call(CtExecutable<?> declaration) {
+            this.declaration = declaration;
+        }
+    }
+
+    /**
+     * The imports of a compilation unit.
+     */
+    static class Imports {
+        /**
+         * Simple name -> qualified name of all type imports.
+         */
+        private final Map<String, String> types = new HashMap<>();
+        /**
+         * The packages of all non type imports. For example "java.util" for "import java.util.*;".
+         */
+        private final List<String> packages = new ArrayList<>();
+
+        /**
+         * Returns the qualified names a simple name may be resolved to by the imports.
+         *
+         * @param simpleName is the simple name to resolve.
+         * @return all possible qualified names.
+         */
+        List<String> candidatesOf(String simpleName) {
+            List<String> candidates = new ArrayList<>(packages.size() + 1);
+            String type = types.get(simpleName);
+            if (type != null) {
+                candidates.add(type);
+            }
+            for (String p : packages) {
+                candidates.add(p + "." + simpleName);
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * All types that have already been scanned.
+     */
+    private final Set<CtType<?>> indexedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The collected information of all scanned executables.
+     */
+    private final Map<CtExecutable<?>, ExecutableInfo> infos = new IdentityHashMap<>();
+    /**
+     * The memoized exceptions that can be thrown by the executables called by an executable.
+     */
+    private final Map<CtExecutable<?>, Set<CtTypeReference<?>>> calledExceptions = new IdentityHashMap<>();
+    /**
+     * The imports of all compilation units that have been requested so far.
+     */
+    private final Map<CompilationUnit, Imports> imports = new IdentityHashMap<>();
+    /**
+     * Qualified name -> type loaded with Class.forName. An empty Optional, if the class could not be loaded.
+     */
+    private final Map<String, Optional<CtType<?>>> resolvedTypes = new HashMap<>();
+    /**
+     * The factory that is used to create the types of {@link #resolvedTypes}.
+     */
+    private TypeFactory typeFactory = null;
+
+    // State of the strongly connected components search of getCalledExceptions.
+    /**
+     * The discovery index of all executables visited by the search.
+     */
+    private final Map<CtExecutable<?>, Integer> discovery = new IdentityHashMap<>();
+    /**
+     * The smallest discovery index reachable from an executable.
+     */
+    private final Map<CtExecutable<?>, Integer> lowLinks = new IdentityHashMap<>();
+    /**
+     * The (possibly incomplete) result of all executables on {@link #stack}.
+     */
+    private final Map<CtExecutable<?>, Set<CtTypeReference<?>>> partial = new IdentityHashMap<>();
+    /**
+     * The executables whose strongly connected component is not finished yet.
+     */
+    private final Deque<CtExecutable<?>> stack = new ArrayDeque<>();
+
+    /**
+     * Returns the collected information of the given executable.
+     * If the executable has not been indexed yet, its outermost type is scanned.
+     *
+     * @param executable is the executable whose information is requested.
+     * @return the information of the executable.
+     */
+    ExecutableInfo infoOf(CtExecutable<?> executable) {
+        ExecutableInfo info = infos.get(executable);
+        if (info == null) {
+            CtType<?> type = executable.getParent(CtType.class);
+            while (type != null && type.getParent(CtType.class) != null) {
+                type = type.getParent(CtType.class);
+            }
+            if (type != null && indexedTypes.add(type)) {
+                new IndexScanner().scan(type);
+            }
+            info = infos.get(executable);
+            if (info == null) {
+                // The executable is not part of a type.
+                new IndexScanner().scan(executable);
+                info = infos.get(executable);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Returns the exceptions that can be thrown by the executables which are (transitively) called by the given
+     * executable. Exceptions that are handled by a catch block located inside an invocation are removed.
+     * The result is memoized. Mutually recursive executables are treated as a fixpoint, that is, all executables of a
+     * cycle share the union of their exceptions.
+     *
+     * @param executable is the executable whose called exceptions are requested.
+     * @return an unmodifiable set of the called exceptions.
+     */
+    Set<CtTypeReference<?>> getCalledExceptions(CtExecutable<?> executable) {
+        if (!calledExceptions.containsKey(executable)) {
+            strongConnect(executable);
+        }
+        return Collections.unmodifiableSet(calledExceptions.get(executable));
+    }
+
+    /**
+     * Computes the called exceptions of the given executable and all executables reachable from it using Tarjan's
+     * algorithm for strongly connected components.
+     *
+     * @param executable is the executable to process.
+     */
+    private void strongConnect(CtExecutable<?> executable) {
+        int index = discovery.size();
+        discovery.put(executable, index);
+        lowLinks.put(executable, index);
+        stack.push(executable);
+
+        Set<CtTypeReference<?>> result = new LinkedHashSet<>();
+        for (Call call : infoOf(executable).calls) {
+            CtExecutable<?> declaration = call.declaration;
+            result.addAll(directExceptionsOf(declaration));
+            Set<CtTypeReference<?>> called;
+            if (calledExceptions.containsKey(declaration)) {
+                called = calledExceptions.get(declaration);
+            } else if (!discovery.containsKey(declaration)) {
+                strongConnect(declaration);
+                lowLinks.put(executable, Math.min(lowLinks.get(executable), lowLinks.get(declaration)));
+                called = calledExceptions.containsKey(declaration)
+                        ? calledExceptions.get(declaration)
+                        : partial.getOrDefault(declaration, Collections.emptySet());
+            } else {
+                // On stack: part of the current strongly connected component.
+                lowLinks.put(executable, Math.min(lowLinks.get(executable), discovery.get(declaration)));
+                called = partial.getOrDefault(declaration, Collections.emptySet());
+            }
+            result.addAll(removeHandled(call.catches, called));
+        }
+        partial.put(executable, result);
+
+        if (lowLinks.get(executable) == index) {
+            List<CtExecutable<?>> component = new ArrayList<>();
+            CtExecutable<?> member;
+            do {
+                member = stack.pop();
+                component.add(member);
+            } while (member != executable);
+
+            if (component.size() == 1) {
+                calledExceptions.put(executable, partial.remove(executable));
+            } else {
+                Set<CtTypeReference<?>> union = new LinkedHashSet<>(result);
+                for (CtExecutable<?> m : component) {
+                    union.addAll(directExceptionsOf(m));
+                    union.addAll(partial.remove(m));
+                }
+                for (CtExecutable<?> m : component) {
+                    calledExceptions.put(m, union);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the exceptions that are directly thrown by the given executable, that is, the types of its thrown
+     * expressions and its declared thrown types.
+     *
+     * @param executable is the executable whose exceptions are requested.
+     * @return the directly thrown exceptions.
+     */
+    private List<CtTypeReference<?>> directExceptionsOf(CtExecutable<?> executable) {
+        List<CtTypeReference<?>> exceptions = new ArrayList<>(infoOf(executable).thrown);
+        for (CtTypeReference<?> ref : executable.getThrownTypes()) {
+            if (ref != null) {
+                exceptions.add(ref);
+            }
+        }
+        return exceptions;
+    }
+
+    /**
+     * Removes all exceptions that are handled by one of the given catches (the exception is equal to or a subtype
+     * of a caught type).
+     *
+     * @param catches    are the caught types.
+     * @param exceptions are the exceptions to filter.
+     * @return the unhandled exceptions.
+     */
+    static List<CtTypeReference<?>> removeHandled(
+            List<CtTypeReference<?>> catches,
+            Set<CtTypeReference<?>> exceptions
+    ) {
+        List<CtTypeReference<?>> unhandled = new ArrayList<>(exceptions.size());
+        for (CtTypeReference<?> exception : exceptions) {
+            boolean handled = false;
+            for (CtTypeReference<?> cat : catches) {
+                if (exception.equals(cat) || exception.isSubtypeOf(cat)) {
+                    handled = true;
+                    break;
+                }
+            }
+            if (!handled) {
+                unhandled.add(exception);
+            }
+        }
+        return unhandled;
+    }
+
+    /**
+     * Returns the imports of the compilation unit of the given type.
+     *
+     * @param type is the type where the imports are declared.
+     * @return the imports of the type.
+     */
+    Imports importsOf(CtType<?> type) {
+        CompilationUnit cu = type.getFactory().CompilationUnit().getOrCreate(type);
+        return imports.computeIfAbsent(cu, unit -> {
+            Imports table = new Imports();
+            for (CtImport i : unit.getImports()) {
+                if (i.getImportKind().equals(CtImportKind.TYPE)) {
+                    table.types.putIfAbsent(i.getReference().getSimpleName(), i.getReference().toString());
+                } else {
+                    table.packages.add(JavadocDetector.extractImportPackage(i));
+                }
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Returns the qualified names a documented exception may refer to, in the order they have to be tried.
+     * At first the candidates of the imports, after that the name in the package of the given exception,
+     * and at least the name found with the JavaExceptionMap.
+     *
+     * @param simpleName is the simple name of the documented exception.
+     * @param imports    are the imports from the parent type of the documented executable.
+     * @param exception  is the thrown exception the documented exception is compared with.
+     * @return all possible qualified names.
+     */
+    static List<String> qualifiedNamesOf(String simpleName, Imports imports, CtTypeReference<?> exception) {
+        List<String> names = imports.candidatesOf(simpleName);
+        if (exception.getPackage() != null) {
+            names.add(exception.getPackage().getQualifiedName() + "." + simpleName);
+        }
+        String name = JavaExceptionMap.getQualifiedName(simpleName);
+        if (!name.isEmpty()) {
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * Loads the class with the given qualified name and returns the corresponding type.
+     * The result is cached.
+     *
+     * @param qualifiedName is the qualified name of the class.
+     * @return the type of the class or an empty Optional, if the class could not be loaded.
+     */
+    Optional<CtType<?>> resolve(String qualifiedName) {
+        Optional<CtType<?>> type = resolvedTypes.get(qualifiedName);
+        if (type == null) {
+            try {
+                if (typeFactory == null) {
+                    typeFactory = new TypeFactory();
+                }
+                type = Optional.ofNullable(typeFactory.get(Class.forName(qualifiedName)));
+            } catch (Exception e) {
+                type = Optional.empty();
+            }
+            resolvedTypes.put(qualifiedName, type);
+        }
+        return type;
+    }
+
+    /**
+     * Scans a type (or an executable) once and collects the thrown expressions, catch blocks, and invocations of all
+     * its executables. The elements of nested executables (for example lambdas) are collected for all enclosing
+     * executables as well.
+     */
+    private class IndexScanner extends CtScanner {
+        /**
+         * The executables enclosing the currently scanned element.
+         */
+        private final List<ExecutableInfo> executables = new ArrayList<>();
+        /**
+         * The calls enclosing the currently scanned element.
+         */
+        private final List<Call> calls = new ArrayList<>();
+
+        @Override
+        public void scan(CtElement element) {
+            if (element == null) {
+                return;
+            }
+            ExecutableInfo info = null;
+            if (element instanceof CtExecutable) {
+                info = infos.computeIfAbsent((CtExecutable<?>) element, e -> new ExecutableInfo());
+                executables.add(info);
+            }
+            Call call = null;
+            if (element instanceof CtThrow) {
+                CtTypeReference<?> type = ((CtThrow) element).getThrownExpression().getType();
+                if (type != null) {
+                    executables.forEach(e -> e.thrown.add(type));
+                }
+            } else if (element instanceof CtCatch) {
+                CtTypeReference<?> type = ((CtCatch) element).getParameter().getType();
+                if (type != null) {
+                    executables.forEach(e -> e.catches.add(type));
+                    calls.forEach(c -> c.catches.add(type));
+                }
+            } else if (element instanceof CtInvocation) {
+                CtExecutable<?> declaration = ((CtInvocation<?>) element).getExecutable().getDeclaration();
+                if (declaration != null) {
+                    call = new Call(declaration);
+                    for (ExecutableInfo e : executables) {
+                        e.calls.add(call);
+                    }
+                    calls.add(call);
+                }
+            }
+            super.scan(element);
+            if (call != null) {
+                calls.remove(calls.size() - 1);
+            }
+            if (info != null) {
+                executables.remove(executables.size() - 1);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.unibremen.informatik.st.libvcs4j.spoon.codesmell.missingJavadoc;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class contains an hashmap with all public exceptions and errors from the java api (version 8).
@@ -11,14 +13,27 @@ import java.util.HashMap;
  * @version 1.0
  */
 public class JavaExceptionMap {
-    static HashMap<String, String> exceptionMap = new HashMap<String, String>();
+    /**
+     * The table that maps the simple names to the qualified names.
+     * It's filled only once when the class is loaded and can't be modified afterwards.
+     */
+    private static final Map<String, String> exceptionMap;
+
+    static {
+        HashMap<String, String> map = new HashMap<>(1024);
+        addExceptions(map);
+        exceptionMap = Collections.unmodifiableMap(map);
+    }
 
     /**
-     * This Method put's all the pairs in to the exceptionMap.
+     * This Method put's all the pairs in to the given map.
      * A pair is builded by the simple name and the qualified name.
      * So there is the possibility to search for a simple name and get the qulified name.
+     * All names are string literals and therefore interned.
+     *
+     * @param exceptionMap is the map to fill.
      */
-    private static void addExceptions() {
+    private static void addExceptions(Map<String, String> exceptionMap) {
         exceptionMap.put("Throwable", "java.lang.Throwable");
         exceptionMap.put("Exception", "java.lang.Exception");
         exceptionMap.put("CloneNotSupportedException", "java.lang.CloneNotSupportedException");
@@ -586,7 +601,6 @@ public class JavaExceptionMap {
      * @return the qualified name or an empty string, if the simple name is not found.
      */
     public static String getQualifiedName(String simpleName) {
-        addExceptions();
-        return exceptionMap.get(simpleName) != null ? exceptionMap.get(simpleName) : "";
+        return exceptionMap.getOrDefault(simpleName, "");
     }
 }
@@ -6,11 +6,8 @@ import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.CodeSmellDetector;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
 import lombok.NonNull;
 import spoon.reflect.code.*;
-import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.declaration.*;
-import spoon.reflect.factory.TypeFactory;
 import spoon.reflect.reference.CtTypeReference;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.lang.annotation.Annotation;
 import java.util.*;
@@ -201,6 +198,10 @@ public class JavadocDetector extends CodeSmellDetector {
      * Setting for the minimum length of the description for the @deprecated tag.
      */
     private int tagDeprecated = 0;
+    /**
+     * Precomputes the thrown, caught and called exceptions of the executables and the imports of the types.
+     */
+    private final ExceptionIndex exceptionIndex = new ExceptionIndex();
 
     /**
      * This is the constructor of the JavadocDetector class.
@@ -812,7 +813,7 @@ public class JavadocDetector extends CodeSmellDetector {
      * @param ctImport is an import with CtImportKind unequal CtImportKind.TYPE
      * @return the extracted package of this import.
      */
-    private String extractImportPackage(CtImport ctImport) {
+    static String extractImportPackage(CtImport ctImport) {
         String extract = ctImport.toString();
         extract = extract.substring(extract.lastIndexOf(" ") + 1).replace("*", " ").replace(";", " ").trim();
         if (extract.charAt(extract.length() - 1) == '.') {
@@ -821,39 +822,23 @@ public class JavadocDetector extends CodeSmellDetector {
         return extract;
     }
 
-    /**
-     * The task of this method is to get the imports of the type.
-     *
-     * @param type is the type where the imports are declared.
-     * @return a list with all declared imports.
-     */
-    private List<CtImport> getImports(CtType type) {
-        CompilationUnit cu = type.getFactory().CompilationUnit().getOrCreate(type);
-        return cu.getImports();
-    }
-
     /**
      * The function of this method is to check the exceptions.
      * It only checks if the minimum length of the exception has been set.
      * It checks if the unhandle exceptions are described in the javadoc, and that
      * all described exceptions from the javadoc can be thrown from the executable.
+     * The thrown, caught and called exceptions are looked up in the exceptionIndex, so that the executable and
+     * the called executables are not traversed again.
      *
      * @param executable is the element where the exceptions to be thrown.
      * @param javadoc    is the javadoc where the exceptions are described.
      */
     private void checkExceptions(CtExecutable executable, CtJavaDoc javadoc) {
         if (tagThrows > 0) {
-            List<CtImport> imports = getImports(executable.getParent(CtType.class));
-            List<CtThrow> executableThrows = executable.getElements(new TypeFilter<>(CtThrow.class));
-
-            LinkedHashSet<CtTypeReference> executableExceptions = new LinkedHashSet();
-            if (executableThrows != null && !executableThrows.isEmpty()) {
-                for (CtThrow exception : executableThrows) {
-                    if (exception.getThrownExpression().getType() != null) {
-                        executableExceptions.add(exception.getThrownExpression().getType());
-                    }
-                }
-            }
+            ExceptionIndex.Imports imports = exceptionIndex.importsOf(executable.getParent(CtType.class));
+            ExceptionIndex.ExecutableInfo info = exceptionIndex.infoOf(executable);
+
+            LinkedHashSet<CtTypeReference> executableExceptions = new LinkedHashSet<>(info.getThrown());
             executableExceptions.addAll(executable.getThrownTypes());
 
             ArrayList<String> executableDocumentedExceptions = new ArrayList<>();
@@ -864,13 +849,8 @@ public class JavadocDetector extends CodeSmellDetector {
                 }
             }
 
-            ArrayList<CtExecutable> visitedInvocations = new ArrayList<>();
-            visitedInvocations.add(executable);
-            ArrayList<CtTypeReference> catches = new ArrayList<>();
-            executable.getElements(new TypeFilter<>(CtCatch.class)).forEach(
-                    c -> catches.add(c.getParameter().getType()));
-            executableExceptions.addAll(
-                    checkHandleException(catches, checkCalledExceptions(executable, visitedInvocations)));
+            executableExceptions.addAll(ExceptionIndex.removeHandled(
+                    info.getCatches(), exceptionIndex.getCalledExceptions(executable)));
             for (CtTypeReference ref : executableExceptions) {
                 if (ref != null) {
                     if (!executableDocumentedExceptions.contains(ref.getSimpleName())) {
@@ -902,73 +882,6 @@ public class JavadocDetector extends CodeSmellDetector {
         }
     }
 
-    /**
-     * This method checks if a exception was handled.
-     * It also check for the inherit exceptions that was handled by a try - catch - block.
-     *
-     * @param catches             contains all exceptions that this executable handles.
-     * @param invoctionExceptions contains all exception that can be thrown by call other executables.
-     * @return a list with all unhandled exceptions that can be thrown by the executable.
-     */
-    private ArrayList<CtTypeReference> checkHandleException(
-            ArrayList<CtTypeReference> catches,
-            ArrayList<CtTypeReference> invoctionExceptions
-    ) {
-        ArrayList<CtTypeReference> invocWithoutHandleException = new ArrayList<>(invoctionExceptions);
-        for (CtTypeReference exception : invoctionExceptions) {
-            for (CtTypeReference cat : catches) {
-                if (cat != null && exception != null) {
-                    if (exception.equals(cat) || exception.isSubtypeOf(cat)) {
-                        invocWithoutHandleException.remove(exception);
-                    }
-                }
-            }
-        }
-        return invocWithoutHandleException;
-    }
-
-    /**
-     * This method gets all the called executables by the element.
-     * And get the thrown unhandled exceptions from them. Also it get the declare exception in the executable signature.
-     *
-     * @param element            is the actual handled element, that will be checked for recursive exceptions.
-     * @param visitedInvocations is a list with all the visited executables, to prevent a loop.
-     * @return
-     */
-    private ArrayList<CtTypeReference> checkCalledExceptions(
-            CtElement element,
-            ArrayList<CtExecutable> visitedInvocations
-    ) {
-        ArrayList<CtInvocation> calledInvocations = (ArrayList<CtInvocation>) element.getElements(new TypeFilter<>(
-                CtInvocation.class));
-        ArrayList<CtTypeReference> calledException = new ArrayList<>();
-
-        for (CtInvocation invocation : calledInvocations) {
-            if (invocation.getExecutable().getDeclaration() != null) {
-                if (!visitedInvocations.contains(invocation.getExecutable().getDeclaration())) {
-                    visitedInvocations.add(invocation.getExecutable().getDeclaration());
-                    ArrayList<CtThrow> calledExceptions = (ArrayList<CtThrow>) invocation.getExecutable()
-                            .getDeclaration()
-                            .getElements(new TypeFilter<>(
-                                    CtThrow.class));
-                    for (CtThrow exception : calledExceptions) {
-                        calledException.add(exception.getThrownExpression().getType());
-                    }
-                    calledException.addAll(invocation.getExecutable().getDeclaration().getThrownTypes());
-                    ArrayList<CtTypeReference> catches = new ArrayList<>();
-                    invocation.getElements(new TypeFilter<>(CtCatch.class))
-                            .forEach(c -> catches.add(c.getParameter().getType()));
-                    calledException.addAll(checkHandleException(
-                            catches,
-                            checkCalledExceptions(invocation.getExecutable().getDeclaration(), visitedInvocations)
-                            )
-                    );
-                }
-            }
-        }
-        return calledException;
-    }
-
     /**
      * This method checks if any documented exceptions is a sub-exception of the given exception,
      * so that this described the exception.
@@ -984,48 +897,15 @@ public class JavadocDetector extends CodeSmellDetector {
     private Boolean isSuperExceptionClass(
             List<String> documentedExceptions,
             CtTypeReference exception,
-            List<CtImport> imports
+            ExceptionIndex.Imports imports
     ) {
-        TypeFactory typeFactory = new TypeFactory();
         for (String s : documentedExceptions) {
-            for (CtImport i : imports) {
-                if (i.getImportKind().equals(CtImportKind.TYPE)) {
-                    if (s.equals(i.getReference().getSimpleName())) {
-                        try {
-                            if (typeFactory.get(Class.forName(i.getReference().toString())).isSubtypeOf(exception)) {
-                                System.out.println("INFO: Missing description of " + exception +
-                                        " was described by " + s + ".");
-                                return true;
-                            }
-                        } catch (Exception e0) {
-                        }
-                    }
-                } else {
-                    try {
-                        if (typeFactory.get(Class.forName(extractImportPackage(i) + "." + s)).isSubtypeOf(exception)) {
-                            System.out.println("INFO: Missing description of " + exception +
-                                    " was described by " + s + ".");
-                            return true;
-                        }
-                    } catch (Exception e0) {
-                    }
-                }
-            }
-            try {
-                if (typeFactory.get(Class.forName(exception.getPackage().getQualifiedName() + "." + s))
-                        .isSubtypeOf(exception)) {
-                    System.out.println("INFO: Missing description of " + exception + " was described by " + s + ".");
-                    return true;
-                }
-            } catch (Exception e1) {
-            }
-            try {
-                String qualifiedName = JavaExceptionMap.getQualifiedName(s);
-                if (typeFactory.get(Class.forName(qualifiedName)).isSubtypeOf(exception)) {
-                    System.out.println("INFO: Missing description of " + exception + " was described by " + s + ".");
+            for (String candidate : ExceptionIndex.qualifiedNamesOf(s, imports, exception)) {
+                if (isSubtypeOf(candidate, exception)) {
+                    System.out.println("INFO: Missing description of " + exception +
+                            " was described by " + s + ".");
                     return true;
                 }
-            } catch (Exception e2) {
             }
         }
         return false;
@@ -1045,53 +925,43 @@ public class JavadocDetector extends CodeSmellDetector {
     private Boolean isSubExceptionClass(
             String documentedException,
             LinkedHashSet<CtTypeReference> exceptions,
-            List<CtImport> imports
+            ExceptionIndex.Imports imports
     ) {
-        TypeFactory typeFactory = new TypeFactory();
-
         for (CtTypeReference exception : exceptions) {
-            for (CtImport i : imports) {
-                if (i.getImportKind().equals(CtImportKind.TYPE)) {
-                    if (documentedException.equals(i.getReference().getSimpleName())) {
-                        try {
-                            if (typeFactory.get(Class.forName(i.getReference().toString())).isSubtypeOf(exception)) {
-                                System.out.println("INFO: " + documentedException + " describes " + exception + ", found the relation over the imports");
-                                return true;
-                            }
-                        } catch (Exception e0) {
-                        }
-                    }
-                } else {
-                    try {
-                        if (typeFactory.get(Class.forName(extractImportPackage(i) + "." + documentedException))
-                                .isSubtypeOf(exception)) {
-                            System.out.println("INFO: " + documentedException + " describes " + exception + ", found the relation over the imports");
-                            return true;
-                        }
-                    } catch (Exception e0) {
-                    }
-                }
-            }
-            try {
-                if (typeFactory.get(Class.forName(exception.getPackage()
-                        .getQualifiedName() + "." + documentedException)).isSubtypeOf(exception)) {
-                    System.out.println("INFO: " + documentedException + " describes " + exception + ", found the relation over the same package.");
-                    return true;
-                }
-            } catch (Exception e) {
+            if (exception == null) {
+                continue;
             }
-            try {
-                String qualifiedName = JavaExceptionMap.getQualifiedName(documentedException);
-                if (typeFactory.get(Class.forName(qualifiedName)).isSubtypeOf(exception)) {
-                    System.out.println("INFO: " + documentedException + " describes " + exception + ", found the relation with JavaExceptionMap.");
+            for (String candidate : ExceptionIndex.qualifiedNamesOf(documentedException, imports, exception)) {
+                if (isSubtypeOf(candidate, exception)) {
+                    System.out.println("INFO: " + documentedException + " describes " + exception + ", found the relation with " + candidate + ".");
                     return true;
                 }
-            } catch (Exception e2) {
             }
         }
         return false;
     }
 
+    /**
+     * This method checks if the class with the given qualified name is a subtype of the given exception.
+     * The class is loaded only once (look at ExceptionIndex.resolve).
+     *
+     * @param qualifiedName is the qualified name of the class to check.
+     * @param exception     is the exception that might be the supertype.
+     * @return true if the class could be loaded and is a subtype of the exception, false if not.
+     */
+    private boolean isSubtypeOf(String qualifiedName, CtTypeReference exception) {
+        if (qualifiedName.isEmpty()) {
+            return false;
+        }
+        try {
+            return exceptionIndex.resolve(qualifiedName)
+                    .map(t -> t.isSubtypeOf(exception))
+                    .orElse(false);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     /**
      * The procedure of this method depends on the selection of readByWord.
      * If word-wise reading was selected, then it split the text by whitespaces and count a word if it's
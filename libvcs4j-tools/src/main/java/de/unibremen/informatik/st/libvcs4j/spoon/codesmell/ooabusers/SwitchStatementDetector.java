@@ -61,6 +61,11 @@ public class SwitchStatementDetector extends CodeSmellDetector {
 
     }
 
+    @Override
+    public DependencyScope getDependencyScope() {
+        return DependencyScope.UNIT;
+    }
+
     @Override
     public CodeSmell.Definition getDefinition() {
         final Threshold threshold = new Threshold(
@@ -7,60 +7,71 @@ import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.Thresholds;
 import lombok.NonNull;
 import spoon.reflect.code.CtFieldAccess;
 import spoon.reflect.code.CtFieldWrite;
-import spoon.reflect.declaration.CtType;
-import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
-import spoon.reflect.declaration.CtConstructor;
-import spoon.reflect.declaration.CtModifiable;
-import spoon.reflect.visitor.filter.FieldAccessFilter;
-import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.reflect.declaration.CtType;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
 public class TemporaryFieldDetector extends CodeSmellDetector {
 
-    private Map<CtExecutable, Set<CtField>> fieldAccesses = new HashMap<>();
+    /**
+     * Inverted index that maps the private, non-static fields of the scanned
+     * classes to their usage. A field is a temporary field if it is accessed
+     * by a single executable only, and if the first access of this executable
+     * writes the field.
+     */
+    private final Map<CtField, Usage> usages = new IdentityHashMap<>();
+
+    /**
+     * The usage of a field.
+     */
+    private static class Usage {
+
+        /**
+         * Whether the first access of the first executable accessing the
+         * field writes the field.
+         */
+        private final boolean writtenFirst;
+
+        /**
+         * The number of executables accessing the field.
+         */
+        private int executables = 1;
+
+        private Usage(final boolean writtenFirst) {
+            this.writtenFirst = writtenFirst;
+        }
+    }
 
     public TemporaryFieldDetector(@NonNull final Environment environment) {
         super(environment);
     }
 
+    @Override
+    public void visitRoot(final CtElement element) {
+        usages.clear();
+        super.visitRoot(element);
+    }
+
     @Override
     public <T> void visitCtClass(final CtClass<T> ctClass) {
-        fieldAccesses.clear();
         super.visitCtClass(ctClass);
-        Map<CtField, CtExecutable> potentialTemporaryFields = new HashMap<>();
-        fieldAccesses.forEach((executable, set) -> {
-            final Collection<Set<CtField>> temp =
-                    new ArrayList<>(fieldAccesses.values());
-            temp.remove(set);
-            set.forEach(field -> {
-                final boolean distinct = temp.stream()
-                        .noneMatch(fields -> fields.contains(field));
-                if (distinct) {
-                    potentialTemporaryFields.put(field, executable);
-                }
-            });
-        });
-        potentialTemporaryFields.entrySet()
-                .stream()
-                .filter(entry -> entry.getValue()
-                        .getElements(new FieldAccessFilter(entry
-                                .getKey()
-                                .getReference()))
-                        .get(0) instanceof CtFieldWrite)
-                .forEach(entry -> addCodeSmell(entry.getKey(),
-                        Collections.emptyList(),
-                        createSignature(entry.getKey()).orElse(null), null));
+        for (final CtField<?> field : ctClass.getFields()) {
+            final Usage usage = usages.remove(field);
+            if (usage != null && usage.executables == 1
+                    && usage.writtenFirst) {
+                addCodeSmell(field, Collections.emptyList(),
+                        createSignature(field).orElse(null), null);
+            }
+        }
     }
 
     @Override
@@ -77,20 +88,30 @@ public class TemporaryFieldDetector extends CodeSmellDetector {
 
     private void visitCtExecutable(final CtExecutable executable,
             final CtType declaringType) {
-        executable.getElements(new TypeFilter<>(CtFieldAccess.class))
-                .stream()
-                .map(CtFieldAccess::getVariable)
-                .map(field -> getCache().getOrResolve(field))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(field -> {
-                    final CtType declType = field.getDeclaringType();
-                    return declType != null && declType.equals(declaringType);
-                })
-                .filter(CtModifiable::isPrivate)
-                .filter(field -> !field.isStatic())
-                .forEach(field -> fieldAccesses.computeIfAbsent(
-                        executable, __ -> new HashSet<>()).add(field));
+        final Set<CtField> accessed =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final CtFieldAccess<?> access :
+                getElements(executable, CtFieldAccess.class)) {
+            getCache().getOrResolve(access.getVariable())
+                    .filter(field -> field.getDeclaringType() == declaringType)
+                    .filter(field -> field.isPrivate() && !field.isStatic())
+                    // Consider the first access of each field only.
+                    .filter(accessed::add)
+                    .ifPresent(field -> {
+                        final Usage usage = usages.get(field);
+                        if (usage == null) {
+                            usages.put(field,
+                                    new Usage(access instanceof CtFieldWrite));
+                        } else {
+                            usage.executables++;
+                        }
+                    });
+        }
+    }
+
+    @Override
+    public DependencyScope getDependencyScope() {
+        return DependencyScope.UNIT;
     }
 
     @Override
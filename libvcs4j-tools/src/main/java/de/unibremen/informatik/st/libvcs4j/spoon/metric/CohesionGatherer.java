@@ -0,0 +1,179 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.code.CtFieldRead;
+import spoon.reflect.code.CtFieldWrite;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.math.BigDecimal;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Base class of the gatherers computing a cohesion metric for
+ * {@link CtClass}, {@link CtInterface}, and {@link CtEnum} elements. While
+ * scanning a type, the fields accessed by its methods are recorded in a
+ * {@link CohesionMatrix}. A field is accessed by a method if the method reads
+ * or writes the field (see {@link #recordsFieldAccessesOf(CtMethod)}), or if
+ * the method calls a getter or setter of the field. Once a type has been
+ * scanned, its metric is computed from its matrix (see
+ * {@link #cohesion(CohesionMatrix)}).
+ */
+@NoArgsConstructor
+public abstract class CohesionGatherer extends DecimalGatherer {
+
+	/**
+	 * The initial metric value.
+	 */
+	private static final BigDecimal INITIAL_VALUE = BigDecimal.ZERO;
+
+	/**
+	 * Maps the types that are currently scanned to their matrix.
+	 */
+	private final Map<CtType, CohesionMatrix> matrices =
+			new IdentityHashMap<>();
+
+	/**
+	 * Creates a cohesion gatherer with given cache (see
+	 * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner#cache}).
+	 *
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If {@code cache} is {@code null}.
+	 */
+	public CohesionGatherer(final @NonNull Cache cache)
+			throws NullPointerException {
+		super(cache);
+	}
+
+	/**
+	 * Computes the metric of a scanned type.
+	 *
+	 * @param matrix
+	 * 		The matrix of the scanned type.
+	 * @return
+	 * 		The metric of the scanned type.
+	 */
+	abstract BigDecimal cohesion(CohesionMatrix matrix);
+
+	/**
+	 * Returns whether the fields read and written by {@code method} are
+	 * recorded. Calls of getters and setters are recorded regardless. The
+	 * default implementation returns {@code true}.
+	 *
+	 * @param method
+	 * 		The method to check.
+	 * @return
+	 * 		{@code true} if the field accesses of {@code method} are recorded,
+	 * 		{@code false} otherwise.
+	 */
+	boolean recordsFieldAccessesOf(final CtMethod method) {
+		return true;
+	}
+
+	@Override
+	public void visitRoot(final CtElement element) {
+		matrices.clear();
+		super.visitRoot(element);
+	}
+
+	@Override
+	public <T> void visitCtClass(final CtClass<T> ctClass) {
+		matrices.put(ctClass, new CohesionMatrix());
+		visitNode(ctClass, super::visitCtClass, this::visitType,
+				(__, parent) -> parent, INITIAL_VALUE);
+	}
+
+	@Override
+	public <T> void visitCtInterface(final CtInterface<T> ctInterface) {
+		matrices.put(ctInterface, new CohesionMatrix());
+		visitNode(ctInterface, super::visitCtInterface, this::visitType,
+				(__, parent) -> parent, INITIAL_VALUE);
+	}
+
+	@Override
+	public <T extends Enum<?>> void visitCtEnum(final CtEnum<T> ctEnum) {
+		matrices.put(ctEnum, new CohesionMatrix());
+		visitNode(ctEnum, super::visitCtEnum, this::visitType,
+				(__, parent) -> parent, INITIAL_VALUE);
+	}
+
+	private void visitType(final CtType type) {
+		final CohesionMatrix matrix = matrices.remove(type);
+		if (matrix != null) {
+			inc(cohesion(matrix));
+		}
+	}
+
+	@Override
+	public <T> void visitCtMethod(final CtMethod<T> method) {
+		final CohesionMatrix matrix =
+				matrices.get(method.getParent(CtType.class));
+		if (matrix != null) {
+			matrix.addMethod(method);
+		}
+		super.visitCtMethod(method);
+	}
+
+	@Override
+	public <T> void visitCtFieldRead(final CtFieldRead<T> fieldRead) {
+		visitCtFieldAccess(fieldRead);
+		super.visitCtFieldRead(fieldRead);
+	}
+
+	@Override
+	public <T> void visitCtFieldWrite(final CtFieldWrite<T> fieldWrite) {
+		visitCtFieldAccess(fieldWrite);
+		super.visitCtFieldWrite(fieldWrite);
+	}
+
+	private void visitCtFieldAccess(final CtFieldAccess fieldAccess) {
+		final CtType type = fieldAccess.getParent(CtType.class);
+		final CohesionMatrix matrix = matrices.get(type);
+		if (matrix != null) {
+			final Optional<CtField> field = getCache()
+					.getOrResolve(fieldAccess.getVariable())
+					.filter(f -> isInScopeOf(f, type));
+			final Optional<CtMethod> method = field
+					.map(f -> fieldAccess.getParent(CtMethod.class))
+					.filter(this::recordsFieldAccessesOf);
+			if (field.isPresent() && method.isPresent()) {
+				matrix.addAccess(method.get(), field.get());
+			}
+		}
+	}
+
+	@Override
+	public <T> void visitCtInvocation(final CtInvocation<T> invocation) {
+		final CohesionMatrix matrix =
+				matrices.get(invocation.getParent(CtType.class));
+		final Optional<CtMethod> callee = resolveToMethod(invocation);
+		if (matrix != null && callee.isPresent()) {
+			final CtMethod caller = invocation.getParent(CtMethod.class);
+			if (caller != null) {
+				matrix.addCall(caller, callee.get());
+			}
+			callee.map(this::resolveToFieldAccess)
+					.filter(Optional::isPresent)
+					.map(Optional::get)
+					.map(CtFieldAccess::getVariable)
+					.map(ref -> getCache().getOrResolve(ref))
+					.flatMap(Function.identity())
+					.ifPresent(field -> matrix.addAccess(caller, field));
+		}
+		super.visitCtInvocation(invocation);
+	}
+}
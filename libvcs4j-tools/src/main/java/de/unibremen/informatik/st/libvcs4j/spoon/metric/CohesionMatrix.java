@@ -0,0 +1,232 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the fields accessed by the methods of a single type as a
+ * method x field bit matrix. Each method is a row of {@code long} words in
+ * which bit {@code i} is set if the method accesses the {@code i}-th field.
+ * Two methods share a field if the bitwise and of their rows is non-zero.
+ * Additionally, the calls between methods are recorded. The matrix is the
+ * common base of the cohesion metrics gathered by {@link CohesionGatherer}.
+ */
+class CohesionMatrix {
+
+	/**
+	 * A row without any field.
+	 */
+	private static final long[] EMPTY_ROW = new long[0];
+
+	/**
+	 * Maps the methods to their row.
+	 */
+	private final Map<CtMethod, Integer> methods = new IdentityHashMap<>();
+
+	/**
+	 * Maps the fields to their bit.
+	 */
+	private final Map<CtField, Integer> fields = new IdentityHashMap<>();
+
+	/**
+	 * The rows of the matrix. Grows on demand.
+	 */
+	private long[][] rows = new long[8][];
+
+	/**
+	 * The rows of the calling methods.
+	 */
+	private final List<Integer> callers = new ArrayList<>();
+
+	/**
+	 * The called methods. The callees are resolved lazily as a method may be
+	 * called before it has been visited.
+	 */
+	private final List<CtMethod> callees = new ArrayList<>();
+
+	/**
+	 * Adds the given method (if absent) and returns its row.
+	 *
+	 * @param method
+	 * 		The method to add.
+	 * @return
+	 * 		The row of {@code method}.
+	 */
+	int addMethod(final CtMethod method) {
+		Integer row = methods.get(method);
+		if (row == null) {
+			row = methods.size();
+			methods.put(method, row);
+			if (row == rows.length) {
+				rows = Arrays.copyOf(rows, row * 2);
+			}
+			rows[row] = EMPTY_ROW;
+		}
+		return row;
+	}
+
+	/**
+	 * Records that {@code method} accesses {@code field}. Adds
+	 * {@code method} if absent.
+	 *
+	 * @param method
+	 * 		The accessing method.
+	 * @param field
+	 * 		The accessed field.
+	 */
+	void addAccess(final CtMethod method, final CtField field) {
+		final int row = addMethod(method);
+		Integer bit = fields.get(field);
+		if (bit == null) {
+			bit = fields.size();
+			fields.put(field, bit);
+		}
+		final int word = bit >>> 6;
+		if (rows[row].length <= word) {
+			rows[row] = Arrays.copyOf(rows[row], word + 1);
+		}
+		rows[row][word] |= 1L << bit;
+	}
+
+	/**
+	 * Records that {@code caller} calls {@code callee}. Adds {@code caller}
+	 * if absent. Calls of methods that do not belong to this matrix are
+	 * ignored by {@link #components(boolean)}.
+	 *
+	 * @param caller
+	 * 		The calling method.
+	 * @param callee
+	 * 		The called method.
+	 */
+	void addCall(final CtMethod caller, final CtMethod callee) {
+		callers.add(addMethod(caller));
+		callees.add(callee);
+	}
+
+	/**
+	 * Returns the number of methods.
+	 *
+	 * @return
+	 * 		The number of methods.
+	 */
+	int numMethods() {
+		return methods.size();
+	}
+
+	/**
+	 * Returns the number of distinct method pairs.
+	 *
+	 * @return
+	 * 		The number of distinct method pairs.
+	 */
+	long numPairs() {
+		final long n = numMethods();
+		return n * (n - 1) / 2;
+	}
+
+	/**
+	 * Returns the number of distinct method pairs sharing at least one field.
+	 *
+	 * @return
+	 * 		The number of method pairs sharing at least one field.
+	 */
+	long numSharingPairs() {
+		final int n = numMethods();
+		long pairs = 0;
+		for (int i = 0; i < n; i++) {
+			final long[] a = rows[i];
+			for (int j = i + 1; j < n; j++) {
+				final long[] b = rows[j];
+				final int words = Math.min(a.length, b.length);
+				for (int w = 0; w < words; w++) {
+					if ((a[w] & b[w]) != 0) {
+						pairs++;
+						break;
+					}
+				}
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Partitions the methods into connected components. Two methods are
+	 * connected if they share a field or, if {@code withCalls} is
+	 * {@code true}, if one calls the other.
+	 *
+	 * @param withCalls
+	 * 		Whether method calls connect methods.
+	 * @return
+	 * 		The size of each component.
+	 */
+	int[] components(final boolean withCalls) {
+		final int n = numMethods();
+		final int[] parent = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+		// Connects each method with the first method accessing the same
+		// field. Thus, the effort is linear in the size of the matrix.
+		final int[] first = new int[fields.size()];
+		Arrays.fill(first, -1);
+		for (int i = 0; i < n; i++) {
+			final long[] row = rows[i];
+			for (int w = 0; w < row.length; w++) {
+				long bits = row[w];
+				while (bits != 0) {
+					final int bit = (w << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					if (first[bit] < 0) {
+						first[bit] = i;
+					} else {
+						union(parent, first[bit], i);
+					}
+				}
+			}
+		}
+		if (withCalls) {
+			for (int i = 0; i < callers.size(); i++) {
+				final Integer callee = methods.get(callees.get(i));
+				if (callee != null) {
+					union(parent, callers.get(i), callee);
+				}
+			}
+		}
+		final int[] sizes = new int[n];
+		int numComponents = 0;
+		for (int i = 0; i < n; i++) {
+			if (sizes[find(parent, i)]++ == 0) {
+				numComponents++;
+			}
+		}
+		final int[] components = new int[numComponents];
+		for (int i = 0, c = 0; i < n; i++) {
+			if (sizes[i] > 0) {
+				components[c++] = sizes[i];
+			}
+		}
+		return components;
+	}
+
+	private static int find(final int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	private static void union(final int[] parent, final int a, final int b) {
+		final int ra = find(parent, a);
+		final int rb = find(parent, b);
+		if (ra != rb) {
+			parent[Math.max(ra, rb)] = Math.min(ra, rb);
+		}
+	}
+}
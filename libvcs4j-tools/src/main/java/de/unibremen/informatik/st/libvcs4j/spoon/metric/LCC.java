@@ -0,0 +1,77 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * This scanner gathers the 'Loose Class Cohesion' metric for {@link CtClass},
+ * {@link CtInterface}, and {@link CtEnum} elements. The metric
+ * is the ratio of method pairs that are directly or indirectly (through other
+ * methods) connected by shared fields to all method pairs. Only the field
+ * accesses of public methods are considered.
+ */
+@NoArgsConstructor
+public class LCC extends CohesionGatherer {
+
+	/**
+	 * Creates a LCC gatherer with given cache (see
+	 * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner#cache}).
+	 *
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If {@code cache} is {@code null}.
+	 */
+	public LCC(final @NonNull Cache cache) throws NullPointerException {
+		super(cache);
+	}
+
+	@Override
+	public String name() {
+		return "Loose Class Cohesion";
+	}
+
+	@Override
+	public String abbreviation() {
+		return "LCC";
+	}
+
+	/**
+	 * Returns the 'Loose Class Cohesion' metric of {@code type}. Returns an
+	 * empty {@link Optional} if {@code type} is {@code null}, or if
+	 * {@code type} was not scanned.
+	 *
+	 * @param type
+	 * 		The type whose 'Loose Class Cohesion' metric is requested.
+	 * @return
+	 * 		The 'Loose Class Cohesion' metric of {@code type}.
+	 */
+	public Optional<BigDecimal> LCCOf(final CtType type) {
+		return metricOf(type);
+	}
+
+	@Override
+	boolean recordsFieldAccessesOf(final CtMethod method) {
+		return method.isPublic();
+	}
+
+	@Override
+	BigDecimal cohesion(final CohesionMatrix matrix) {
+		final long totalPairs = matrix.numPairs();
+		long pairs = 0;
+		for (final long size : matrix.components(false)) {
+			pairs += size * (size - 1) / 2;
+		}
+		final double lcc = totalPairs == 0 ? 0 : (double) pairs / totalPairs;
+		return lcc == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(lcc);
+	}
+}
@@ -0,0 +1,64 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtType;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * This scanner gathers the 'Lack of Cohesion in Methods 1' metric for
+ * {@link CtClass}, {@link CtInterface}, and {@link CtEnum} elements. The
+ * metric is the number of method pairs not sharing any field.
+ */
+@NoArgsConstructor
+public class LCOM1 extends CohesionGatherer {
+
+	/**
+	 * Creates a LCOM1 gatherer with given cache (see
+	 * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner#cache}).
+	 *
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If {@code cache} is {@code null}.
+	 */
+	public LCOM1(final @NonNull Cache cache) throws NullPointerException {
+		super(cache);
+	}
+
+	@Override
+	public String name() {
+		return "Lack of Cohesion in Methods 1";
+	}
+
+	@Override
+	public String abbreviation() {
+		return "LCOM1";
+	}
+
+	/**
+	 * Returns the 'Lack of Cohesion in Methods 1' metric of {@code type}.
+	 * Returns an empty {@link Optional} if {@code type} is {@code null}, or if
+	 * {@code type} was not scanned.
+	 *
+	 * @param type
+	 * 		The type whose 'Lack of Cohesion in Methods 1' metric is requested.
+	 * @return
+	 * 		The 'Lack of Cohesion in Methods 1' metric of {@code type}.
+	 */
+	public Optional<BigDecimal> LCOM1Of(final CtType type) {
+		return metricOf(type);
+	}
+
+	@Override
+	BigDecimal cohesion(final CohesionMatrix matrix) {
+		return BigDecimal.valueOf(
+				matrix.numPairs() - matrix.numSharingPairs());
+	}
+}
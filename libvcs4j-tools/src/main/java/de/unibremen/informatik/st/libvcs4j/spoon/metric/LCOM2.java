@@ -0,0 +1,67 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtType;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * This scanner gathers the 'Lack of Cohesion in Methods 2' metric for
+ * {@link CtClass}, {@link CtInterface}, and {@link CtEnum} elements. The
+ * metric is the number of method pairs not sharing any field minus the number
+ * of method pairs sharing at least one field, or 0 if the difference is
+ * negative.
+ */
+@NoArgsConstructor
+public class LCOM2 extends CohesionGatherer {
+
+	/**
+	 * Creates a LCOM2 gatherer with given cache (see
+	 * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner#cache}).
+	 *
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If {@code cache} is {@code null}.
+	 */
+	public LCOM2(final @NonNull Cache cache) throws NullPointerException {
+		super(cache);
+	}
+
+	@Override
+	public String name() {
+		return "Lack of Cohesion in Methods 2";
+	}
+
+	@Override
+	public String abbreviation() {
+		return "LCOM2";
+	}
+
+	/**
+	 * Returns the 'Lack of Cohesion in Methods 2' metric of {@code type}.
+	 * Returns an empty {@link Optional} if {@code type} is {@code null}, or if
+	 * {@code type} was not scanned.
+	 *
+	 * @param type
+	 * 		The type whose 'Lack of Cohesion in Methods 2' metric is requested.
+	 * @return
+	 * 		The 'Lack of Cohesion in Methods 2' metric of {@code type}.
+	 */
+	public Optional<BigDecimal> LCOM2Of(final CtType type) {
+		return metricOf(type);
+	}
+
+	@Override
+	BigDecimal cohesion(final CohesionMatrix matrix) {
+		final long sharing = matrix.numSharingPairs();
+		final long notSharing = matrix.numPairs() - sharing;
+		return BigDecimal.valueOf(Math.max(notSharing - sharing, 0));
+	}
+}
@@ -0,0 +1,65 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import de.unibremen.informatik.st.libvcs4j.spoon.Cache;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtType;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * This scanner gathers the 'Lack of Cohesion in Methods 4' metric for
+ * {@link CtClass}, {@link CtInterface}, and {@link CtEnum} elements. The
+ * metric is the number of connected components of the graph whose nodes are
+ * the methods and whose edges connect the methods sharing at least one field
+ * as well as the methods calling each other.
+ */
+@NoArgsConstructor
+public class LCOM4 extends CohesionGatherer {
+
+	/**
+	 * Creates a LCOM4 gatherer with given cache (see
+	 * {@link de.unibremen.informatik.st.libvcs4j.spoon.Scanner#cache}).
+	 *
+	 * @param cache
+	 * 		The cache that is used to speedup lookups.
+	 * @throws NullPointerException
+	 * 		If {@code cache} is {@code null}.
+	 */
+	public LCOM4(final @NonNull Cache cache) throws NullPointerException {
+		super(cache);
+	}
+
+	@Override
+	public String name() {
+		return "Lack of Cohesion in Methods 4";
+	}
+
+	@Override
+	public String abbreviation() {
+		return "LCOM4";
+	}
+
+	/**
+	 * Returns the 'Lack of Cohesion in Methods 4' metric of {@code type}.
+	 * Returns an empty {@link Optional} if {@code type} is {@code null}, or if
+	 * {@code type} was not scanned.
+	 *
+	 * @param type
+	 * 		The type whose 'Lack of Cohesion in Methods 4' metric is requested.
+	 * @return
+	 * 		The 'Lack of Cohesion in Methods 4' metric of {@code type}.
+	 */
+	public Optional<BigDecimal> LCOM4Of(final CtType type) {
+		return metricOf(type);
+	}
+
+	@Override
+	BigDecimal cohesion(final CohesionMatrix matrix) {
+		return BigDecimal.valueOf(matrix.components(true).length);
+	}
+}
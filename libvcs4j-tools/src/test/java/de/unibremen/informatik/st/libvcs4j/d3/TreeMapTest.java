@@ -0,0 +1,292 @@
+package de.unibremen.informatik.st.libvcs4j.d3;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import de.unibremen.informatik.st.libvcs4j.FSTree;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TreeMapTest {
+
+	private final Map<VCSFile, TreeMap.RateCell> cells = new HashMap<>();
+
+	/**
+	 * Creates a path consisting of the given segments. Unlike
+	 * {@link java.nio.file.Paths#get(String, String...)}, the segments may
+	 * contain characters that are not supported by the file system.
+	 */
+	private Path path(final String... pSegments) {
+		Path path = mock(Path.class);
+		when(path.getNameCount()).thenReturn(pSegments.length);
+		Path name = null;
+		for (int i = 0; i < pSegments.length; i++) {
+			name = mock(Path.class);
+			when(name.toString()).thenReturn(pSegments[i]);
+			when(path.getName(i)).thenReturn(name);
+		}
+		when(path.getFileName()).thenReturn(name);
+		when(path.toString()).thenReturn(String.join("/", pSegments));
+		return path;
+	}
+
+	private VCSFile file(final double pSize, final double pRate,
+			final String... pPath) {
+		Path path = path(pPath);
+		VCSFile file = mock(VCSFile.class);
+		when(file.toRelativePath()).thenReturn(path);
+		cells.put(file, new TreeMap.RateCell(pSize, pRate));
+		return file;
+	}
+
+	private TreeMap treeMap() {
+		return new TreeMap(new ArrayList<>(cells.keySet()), cells::get);
+	}
+
+	private JsonObject parse(final String pJSON) {
+		return new JsonParser().parse(pJSON).getAsJsonObject();
+	}
+
+	private JsonObject child(final JsonObject pDirectory, final String pName) {
+		for (JsonElement node : pDirectory.getAsJsonArray("children")) {
+			if (node.getAsJsonObject().get("name").getAsString()
+					.equals(pName)) {
+				return node.getAsJsonObject();
+			}
+		}
+		throw new AssertionError("Missing node " + pName);
+	}
+
+	private List<String> names(final JsonObject pDirectory) {
+		List<String> names = new ArrayList<>();
+		for (JsonElement node : pDirectory.getAsJsonArray("children")) {
+			names.add(node.getAsJsonObject().get("name").getAsString());
+		}
+		return names;
+	}
+
+	private String readResource(final String pResource) throws IOException {
+		try (InputStream is = getClass().getResourceAsStream(pResource)) {
+			return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Reverts the escaping of a single quoted JavaScript string literal as
+	 * generated by {@link TreeMap#writeHTML(java.io.Writer)}.
+	 */
+	private String unescapeJS(final String pLiteral) {
+		assertThat(pLiteral).doesNotContain("<");
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < pLiteral.length(); i++) {
+			char c = pLiteral.charAt(i);
+			assertThat(c).isNotEqualTo('\'');
+			if (c != '\\') {
+				builder.append(c);
+				continue;
+			}
+			c = pLiteral.charAt(++i);
+			if (c == 'x') {
+				builder.append((char) Integer.parseInt(
+						pLiteral.substring(i + 1, i + 3), 16));
+				i += 2;
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * The JSON generation of the original string based implementation.
+	 */
+	private String legacyJSON(final double pMinSize) {
+		final List<VCSFile> files = cells.entrySet().stream()
+				.filter(e -> e.getValue().getSize() >= pMinSize)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		final FSTree<TreeMap.Cell> tree = FSTree.<TreeMap.Cell>of(files,
+				cells::get, (c1, c2) -> c1.aggregate(c1, c2)).compact();
+		final StringBuilder builder = new StringBuilder();
+		new FSTree.Visitor<TreeMap.Cell>() {
+			@Override
+			public void visit(final FSTree<TreeMap.Cell> pTree) {
+				super.visit(pTree);
+				if (pTree.isRoot() && builder.length() > 0) {
+					builder.setLength(builder.length() - 1);
+				}
+			}
+
+			@Override
+			protected void visitDirectory(
+					final FSTree<TreeMap.Cell> pDirectory) {
+				final TreeMap.Cell cell = pDirectory.getValue()
+						.orElseThrow(IllegalStateException::new);
+				builder.append("{\"name\": \"").append(pDirectory.getName())
+						.append("\",\"color\":").append(cell.getColor())
+						.append(",\"children\": [");
+				super.visitDirectory(pDirectory);
+				builder.setLength(builder.length() - 1);
+				builder.append("]},");
+			}
+
+			@Override
+			protected void visitFile(final FSTree<TreeMap.Cell> pFile) {
+				final TreeMap.Cell cell = pFile.getValue()
+						.orElseThrow(IllegalStateException::new);
+				builder.append("{\"name\": \"").append(pFile.getName())
+						.append("\",\"value\": ").append(cell.getSize())
+						.append(",\"color\" :").append(cell.getColor())
+						.append("},");
+			}
+		}.visit(tree);
+		return builder.toString();
+	}
+
+	@Test
+	public void jsonEqualsLegacyJSON() {
+		file(10, 0.2, "src", "main", "A.java");
+		file(20, 0.4, "src", "main", "B.java");
+		file(5, 1, "src", "main", "util", "C.java");
+		file(7, 0, "src", "test", "ATest.java");
+		file(3, 0.5, "README.md");
+		// Filtered.
+		file(0, 1, "src", "Empty.java");
+
+		assertThat(parse(treeMap().generateJSON()))
+				.isEqualTo(parse(legacyJSON(1)));
+	}
+
+	@Test
+	public void jsonEqualsLegacyJSONOfCompactedTree() {
+		file(10, 0.2, "src", "main", "java", "A.java");
+		file(20, 0.4, "src", "main", "java", "B.java");
+
+		JsonObject json = parse(treeMap().generateJSON());
+		assertThat(json).isEqualTo(parse(legacyJSON(1)));
+		assertThat(names(json)).containsExactlyInAnyOrder("A.java", "B.java");
+	}
+
+	@Test
+	public void aggregatesOthers() {
+		file(80, 0.5, "src", "Main.java");
+		file(2, 0.5, "src", "x.txt");
+		file(3, 0.5, "src", "y.txt");
+		file(3, 0.5, "src", "util", "Single.txt");
+		file(10, 0.5, "src", "util", "nested", "Big.java");
+		file(1, 0, "src", "util", "nested", "a.txt");
+		file(1, 1, "src", "util", "nested", "b.txt");
+
+		TreeMap treeMap = treeMap();
+		assertThat(treeMap.getOtherThreshold()).isEqualTo(0);
+		treeMap.setOtherThreshold(0.05);
+		assertThat(treeMap.getOtherThreshold()).isEqualTo(0.05);
+		JsonObject src = parse(treeMap.generateJSON());
+
+		assertThat(names(src)).containsExactlyInAnyOrder(
+				"Main.java", "util", TreeMap.OTHER_NAME);
+		JsonObject other = child(src, TreeMap.OTHER_NAME);
+		assertThat(other.get("value").getAsDouble()).isEqualTo(5);
+		assertThat(other.get("color").getAsDouble()).isEqualTo(0.5);
+
+		// A single file below the threshold keeps its name.
+		JsonObject util = child(src, "util");
+		assertThat(names(util)).containsExactlyInAnyOrder(
+				"nested", "Single.txt");
+		assertThat(child(util, "Single.txt").get("value").getAsDouble())
+				.isEqualTo(3);
+
+		JsonObject nested = child(util, "nested");
+		assertThat(names(nested)).containsExactlyInAnyOrder(
+				"Big.java", TreeMap.OTHER_NAME);
+		other = child(nested, TreeMap.OTHER_NAME);
+		assertThat(other.get("value").getAsDouble()).isEqualTo(2);
+		assertThat(other.get("color").getAsDouble()).isEqualTo(0.5);
+		assertThat(nested.get("color").getAsDouble()).isEqualTo(0.5);
+
+		// Disabling the aggregation restores the original output.
+		treeMap.setOtherThreshold(0);
+		assertThat(parse(treeMap.generateJSON()))
+				.isEqualTo(parse(legacyJSON(1)));
+	}
+
+	@Test
+	public void invalidOtherThreshold() {
+		TreeMap treeMap = treeMap();
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				treeMap.setOtherThreshold(-0.1));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				treeMap.setOtherThreshold(1.1));
+	}
+
+	@Test
+	public void escapesNames() {
+		String[] names = {
+				"it's.txt",
+				"back\\slash.txt",
+				"</script><script>alert(1)</script>.txt",
+				"\"quoted\".txt",
+				"line\u2028para\u2029.txt",
+				"control\n\t\r\b\f\u0001\u001f.txt"
+		};
+		for (String name : names) {
+			file(1, 0.5, "dir", name);
+		}
+		file(1, 0.5, "other", "A.java");
+
+		TreeMap treeMap = treeMap();
+		String json = treeMap.generateJSON();
+		for (String c : new String[]{"\u2028", "\u2029", "\n", "\t"}) {
+			assertThat(json).doesNotContain(c);
+		}
+		JsonObject dir = child(parse(json), "dir");
+		assertThat(names(dir)).containsExactlyInAnyOrder(names);
+
+		String html = treeMap.generateHTML();
+		String prefix = "JSON.parse('";
+		int start = html.indexOf(prefix) + prefix.length();
+		String literal = html.substring(start, html.indexOf("')", start));
+		assertThat(unescapeJS(literal)).isEqualTo(json);
+		assertThat(html.split("</script>", -1)).hasSize(3);
+	}
+
+	@Test
+	public void substitutesAllPlaceholders() throws IOException {
+		file(10, 0.2, "src", "A.java");
+		file(20, 0.4, "src", "B's.java");
+		TreeMap treeMap = new TreeMap(new ArrayList<>(cells.keySet()),
+				cells::get, -1.5, 2.5);
+
+		String json = treeMap.generateJSON()
+				.replace("\\", "\\\\")
+				.replace("'", "\\'")
+				.replace("<", "\\x3c");
+		String expected = readResource("/treemap.html.in")
+				.replace("@MIN_COLOR@", "-1.5")
+				.replace("@MAX_COLOR@", "2.5")
+				.replace("@D3_SCRIPT@", readResource("/d3.v3.min.js"))
+				.replace("@JSON_STRING@", json);
+		String html = treeMap.generateHTML();
+		assertThat(html).isEqualTo(expected);
+		for (String placeholder : new String[]{"@MIN_COLOR@", "@MAX_COLOR@",
+				"@D3_SCRIPT@", "@JSON_STRING@"}) {
+			assertThat(html).doesNotContain(placeholder);
+		}
+	}
+}
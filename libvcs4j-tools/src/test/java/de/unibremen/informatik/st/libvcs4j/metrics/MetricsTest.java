@@ -0,0 +1,104 @@
+package de.unibremen.informatik.st.libvcs4j.metrics;
+
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MetricsTest {
+
+	private static final String CONTENT =
+			"package a;\n" +
+			"\n" +
+			"/**\n" +
+			" * Doc.\n" +
+			" */\n" +
+			"public class A {\n" +
+			"\n" +
+			"\t// Comment\n" +
+			"\tint max(int a, int b) {\r\n" +
+			"\t\tif (a > b) { return a; }\n" +
+			"\t\tfor (int i = 0; i < b; i++) {\n" +
+			"\t\t\ta = a + i; /* multi\n" +
+			"\t\t\tline */ b = b - 1;\n" +
+			"\t\t}\n" +
+			"\t\treturn a > b ? a : b;\n" +
+			"\t}\n" +
+			"}\n";
+
+	private final Metrics metrics = new Metrics();
+
+	private VCSFile file(final String name, final String content)
+			throws IOException {
+		VCSFile file = mock(VCSFile.class);
+		when(file.toFile()).thenReturn(new File(name));
+		when(file.readContent()).thenReturn(content);
+		return file;
+	}
+
+	@Test
+	public void computeSize() throws IOException {
+		Size size = metrics.computeSize(file("A.java", CONTENT))
+				.orElseThrow();
+		assertThat(size.getLOC()).isEqualTo(17);
+		assertThat(size.getSLOC()).isEqualTo(10);
+		assertThat(size.getCLOC()).isEqualTo(5);
+		assertThat(size.getNOT()).isEqualTo(70);
+		assertThat(size.getSNOT()).isEqualTo(67);
+		assertThat(size.getCNOT()).isEqualTo(3);
+	}
+
+	@Test
+	public void computeComplexity() throws IOException {
+		Complexity complexity = metrics
+				.computeComplexity(file("A.java", CONTENT))
+				.orElseThrow();
+		assertThat(complexity.getMcCabe()).isEqualTo(3);
+		Complexity.Halstead halstead = complexity.getHalstead();
+		assertThat(halstead.getNumDistinctOperators()).isEqualTo(8);
+		assertThat(halstead.getNumDistinctOperands()).isEqualTo(20);
+		assertThat(halstead.getNumOperators()).isEqualTo(11);
+		assertThat(halstead.getNumOperands()).isEqualTo(56);
+	}
+
+	@Test
+	public void repeatedComputationsAreEqual() throws IOException {
+		// Scanners are reused across computations.
+		VCSFile file = file("A.java", CONTENT);
+		for (int i = 0; i < 3; i++) {
+			assertThat(metrics.computeSize(file).orElseThrow().getNOT())
+					.isEqualTo(70);
+			assertThat(metrics.computeComplexity(file).orElseThrow()
+					.getHalstead().getNumDistinctOperands()).isEqualTo(20);
+		}
+	}
+
+	@Test
+	public void unknownLanguage() throws IOException {
+		assertThat(metrics.computeSize(file("A.txt", CONTENT))).isEmpty();
+		assertThat(metrics.computeComplexity(file("A.txt", CONTENT)))
+				.isEmpty();
+	}
+
+	@Test
+	public void emptyFile() throws IOException {
+		Size size = metrics.computeSize(file("A.java", "")).orElseThrow();
+		assertThat(size.getLOC()).isZero();
+		assertThat(size.getNOT()).isZero();
+	}
+
+	@Test
+	public void distinctTextsDecodeUnicodeEscapes() throws IOException {
+		// The scanner decodes the unicode escape of the second `a`.
+		Complexity.Halstead halstead = metrics.computeComplexity(
+				file("A.java", "class A { int a; int b = \\u0061; }"))
+				.orElseThrow().getHalstead();
+		assertThat(halstead.getNumOperands()).isEqualTo(11);
+		assertThat(halstead.getNumDistinctOperands()).isEqualTo(8);
+	}
+}
@@ -1,5 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j.pmd;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.RevisionMock;
 import org.junit.Rule;
@@ -8,14 +10,21 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class PMDRunnerTest {
 
 	@Rule
 	public TemporaryFolder folder = new TemporaryFolder();
 
+	@Rule
+	public TemporaryFolder nextFolder = new TemporaryFolder();
+
 	@Test
 	public void emptyIfBlocks() throws IOException {
 		RevisionMock revision = new RevisionMock(folder);
@@ -51,4 +60,42 @@ public class PMDRunnerTest {
 		PMDDetectionResult result = pmdRunner.analyze(revision);
 		assertThat(result).isNotNull();
 	}
+
+	@Test
+	public void carryOverViolationsOfUnchangedFiles() throws IOException {
+		RevisionMock revision = new RevisionMock(folder);
+		revision.addFile(Paths.get("godclass", "GodClass.java"));
+		revision.addFile(Paths.get("dataclass", "Triple.java"));
+
+		PMDRunner pmdRunner = new PMDRunner(
+				"category/java/errorprone.xml/EmptyIfStmt");
+		PMDDetectionResult previous = pmdRunner.analyze(revision);
+		assertThat(previous.getViolations()).hasSize(2);
+
+		RevisionMock next = new RevisionMock(nextFolder);
+		next.addFile(Paths.get("godclass", "GodClass.java"));
+		next.addFile(Paths.get("dataclass", "Triple.java"));
+		VCSFile godClass = next.getFiles().get(0);
+		VCSFile triple = next.getFiles().get(1);
+
+		FileChange change = mock(FileChange.class);
+		when(change.getOldFile()).thenReturn(
+				Optional.of(revision.getFiles().get(1)));
+		when(change.getNewFile()).thenReturn(Optional.of(triple));
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getRevision()).thenReturn(next);
+		when(range.isFirst()).thenReturn(false);
+		when(range.getFileChanges()).thenReturn(
+				Collections.singletonList(change));
+
+		PMDDetectionResult result = pmdRunner.analyze(range, previous);
+		assertThat(result.violationsOf(triple)).isEmpty();
+		assertThat(result.violationsOf(godClass)).hasSize(2);
+
+		PMDViolation v1 = result.violationsOf(godClass).get(0);
+		assertThat(v1.getRange().getFile()).isSameAs(godClass);
+		assertThat(v1.getRange().getBegin().getLine()).isEqualTo(29);
+		assertThat(v1.getRange().getBegin().getColumn()).isEqualTo(40);
+		assertThat(v1.getRange().readContent()).isEqualTo("{}");
+	}
 }
@@ -0,0 +1,86 @@
+package de.unibremen.informatik.st.libvcs4j.spoon;
+
+import org.junit.Test;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.code.CtComment;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtExecutable;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModelIndexTest {
+
+	private CtModel buildModel() {
+		Launcher launcher = new Launcher();
+		for (String dir : new String[]{
+				"/godclass", "/comments", "/temporary-field"}) {
+			launcher.addInputResource(getClass().getResource(dir).getFile());
+		}
+		return launcher.buildModel();
+	}
+
+	@Test
+	public void getElements() {
+		CtModel model = buildModel();
+		ModelIndex index = new ModelIndex(model);
+
+		List<CtElement> all = model.getUnnamedModule()
+				.getElements(new TypeFilter<>(CtElement.class));
+		assertThat(all).isNotEmpty();
+		assertThat(all).allMatch(index::isIndexed);
+		assertThat(index.getElements(model.getUnnamedModule(),
+				CtElement.class)).containsExactlyElementsOf(all);
+
+		List<CtExecutable> executables = model.getElements(
+				new TypeFilter<>(CtExecutable.class));
+		assertThat(executables).isNotEmpty();
+		for (CtExecutable executable : executables) {
+			assertSameElements(index, executable, CtFieldAccess.class);
+			assertSameElements(index, executable, CtComment.class);
+			assertSameElements(index, executable, CtElement.class);
+		}
+	}
+
+	private <E extends CtElement> void assertSameElements(ModelIndex index,
+			CtElement root, Class<E> kind) {
+		assertThat(index.getElements(root, kind))
+				.containsExactlyElementsOf(
+						root.getElements(new TypeFilter<>(kind)));
+	}
+
+	@Test
+	public void isInScopeOf() {
+		CtModel model = buildModel();
+		ModelIndex index = new ModelIndex(model);
+
+		for (CtType<?> type : model.getAllTypes()) {
+			for (CtField<?> field : model.getElements(
+					new TypeFilter<>(CtField.class))) {
+				assertThat(index.isInScopeOf(field, type))
+						.isEqualTo(field.hasParent(type));
+			}
+			assertThat(index.isInScopeOf(type, type)).isTrue();
+			assertThat(index.isInScopeOf(type, type.getPackage())).isTrue();
+			assertThat(index.isInScopeOf(type.getPackage(), type)).isFalse();
+		}
+	}
+
+	@Test
+	public void cacheReusesIndex() {
+		CtModel model = buildModel();
+		Cache cache = new Cache();
+		ModelIndex index = cache.getOrIndex(model);
+		assertThat(cache.getOrIndex(model)).isSameAs(index);
+		assertThat(index.getModel()).isSameAs(model);
+
+		CtModel other = buildModel();
+		assertThat(cache.getOrIndex(other)).isNotSameAs(index);
+	}
+}
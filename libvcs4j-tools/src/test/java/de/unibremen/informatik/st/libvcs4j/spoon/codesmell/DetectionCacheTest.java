@@ -0,0 +1,209 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell;
+
+import de.unibremen.informatik.st.libvcs4j.Revision;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.spoon.Environment;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.bloater.LongParameterListDetector;
+import de.unibremen.informatik.st.libvcs4j.spoon.codesmell.coupler.CycleDetector;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DetectionCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String LONG_PARAMETER_LIST =
+			"void m(int a, int b, int c, int d, int e, int f) {}";
+
+	/**
+	 * Records the classes it has visited.
+	 */
+	private static class RecordingDetector extends LongParameterListDetector {
+
+		private final List<String> visited = new ArrayList<>();
+
+		private RecordingDetector(Environment environment) {
+			super(environment);
+		}
+
+		@Override
+		public <T> void visitCtClass(CtClass<T> ctClass) {
+			visited.add(ctClass.getQualifiedName());
+			super.visitCtClass(ctClass);
+		}
+	}
+
+	@Test
+	public void rescanChangedUnitsOnly() throws IOException {
+		Map<String, String> sources = new TreeMap<>();
+		sources.put("A.java", "class A { " + LONG_PARAMETER_LIST + " }");
+		sources.put("B.java", "class B { " + LONG_PARAMETER_LIST + " }");
+		sources.put("C.java", "class C { void m() {} }");
+		DetectionCache cache = new DetectionCache();
+
+		Environment first = environment(sources);
+		RecordingDetector detector = new RecordingDetector(first);
+		List<CodeSmell> codeSmells = cache.detect(detector);
+		assertThat(detector.visited).containsExactlyInAnyOrder("A", "B", "C");
+		assertThat(files(codeSmells)).containsExactly("A.java", "B.java");
+
+		sources.put("B.java", "class B { void m() {} }");
+		sources.put("C.java", "class C { " + LONG_PARAMETER_LIST + " }");
+		Environment second = environment(sources);
+		detector = new RecordingDetector(second);
+		codeSmells = cache.detect(detector);
+		assertThat(detector.visited).containsExactlyInAnyOrder("B", "C");
+		assertThat(files(codeSmells)).containsExactly("A.java", "C.java");
+		assertThat(codeSmells).allMatch(codeSmell -> codeSmell.getRanges()
+				.stream()
+				.allMatch(range -> range.getBegin().getFile()
+						.getRevision() == second.getRevision()));
+
+		LongParameterListDetector full =
+				new LongParameterListDetector(second);
+		full.scan(second.getCtModel());
+		assertThat(files(codeSmells))
+				.isEqualTo(files(full.getCodeSmells()));
+
+		sources.remove("A.java");
+		detector = new RecordingDetector(environment(sources));
+		codeSmells = cache.detect(detector);
+		assertThat(detector.visited).isEmpty();
+		assertThat(files(codeSmells)).containsExactly("C.java");
+	}
+
+	@Test
+	public void invalidateDependentUnits() throws IOException {
+		Map<String, String> sources = new TreeMap<>();
+		sources.put("A.java", "class A { B b; }");
+		sources.put("B.java", "class B { A a; }");
+		sources.put("C.java", "class C { }");
+		DetectionCache cache = new DetectionCache();
+
+		List<CodeSmell> codeSmells =
+				cache.detect(new CycleDetector(environment(sources)));
+		assertThat(codeSmells).hasSize(1);
+
+		sources.put("C.java", "class C { int i; }");
+		codeSmells = cache.detect(new CycleDetector(environment(sources)));
+		assertThat(codeSmells).hasSize(1);
+		assertThat(codeSmells.get(0).getRanges()).hasSize(2);
+
+		sources.put("B.java", "class B { }");
+		codeSmells = cache.detect(new CycleDetector(environment(sources)));
+		assertThat(codeSmells).isEmpty();
+
+		sources.put("B.java", "class B {\n\tA a;\n}");
+		codeSmells = cache.detect(new CycleDetector(environment(sources)));
+		assertThat(codeSmells).hasSize(1);
+	}
+
+	private static List<String> files(List<CodeSmell> codeSmells) {
+		return codeSmells.stream()
+				.map(codeSmell -> codeSmell.getRanges().get(0))
+				.map(range -> range.getBegin().getFile().getRelativePath())
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private Environment environment(Map<String, String> sources)
+			throws IOException {
+		RevisionStub revision = new RevisionStub(folder.newFolder().toPath());
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			revision.addFile(source.getKey(), source.getValue());
+		}
+		RevisionRange range = mock(RevisionRange.class);
+		when(range.getRevision()).thenReturn(revision);
+
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(revision.getOutput().toString());
+		CtModel model = launcher.buildModel();
+		return new Environment(model, range);
+	}
+
+	/**
+	 * Stores the files of a revision in its own directory, such that the
+	 * files of different revisions have equal relative paths.
+	 */
+	@RequiredArgsConstructor
+	private static class RevisionStub implements Revision {
+
+		@Getter
+		private final Path output;
+
+		@Getter
+		private final List<VCSFile> files = new ArrayList<>();
+
+		private void addFile(String relativePath, String content)
+				throws IOException {
+			Files.write(output.resolve(relativePath), content.getBytes(UTF_8));
+			files.add(new VCSFile() {
+				@Override
+				public String getRelativePath() {
+					return relativePath;
+				}
+
+				@Override
+				public Revision getRevision() {
+					return RevisionStub.this;
+				}
+
+				@Override
+				public byte[] readAllBytes() throws IOException {
+					return Files.readAllBytes(toFile().toPath());
+				}
+
+				@Override
+				public Optional<Charset> guessCharset() {
+					return Optional.of(UTF_8);
+				}
+
+				@Override
+				public VCSEngine getVCSEngine() {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public File toFile() {
+					return output.resolve(relativePath).toFile();
+				}
+			});
+		}
+
+		@Override
+		public String getId() {
+			return output.getFileName().toString();
+		}
+
+		@Override
+		public VCSEngine getVCSEngine() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.codesmell.missingJavadoc;
+
+import org.junit.Test;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.support.compiler.VirtualFile;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionIndexTest {
+
+    private static final String CYCLES = String.join("\n",
+            "package cycles;",
+            "import java.io.IOException;",
+            "public class A {",
+            "    void entry() throws Exception { a(); }",
+            "    void a() throws Exception { B.b(); }",
+            "    void self() { self(); }",
+            "    void leaf() { throw new IllegalStateException(); }",
+            "}",
+            "class B {",
+            "    static void b() throws Exception {",
+            "        if (Math.random() > 0.5) { throw new IOException(); }",
+            "        new A().a();",
+            "        c();",
+            "    }",
+            "    static void c() { new A().leaf(); }",
+            "}");
+
+    private static final String IMPORTS = String.join("\n",
+            "package imports;",
+            "import java.io.FileNotFoundException;",
+            "import java.util.zip.*;",
+            "public class D {",
+            "    void d() throws java.nio.file.FileSystemException {}",
+            "}");
+
+    private CtModel buildModel(String name, String code) {
+        Launcher launcher = new Launcher();
+        launcher.getEnvironment().setNoClasspath(true);
+        launcher.addInputResource(new VirtualFile(code, name));
+        return launcher.buildModel();
+    }
+
+    private CtType<?> typeOf(CtModel model, String qualifiedName) {
+        return model.getAllTypes().stream()
+                .filter(t -> t.getQualifiedName().equals(qualifiedName))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+
+    private CtMethod<?> methodOf(CtModel model, String type, String method) {
+        return typeOf(model, type).getMethodsByName(method).get(0);
+    }
+
+    private Set<String> names(Set<CtTypeReference<?>> exceptions) {
+        return exceptions.stream()
+                .map(CtTypeReference::getQualifiedName)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void calledExceptionsOfCycle() {
+        CtModel model = buildModel("A.java", CYCLES);
+        ExceptionIndex index = new ExceptionIndex();
+        CtMethod<?> entry = methodOf(model, "cycles.A", "entry");
+        CtMethod<?> a = methodOf(model, "cycles.A", "a");
+        CtMethod<?> b = methodOf(model, "cycles.B", "b");
+        CtMethod<?> c = methodOf(model, "cycles.B", "c");
+
+        // a and b call each other, so they share the exceptions of the cycle.
+        Set<String> cycle = names(index.getCalledExceptions(entry));
+        assertTrue(cycle.contains("java.io.IOException"));
+        assertTrue(cycle.contains("java.lang.Exception"));
+        assertTrue(cycle.contains("java.lang.IllegalStateException"));
+        assertEquals(cycle, names(index.getCalledExceptions(a)));
+        assertEquals(cycle, names(index.getCalledExceptions(b)));
+        assertEquals(
+                Set.of("java.lang.IllegalStateException"),
+                names(index.getCalledExceptions(c))
+        );
+    }
+
+    @Test
+    public void calledExceptionsAreIndependentOfOrder() {
+        CtModel model = buildModel("A.java", CYCLES);
+        ExceptionIndex first = new ExceptionIndex();
+        ExceptionIndex second = new ExceptionIndex();
+        CtMethod<?> entry = methodOf(model, "cycles.A", "entry");
+        CtMethod<?> b = methodOf(model, "cycles.B", "b");
+
+        // Enter the cycle at b instead of a.
+        Set<String> fromB = names(second.getCalledExceptions(b));
+        assertEquals(names(first.getCalledExceptions(entry)), names(second.getCalledExceptions(entry)));
+        assertEquals(names(first.getCalledExceptions(b)), fromB);
+    }
+
+    @Test
+    public void calledExceptionsOfSelfRecursion() {
+        CtModel model = buildModel("A.java", CYCLES);
+        ExceptionIndex index = new ExceptionIndex();
+        CtMethod<?> self = methodOf(model, "cycles.A", "self");
+        CtMethod<?> leaf = methodOf(model, "cycles.A", "leaf");
+
+        assertTrue(index.getCalledExceptions(self).isEmpty());
+        assertTrue(index.getCalledExceptions(leaf).isEmpty());
+        assertEquals(
+                List.of("java.lang.IllegalStateException"),
+                index.infoOf(leaf).getThrown().stream()
+                        .map(CtTypeReference::getQualifiedName)
+                        .collect(Collectors.toList())
+        );
+        assertSame(index.infoOf(leaf), index.infoOf(leaf));
+    }
+
+    @Test
+    public void qualifiedNamesInResolutionOrder() {
+        CtModel model = buildModel("D.java", IMPORTS);
+        ExceptionIndex index = new ExceptionIndex();
+        CtType<?> type = typeOf(model, "imports.D");
+        ExceptionIndex.Imports imports = index.importsOf(type);
+        CtTypeReference<?> exception = methodOf(model, "imports.D", "d")
+                .getThrownTypes().iterator().next();
+
+        // Type import, on demand import, same package, JavaExceptionMap.
+        assertEquals(
+                List.of(
+                        "java.io.FileNotFoundException",
+                        "java.util.zip.FileNotFoundException",
+                        "java.nio.file.FileNotFoundException",
+                        "java.io.FileNotFoundException"
+                ),
+                ExceptionIndex.qualifiedNamesOf("FileNotFoundException", imports, exception)
+        );
+        assertEquals(
+                List.of(
+                        "java.util.zip.ZipException",
+                        "java.nio.file.ZipException",
+                        "java.util.zip.ZipException"
+                ),
+                ExceptionIndex.qualifiedNamesOf("ZipException", imports, exception)
+        );
+        // Unknown names are not resolved with the JavaExceptionMap.
+        assertEquals(
+                List.of(
+                        "java.util.zip.NotExistingException",
+                        "java.nio.file.NotExistingException"
+                ),
+                ExceptionIndex.qualifiedNamesOf("NotExistingException", imports, exception)
+        );
+        assertSame(imports, index.importsOf(type));
+    }
+
+    @Test
+    public void resolveIsCached() {
+        ExceptionIndex index = new ExceptionIndex();
+        assertTrue(index.resolve("java.io.IOException").isPresent());
+        assertSame(
+                index.resolve("java.io.IOException").get(),
+                index.resolve("java.io.IOException").get()
+        );
+        assertFalse(index.resolve("java.io.NotExistingException").isPresent());
+    }
+}
@@ -57,4 +57,27 @@ public class TemporaryFieldDetectorTest {
         assertThat(range.getEnd().getLine()).isEqualTo(4);
         assertThat(range.getEnd().getColumn()).isEqualTo(24);
     }
+
+    @Test
+    public void nestedClass() throws IOException {
+        RevisionMock revision = new RevisionMock(folder);
+        revision.addFile(Paths.get("temporary-field", "B.java"));
+
+        RevisionRange revisionRange = mock(RevisionRange.class);
+        when(revisionRange.getRevision()).thenReturn(revision);
+
+        Launcher launcher = new Launcher();
+        launcher.addInputResource(folder.getRoot().getAbsolutePath());
+        CtModel model = launcher.buildModel();
+
+        Environment environment = new Environment(model, revisionRange);
+
+        TemporaryFieldDetector temporaryFieldDetector =
+                new TemporaryFieldDetector(environment);
+        temporaryFieldDetector.scan(model);
+        assertThat(temporaryFieldDetector.getCodeSmells()).hasSize(1);
+        CodeSmell codeSmell = temporaryFieldDetector.getCodeSmells().get(0);
+        assertThat(codeSmell.getSignature())
+                .isEqualTo(Optional.of("B$Inner#temp"));
+    }
 }
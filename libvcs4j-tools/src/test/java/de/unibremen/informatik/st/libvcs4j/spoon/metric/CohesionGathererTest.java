@@ -0,0 +1,101 @@
+package de.unibremen.informatik.st.libvcs4j.spoon.metric;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CohesionGathererTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private CtModel buildModel(final String... lines) throws IOException {
+		Files.write(folder.getRoot().toPath().resolve("Cohesion.java"),
+				Arrays.asList(lines), StandardCharsets.UTF_8);
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(folder.getRoot().getAbsolutePath());
+		return launcher.buildModel();
+	}
+
+	@Test
+	public void cohesionMetrics() throws IOException {
+		CtModel model = buildModel(
+				"public class Cohesion {",
+				"	private int a, b, c;",
+				"	public void m1() { a++; }",
+				"	public void m2() { a = b; }",
+				"	public void m3() { b++; }",
+				"	public void m4() { c++; }",
+				"	public void m5() { m4(); }",
+				"	public static class Empty {",
+				"		public void m() {}",
+				"	}",
+				"}");
+		CtType type = model.getAllTypes().iterator().next();
+		CtType nested = type.getNestedType("Empty");
+
+		TCC tcc = new TCC();
+		tcc.scan(model);
+		assertThat(tcc.TCCOf(type)).contains(BigDecimal.valueOf(0.2));
+		assertThat(tcc.TCCOf(nested)).contains(BigDecimal.ZERO);
+
+		LCC lcc = new LCC();
+		lcc.scan(model);
+		assertThat(lcc.LCCOf(type)).contains(BigDecimal.valueOf(0.3));
+
+		LCOM1 lcom1 = new LCOM1();
+		lcom1.scan(model);
+		assertThat(lcom1.LCOM1Of(type)).contains(BigDecimal.valueOf(8));
+
+		LCOM2 lcom2 = new LCOM2();
+		lcom2.scan(model);
+		assertThat(lcom2.LCOM2Of(type)).contains(BigDecimal.valueOf(6));
+
+		LCOM3 lcom3 = new LCOM3();
+		lcom3.scan(model);
+		assertThat(lcom3.LCOM3Of(type)).contains(BigDecimal.valueOf(3));
+		assertThat(lcom3.LCOM3Of(nested)).contains(BigDecimal.ONE);
+
+		LCOM4 lcom4 = new LCOM4();
+		lcom4.scan(model);
+		assertThat(lcom4.LCOM4Of(type)).contains(BigDecimal.valueOf(2));
+	}
+
+	@Test
+	public void manyMethodsAndFields() throws IOException {
+		// 400 methods, each accessing field i % 100. Methods accessing the
+		// same field are connected (4 methods per field).
+		StringBuilder source = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			source.append("private int f").append(i).append(';');
+		}
+		for (int i = 0; i < 400; i++) {
+			source.append("public void m").append(i)
+					.append("() { f").append(i % 100).append("++; }");
+		}
+		CtModel model = buildModel(
+				"public class Cohesion {", source.toString(), "}");
+		CtType type = model.getAllTypes().iterator().next();
+
+		TCC tcc = new TCC();
+		tcc.scan(model);
+		// 100 fields * (4 choose 2) sharing pairs / (400 choose 2) pairs
+		assertThat(tcc.TCCOf(type)).contains(
+				BigDecimal.valueOf(600.0 / 79800.0));
+
+		LCOM3 lcom3 = new LCOM3();
+		lcom3.scan(model);
+		assertThat(lcom3.LCOM3Of(type)).contains(BigDecimal.valueOf(100));
+	}
+}
@@ -0,0 +1,20 @@
+public class B {
+    private int shared = 0;
+
+    public void write() {
+        shared = 1;
+    }
+
+    private static class Inner {
+        private int temp;
+
+        public int compute() {
+            temp = 42;
+            return temp;
+        }
+    }
+
+    public int read() {
+        return shared;
+    }
+}
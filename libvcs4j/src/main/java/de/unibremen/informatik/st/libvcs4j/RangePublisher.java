@@ -0,0 +1,278 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the ranges of an engine to {@link Flow.Subscriber}s. Each
+ * subscription processes its own engine, which is created with the supplier
+ * passed to {@link #RangePublisher(Supplier)} when the subscriber requests
+ * ranges for the first time. Ranges are processed only if they have been
+ * requested (see {@link Flow.Subscription#request(long)}). That is, the
+ * engine does not check out revisions ahead of the demand of its subscriber.
+ *
+ * The engine of a subscription is used by one task of the executor (see
+ * {@link #withExecutor(Executor)}) at a time. A task processes ranges until
+ * the demand of the subscriber is satisfied and returns afterwards. Thus, no
+ * thread is blocked while a subscriber has no demand, and engines of many
+ * subscriptions may share a few threads (or use virtual threads, for
+ * example, with {@code Executors.newVirtualThreadPerTaskExecutor()}).
+ *
+ * If a subscription is terminated, that is, if the engine has no more
+ * ranges, an error occurred, or the subscription has been cancelled, the
+ * target of the engine (see {@link VCSEngine#getTarget()}) is deleted
+ * unless disabled with {@link #withDeleteTarget(boolean)}. If several
+ * subscribers subscribe concurrently, the engines returned by the supplier
+ * must have distinct targets.
+ */
+public class RangePublisher implements Flow.Publisher<RevisionRange> {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(RangePublisher.class);
+
+	/**
+	 * The default executor. Idle threads are reused and terminated after one
+	 * minute.
+	 */
+	private static final ExecutorService DEFAULT_EXECUTOR =
+			Executors.newCachedThreadPool(runnable -> {
+				final Thread thread = new Thread(runnable,
+						"libvcs4j-range-publisher");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/**
+	 * Creates the engine of each subscription.
+	 */
+	private final Supplier<VCSEngine> engineSupplier;
+
+	/**
+	 * Runs the tasks processing the engines.
+	 */
+	private Executor executor = DEFAULT_EXECUTOR;
+
+	/**
+	 * Whether to delete the target of an engine if its subscription
+	 * terminates.
+	 */
+	private boolean deleteTarget = true;
+
+	/**
+	 * Creates a publisher that uses the given supplier to create the engine
+	 * of each subscription. The supplier must return a new engine each time
+	 * it is called.
+	 *
+	 * @param pEngineSupplier
+	 * 		Creates the engines.
+	 * @throws NullPointerException
+	 * 		If {@code pEngineSupplier} is {@code null}.
+	 */
+	public RangePublisher(final Supplier<VCSEngine> pEngineSupplier)
+			throws NullPointerException {
+		engineSupplier = Validate.notNull(pEngineSupplier);
+	}
+
+	/**
+	 * Sets the executor that processes the engines. The executor is not shut
+	 * down by this publisher. By default, a shared cached thread pool with
+	 * daemon threads is used.
+	 *
+	 * @param pExecutor
+	 * 		The executor that processes the engines.
+	 * @return
+	 * 		This publisher.
+	 * @throws NullPointerException
+	 * 		If {@code pExecutor} is {@code null}.
+	 */
+	public RangePublisher withExecutor(final Executor pExecutor)
+			throws NullPointerException {
+		executor = Validate.notNull(pExecutor);
+		return this;
+	}
+
+	/**
+	 * Sets whether the target of an engine is deleted if its subscription
+	 * terminates. The default value is {@code true}.
+	 *
+	 * @param pDeleteTarget
+	 * 		Whether to delete the targets of the engines.
+	 * @return
+	 * 		This publisher.
+	 */
+	public RangePublisher withDeleteTarget(final boolean pDeleteTarget) {
+		deleteTarget = pDeleteTarget;
+		return this;
+	}
+
+	@Override
+	public void subscribe(
+			final Flow.Subscriber<? super RevisionRange> pSubscriber)
+			throws NullPointerException {
+		Validate.notNull(pSubscriber);
+		final RangeSubscription subscription =
+				new RangeSubscription(pSubscriber);
+		pSubscriber.onSubscribe(subscription);
+	}
+
+	/**
+	 * The subscription of a single subscriber. Signals are emitted by the
+	 * task processing the engine only. The number of requests and
+	 * cancellations that have not been handled by a task yet is counted by
+	 * {@link #pending}. A new task is scheduled only if there is no pending
+	 * signal, such that at most one task is running at a time.
+	 */
+	private class RangeSubscription implements Flow.Subscription {
+
+		private final Flow.Subscriber<? super RevisionRange> subscriber;
+
+		/**
+		 * The number of requested ranges that have not been published yet.
+		 * Saturates at {@link Long#MAX_VALUE} (unbounded demand).
+		 */
+		private final AtomicLong requested = new AtomicLong();
+
+		/**
+		 * The number of unhandled signals. Remains positive once this
+		 * subscription is terminated such that no task is scheduled
+		 * anymore.
+		 */
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private volatile boolean cancelled = false;
+
+		/**
+		 * A non-positive request (see rule 3.9 of the Reactive Streams
+		 * specification). Is {@code null} if all requests are valid.
+		 */
+		private volatile IllegalArgumentException invalidRequest = null;
+
+		/**
+		 * The engine of this subscription. Is {@code null} until the first
+		 * task runs. Accessed by the tasks only.
+		 */
+		private VCSEngine engine = null;
+
+		/**
+		 * Iterates the ranges of {@link #engine}.
+		 */
+		private Iterator<RevisionRange> ranges = null;
+
+		private RangeSubscription(
+				final Flow.Subscriber<? super RevisionRange> pSubscriber) {
+			subscriber = pSubscriber;
+		}
+
+		@Override
+		public void request(final long pNumRanges) {
+			if (pNumRanges <= 0) {
+				invalidRequest = new IllegalArgumentException(String.format(
+						"Number of requested ranges (%d) <= 0", pNumRanges));
+			} else {
+				requested.getAndUpdate(r -> r + pNumRanges < 0
+						? Long.MAX_VALUE : r + pNumRanges);
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (pending.getAndIncrement() == 0) {
+				try {
+					executor.execute(this::drain);
+				} catch (final RejectedExecutionException e) {
+					// Terminate this subscription (`pending` stays positive).
+					subscriber.onError(e);
+				}
+			}
+		}
+
+		/**
+		 * Publishes ranges until the demand is satisfied, the engine has no
+		 * more ranges, or this subscription has been cancelled.
+		 */
+		private void drain() {
+			int missed = 1;
+			do {
+				long published = 0;
+				final long demand = requested.get();
+				while (true) {
+					if (cancelled) {
+						log.info("Subscription has been cancelled");
+						terminate();
+						return;
+					}
+					if (invalidRequest != null) {
+						terminate();
+						subscriber.onError(invalidRequest);
+						return;
+					}
+					final RevisionRange range;
+					try {
+						if (ranges == null) {
+							engine = Validate.notNull(engineSupplier.get(),
+									"Supplier returned null");
+							ranges = engine.iterator();
+						}
+						if (!ranges.hasNext()) {
+							range = null;
+						} else if (published == demand) {
+							break;
+						} else {
+							range = ranges.next();
+						}
+					} catch (final RuntimeException e) {
+						// The iterator of an engine wraps IOExceptions.
+						terminate();
+						subscriber.onError(e);
+						return;
+					}
+					if (range == null) {
+						terminate();
+						subscriber.onComplete();
+						return;
+					}
+					try {
+						subscriber.onNext(range);
+					} catch (final RuntimeException e) {
+						// Subscribers must not throw (see rule 2.13 of the
+						// Reactive Streams specification). Cancel instead.
+						log.warn("Subscriber failed to process {}", range, e);
+						terminate();
+						return;
+					}
+					published++;
+				}
+				if (demand != Long.MAX_VALUE) {
+					requested.addAndGet(-published);
+				}
+				missed = pending.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void terminate() {
+			cancelled = true;
+			if (deleteTarget && engine != null) {
+				new DeleteTask(engine.getTarget()).run();
+			}
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Mines a repository in parallel. The revisions of a repository (see
+ * {@link AbstractVSCEngine#listRevisions()}) are split into contiguous
+ * intervals (shards) each of which is processed by its own engine (checking
+ * out to its own target) and its own {@link Analysis}. The results of all
+ * shards are merged in the order of the processed ranges, that is, the
+ * result of {@link #mine(Supplier)} equals the result of applying a single
+ * analysis to all ranges of a sequential engine.
+ *
+ * Except for the first shard, each shard starts at the last revision of its
+ * preceding shard. The range of this (warm-up) revision is not analyzed, but
+ * ensures that the first analyzed range of a shard is computed against its
+ * actual predecessor rather than being treated as the initial revision of
+ * the repository (i.e., a range where all files are added). The ranges
+ * passed to an analysis have the same ordinals as the ranges of a sequential
+ * engine.
+ *
+ * Since all engines are configured with the same builder (see
+ * {@link #ShardedMiner(Supplier)}), the interval of the builder is
+ * overridden with {@link VCSEngineBuilder#withFrom(String)} and
+ * {@link VCSEngineBuilder#withTo(String)} for all shards but the first one.
+ * The targets of these shards are derived from the target of the first
+ * shard and deleted after mining.
+ */
+public class ShardedMiner {
+
+	/**
+	 * Analyzes the ranges of a shard.
+	 *
+	 * @param <R>
+	 *     	The type of the result of an analysis.
+	 */
+	@FunctionalInterface
+	public interface Analysis<R> {
+
+		/**
+		 * Analyzes the given range.
+		 *
+		 * @param range
+		 * 		The range to analyze.
+		 * @return
+		 * 		The result of the analysis.
+		 * @throws IOException
+		 * 		If an error occurred while analyzing {@code range}.
+		 */
+		R analyze(RevisionRange range) throws IOException;
+	}
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(ShardedMiner.class);
+
+	/**
+	 * Creates a fresh builder for each shard.
+	 */
+	private final Supplier<VCSEngineBuilder> builderSupplier;
+
+	/**
+	 * The maximum number of shards.
+	 */
+	private int numShards = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Executes the shards. Is {@code null} if each call of
+	 * {@link #mine(Supplier)} should use its own executor.
+	 */
+	private ExecutorService executor = null;
+
+	/**
+	 * Creates a miner that uses the given supplier to configure the engines
+	 * of its shards. The supplier must return a new builder each time it is
+	 * called, whereby all builders must be configured equally.
+	 *
+	 * @param pBuilderSupplier
+	 * 		Creates the builders of the engines.
+	 * @throws NullPointerException
+	 * 		If {@code pBuilderSupplier} is {@code null}.
+	 */
+	public ShardedMiner(final Supplier<VCSEngineBuilder> pBuilderSupplier)
+			throws NullPointerException {
+		builderSupplier = Validate.notNull(pBuilderSupplier);
+	}
+
+	/**
+	 * Sets the maximum number of shards. The default value is the number of
+	 * available processors. Note that the actual number of shards is bounded
+	 * by the number of revisions to process.
+	 *
+	 * @param pNumShards
+	 * 		The maximum number of shards.
+	 * @return
+	 * 		This miner.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pNumShards <= 0}.
+	 */
+	public ShardedMiner withShards(final int pNumShards)
+			throws IllegalArgumentException {
+		numShards = Validate.isPositive(pNumShards,
+				"Number of shards (%d) <= 0", pNumShards);
+		return this;
+	}
+
+	/**
+	 * Sets the executor that processes the shards. The executor is not shut
+	 * down by this miner. If no executor is set (or {@code null} is passed),
+	 * a fixed thread pool with one thread per shard is created (and shut
+	 * down) for each call of {@link #mine(Supplier)}.
+	 *
+	 * @param pExecutor
+	 * 		The executor that processes the shards.
+	 * @return
+	 * 		This miner.
+	 */
+	public ShardedMiner withExecutor(final ExecutorService pExecutor) {
+		executor = pExecutor;
+		return this;
+	}
+
+	/**
+	 * Splits {@code pSize} elements into at most {@code pNumShards}
+	 * contiguous, non-empty intervals of (almost) equal size.
+	 *
+	 * @param pSize
+	 * 		The number of elements to split.
+	 * @param pNumShards
+	 * 		The maximum number of intervals.
+	 * @return
+	 * 		The bounds of the intervals. Interval {@code k} ranges from
+	 * 		{@code bounds[k]} (inclusive) to {@code bounds[k+1]} (exclusive).
+	 * 		Thus, the length of the returned array is the number of intervals
+	 * 		plus one.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pSize < 0} or {@code pNumShards <= 0}.
+	 */
+	static int[] split(final int pSize, final int pNumShards)
+			throws IllegalArgumentException {
+		Validate.notNegative(pSize, "Size (%d) < 0", pSize);
+		Validate.isPositive(pNumShards,
+				"Number of shards (%d) <= 0", pNumShards);
+		final int n = Math.min(pSize, pNumShards);
+		final int[] bounds = new int[n + 1];
+		for (int k = 1; k <= n; k++) {
+			bounds[k] = (int) ((long) k * pSize / n);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Convenience method for {@link #mine(Supplier)} that shares the given
+	 * analysis between all shards. Consequently, {@code pAnalysis} must be
+	 * thread-safe.
+	 *
+	 * @param pAnalysis
+	 * 		The (thread-safe) analysis to apply to each range.
+	 * @param <R>
+	 *     	The type of the result of an analysis.
+	 * @return
+	 * 		The results of all ranges in the order of the ranges.
+	 * @throws NullPointerException
+	 * 		If {@code pAnalysis} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while processing a shard.
+	 */
+	public <R> List<R> mine(final Analysis<R> pAnalysis)
+			throws NullPointerException, IOException {
+		Validate.notNull(pAnalysis);
+		return mine(() -> pAnalysis);
+	}
+
+	/**
+	 * Mines the repository. Calls {@code pAnalysisSupplier} once per shard
+	 * such that analyses may keep state that is local to a shard.
+	 *
+	 * @param pAnalysisSupplier
+	 * 		Creates the analysis of a shard.
+	 * @param <R>
+	 *     	The type of the result of an analysis.
+	 * @return
+	 * 		The results of all ranges in the order of the ranges.
+	 * @throws NullPointerException
+	 * 		If {@code pAnalysisSupplier} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If the configured engine does not support listing its revisions.
+	 * @throws IllegalStateException
+	 * 		If the engine of a shard does not process the expected revisions
+	 * 		(which indicates that the builders returned by the supplier passed
+	 * 		to {@link #ShardedMiner(Supplier)} are configured differently).
+	 * @throws IOException
+	 * 		If an error occurred while processing a shard.
+	 */
+	public <R> List<R> mine(
+			final Supplier<? extends Analysis<R>> pAnalysisSupplier)
+			throws NullPointerException, IllegalArgumentException,
+			IllegalStateException, IOException {
+		Validate.notNull(pAnalysisSupplier);
+		final VCSEngine first = builderSupplier.get().build();
+		Validate.isTrue(first instanceof AbstractVSCEngine,
+				"Engine '%s' does not support listing revisions",
+				first.getClass().getName());
+		final List<String> revisions =
+				((AbstractVSCEngine) first).listRevisions();
+		if (revisions.isEmpty()) {
+			return new ArrayList<>();
+		}
+		final int[] bounds = split(revisions.size(), numShards);
+		final int n = bounds.length - 1;
+		log.info("Mining {} revisions in {} shard(s)", revisions.size(), n);
+
+		final List<Path> targets = new ArrayList<>();
+		final ExecutorService service = executor != null
+				? executor : Executors.newFixedThreadPool(n);
+		final List<Future<List<R>>> futures = new ArrayList<>();
+		try {
+			for (int k = 0; k < n; k++) {
+				final int start = bounds[k];
+				final int end = bounds[k + 1];
+				final Analysis<R> analysis =
+						Validate.notNull(pAnalysisSupplier.get());
+				if (k == 0) {
+					futures.add(service.submit(() ->
+							mineShard(first, start, end, analysis)));
+				} else {
+					final int shard = k;
+					final Path target = Paths.get(
+							first.getTarget().toString() + "-shard" + k);
+					targets.add(target);
+					final VCSEngineBuilder builder = builderSupplier.get()
+							.withTarget(target)
+							.withFrom(revisions.get(start - 1))
+							.withTo(revisions.get(end - 1));
+					final List<String> expected =
+							revisions.subList(start - 1, end);
+					futures.add(service.submit(() -> {
+						final VCSEngine engine = builder.build();
+						final List<String> actual =
+								((AbstractVSCEngine) engine).listRevisions();
+						Validate.validateState(expected.equals(actual),
+								"Shard %d processes unexpected revisions",
+								shard);
+						return mineShard(engine, start, end, analysis);
+					}));
+				}
+			}
+
+			final List<R> results = new ArrayList<>(revisions.size());
+			for (final Future<List<R>> future : futures) {
+				results.addAll(future.get());
+			}
+			return results;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			futures.forEach(f -> f.cancel(true));
+			if (executor == null) {
+				service.shutdownNow();
+			}
+			targets.forEach(t -> new DeleteTask(t).run());
+		}
+	}
+
+	/**
+	 * Applies the given analysis to the ranges of a shard.
+	 *
+	 * @param pEngine
+	 * 		The engine of the shard. If {@code pStart > 0}, the first range of
+	 * 		the engine is the (warm-up) range of revision {@code pStart - 1}.
+	 * @param pStart
+	 * 		The index of the first revision to analyze (inclusive).
+	 * @param pEnd
+	 * 		The index of the last revision to analyze (exclusive).
+	 * @param pAnalysis
+	 * 		The analysis to apply.
+	 * @param <R>
+	 *     	The type of the result of an analysis.
+	 * @return
+	 * 		The results of the analyzed ranges.
+	 * @throws IOException
+	 * 		If an error occurred while processing a range.
+	 */
+	private <R> List<R> mineShard(final VCSEngine pEngine, final int pStart,
+			final int pEnd, final Analysis<R> pAnalysis) throws IOException {
+		if (pStart > 0) {
+			// Check out the last revision of the preceding shard.
+			Validate.validateState(pEngine.next().isPresent());
+		}
+		final List<R> results = new ArrayList<>(pEnd - pStart);
+		for (int idx = pStart; idx < pEnd; idx++) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new IOException("Interrupted while mining shard");
+			}
+			final Optional<RevisionRange> next = pEngine.next();
+			Validate.validateState(next.isPresent(),
+					"Missing range of revision %d", idx);
+			RevisionRange range = next.get();
+			final int ordinal = idx + 1;
+			if (range.getOrdinal() != ordinal) {
+				range = pEngine.getModelFactory().createRevisionRange(
+						ordinal,
+						range.getRevision(),
+						range.getPredecessorRevision().orElse(null),
+						range.getCommits(),
+						pEngine);
+			}
+			results.add(pAnalysis.analyze(range));
+		}
+		return results;
+	}
+}
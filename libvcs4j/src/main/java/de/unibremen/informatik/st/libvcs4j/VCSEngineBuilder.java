@@ -1,6 +1,9 @@
 package de.unibremen.informatik.st.libvcs4j;
 
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractIntervalVCSEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.GlobFilter;
+import de.unibremen.informatik.st.libvcs4j.engine.MirrorCache;
 import de.unibremen.informatik.st.libvcs4j.filesystem.SingleEngine;
 import de.unibremen.informatik.st.libvcs4j.git.GitEngine;
 import de.unibremen.informatik.st.libvcs4j.hg.HGEngine;
@@ -16,6 +19,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -141,11 +146,31 @@ public class VCSEngineBuilder {
 	 */
 	private String to = null;
 
+	/**
+	 * Stores the include globs.
+	 */
+	private final List<String> includes = new ArrayList<>();
+
+	/**
+	 * Stores the exclude globs.
+	 */
+	private final List<String> excludes = new ArrayList<>();
+
+	/**
+	 * Stores the mirror cache directory.
+	 */
+	private Path mirrorCache = null;
+
 	/**
 	 * Stores the {@link ITEngine} that should be used to extract issues.
 	 */
 	private ITEngine itEngine = null;
 
+	/**
+	 * Stores the listeners that should be added to the engine.
+	 */
+	private final List<InstrumentationListener> listeners = new ArrayList<>();
+
 	////////////////////////////// Constructors ///////////////////////////////
 
 	/**
@@ -536,6 +561,71 @@ public class VCSEngineBuilder {
 		return this;
 	}
 
+	/**
+	 * Adds include globs (see {@link GlobFilter}). Only the files matching at
+	 * least one include glob are processed (and, if supported by the engine,
+	 * written to the target). If no include glob is given, all files are
+	 * included. {@code null} and empty globs are ignored.
+	 *
+	 * @param globs
+	 * 		The include globs, relative to the root directory.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withIncludes(final String... globs) {
+		addGlobs(includes, globs);
+		return this;
+	}
+
+	/**
+	 * Adds exclude globs (see {@link GlobFilter}). Files matching an exclude
+	 * glob are neither processed nor, if supported by the engine, written to
+	 * the target. Excludes take precedence over includes. {@code null} and
+	 * empty globs are ignored.
+	 *
+	 * @param globs
+	 * 		The exclude globs, relative to the root directory.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withExcludes(final String... globs) {
+		addGlobs(excludes, globs);
+		return this;
+	}
+
+	/**
+	 * Sets the directory storing local mirrors of repositories (see
+	 * {@link MirrorCache}). The first run clones a repository into its
+	 * mirror, subsequent runs fetch incrementally and create the target from
+	 * the mirror. Supported by Git and Mercurial. {@code null} values are
+	 * permitted and disable mirroring.
+	 *
+	 * @param mirrorCache
+	 * 		The directory storing local mirrors.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withMirrorCache(final Path mirrorCache) {
+		this.mirrorCache = mirrorCache;
+		return this;
+	}
+
+	/**
+	 * Sets the directory storing local mirrors of repositories (see
+	 * {@link #withMirrorCache(Path)}). {@code null} and empty values are
+	 * permitted and disable mirroring.
+	 *
+	 * @param mirrorCache
+	 * 		The directory storing local mirrors.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withMirrorCache(final String mirrorCache) {
+		return withMirrorCache(mirrorCache == null || mirrorCache.isEmpty()
+				? null
+				: Paths.get(mirrorCache));
+	}
+
 	/**
 	 * Sets the {@link ITEngine}. {@code null} values are permitted.
 	 *
@@ -549,6 +639,24 @@ public class VCSEngineBuilder {
 		return this;
 	}
 
+	/**
+	 * Adds an {@link InstrumentationListener} to the engine (see
+	 * {@link VCSEngine#addInstrumentationListener(InstrumentationListener)}).
+	 * {@code null} values are ignored.
+	 *
+	 * @param listener
+	 * 		The listener to add.
+	 * @return
+	 * 		This builder.
+	 */
+	public VCSEngineBuilder withInstrumentationListener(
+			final InstrumentationListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+		return this;
+	}
+
 	/**
 	 * Creates the engine.
 	 *
@@ -659,14 +767,36 @@ public class VCSEngineBuilder {
 			Runtime.getRuntime().addShutdownHook(new DeleteTask(target));
 		}
 
+		if (!includes.isEmpty() || !excludes.isEmpty()) {
+			Validate.validateState(vcsEngine instanceof AbstractVSCEngine,
+					"Engine '%s' does not support globs",
+					vcsEngine.getClass().getName());
+			((AbstractVSCEngine) vcsEngine).setGlobFilter(
+					new GlobFilter(includes, excludes));
+		}
+		if (mirrorCache != null && vcsEngine instanceof AbstractVSCEngine) {
+			((AbstractVSCEngine) vcsEngine).setMirrorCache(
+					new MirrorCache(mirrorCache));
+		}
 		if (itEngine != null) {
 			vcsEngine.setITEngine(itEngine);
 		}
+		listeners.forEach(vcsEngine::addInstrumentationListener);
 		return vcsEngine;
 	}
 
 	///////////////////////////////// Helper //////////////////////////////////
 
+	private void addGlobs(final List<String> pTarget, final String[] pGlobs) {
+		if (pGlobs != null) {
+			for (final String glob : pGlobs) {
+				if (glob != null && !glob.trim().isEmpty()) {
+					pTarget.add(glob.trim());
+				}
+			}
+		}
+	}
+
 	private LocalDateTime parseDateTime(final String pDateTime,
 			final LocalDateTime pDefault) throws IllegalArgumentException {
 		if (pDateTime == null) {
@@ -125,7 +125,14 @@ public abstract class AbstractIntervalVCSEngine extends AbstractVSCEngine {
 		return revisions;
 	}
 
-	private List<String> listRevisionsImpl(final int startIdx,
+	/**
+	 * Lists the revisions of the given range interval. The default
+	 * implementation lists all revisions (see
+	 * {@link #listRevisionsImpl(LocalDateTime, LocalDateTime)}) and returns
+	 * the requested sublist. Subclasses may override this method if they are
+	 * able to select the revisions more efficiently.
+	 */
+	protected List<String> listRevisionsImpl(final int startIdx,
 			final int endIdx) throws IOException {
 		final List<String> revs = listRevisionsImpl(
 				VCSEngineBuilder.DEFAULT_SINCE,
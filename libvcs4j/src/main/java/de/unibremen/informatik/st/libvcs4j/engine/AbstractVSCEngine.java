@@ -1,14 +1,19 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
 import bmsi.util.Diff;
-import com.ibm.icu.text.CharsetDetector;
-import com.ibm.icu.text.CharsetMatch;
+import de.unibremen.informatik.st.libvcs4j.Blob;
+import de.unibremen.informatik.st.libvcs4j.BlobStore;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.FileChangeList;
 import de.unibremen.informatik.st.libvcs4j.ITEngine;
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener;
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Counter;
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Phase;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineChange;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.Revision;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
@@ -26,19 +31,24 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,13 +67,24 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	private final String repository;
 	private final String root;
 	private final Path target;
+	private GlobFilter globFilter = GlobFilter.ACCEPT_ALL;
+	private MirrorCache mirrorCache = null;
 
 	/* External engines. */
 	private ITEngine itEngine = null;
 
+	/* Instrumentation. */
+	private final List<InstrumentationListener> listeners =
+			new CopyOnWriteArrayList<>();
+
 	/* Factories. */
 	private VCSModelFactory modelFactory = new VCSModelFactory() {};
 
+	/* Caches. */
+	private final CharsetGuesser charsetGuesser = new CharsetGuesser();
+	private final BlobStore blobStore = new BlobStore();
+	private Boolean caseInsensitive = null;
+
 	/* Internal state of this engine. */
 	private int ordinal = 1;
 	private boolean initialized = false;
@@ -119,6 +140,9 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 				"Attribute `revisionIdx` must not be negative");
 		// there are not more revisions available
 		if (revisionIdx >= revisions.size()) {
+			if (revisionIdx == revisions.size()) {
+				listeners.forEach(l -> l.engineFinished(this));
+			}
 			revisionIdx = revisions.size(); // prevent overflows
 			return Optional.empty();
 		}
@@ -127,7 +151,10 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 				revisions.get(revisionIdx),
 				revisionIdx+1,
 				revisions.size());
-		checkoutImpl(revisions.get(revisionIdx));
+		measure(Phase.CHECKOUT, () -> {
+			checkoutImpl(revisions.get(revisionIdx));
+			return null;
+		});
 		revision = revisions.get(revisionIdx);
 
 		if (!getOutput().toFile().exists()) {
@@ -154,8 +181,13 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 					.map(Path::toString)
 					.forEach(f -> changes.getAdded().add(f));
 		} else {
-			changes = createChangesImpl(getPreviousRevision(), revision);
-			mapChanges(changes);
+			changes = measure(Phase.CREATE_CHANGES, () ->
+					createChangesImpl(getPreviousRevision(), revision));
+			measure(Phase.MAP_CHANGES, () -> {
+				mapChanges(changes);
+				filterChanges(changes);
+				return null;
+			});
 		}
 		final RevisionRange range = createRevisionRange(changes);
 		currentRevision = range.getRevision();
@@ -169,16 +201,17 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		final String rev = pFile.getRevision().getId();
 		init();
 		Validate.isTrue(revisions.contains(rev));
-		if (revision != null && revision.equals(rev)) {
+		final boolean checkedOut = revision != null && revision.equals(rev);
+		if (checkedOut) {
 			Validate.isTrue(pFile.toFile().isFile(),
 					"'%s' is not a file", pFile.toPath());
-			return Files.readAllBytes(pFile.toPath());
-		} else {
-			final byte[] bytes = readAllBytesImpl(
-					pFile.getRelativePath(), rev);
-			IllegalReturnException.notNull(bytes);
-			return bytes;
 		}
+		final byte[] bytes = measure(Phase.READ_ALL_BYTES, () -> checkedOut
+				? Files.readAllBytes(pFile.toPath())
+				: readAllBytesImpl(pFile.getRelativePath(), rev));
+		IllegalReturnException.notNull(bytes);
+		count(Counter.BYTES_READ, bytes.length);
+		return bytes;
 	}
 
 	@Override
@@ -188,8 +221,12 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		final String rev = pFile.getRevision().getId();
 		init();
 		Validate.isTrue(revisions.contains(rev));
-		final List<LineInfo> lineInfo = readLineInfoImpl(pFile);
-		IllegalReturnException.noNullElements(lineInfo);
+		final List<LineInfo> lineInfo = measure(Phase.READ_LINE_INFO, () ->
+				readLineInfoImpl(pFile));
+		// Tables never contain null. Checking them would create all views.
+		if (!(lineInfo instanceof LineInfoTable)) {
+			IllegalReturnException.noNullElements(lineInfo);
+		}
 		return lineInfo;
 	}
 
@@ -228,6 +265,11 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	public List<LineChange> computeDiff(final FileChange fileChange)
 			throws NullPointerException, IOException {
 		Validate.notNull(fileChange);
+		return measure(Phase.COMPUTE_DIFF, () -> computeDiffImpl(fileChange));
+	}
+
+	private List<LineChange> computeDiffImpl(final FileChange fileChange)
+			throws IOException {
 		final String LINE_SEPARATOR = "\\r?\\n";
 
 		final Optional<VCSFile> oldFile = fileChange.getOldFile();
@@ -282,21 +324,54 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		return Optional.ofNullable(itEngine);
 	}
 
+	@Override
+	public void addInstrumentationListener(
+			final InstrumentationListener pListener)
+			throws NullPointerException {
+		Validate.notNull(pListener);
+		if (!listeners.contains(pListener)) {
+			listeners.add(pListener);
+		}
+	}
+
+	@Override
+	public void removeInstrumentationListener(
+			final InstrumentationListener pListener) {
+		listeners.remove(pListener);
+	}
+
 	@Override
 	public Optional<Charset> guessCharset(final VCSFile file)
 			throws IOException {
-		final CharsetDetector detector = new CharsetDetector();
-		detector.setText(file.readAllBytes());
-		final CharsetMatch match = detector.detect();
-		Charset charset;
+		return charsetGuesser.guess(file.readAllBytes());
+	}
+
+	/**
+	 * Resolves the blob of {@code file} in the blob store of this engine. If
+	 * {@link #readBlobIdImpl(String, String)} does not provide an id, the
+	 * SHA-1 digest of the contents of {@code file} is used as id.
+	 */
+	@Override
+	public Optional<Blob> getBlob(final VCSFile file) throws
+			NullPointerException, IllegalArgumentException, IOException {
+		Validate.notNull(file);
+		final Optional<String> id = readBlobIdImpl(
+				file.getRelativePath(), file.getRevision().getId());
+		if (id.isPresent()) {
+			return Optional.of(blobStore.resolve(id.get()));
+		}
+		final byte[] bytes = readAllBytes(file);
+		final Blob blob;
 		try {
-			charset = Optional.ofNullable(match)
-					.map(m -> Charset.forName(m.getName()))
-					.orElse(null);
-		} catch (final Exception e) {
-			charset = null;
+			blob = blobStore.resolve("sha1:" + Base64.getEncoder()
+					.encodeToString(MessageDigest.getInstance("SHA-1")
+							.digest(bytes)));
+		} catch (final NoSuchAlgorithmException e) {
+			// Every implementation of the Java platform supports SHA-1.
+			throw new IllegalStateException(e);
 		}
-		return Optional.ofNullable(charset);
+		blob.offerBytes(bytes);
+		return Optional.of(blob);
 	}
 
 	@Override
@@ -325,27 +400,119 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		return new ArrayList<>(revisions);
 	}
 
+	/**
+	 * Sets the filter that selects the files to process. Files that are not
+	 * selected are neither listed (see {@link #listFilesInOutput()}) nor
+	 * reported as changed. Engines supporting sparse checkouts (see
+	 * {@link #isSparse()}) do not even write them to {@link #getTarget()}.
+	 * The filter must be set before the repository is initialized, that is,
+	 * before {@link #next()} or {@link #listRevisions()} is called the first
+	 * time.
+	 *
+	 * @param pGlobFilter
+	 * 		The filter that selects the files to process.
+	 * @throws NullPointerException
+	 * 		If {@code pGlobFilter} is {@code null}.
+	 * @throws IllegalStateException
+	 * 		If the repository has already been initialized.
+	 */
+	public void setGlobFilter(final GlobFilter pGlobFilter)
+			throws NullPointerException, IllegalStateException {
+		Validate.notNull(pGlobFilter);
+		Validate.validateState(!initialized,
+				"Repository has already been initialized");
+		globFilter = pGlobFilter;
+	}
+
+	/**
+	 * Returns the filter that selects the files to process.
+	 *
+	 * @return
+	 * 		The filter that selects the files to process.
+	 */
+	public GlobFilter getGlobFilter() {
+		return globFilter;
+	}
+
+	/**
+	 * Sets the cache storing local mirrors of repositories. Engines
+	 * supporting mirrors initialize their target from the mirror of
+	 * {@link #getRepository()} and update the mirror incrementally rather
+	 * than cloning the repository on every run. Engines without support
+	 * for mirrors ignore the cache. The cache must be set before the
+	 * repository is initialized, that is, before {@link #next()} or
+	 * {@link #listRevisions()} is called the first time.
+	 *
+	 * @param pMirrorCache
+	 * 		The cache storing local mirrors. {@code null} disables mirroring.
+	 * @throws IllegalStateException
+	 * 		If the repository has already been initialized.
+	 */
+	public void setMirrorCache(final MirrorCache pMirrorCache)
+			throws IllegalStateException {
+		Validate.validateState(!initialized,
+				"Repository has already been initialized");
+		mirrorCache = pMirrorCache;
+	}
+
+	/**
+	 * Returns the cache storing local mirrors of repositories.
+	 *
+	 * @return
+	 * 		The cache storing local mirrors of repositories.
+	 */
+	public Optional<MirrorCache> getMirrorCache() {
+		return Optional.ofNullable(mirrorCache);
+	}
+
+	/**
+	 * Applies {@link #getGlobFilter()} to the files listed by
+	 * {@link VCSEngine#listFilesInOutput()}.
+	 */
+	@Override
+	public List<Path> listFilesInOutput() throws IOException {
+		final List<Path> files = measure(Phase.LIST_FILES,
+				VCSEngine.super::listFilesInOutput);
+		if (globFilter.isAcceptAll()) {
+			return files;
+		}
+		final Path output = getOutput();
+		return files.stream()
+				.filter(f -> globFilter.test(output.relativize(f).toString()))
+				.collect(Collectors.toList());
+	}
+
 	///////////////////////////// helping methods /////////////////////////////
 
+	/**
+	 * Maps added and removed files referring to the same file (for instance,
+	 * through a symbolic link to a directory or, on case-insensitive file
+	 * systems, through a different case) to modified files. Paths are
+	 * canonicalized with a {@link PathCanonicalizer}, which accesses the
+	 * file system once per directory rather than once per file.
+	 */
 	private void mapChanges(final Changes pChanges) throws IOException {
-		// canonical path -> path
-		final Map<String, String> added = new HashMap<>();
-		for (final String a : pChanges.getAdded()) {
-			added.put(Paths.get(a).toFile().getCanonicalPath(), a);
+		if (pChanges.getAdded().isEmpty() || pChanges.getRemoved().isEmpty()) {
+			return;
 		}
+		if (caseInsensitive == null) {
+			caseInsensitive = PathCanonicalizer.isCaseInsensitive(target);
+		}
+		final PathCanonicalizer canonicalizer =
+				new PathCanonicalizer(caseInsensitive);
 		// canonical path -> path
 		final Map<String, String> removed = new HashMap<>();
 		for (final String r : pChanges.getRemoved()) {
-			removed.put(Paths.get(r).toFile().getCanonicalPath(), r);
+			removed.put(canonicalizer.canonicalize(r), r);
 		}
 		// add (path) -> remove (path)
-		final Map<String, String> addRemoveMatches = new HashMap<>();
-		added.forEach((ak, av) -> {
-			final String rv = removed.get(ak);
-			if (rv != null) {
-				addRemoveMatches.put(av, rv);
+		final Map<String, String> addRemoveMatches = new LinkedHashMap<>();
+		for (final String a : pChanges.getAdded()) {
+			final String r = removed.remove(canonicalizer.canonicalize(a));
+			if (r != null) {
+				addRemoveMatches.put(a, r);
 			}
-		});
+		}
 		addRemoveMatches.forEach((a, r) -> {
 			pChanges.getAdded().remove(a);
 			pChanges.getRemoved().remove(r);
@@ -353,17 +520,44 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		});
 	}
 
-	private VCSFile createFile(final Path pPath, final Revision pRevision) {
+	private void filterChanges(final Changes pChanges) {
+		if (globFilter.isAcceptAll()) {
+			return;
+		}
+		final Path output = getOutput();
+		final Predicate<String> selected = p -> globFilter.test(
+				output.relativize(Paths.get(p)).toString());
+		pChanges.getAdded().removeIf(selected.negate());
+		pChanges.getRemoved().removeIf(selected.negate());
+		pChanges.getModified().removeIf(selected.negate());
+		final Iterator<Map.Entry<String, String>> it =
+				pChanges.getRelocated().iterator();
+		while (it.hasNext()) {
+			final Map.Entry<String, String> relocation = it.next();
+			final boolean from = selected.test(relocation.getKey());
+			final boolean to = selected.test(relocation.getValue());
+			if (!from || !to) {
+				it.remove();
+				if (from) {
+					pChanges.getRemoved().add(relocation.getKey());
+				} else if (to) {
+					pChanges.getAdded().add(relocation.getValue());
+				}
+			}
+		}
+	}
+
+	private String toRelativePath(final String pPath) {
+		final Path path = Paths.get(pPath);
 		final Path output = getOutput();
-		if (!pPath.isAbsolute()) {
+		if (!path.isAbsolute()) {
 			throw new IllegalArgumentException(String.format(
-					"'%s' is not an absolute path", pPath));
-		} else if (!pPath.startsWith(output)) {
+					"'%s' is not an absolute path", path));
+		} else if (!path.startsWith(output)) {
 			throw new IllegalArgumentException(String.format(
-					"'%s' is not a file located in '%s'", pPath, output));
+					"'%s' is not a file located in '%s'", path, output));
 		}
-		final String relPath = output.relativize(pPath).toString();
-		return getModelFactory().createVCSFile(relPath, pRevision, this);
+		return output.relativize(path).toString();
 	}
 
 	private Revision createRevision() throws IOException {
@@ -389,50 +583,27 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	private RevisionRange createRevisionRange(final Changes pChanges)
 			throws IOException {
 		final Revision rev = createRevision();
-		final Map<Path, VCSFile> path2File = new HashMap<>();
-		rev.getFiles().forEach(f -> path2File.put(f.toPath(), f));
-		final List<FileChange> fileChanges = new ArrayList<>();
-		pChanges.getAdded().stream()
-				.map(Paths::get)
-				.map(a -> getModelFactory().createFileChange(
-						null,
-						path2File.computeIfAbsent(a, p ->
-								createFile(p, rev)),
-						this))
-				.forEach(fileChanges::add);
+		// File changes and files are created on demand. That is, the paths
+		// are the only per-change data allocated here.
+		final FileChangeList.Builder builder = new FileChangeList.Builder(
+				currentRevision, rev, this);
+		pChanges.getAdded().forEach(a -> builder.add(
+				null, toRelativePath(a)));
 		if (revisionIdx > 0) {
 			Validate.validateState(currentRevision != null);
-			pChanges.getRemoved().stream()
-					.map(Paths::get)
-					.map(r -> getModelFactory().createFileChange(
-							createFile(r, currentRevision),
-							null,
-							this))
-					.forEach(fileChanges::add);
-			pChanges.getModified().stream()
-					.map(Paths::get)
-					.map(m -> getModelFactory().createFileChange(
-							createFile(m, currentRevision),
-							path2File.computeIfAbsent(m, p ->
-									createFile(p, rev)),
-							this))
-					.forEach(fileChanges::add);
-			pChanges.getRelocated().stream()
-					.map(e -> new AbstractMap.SimpleEntry<>(
-							Paths.get(e.getKey()),
-							Paths.get(e.getValue())))
-					.map(e -> {
-						final Path old = e.getKey();
-						final Path nev = e.getValue();
-						return getModelFactory().createFileChange(
-								createFile(old, currentRevision),
-								path2File.computeIfAbsent(nev, p ->
-										createFile(p, rev)),
-								this);
-					})
-					.forEach(fileChanges::add);
+			pChanges.getRemoved().forEach(r -> builder.add(
+					toRelativePath(r), null));
+			pChanges.getModified().forEach(m -> {
+				final String path = toRelativePath(m);
+				builder.add(path, path);
+			});
+			pChanges.getRelocated().forEach(e -> builder.add(
+					toRelativePath(e.getKey()),
+					toRelativePath(e.getValue())));
 		}
+		final FileChangeList fileChanges = builder.build();
 
+		count(Counter.FILES_TOUCHED, fileChanges.size());
 		final Commit commit = createCommit(fileChanges);
 		return getModelFactory().createRevisionRange(ordinal++, rev,
 				currentRevision, Collections.singletonList(commit), this);
@@ -440,17 +611,58 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 
 	private Commit createCommit(final List<FileChange> pFileChanges)
 			throws IOException {
-		final Commit commit = createCommitImpl(revision, pFileChanges,
-				Collections.emptyList());
+		final Commit commit = measure(Phase.CREATE_COMMIT, () ->
+				createCommitImpl(revision, pFileChanges,
+						Collections.emptyList()));
 		return itEngine != null
 				? getModelFactory().createCommit(
 						commit.getId(), commit.getAuthor(),
 						commit.getMessage(), commit.getDateTime(),
 						commit.getParentIds(), commit.getFileChanges(),
-						itEngine.getIssuesFor(commit), commit.getVCSEngine())
+						measure(Phase.ISSUE_LOOKUP, () ->
+								itEngine.getIssuesFor(commit)),
+						commit.getVCSEngine())
 				: commit;
 	}
 
+	/**
+	 * A measurable operation.
+	 *
+	 * @param <T>
+	 *     	The type of the result of the operation.
+	 */
+	@FunctionalInterface
+	private interface Operation<T> {
+		T run() throws IOException;
+	}
+
+	/**
+	 * Runs the given operation and notifies the instrumentation listeners
+	 * about its duration. Does not measure anything if there are no
+	 * listeners.
+	 */
+	private <T> T measure(final Phase pPhase, final Operation<T> pOperation)
+			throws IOException {
+		if (listeners.isEmpty()) {
+			return pOperation.run();
+		}
+		final long start = System.nanoTime();
+		try {
+			return pOperation.run();
+		} finally {
+			final long nanos = System.nanoTime() - start;
+			listeners.forEach(l -> l.phaseCompleted(this, pPhase, nanos));
+		}
+	}
+
+	/**
+	 * Notifies the instrumentation listeners about the increment of the
+	 * given counter.
+	 */
+	private void count(final Counter pCounter, final long pDelta) {
+		listeners.forEach(l -> l.counterIncremented(this, pCounter, pDelta));
+	}
+
 	private String getPreviousRevision() {
 		Validate.validateState(revisionIdx >= 1,
 				"There is no previous revision available");
@@ -481,6 +693,65 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 		}
 	}
 
+	/**
+	 * Returns whether only a part of the files of a revision must be written
+	 * to {@link #getTarget()}, that is, whether {@link #getRoot()} is not
+	 * empty or {@link #getGlobFilter()} does not select all files.
+	 *
+	 * @return
+	 * 		{@code true} if a sparse checkout suffices, {@code false}
+	 * 		otherwise.
+	 */
+	protected boolean isSparse() {
+		return !root.isEmpty() || !globFilter.isAcceptAll();
+	}
+
+	/**
+	 * Returns whether the given file is located in {@link #getRoot()} and
+	 * selected by {@link #getGlobFilter()}.
+	 *
+	 * @param pPath
+	 * 		The path of the file relative to {@link #getTarget()}.
+	 * @return
+	 * 		{@code true} if {@code pPath} is selected, {@code false} otherwise.
+	 */
+	protected boolean isSelected(final String pPath) {
+		final String path = normalizePath(pPath);
+		final String relPath;
+		if (root.isEmpty() || path.equals(root)) {
+			relPath = root.isEmpty() ? path : "";
+		} else if (path.startsWith(root + "/")) {
+			relPath = path.substring(root.length() + 1);
+		} else {
+			return false;
+		}
+		return globFilter.test(relPath);
+	}
+
+	/**
+	 * Deletes the given file from {@link #getTarget()}. Deletes its parent
+	 * directories as well if they become empty.
+	 *
+	 * @param pPath
+	 * 		The path of the file relative to {@link #getTarget()}.
+	 * @throws IOException
+	 * 		If an error occurred while deleting the file.
+	 */
+	protected void deleteFromTarget(final String pPath) throws IOException {
+		Path path = target.resolve(pPath);
+		Files.deleteIfExists(path);
+		path = path.getParent();
+		while (path != null && !path.equals(target) && path.startsWith(target)) {
+			try (Stream<Path> entries = Files.list(path)) {
+				if (entries.findAny().isPresent()) {
+					break;
+				}
+			}
+			Files.delete(path);
+			path = path.getParent();
+		}
+	}
+
 	/////////////////////////// optional overrides ////////////////////////////
 
 	protected void initImpl() throws IOException {}
@@ -570,6 +841,29 @@ public abstract class AbstractVSCEngine implements VCSEngine {
 	protected abstract byte[] readAllBytesImpl(String path, String revision)
 			throws IOException;
 
+	/**
+	 * Returns the id of the blob (see {@link #getBlob(VCSFile)}) of the file
+	 * located at {@code path} in revision {@code revision}, if the VCS
+	 * provides such an id without reading the contents of the file. Files
+	 * with equal contents must have equal ids and the ids of files with
+	 * different contents must differ. The default implementation returns an
+	 * empty {@link Optional}.
+	 *
+	 * @param path
+	 * 		The (relative) path of the file.
+	 * @param revision
+	 * 		The file's revision.
+	 * @return
+	 * 		The id of the blob of the file or an empty {@link Optional} if
+	 * 		the VCS does not provide such an id.
+	 * @throws IOException
+	 * 		If an error occurred while reading the id.
+	 */
+	protected Optional<String> readBlobIdImpl(final String path,
+			final String revision) throws IOException {
+		return Optional.empty();
+	}
+
 	/**
 	 * @see #readLineInfo(VCSFile)
 	 */
@@ -1,48 +1,50 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map.Entry;
+import java.util.Set;
 
 /**
  * Stores all files (absolute paths without directories) that have been changed
- * between two revisions.
+ * between two revisions. The files are stored in insertion-ordered hash sets
+ * such that engines can look up and remove files in constant time (for
+ * instance, when reconciling renames).
  */
 public class Changes {
 
 	/**
 	 * Added files.
 	 */
-	private final List<String> added = new ArrayList<>();
+	private final Set<String> added = new LinkedHashSet<>();
 
 	/**
 	 * Removed files.
 	 */
-	private final List<String> removed = new ArrayList<>();
+	private final Set<String> removed = new LinkedHashSet<>();
 
 	/**
 	 * Modified files.
 	 */
-	private final List<String> modified = new ArrayList<>();
+	private final Set<String> modified = new LinkedHashSet<>();
 
 	/**
 	 * Relocated files (from -> to).
 	 */
-	private final List<Entry<String, String>> relocated = new ArrayList<>();
+	private final Set<Entry<String, String>> relocated = new LinkedHashSet<>();
 
-	public List<String> getAdded() {
+	public Set<String> getAdded() {
 		return added;
 	}
 
-	public List<String> getRemoved() {
+	public Set<String> getRemoved() {
 		return removed;
 	}
 
-	public List<String> getModified() {
+	public Set<String> getModified() {
 		return modified;
 	}
 
-	public List<Entry<String, String>> getRelocated() {
+	public Set<Entry<String, String>> getRelocated() {
 		return relocated;
 	}
 }
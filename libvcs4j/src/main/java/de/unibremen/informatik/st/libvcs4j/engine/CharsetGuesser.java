@@ -0,0 +1,229 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import com.ibm.icu.text.CharsetDetector;
+import com.ibm.icu.text.CharsetMatch;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Guesses the charset of a byte array. Since the vast majority of files is
+ * plain ASCII or UTF-8, the bytes are validated as UTF-8 first (ASCII is a
+ * subset of UTF-8). Only if the validation fails, ICU's
+ * {@link CharsetDetector} is applied to a bounded sample of the bytes. The
+ * results of the detector are cached by content hash such that files which
+ * did not change between two revisions are not analyzed again.
+ */
+class CharsetGuesser {
+
+	/**
+	 * The maximum number of bytes passed to {@link CharsetDetector}.
+	 */
+	private static final int SAMPLE_SIZE = 1 << 16;
+
+	/**
+	 * The maximum number of cached detection results.
+	 */
+	private static final int CACHE_SIZE = 1 << 12;
+
+	/**
+	 * Reads eight bytes at once.
+	 */
+	private static final VarHandle LONG_VIEW = MethodHandles
+			.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * The highest bit of each byte of a long.
+	 */
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	/**
+	 * The lowest bit of each byte of a long.
+	 */
+	private static final long LOW_BITS = 0x0101010101010101L;
+
+	/**
+	 * Maps the SHA-1 digest of a content to the charset detected by
+	 * {@link CharsetDetector}. Evicts the least recently used entry if the
+	 * cache exceeds {@link #CACHE_SIZE}.
+	 */
+	private final Map<ByteBuffer, Optional<Charset>> cache =
+			new LinkedHashMap<ByteBuffer, Optional<Charset>>(
+					16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						final Map.Entry<ByteBuffer, Optional<Charset>> e) {
+					return size() > CACHE_SIZE;
+				}
+			};
+
+	/**
+	 * Guesses the charset of the given bytes.
+	 *
+	 * @param pBytes
+	 * 		The bytes to guess the charset of.
+	 * @return
+	 * 		The guessed charset or an empty {@link Optional} if the charset
+	 * 		could not be guessed.
+	 * @throws NullPointerException
+	 * 		If {@code pBytes} is {@code null}.
+	 */
+	Optional<Charset> guess(final byte[] pBytes)
+			throws NullPointerException {
+		Validate.notNull(pBytes);
+		final int invalid = indexOfInvalidUTF8(pBytes);
+		if (invalid < 0) {
+			return Optional.of(StandardCharsets.UTF_8);
+		}
+
+		final ByteBuffer key = digest(pBytes);
+		synchronized (cache) {
+			final Optional<Charset> cached = cache.get(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		// Make sure the sample contains the bytes that are not UTF-8.
+		final int from = Math.max(0, Math.min(
+				invalid - SAMPLE_SIZE / 2, pBytes.length - SAMPLE_SIZE));
+		final int to = Math.min(pBytes.length, from + SAMPLE_SIZE);
+		final Optional<Charset> charset = detect(from == 0 && to == pBytes.length
+				? pBytes
+				: Arrays.copyOfRange(pBytes, from, to));
+		synchronized (cache) {
+			cache.put(key, charset);
+		}
+		return charset;
+	}
+
+	/**
+	 * Applies {@link CharsetDetector} to the given bytes.
+	 *
+	 * @param pBytes
+	 * 		The bytes to analyze.
+	 * @return
+	 * 		The detected charset.
+	 */
+	private Optional<Charset> detect(final byte[] pBytes) {
+		final CharsetDetector detector = new CharsetDetector();
+		detector.setText(pBytes);
+		final CharsetMatch match = detector.detect();
+		Charset charset;
+		try {
+			charset = Optional.ofNullable(match)
+					.map(m -> Charset.forName(m.getName()))
+					.orElse(null);
+		} catch (final Exception e) {
+			charset = null;
+		}
+		return Optional.ofNullable(charset);
+	}
+
+	/**
+	 * Computes the SHA-1 digest of the given bytes.
+	 *
+	 * @param pBytes
+	 * 		The bytes to compute the digest of.
+	 * @return
+	 * 		The digest of {@code pBytes}.
+	 */
+	private ByteBuffer digest(final byte[] pBytes) {
+		try {
+			return ByteBuffer.wrap(
+					MessageDigest.getInstance("SHA-1").digest(pBytes));
+		} catch (final NoSuchAlgorithmException e) {
+			// Every implementation of the Java platform supports SHA-1.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Validates the given bytes as UTF-8 (RFC 3629) and returns the index of
+	 * the first byte that is not part of a well-formed sequence. NUL bytes
+	 * are considered invalid as they indicate a binary file or a UTF-16/32
+	 * encoding. Runs of ASCII characters are checked eight bytes at once.
+	 *
+	 * @param pBytes
+	 * 		The bytes to validate.
+	 * @return
+	 * 		The index of the first invalid byte or {@code -1} if
+	 * 		{@code pBytes} is valid UTF-8 (without NUL bytes).
+	 */
+	static int indexOfInvalidUTF8(final byte[] pBytes) {
+		final int length = pBytes.length;
+		int i = 0;
+		while (i < length) {
+			// Skip ASCII characters without NUL bytes.
+			while (i + Long.BYTES <= length) {
+				final long word = (long) LONG_VIEW.get(pBytes, i);
+				if ((word & HIGH_BITS) != 0 ||
+						((word - LOW_BITS) & ~word & HIGH_BITS) != 0) {
+					break;
+				}
+				i += Long.BYTES;
+			}
+			if (i >= length) {
+				break;
+			}
+
+			final int b = pBytes[i] & 0xFF;
+			if (b == 0) {
+				return i;
+			} else if (b < 0x80) {
+				i++;
+				continue;
+			}
+			// Number of continuation bytes and valid range of the first one.
+			final int numCont;
+			int min = 0x80;
+			int max = 0xBF;
+			if (b >= 0xC2 && b <= 0xDF) {
+				numCont = 1;
+			} else if (b == 0xE0) {
+				numCont = 2;
+				min = 0xA0;
+			} else if (b == 0xED) {
+				numCont = 2;
+				max = 0x9F;
+			} else if (b >= 0xE1 && b <= 0xEF) {
+				numCont = 2;
+			} else if (b == 0xF0) {
+				numCont = 3;
+				min = 0x90;
+			} else if (b == 0xF4) {
+				numCont = 3;
+				max = 0x8F;
+			} else if (b >= 0xF1 && b <= 0xF3) {
+				numCont = 3;
+			} else {
+				return i;
+			}
+			if (i + numCont >= length) {
+				return i;
+			}
+			int c = pBytes[i + 1] & 0xFF;
+			if (c < min || c > max) {
+				return i;
+			}
+			for (int k = 2; k <= numCont; k++) {
+				c = pBytes[i + k] & 0xFF;
+				if (c < 0x80 || c > 0xBF) {
+					return i;
+				}
+			}
+			i += numCont + 1;
+		}
+		return -1;
+	}
+}
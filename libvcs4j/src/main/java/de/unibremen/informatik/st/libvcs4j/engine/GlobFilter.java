@@ -0,0 +1,194 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Selects files by include and exclude globs (see
+ * {@link java.nio.file.FileSystem#getPathMatcher(String)} for the syntax).
+ * Globs are applied to paths relative to {@link AbstractVSCEngine#getOutput()}.
+ * A glob matching a directory matches all files located in this directory
+ * (recursively). A file is selected if no exclude glob matches the file, and
+ * if there are no include globs or at least one include glob matches the
+ * file. That is, excludes take precedence over includes.
+ *
+ * Instances of this class are immutable.
+ */
+public class GlobFilter implements Predicate<String> {
+
+	/**
+	 * Selects all files.
+	 */
+	public static final GlobFilter ACCEPT_ALL = new GlobFilter(
+			Collections.emptyList(), Collections.emptyList());
+
+	/**
+	 * The include globs.
+	 */
+	private final List<String> includes;
+
+	/**
+	 * The exclude globs.
+	 */
+	private final List<String> excludes;
+
+	/**
+	 * The matchers of {@link #includes}.
+	 */
+	private final List<PathMatcher> includeMatchers;
+
+	/**
+	 * The matchers of {@link #excludes}.
+	 */
+	private final List<PathMatcher> excludeMatchers;
+
+	/**
+	 * Creates a filter with given include and exclude globs.
+	 *
+	 * @param pIncludes
+	 * 		The include globs. An empty collection includes all files.
+	 * @param pExcludes
+	 * 		The exclude globs.
+	 * @throws NullPointerException
+	 * 		If any of the given collections is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given collections contains {@code null}, or if any
+	 * 		of the given globs is empty or invalid.
+	 */
+	public GlobFilter(final Collection<String> pIncludes,
+			final Collection<String> pExcludes) throws NullPointerException,
+			IllegalArgumentException {
+		includes = Collections.unmodifiableList(
+				new ArrayList<>(Validate.noNullElements(pIncludes)));
+		excludes = Collections.unmodifiableList(
+				new ArrayList<>(Validate.noNullElements(pExcludes)));
+		includeMatchers = compile(includes);
+		excludeMatchers = compile(excludes);
+	}
+
+	/**
+	 * Returns the include globs.
+	 *
+	 * @return
+	 * 		The include globs.
+	 */
+	public List<String> getIncludes() {
+		return includes;
+	}
+
+	/**
+	 * Returns the exclude globs.
+	 *
+	 * @return
+	 * 		The exclude globs.
+	 */
+	public List<String> getExcludes() {
+		return excludes;
+	}
+
+	/**
+	 * Returns whether this filter selects all files.
+	 *
+	 * @return
+	 * 		{@code true} if this filter has neither include nor exclude globs,
+	 * 		{@code false} otherwise.
+	 */
+	public boolean isAcceptAll() {
+		return includes.isEmpty() && excludes.isEmpty();
+	}
+
+	/**
+	 * Returns whether the given file is selected by this filter.
+	 *
+	 * @param pPath
+	 * 		The path of the file relative to the output directory.
+	 * @return
+	 * 		{@code true} if {@code pPath} is selected, {@code false} otherwise.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 */
+	@Override
+	public boolean test(final String pPath) throws NullPointerException {
+		Validate.notNull(pPath);
+		if (isAcceptAll()) {
+			return true;
+		}
+		final Path path = Paths.get(pPath);
+		return !matches(excludeMatchers, path) && (includeMatchers.isEmpty()
+				|| matches(includeMatchers, path));
+	}
+
+	/**
+	 * Returns whether all files located in the given directory are excluded
+	 * by this filter. Allows to skip a directory without visiting its files.
+	 *
+	 * @param pPath
+	 * 		The path of the directory relative to the output directory.
+	 * @return
+	 * 		{@code true} if all files located in {@code pPath} are excluded,
+	 * 		{@code false} otherwise.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 */
+	public boolean isExcludedDirectory(final String pPath)
+			throws NullPointerException {
+		Validate.notNull(pPath);
+		return !excludeMatchers.isEmpty()
+				&& matches(excludeMatchers, Paths.get(pPath));
+	}
+
+	/**
+	 * Returns whether any of the given matchers matches {@code pPath} or one
+	 * of its parent directories.
+	 *
+	 * @param pMatchers
+	 * 		The matchers to apply.
+	 * @param pPath
+	 * 		The path to match.
+	 * @return
+	 * 		{@code true} if {@code pPath} or one of its parents is matched,
+	 * 		{@code false} otherwise.
+	 */
+	private static boolean matches(final List<PathMatcher> pMatchers,
+			final Path pPath) {
+		for (Path path = pPath; path != null && !path.toString().isEmpty();
+				path = path.getParent()) {
+			for (final PathMatcher matcher : pMatchers) {
+				if (matcher.matches(path)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles the given globs.
+	 *
+	 * @param pGlobs
+	 * 		The globs to compile.
+	 * @return
+	 * 		The compiled globs.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given globs is invalid.
+	 */
+	private static List<PathMatcher> compile(final List<String> pGlobs)
+			throws IllegalArgumentException {
+		final List<PathMatcher> matchers = new ArrayList<>(pGlobs.size());
+		for (final String glob : pGlobs) {
+			Validate.notEmpty(glob, "Empty glob");
+			matchers.add(FileSystems.getDefault()
+					.getPathMatcher("glob:" + glob));
+		}
+		return matchers;
+	}
+}
@@ -0,0 +1,208 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A directory storing local mirrors of remote repositories. Engines
+ * supporting mirrors clone a repository into this directory the first time
+ * it is processed and fetch incrementally afterwards. The working copies of
+ * the engines are then created from the mirror (for instance, using
+ * alternates or hardlinks) rather than the remote repository. Mirrors are
+ * keyed by the URL of their repository (see {@link #resolve(String, String)})
+ * and may be shared by multiple engines, threads, and processes (see
+ * {@link #lock(Path)}).
+ */
+public class MirrorCache {
+
+	/**
+	 * Guards the mirrors within this JVM ({@link FileLock} is held on behalf
+	 * of the whole JVM). Maps the lock file of a mirror to its lock.
+	 */
+	private static final Map<Path, ReentrantLock> LOCKS =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * The lock of a mirror (see {@link #lock(Path)}). Is meant to be held by a
+	 * try-with-resources statement. As the lock is usually not referenced in
+	 * the body of the statement, callers suppress the corresponding lint
+	 * warning with {@code @SuppressWarnings("try")}.
+	 */
+	public static final class Lock implements Closeable {
+
+		/**
+		 * The lock guarding the mirror within this JVM.
+		 */
+		private final ReentrantLock lock;
+
+		/**
+		 * The channel of the lock file.
+		 */
+		private final FileChannel channel;
+
+		/**
+		 * The lock guarding the mirror against other processes.
+		 */
+		private final FileLock fileLock;
+
+		private Lock(final ReentrantLock pLock, final FileChannel pChannel,
+				final FileLock pFileLock) {
+			lock = pLock;
+			channel = pChannel;
+			fileLock = pFileLock;
+		}
+
+		/**
+		 * Releases this lock.
+		 *
+		 * @throws IOException
+		 * 		If an error occurred while releasing the lock file.
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				fileLock.release();
+				channel.close();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * The directory storing the mirrors.
+	 */
+	private final Path directory;
+
+	/**
+	 * Creates a cache that stores its mirrors in the given directory. The
+	 * directory is created on demand.
+	 *
+	 * @param pDirectory
+	 * 		The directory storing the mirrors.
+	 * @throws NullPointerException
+	 * 		If {@code pDirectory} is {@code null}.
+	 */
+	public MirrorCache(final Path pDirectory) throws NullPointerException {
+		directory = Validate.notNull(pDirectory).toAbsolutePath();
+	}
+
+	/**
+	 * Returns the directory storing the mirrors.
+	 *
+	 * @return
+	 * 		The directory storing the mirrors.
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Returns the path of the mirror of the given repository. The mirror
+	 * does not necessarily exist.
+	 *
+	 * @param pKind
+	 * 		The kind of the mirror (for instance, "git"). Separates the mirrors
+	 * 		of different VCS.
+	 * @param pRepository
+	 * 		The URL of the repository.
+	 * @return
+	 * 		The path of the mirror of {@code pRepository}.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If any of the given arguments is empty.
+	 */
+	public Path resolve(final String pKind, final String pRepository)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notEmpty(pKind);
+		Validate.notEmpty(pRepository);
+		return directory.resolve(pKind).resolve(key(pRepository));
+	}
+
+	/**
+	 * Locks the given mirror such that it is not modified by other threads
+	 * or processes. Blocks until the lock is available. Creates the parent
+	 * directory of the mirror if necessary.
+	 *
+	 * @param pMirror
+	 * 		The mirror to lock (see {@link #resolve(String, String)}).
+	 * @return
+	 * 		Releases the lock when closed.
+	 * @throws NullPointerException
+	 * 		If {@code pMirror} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while acquiring the lock.
+	 */
+	public Lock lock(final Path pMirror)
+			throws NullPointerException, IOException {
+		Validate.notNull(pMirror);
+		final Path lockFile = pMirror.resolveSibling(
+				pMirror.getFileName() + ".lock");
+		Files.createDirectories(lockFile.getParent());
+		final ReentrantLock lock = LOCKS.computeIfAbsent(
+				lockFile, __ -> new ReentrantLock());
+		lock.lock();
+		try {
+			final FileChannel channel = FileChannel.open(lockFile,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			try {
+				return new Lock(lock, channel, channel.lock());
+			} catch (final IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		} catch (final IOException | RuntimeException e) {
+			lock.unlock();
+			throw e;
+		}
+	}
+
+	/**
+	 * Computes the key of the given repository. The key consists of the
+	 * (sanitized) last segment of {@code pRepository}, which makes the
+	 * mirrors recognizable, and a prefix of the SHA-1 digest of
+	 * {@code pRepository}, which makes the key unique.
+	 *
+	 * @param pRepository
+	 * 		The URL of the repository.
+	 * @return
+	 * 		The key of {@code pRepository}.
+	 */
+	static String key(final String pRepository) {
+		final String url = pRepository.replaceAll("[/\\\\]+$", "");
+		final String name = url
+				.substring(Math.max(url.lastIndexOf('/'),
+						url.lastIndexOf('\\')) + 1)
+				.replaceAll("[^A-Za-z0-9._-]", "_");
+		final byte[] digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1").digest(
+					pRepository.getBytes(StandardCharsets.UTF_8));
+		} catch (final NoSuchAlgorithmException e) {
+			// Every implementation of the Java platform supports SHA-1.
+			throw new IllegalStateException(e);
+		}
+		final StringBuilder key = new StringBuilder(name);
+		if (key.length() > 0) {
+			key.append('-');
+		}
+		for (int i = 0; i < 8; i++) {
+			key.append(String.format("%02x", digest[i]));
+		}
+		return key.toString();
+	}
+}
@@ -0,0 +1,151 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the absolute paths of files to their canonical form such that aliases
+ * (paths referring to the same file through symbolic links to directories or,
+ * on case-insensitive file systems, through a different case) map to the
+ * same string. Unlike {@link File#getCanonicalPath()}, which resolves each
+ * path on its own, the file system is accessed once per directory rather
+ * than once per file:
+ *
+ *  - The canonical path of a directory is resolved once and cached.
+ *
+ *  - On case-insensitive file systems, the names of the files of a directory
+ *    are listed once and cached. The canonical name of a file is the name
+ *    stored on disk. Files that do not exist keep their name.
+ *
+ * Symbolic links to files are not resolved, as a VCS treats them as files of
+ * their own. Since the file system changes with each checkout, an instance
+ * of this class must not be used for more than one revision.
+ */
+class PathCanonicalizer {
+
+	/**
+	 * Whether the underlying file system is case-insensitive.
+	 */
+	private final boolean caseInsensitive;
+
+	/**
+	 * Caches the canonical paths of directories (path -> canonical path).
+	 */
+	private final Map<String, String> directories = new HashMap<>();
+
+	/**
+	 * Caches the names of the files of canonical directories (canonical
+	 * directory -> lower case name -> name). Used on case-insensitive file
+	 * systems only.
+	 */
+	private final Map<String, Map<String, String>> names = new HashMap<>();
+
+	/**
+	 * Creates a canonicalizer.
+	 *
+	 * @param pCaseInsensitive
+	 * 		Whether the underlying file system is case-insensitive (see
+	 * 		{@link #isCaseInsensitive(Path)}).
+	 */
+	PathCanonicalizer(final boolean pCaseInsensitive) {
+		caseInsensitive = pCaseInsensitive;
+	}
+
+	/**
+	 * Returns the canonical form of the given absolute path.
+	 *
+	 * @param pPath
+	 * 		The absolute path of a file.
+	 * @return
+	 * 		The canonical form of {@code pPath}.
+	 * @throws NullPointerException
+	 * 		If {@code pPath} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while resolving the parent directory of
+	 * 		{@code pPath}.
+	 */
+	String canonicalize(final String pPath)
+			throws NullPointerException, IOException {
+		Validate.notNull(pPath);
+		final Path path = Paths.get(pPath);
+		final Path parent = path.getParent();
+		if (parent == null || path.getFileName() == null) {
+			return new File(pPath).getCanonicalPath();
+		}
+		final String dir = canonicalizeDirectory(parent.toString());
+		final String name = path.getFileName().toString();
+		return Paths.get(dir, caseInsensitive
+				? listNames(dir).getOrDefault(
+						name.toLowerCase(Locale.ROOT), name)
+				: name).toString();
+	}
+
+	private String canonicalizeDirectory(final String pDir)
+			throws IOException {
+		String canonical = directories.get(pDir);
+		if (canonical == null) {
+			canonical = new File(pDir).getCanonicalPath();
+			directories.put(pDir, canonical);
+		}
+		return canonical;
+	}
+
+	private Map<String, String> listNames(final String pCanonicalDir) {
+		return names.computeIfAbsent(pCanonicalDir, dir -> {
+			final String[] files = new File(dir).list();
+			if (files == null) {
+				return Collections.emptyMap();
+			}
+			final Map<String, String> result = new HashMap<>();
+			for (final String file : files) {
+				result.put(file.toLowerCase(Locale.ROOT), file);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Probes whether the file system storing the given directory is
+	 * case-insensitive by checking whether the directory is reachable
+	 * through its name in a different case.
+	 *
+	 * @param pDir
+	 * 		An existing directory whose name contains at least one letter.
+	 * @return
+	 * 		{@code true} if the file system is case-insensitive, {@code false}
+	 * 		if it is case-sensitive or if the case-sensitivity could not be
+	 * 		determined.
+	 */
+	static boolean isCaseInsensitive(final Path pDir) {
+		final Path name = pDir.toAbsolutePath().getFileName();
+		if (name == null) {
+			return false;
+		}
+		final String original = name.toString();
+		final StringBuilder swapped = new StringBuilder(original.length());
+		for (final char c : original.toCharArray()) {
+			swapped.append(Character.isUpperCase(c)
+					? Character.toLowerCase(c)
+					: Character.toUpperCase(c));
+		}
+		if (swapped.toString().equals(original)) {
+			return false;
+		}
+		final Path probe = pDir.toAbsolutePath()
+				.resolveSibling(swapped.toString());
+		try {
+			return Files.exists(probe) && Files.isSameFile(probe, pDir);
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
 import de.unibremen.informatik.st.libvcs4j.Validate;
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
@@ -122,19 +123,21 @@ public class SingleEngine extends AbstractVSCEngine {
 		final File file = pFile.toFile();
 		Validate.isTrue(file.isFile(),
 				"'%s' is not a regular file", file);
-		final List<LineInfo> lineInfo = new ArrayList<>();
+		final LineInfoTable.Builder lineInfo =
+				new LineInfoTable.Builder(pFile, this);
 		final List<String> lines = pFile.readLinesWithEOL();
-		for (int i = 0; i < lines.size(); i++) {
+		if (!lines.isEmpty()) {
 			final LocalDateTime dt = LocalDateTime.ofInstant(
 					Files.getLastModifiedTime(pFile.toPath()).toInstant(),
 					ZoneId.systemDefault());
-			final LineInfo info = getModelFactory().createLineInfo(
-					DEFAULT_REVISION, DEFAULT_AUTHOR, DEFAULT_MESSAGE, dt,
-					i + 1, lines.get(i).replaceAll("\r\n$|\n$", ""), pFile,
-					this);
-			lineInfo.add(info);
+			final int commit = lineInfo.commit(DEFAULT_REVISION,
+					DEFAULT_AUTHOR, DEFAULT_MESSAGE, dt);
+			for (int i = 0; i < lines.size(); i++) {
+				lineInfo.add(commit, i + 1,
+						lines.get(i).replaceAll("\r\n$|\n$", ""));
+			}
 		}
-		return lineInfo;
+		return getModelFactory().createLineInfoTable(lineInfo.build());
 	}
 
 	@Override
@@ -0,0 +1,585 @@
+package de.unibremen.informatik.st.libvcs4j.git;
+
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.LogCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.NoHeadException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An index of the first-parent chain of a branch that is limited to the
+ * commits touching a root directory (that is, the chain enumerated by
+ * {@link GitEngine} when walking 'git log -- root' and following first
+ * parents). Stores the position, author time, and id of each commit in
+ * primitive arrays such that date windows, revision windows (by id prefix),
+ * and index windows are selected by binary search rather than by walking the
+ * log. The index is persisted (see {@link #save(Path)} and
+ * {@link #load(Path, String)}) and updated incrementally when the branch
+ * advances (see {@link #update(Git, ObjectId)}).
+ *
+ * Positions are origin 0 and ordered from the oldest to the newest commit of
+ * the chain.
+ */
+class CommitGraphIndex {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log =
+			LoggerFactory.getLogger(CommitGraphIndex.class);
+
+	/**
+	 * Identifies the file format of a persisted index.
+	 */
+	private static final int MAGIC = 0x4c564347;
+
+	/**
+	 * The version of the file format of a persisted index.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes of a raw commit id.
+	 */
+	private static final int ID_LENGTH = Constants.OBJECT_ID_LENGTH;
+
+	/**
+	 * The root directory the chain is limited to.
+	 */
+	private final String root;
+
+	/**
+	 * The commit (usually 'HEAD') the chain has been computed for.
+	 */
+	private final ObjectId head;
+
+	/**
+	 * The number of commits of the chain.
+	 */
+	private final int size;
+
+	/**
+	 * The raw ids of the commits. The id of position {@code i} is stored at
+	 * {@code ids[i * ID_LENGTH] ... ids[(i + 1) * ID_LENGTH - 1]}.
+	 */
+	private final byte[] ids;
+
+	/**
+	 * The author times (in milliseconds) of the commits.
+	 */
+	private final long[] times;
+
+	/**
+	 * {@code suffixMin[i]} is the minimum of {@code times[i] ... times[size -
+	 * 1]}. As author times are not necessarily monotonic, this array (which
+	 * is non-decreasing) is searched instead of {@link #times}.
+	 */
+	private final long[] suffixMin;
+
+	/**
+	 * The positions of the commits sorted by their ids.
+	 */
+	private final int[] order;
+
+	private CommitGraphIndex(final String pRoot, final ObjectId pHead,
+			final int pSize, final byte[] pIds, final long[] pTimes,
+			final int[] pOrder) {
+		root = pRoot;
+		head = pHead;
+		size = pSize;
+		ids = pIds;
+		times = pTimes;
+		order = pOrder;
+		suffixMin = new long[size];
+		long min = Long.MAX_VALUE;
+		for (int i = size - 1; i >= 0; i--) {
+			min = Math.min(min, times[i]);
+			suffixMin[i] = min;
+		}
+	}
+
+	/**
+	 * Creates the index of the chain starting at {@code pHead}.
+	 *
+	 * @param pGit
+	 * 		The repository to read the commits from.
+	 * @param pRoot
+	 * 		The root directory the chain is limited to. An empty string
+	 * 		denotes the root of the repository.
+	 * @param pHead
+	 * 		The commit to compute the chain for.
+	 * @return
+	 * 		The index of the chain.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the commits.
+	 */
+	static CommitGraphIndex build(final Git pGit, final String pRoot,
+			final ObjectId pHead) throws NullPointerException, IOException {
+		Validate.notNull(pGit);
+		Validate.notNull(pRoot);
+		Validate.notNull(pHead);
+		final List<RevCommit> chain = walkChain(pGit, pRoot, null, pHead);
+		final int size = chain.size();
+		final byte[] ids = new byte[size * ID_LENGTH];
+		final long[] times = new long[size];
+		for (int i = 0; i < size; i++) {
+			// `chain` is ordered from the newest to the oldest commit.
+			final RevCommit commit = chain.get(size - 1 - i);
+			commit.copyRawTo(ids, i * ID_LENGTH);
+			times[i] = commit.getAuthorIdent().getWhen().getTime();
+		}
+		final Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> compareIds(ids, a, ids, b));
+		log.debug("Indexed {} commits of '{}'", size, pRoot);
+		return new CommitGraphIndex(pRoot, pHead.copy(), size, ids, times,
+				Arrays.stream(order).mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Returns the index of the chain starting at {@code pHead}. If
+	 * {@code pHead} is a descendant of {@link #getHead()} and the chain of
+	 * {@code pHead} extends the chain of this index, only the new commits
+	 * are read and appended. Otherwise (for instance, if the branch has been
+	 * rewritten), the index is rebuilt from scratch.
+	 *
+	 * @param pGit
+	 * 		The repository to read the commits from.
+	 * @param pHead
+	 * 		The commit to compute the chain for.
+	 * @return
+	 * 		This index if {@code pHead} equals {@link #getHead()}, the updated
+	 * 		index otherwise.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while reading the commits.
+	 */
+	CommitGraphIndex update(final Git pGit, final ObjectId pHead)
+			throws NullPointerException, IOException {
+		Validate.notNull(pGit);
+		Validate.notNull(pHead);
+		if (head.equals(pHead)) {
+			return this;
+		}
+		final List<RevCommit> chain;
+		try (RevWalk walk = new RevWalk(pGit.getRepository())) {
+			if (!walk.isMergedInto(walk.parseCommit(head),
+					walk.parseCommit(pHead))) {
+				log.info("{} is not an ancestor of {}, rebuilding index",
+						head.name(), pHead.name());
+				return build(pGit, root, pHead);
+			}
+			chain = walkChain(pGit, root, head, pHead);
+		} catch (final IOException e) {
+			log.info("Unable to update index, rebuilding", e);
+			return build(pGit, root, pHead);
+		}
+		if (chain.isEmpty()) {
+			return new CommitGraphIndex(root, pHead.copy(), size, ids, times,
+					order);
+		}
+		final RevCommit oldest = chain.get(chain.size() - 1);
+		if (size == 0 || oldest.getParentCount() == 0 ||
+				!oldest.getParent(0).equals(getObjectId(size - 1))) {
+			log.info("Chain of {} does not extend chain of {}, rebuilding " +
+					"index", pHead.name(), head.name());
+			return build(pGit, root, pHead);
+		}
+
+		final int n = size + chain.size();
+		final byte[] newIds = Arrays.copyOf(ids, n * ID_LENGTH);
+		final long[] newTimes = Arrays.copyOf(times, n);
+		final Integer[] added = new Integer[chain.size()];
+		for (int i = size; i < n; i++) {
+			final RevCommit commit = chain.get(n - 1 - i);
+			commit.copyRawTo(newIds, i * ID_LENGTH);
+			newTimes[i] = commit.getAuthorIdent().getWhen().getTime();
+			added[i - size] = i;
+		}
+		Arrays.sort(added, (a, b) -> compareIds(newIds, a, newIds, b));
+
+		// Merge the (sorted) positions of the new commits into `order`.
+		final int[] newOrder = new int[n];
+		int i = 0, j = 0, k = 0;
+		while (i < size && j < added.length) {
+			newOrder[k++] = compareIds(newIds, order[i], newIds, added[j]) < 0
+					? order[i++]
+					: added[j++];
+		}
+		while (i < size) {
+			newOrder[k++] = order[i++];
+		}
+		while (j < added.length) {
+			newOrder[k++] = added[j++];
+		}
+		log.debug("Appended {} commits to index of '{}'", chain.size(), root);
+		return new CommitGraphIndex(root, pHead.copy(), n, newIds, newTimes,
+				newOrder);
+	}
+
+	/**
+	 * Walks 'git log [pSince..]pHead -- root' and follows the first parent
+	 * of each commit, starting with the first commit returned by the log.
+	 * Skips commits of concurrent branches.
+	 *
+	 * @return
+	 * 		The commits of the chain ordered from the newest to the oldest
+	 * 		commit.
+	 */
+	private static List<RevCommit> walkChain(final Git pGit,
+			final String pRoot, final ObjectId pSince, final ObjectId pHead)
+			throws IOException {
+		final List<RevCommit> chain = new ArrayList<>();
+		try {
+			final LogCommand logCommand = pGit.log();
+			if (pSince == null) {
+				logCommand.add(pHead);
+			} else {
+				logCommand.addRange(pSince, pHead);
+			}
+			if (!pRoot.isEmpty()) {
+				logCommand.addPath(pRoot);
+			}
+			final Iterator<RevCommit> it = logCommand.call().iterator();
+			RevCommit next = null;
+			while (it.hasNext()) {
+				final RevCommit commit = it.next();
+				if (next != null && commit != next) {
+					continue;
+				} else if (!chain.isEmpty() && next == null) {
+					break;
+				}
+				chain.add(commit);
+				next = commit.getParentCount() > 0
+						? commit.getParent(0)
+						: null;
+			}
+		} catch (final NoHeadException e) {
+			return Collections.emptyList();
+		} catch (final GitAPIException e) {
+			throw new IOException(e);
+		}
+		return chain;
+	}
+
+	/**
+	 * Reads the index persisted in the given file.
+	 *
+	 * @param pFile
+	 * 		The file to read.
+	 * @param pRoot
+	 * 		The expected root directory of the index.
+	 * @return
+	 * 		The persisted index or an empty optional if {@code pFile} does not
+	 * 		exist, is corrupt, or has been created for a different root
+	 * 		directory.
+	 * @throws NullPointerException
+	 * 		If any of the given arguments is {@code null}.
+	 */
+	static Optional<CommitGraphIndex> load(final Path pFile,
+			final String pRoot) throws NullPointerException {
+		Validate.notNull(pFile);
+		Validate.notNull(pRoot);
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(pFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+					!in.readUTF().equals(pRoot)) {
+				log.info("Ignoring incompatible index '{}'", pFile);
+				return Optional.empty();
+			}
+			final byte[] rawHead = new byte[ID_LENGTH];
+			in.readFully(rawHead);
+			final int size = in.readInt();
+			final byte[] ids = new byte[size * ID_LENGTH];
+			in.readFully(ids);
+			final long[] times = new long[size];
+			for (int i = 0; i < size; i++) {
+				times[i] = in.readLong();
+			}
+			final int[] order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = in.readInt();
+			}
+			return Optional.of(new CommitGraphIndex(pRoot,
+					ObjectId.fromRaw(rawHead), size, ids, times, order));
+		} catch (final NoSuchFileException e) {
+			return Optional.empty();
+		} catch (final IOException | RuntimeException e) {
+			log.info("Ignoring corrupt index '{}'", pFile, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Persists this index in the given file. The file is replaced
+	 * atomically such that concurrent readers (see
+	 * {@link #load(Path, String)}) never observe a partially written index.
+	 *
+	 * @param pFile
+	 * 		The file to write.
+	 * @throws NullPointerException
+	 * 		If {@code pFile} is {@code null}.
+	 * @throws IOException
+	 * 		If an error occurred while writing {@code pFile}.
+	 */
+	void save(final Path pFile) throws NullPointerException, IOException {
+		Validate.notNull(pFile);
+		Files.createDirectories(pFile.toAbsolutePath().getParent());
+		final Path tmp = Files.createTempFile(
+				pFile.toAbsolutePath().getParent(),
+				pFile.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(root);
+				final byte[] rawHead = new byte[ID_LENGTH];
+				head.copyRawTo(rawHead, 0);
+				out.write(rawHead);
+				out.writeInt(size);
+				out.write(ids, 0, size * ID_LENGTH);
+				for (int i = 0; i < size; i++) {
+					out.writeLong(times[i]);
+				}
+				for (int i = 0; i < size; i++) {
+					out.writeInt(order[i]);
+				}
+			}
+			Files.move(tmp, pFile, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Returns the commit the chain of this index has been computed for.
+	 *
+	 * @return
+	 * 		The commit the chain of this index has been computed for.
+	 */
+	ObjectId getHead() {
+		return head;
+	}
+
+	/**
+	 * Returns the number of commits of the chain.
+	 *
+	 * @return
+	 * 		The number of commits of the chain.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the id of the commit at the given position.
+	 *
+	 * @param pPosition
+	 * 		The position of the commit.
+	 * @return
+	 * 		The id of the commit at {@code pPosition}.
+	 * @throws IndexOutOfBoundsException
+	 * 		If {@code pPosition} is out of range.
+	 */
+	String getId(final int pPosition) throws IndexOutOfBoundsException {
+		return getObjectId(pPosition).name();
+	}
+
+	/**
+	 * Returns the ids of the commits from {@code pFrom} (inclusive) to
+	 * {@code pTo} (exclusive). Only the ids of the returned commits are
+	 * converted to strings.
+	 *
+	 * @param pFrom
+	 * 		The first position (inclusive).
+	 * @param pTo
+	 * 		The last position (exclusive).
+	 * @return
+	 * 		The ids of the commits ordered from the oldest to the newest
+	 * 		commit.
+	 * @throws IndexOutOfBoundsException
+	 * 		If the given positions are out of range.
+	 */
+	List<String> getIds(final int pFrom, final int pTo)
+			throws IndexOutOfBoundsException {
+		if (pFrom < 0 || pTo > size || pFrom > pTo) {
+			throw new IndexOutOfBoundsException(String.format(
+					"[%d, %d) is out of range [0, %d)", pFrom, pTo, size));
+		}
+		final List<String> result = new ArrayList<>(pTo - pFrom);
+		for (int i = pFrom; i < pTo; i++) {
+			result.add(getId(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the position of the newest commit whose author time is less
+	 * than or equal to the given time.
+	 *
+	 * @param pTime
+	 * 		The time in milliseconds.
+	 * @return
+	 * 		The position of the newest commit with an author time less than or
+	 * 		equal to {@code pTime}, {@code -1} if there is no such commit.
+	 */
+	int findLatest(final long pTime) {
+		// `suffixMin` is non-decreasing. Search for the last position whose
+		// suffix contains a commit with an author time <= pTime.
+		int low = 0, high = size - 1, result = -1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			if (suffixMin[mid] <= pTime) {
+				result = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the position of the newest commit that is located at or before
+	 * {@code pPosition} and whose author time is less than or equal to the
+	 * given time. The number of visited commits is bounded by the distance
+	 * between the two positions, that is, the size of the selected window.
+	 *
+	 * @param pTime
+	 * 		The time in milliseconds.
+	 * @param pPosition
+	 * 		The position to start the search at.
+	 * @return
+	 * 		The position of the found commit, {@code -1} if there is no such
+	 * 		commit.
+	 */
+	int findLatest(final long pTime, final int pPosition) {
+		if (size == 0 || suffixMin[0] > pTime) {
+			return -1;
+		}
+		for (int i = Math.min(pPosition, size - 1); i >= 0; i--) {
+			if (times[i] <= pTime) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the newest commit that is located at or before
+	 * {@code pPosition} and whose id starts with the given prefix.
+	 *
+	 * @param pPrefix
+	 * 		The (hexadecimal) prefix of the id to search for.
+	 * @param pPosition
+	 * 		The position of the newest commit to consider.
+	 * @return
+	 * 		The position of the found commit, {@code -1} if there is no such
+	 * 		commit or if {@code pPrefix} is not a hexadecimal string.
+	 * @throws NullPointerException
+	 * 		If {@code pPrefix} is {@code null}.
+	 */
+	int find(final String pPrefix, final int pPosition)
+			throws NullPointerException {
+		Validate.notNull(pPrefix);
+		if (pPrefix.isEmpty() || pPrefix.length() > ID_LENGTH * 2) {
+			return -1;
+		}
+		final byte[] nibbles = new byte[pPrefix.length()];
+		for (int i = 0; i < nibbles.length; i++) {
+			final int digit = Character.digit(pPrefix.charAt(i), 16);
+			if (digit < 0) {
+				return -1;
+			}
+			nibbles[i] = (byte) digit;
+		}
+		// Find the first id (in `order`) that is not less than the prefix.
+		int low = 0, high = size;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (comparePrefix(order[mid], nibbles) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		int result = -1;
+		for (int i = low; i < size && comparePrefix(order[i], nibbles) == 0;
+				i++) {
+			if (order[i] <= pPosition) {
+				result = Math.max(result, order[i]);
+			}
+		}
+		return result;
+	}
+
+	private ObjectId getObjectId(final int pPosition) {
+		if (pPosition < 0 || pPosition >= size) {
+			throw new IndexOutOfBoundsException(String.format(
+					"%d is out of range [0, %d)", pPosition, size));
+		}
+		return ObjectId.fromRaw(ids, pPosition * ID_LENGTH);
+	}
+
+	/**
+	 * Compares the first {@code pNibbles.length} hexadecimal digits of the
+	 * id at the given position with {@code pNibbles}.
+	 */
+	private int comparePrefix(final int pPosition, final byte[] pNibbles) {
+		final int offset = pPosition * ID_LENGTH;
+		for (int i = 0; i < pNibbles.length; i++) {
+			final int b = ids[offset + i / 2] & 0xff;
+			final int nibble = i % 2 == 0 ? b >>> 4 : b & 0x0f;
+			if (nibble != pNibbles[i]) {
+				return nibble < pNibbles[i] ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Compares two raw ids (unsigned, byte by byte).
+	 */
+	private static int compareIds(final byte[] pIds1, final int pPosition1,
+			final byte[] pIds2, final int pPosition2) {
+		final int offset1 = pPosition1 * ID_LENGTH;
+		final int offset2 = pPosition2 * ID_LENGTH;
+		for (int i = 0; i < ID_LENGTH; i++) {
+			final int cmp = Integer.compare(pIds1[offset1 + i] & 0xff,
+					pIds2[offset2 + i] & 0xff);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return 0;
+	}
+}
@@ -6,6 +6,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -16,25 +17,34 @@ import de.unibremen.informatik.st.libvcs4j.exception.IllegalTargetException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalIntervalException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRepositoryException;
 import de.unibremen.informatik.st.libvcs4j.engine.Changes;
+import de.unibremen.informatik.st.libvcs4j.engine.MirrorCache;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.LogCommand;
+import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.AbbreviatedObjectId;
 import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.MutableObjectId;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.slf4j.Logger;
@@ -43,8 +53,12 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.AbstractMap.SimpleEntry;
@@ -67,11 +81,83 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 
 	private static final String DEFAULT_BRANCH = "master";
 
+	/**
+	 * The default value of {@link #setRenameLimit(int)}. Equals the default
+	 * value of Git's 'diff.renameLimit'.
+	 */
+	public static final int DEFAULT_RENAME_LIMIT = 200;
+
+	/**
+	 * The default value of {@link #setRenameTimeout(Duration)}.
+	 */
+	public static final Duration DEFAULT_RENAME_TIMEOUT =
+			Duration.ofSeconds(10);
+
+	private static final int RENAME_CACHE_SIZE = 64;
+
 	/**
 	 * Examined branch, for instance, 'master'.
 	 */
 	private final String branch;
 
+	/**
+	 * Caches the blob ids of the files of the two most recently queried
+	 * revisions (revision -> git path -> blob id). Two revisions are cached
+	 * because the old and new files of a revision range are queried
+	 * alternately.
+	 */
+	private final Map<String, Map<String, String>> blobIds =
+			new LinkedHashMap<String, Map<String, String>>(4, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						final Map.Entry<String, Map<String, String>> e) {
+					return size() > 2;
+				}
+			};
+
+	/**
+	 * Memoizes the renames detected between two trees (old tree id:new tree
+	 * id:{@link #renameLimit}:{@link #renameTimeout} -> old path -> new
+	 * path). Renames of a detection that exceeded {@link #renameTimeout}
+	 * are not memoized. Evicts the least recently used entry if there are
+	 * more than {@link #RENAME_CACHE_SIZE} entries.
+	 */
+	private final Map<String, List<Map.Entry<String, String>>> renameCache =
+			new LinkedHashMap<String, List<Map.Entry<String, String>>>(
+					16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<String,
+						List<Map.Entry<String, String>>> e) {
+					return size() > RENAME_CACHE_SIZE;
+				}
+			};
+
+	/**
+	 * The maximum number of added (removed) files considered by inexact
+	 * rename detection.
+	 */
+	private int renameLimit = DEFAULT_RENAME_LIMIT;
+
+	/**
+	 * The time after which inexact rename detection is aborted.
+	 */
+	private Duration renameTimeout = DEFAULT_RENAME_TIMEOUT;
+
+	/**
+	 * The commit-graph index of {@link #branch} (limited to the root
+	 * directory). Is {@code null} until the revisions are listed for the
+	 * first time.
+	 */
+	private CommitGraphIndex commitGraph = null;
+
+	/**
+	 * Stores the files written to the target by the most recent sparse
+	 * checkout (git path -> file mode and blob id, formatted like
+	 * 'git ls-tree'). Used to write only the files that changed between two
+	 * sparse checkouts.
+	 */
+	private final Map<String, String> checkedOut = new HashMap<>();
+
 	/**
 	 * Creates a new Git engine that processes all commits of the given root
 	 * directory and branch. Use {@link VCSEngineBuilder} for convenience.
@@ -187,6 +273,65 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 		branch = pBranch == null ? DEFAULT_BRANCH : pBranch;
 	}
 
+	/**
+	 * Sets the maximum number of added (removed) files considered by inexact
+	 * rename detection (i.e., renames with modifications). If there are more
+	 * added or removed files, only exact renames are detected. The number of
+	 * candidate pairs to score is bounded by the square of this value.
+	 * {@code 0} disables inexact rename detection.
+	 *
+	 * @param pRenameLimit
+	 * 		The maximum number of added (removed) files.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pRenameLimit < 0}.
+	 */
+	public void setRenameLimit(final int pRenameLimit)
+			throws IllegalArgumentException {
+		renameLimit = Validate.notNegative(pRenameLimit,
+				"Rename limit (%d) < 0", pRenameLimit);
+	}
+
+	/**
+	 * Returns the maximum number of added (removed) files considered by
+	 * inexact rename detection.
+	 *
+	 * @return
+	 * 		The maximum number of added (removed) files.
+	 */
+	public int getRenameLimit() {
+		return renameLimit;
+	}
+
+	/**
+	 * Sets the time after which inexact rename detection is aborted. In this
+	 * case, files that have not been matched exactly (same contents) are
+	 * reported as added and removed files.
+	 *
+	 * @param pRenameTimeout
+	 * 		The time after which inexact rename detection is aborted.
+	 * @throws NullPointerException
+	 * 		If {@code pRenameTimeout} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pRenameTimeout} is negative.
+	 */
+	public void setRenameTimeout(final Duration pRenameTimeout)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notNull(pRenameTimeout);
+		Validate.isTrue(!pRenameTimeout.isNegative(),
+				"Negative rename timeout (%s)", pRenameTimeout);
+		renameTimeout = pRenameTimeout;
+	}
+
+	/**
+	 * Returns the time after which inexact rename detection is aborted.
+	 *
+	 * @return
+	 * 		The time after which inexact rename detection is aborted.
+	 */
+	public Duration getRenameTimeout() {
+		return renameTimeout;
+	}
+
 	///////////////////////// Validation and mapping //////////////////////////
 
 	@Override
@@ -262,9 +407,19 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 	}
 
 	private TreeFilter createTreeFilter() {
-		return getRoot().isEmpty()
-				? TreeFilter.ANY_DIFF :
-				PathFilter.create(getRoot());
+		final TreeFilter filter = createPathFilter();
+		return filter == TreeFilter.ALL
+				? TreeFilter.ANY_DIFF
+				: filter;
+	}
+
+	private TreeFilter createPathFilter() {
+		final TreeFilter filter = getRoot().isEmpty()
+				? TreeFilter.ALL
+				: PathFilter.create(getRoot());
+		return getGlobFilter().isAcceptAll()
+				? filter
+				: AndTreeFilter.create(filter, new GlobTreeFilter());
 	}
 
 	private String toAbsolutePath(final String pPath) {
@@ -295,6 +450,10 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 
 	@Override
 	protected void checkoutImpl(final String revision) throws IOException {
+		if (isSparse()) {
+			checkoutSparse(revision);
+			return;
+		}
 		try {
 			openRepository()
 					.checkout()
@@ -305,6 +464,78 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 		}
 	}
 
+	/**
+	 * Writes the files of the given revision that are located in the root
+	 * directory and selected by the glob filter to the target. The index and
+	 * HEAD of the repository are not updated. Files that did not change since
+	 * the previous call of this method are not written again.
+	 */
+	private void checkoutSparse(final String pRevision) throws IOException {
+		final Repository repo = openRepository().getRepository();
+		final Map<String, String> files = new HashMap<>();
+		try (RevWalk revWalk = new RevWalk(repo);
+			 TreeWalk treeWalk = new TreeWalk(repo);
+			 ObjectReader reader = repo.newObjectReader()) {
+			treeWalk.addTree(revWalk.parseCommit(
+					createId(pRevision)).getTree());
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(createPathFilter());
+			while (treeWalk.next()) {
+				final FileMode mode = treeWalk.getFileMode(0);
+				if (mode.getObjectType() == Constants.OBJ_BLOB) {
+					files.put(treeWalk.getPathString(),
+							Integer.toOctalString(mode.getBits()) + " " +
+							treeWalk.getObjectId(0).name());
+				}
+			}
+
+			// Delete first as a removed file may become a directory.
+			for (final String path : checkedOut.keySet()) {
+				if (!files.containsKey(path)) {
+					deleteFromTarget(path);
+				}
+			}
+			for (final Map.Entry<String, String> file : files.entrySet()) {
+				if (!file.getValue().equals(checkedOut.get(file.getKey()))) {
+					writeBlob(reader, file.getKey(), file.getValue());
+				}
+			}
+		}
+		checkedOut.clear();
+		checkedOut.putAll(files);
+		log.debug("Sparse checkout of {} contains {} files",
+				pRevision, files.size());
+	}
+
+	private void writeBlob(final ObjectReader pReader, final String pPath,
+			final String pModeAndId) throws IOException {
+		final int sep = pModeAndId.indexOf(' ');
+		final FileMode mode = FileMode.fromBits(
+				Integer.parseInt(pModeAndId.substring(0, sep), 8));
+		final ObjectLoader loader = pReader.open(
+				ObjectId.fromString(pModeAndId.substring(sep + 1)),
+				Constants.OBJ_BLOB);
+		final Path file = getTarget().resolve(pPath);
+		Files.createDirectories(file.getParent());
+		if (Files.isSymbolicLink(file)) {
+			Files.delete(file);
+		}
+		if (mode == FileMode.SYMLINK) {
+			Files.deleteIfExists(file);
+			try {
+				Files.createSymbolicLink(file, Paths.get(new String(
+						loader.getBytes(), StandardCharsets.UTF_8)));
+				return;
+			} catch (final UnsupportedOperationException | IOException e) {
+				log.debug("Unable to create symbolic link '{}'", file, e);
+			}
+		}
+		try (OutputStream os = Files.newOutputStream(file)) {
+			loader.copyTo(os);
+		}
+		file.toFile().setExecutable(mode == FileMode.EXECUTABLE_FILE);
+	}
+
 	@Override
 	protected Changes createChangesImpl(final String fromRev,
 			final String toRev) throws IOException {
@@ -312,7 +543,12 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 		final AnyObjectId to = createId(toRev);
 		final Repository repo = openRepository().getRepository();
 
-		final Changes changes = new Changes();
+		// Use hash based collections (path -> entry) to reconcile renames.
+		final Map<String, DiffEntry> added = new LinkedHashMap<>();
+		final Map<String, DiffEntry> removed = new LinkedHashMap<>();
+		final Set<String> modified = new LinkedHashSet<>();
+		final List<Map.Entry<String, String>> relocated = new ArrayList<>();
+		List<Map.Entry<String, String>> renames;
 		try (RevWalk revWalk = new RevWalk(repo);
 			 ObjectReader reader = repo.newObjectReader()) {
 			final RevTree prevTree = revWalk.parseCommit(from).getTree();
@@ -323,7 +559,6 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 			final CanonicalTreeParser newTree = new CanonicalTreeParser();
 			newTree.reset(reader, revTree);
 
-			final List<DiffEntry> diffEntries = new ArrayList<>();
 			openRepository()
 					.diff()
 					.setPathFilter(createTreeFilter())
@@ -332,25 +567,21 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 					.setNewTree(newTree)
 					.call()
 					.forEach(entry -> {
-						diffEntries.add(entry);
 						switch (entry.getChangeType()) {
 							case ADD:
 							case COPY:
-								changes.getAdded().add(
-										toAbsolutePath(entry.getNewPath()));
+								added.put(entry.getNewPath(), entry);
 								break;
 							case DELETE:
-								changes.getRemoved().add(
-										toAbsolutePath(entry.getOldPath()));
+								removed.put(entry.getOldPath(), entry);
 								break;
 							case MODIFY:
-								changes.getModified().add(
-										toAbsolutePath(entry.getOldPath()));
+								modified.add(entry.getOldPath());
 								break;
 							case RENAME:
-								changes.getRelocated().add(new SimpleEntry<>(
-										toAbsolutePath(entry.getOldPath()),
-										toAbsolutePath(entry.getNewPath())));
+								relocated.add(new SimpleEntry<>(
+										entry.getOldPath(),
+										entry.getNewPath()));
 								break;
 							default:
 								Validate.fail("Unexpected change type '%c'",
@@ -358,73 +589,297 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 						}
 					});
 
-			final RenameDetector rd = new RenameDetector(repo);
-			rd.addAll(diffEntries);
-			rd.compute().stream()
-					.filter(entry -> entry.getScore() >= rd.getRenameScore())
-					.forEach(rename -> {
-						final boolean removed = changes.getRemoved().remove(
-								toAbsolutePath(rename.getOldPath()));
-						if (removed) {
-							final boolean added = changes.getAdded().remove(
-									toAbsolutePath(rename.getNewPath()));
-							Validate.validateState(added,
-									"Found rename with missing add part");
-							changes.getRelocated().add(new SimpleEntry<>(
-									toAbsolutePath(rename.getOldPath()),
-									toAbsolutePath(rename.getNewPath())));
-						}
-					});
+			// The result depends on the limit and timeout of the detection.
+			final String key = prevTree.name() + ":" + revTree.name() + ":"
+					+ renameLimit + ":" + renameTimeout;
+			synchronized (renameCache) {
+				renames = renameCache.get(key);
+			}
+			if (renames == null) {
+				renames = new ArrayList<>();
+				final boolean complete = detectRenames(
+						repo, reader, added, removed, renames);
+				if (complete) {
+					synchronized (renameCache) {
+						renameCache.put(key, renames);
+					}
+				}
+			}
 		} catch (final GitAPIException e) {
 			throw new IOException(e);
 		}
+
+		final Changes changes = new Changes();
+		relocated.stream()
+				.map(e -> new SimpleEntry<>(toAbsolutePath(e.getKey()),
+						toAbsolutePath(e.getValue())))
+				.forEach(changes.getRelocated()::add);
+		for (final Map.Entry<String, String> rename : renames) {
+			if (removed.remove(rename.getKey()) != null) {
+				Validate.validateState(
+						added.remove(rename.getValue()) != null,
+						"Found rename with missing add part");
+				changes.getRelocated().add(new SimpleEntry<>(
+						toAbsolutePath(rename.getKey()),
+						toAbsolutePath(rename.getValue())));
+			}
+		}
+		added.keySet().stream()
+				.map(this::toAbsolutePath)
+				.forEach(changes.getAdded()::add);
+		removed.keySet().stream()
+				.map(this::toAbsolutePath)
+				.forEach(changes.getRemoved()::add);
+		modified.stream()
+				.map(this::toAbsolutePath)
+				.forEach(changes.getModified()::add);
 		return changes;
 	}
 
+	/**
+	 * Detects the renames between the given removed and added files. Exact
+	 * renames (same blob id) are matched first using a hash map. The
+	 * remaining files are passed to {@link RenameDetector} unless there are
+	 * more than {@link #renameLimit} of them on either side. If the
+	 * detection of inexact renames does not finish within
+	 * {@link #renameTimeout}, the remaining files are reported as added and
+	 * removed files.
+	 *
+	 * @param pRenames
+	 * 		Receives the detected renames (old path -> new path).
+	 * @return
+	 * 		{@code false} if the detection of inexact renames exceeded
+	 * 		{@link #renameTimeout} such that {@code pRenames} may be
+	 * 		incomplete, {@code true} otherwise.
+	 */
+	private boolean detectRenames(
+			final Repository pRepository, final ObjectReader pReader,
+			final Map<String, DiffEntry> pAdded,
+			final Map<String, DiffEntry> pRemoved,
+			final List<Map.Entry<String, String>> pRenames)
+			throws IOException {
+		if (pAdded.isEmpty() || pRemoved.isEmpty()) {
+			return true;
+		}
+
+		// Exact renames.
+		final Map<AbbreviatedObjectId, List<DiffEntry>> removedById =
+				new HashMap<>();
+		pRemoved.values().forEach(entry -> removedById.computeIfAbsent(
+				entry.getOldId(), __ -> new ArrayList<>(1)).add(entry));
+		final List<DiffEntry> remainingAdded = new ArrayList<>();
+		for (final DiffEntry add : pAdded.values()) {
+			final List<DiffEntry> candidates =
+					removedById.get(add.getNewId());
+			final DiffEntry match = candidates == null
+					? null
+					: selectExactRename(add, candidates);
+			if (match != null) {
+				candidates.remove(match);
+				pRenames.add(new SimpleEntry<>(
+						match.getOldPath(), add.getNewPath()));
+			} else {
+				remainingAdded.add(add);
+			}
+		}
+		final List<DiffEntry> remainingRemoved = new ArrayList<>();
+		removedById.values().forEach(remainingRemoved::addAll);
+
+		// Inexact renames.
+		if (remainingAdded.isEmpty() || remainingRemoved.isEmpty()) {
+			return true;
+		} else if (remainingAdded.size() > renameLimit ||
+				remainingRemoved.size() > renameLimit) {
+			log.info("Skipping inexact rename detection ({} added and {} " +
+					"removed files exceed the limit of {})",
+					remainingAdded.size(), remainingRemoved.size(),
+					renameLimit);
+			return true;
+		}
+		final RenameDetector rd = new RenameDetector(pRepository);
+		rd.setRenameLimit(renameLimit);
+		rd.addAll(remainingAdded);
+		rd.addAll(remainingRemoved);
+		try {
+			rd.compute(pReader, new DeadlineMonitor(renameTimeout)).stream()
+					.filter(e -> e.getChangeType() ==
+							DiffEntry.ChangeType.RENAME)
+					.filter(e -> e.getScore() >= rd.getRenameScore())
+					.forEach(e -> pRenames.add(new SimpleEntry<>(
+							e.getOldPath(), e.getNewPath())));
+		} catch (final DeadlineMonitor.DeadlineExceededException e) {
+			log.info("Inexact rename detection exceeded timeout of {}",
+					renameTimeout);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Selects the removed file of an exact rename. Prefers a file with the
+	 * same name as the added file as, for instance, empty files share the
+	 * same blob id.
+	 */
+	private DiffEntry selectExactRename(final DiffEntry pAdded,
+			final List<DiffEntry> pCandidates) {
+		final String name = Paths.get(pAdded.getNewPath())
+				.getFileName().toString();
+		DiffEntry match = null;
+		for (final DiffEntry candidate : pCandidates) {
+			if (!isSameType(candidate.getOldMode(), pAdded.getNewMode())) {
+				continue;
+			} else if (Paths.get(candidate.getOldPath()).getFileName()
+					.toString().equals(name)) {
+				return candidate;
+			} else if (match == null) {
+				match = candidate;
+			}
+		}
+		return match;
+	}
+
+	private static boolean isSameType(final FileMode pOld,
+			final FileMode pNew) {
+		return (pOld.getBits() & FileMode.TYPE_MASK) ==
+				(pNew.getBits() & FileMode.TYPE_MASK);
+	}
+
 	@Override
 	protected Optional<String> getLatestRevision() throws IOException {
-		// Keep in mind that 'git log' returns commits in the following
-		// order: [HEAD, HEAD^1, ..., initial]
+		// The newest commit of the chain is the first commit of 'git log'.
+		final CommitGraphIndex index = openCommitGraph();
+		return index == null || index.size() == 0
+				? Optional.empty()
+				: Optional.of(index.getId(index.size() - 1));
+	}
 
-		try {
-			final LogCommand logCmd = openRepository().log();
-			final Iterable<RevCommit> it = addRootPath(logCmd).call();
-			final List<RevCommit> revs = new ArrayList<>();
-			it.forEach(revs::add);
-			return revs.isEmpty()
-					? Optional.empty()
-					: Optional.of(revs.get(0).getName());
-		} catch (NoHeadException e) {
-			return Optional.empty();
-		} catch (final GitAPIException e) {
-			throw new IOException(e);
+	/**
+	 * Returns the commit-graph index of {@link #branch}. Loads the persisted
+	 * index (see {@link #getCommitGraphFile()}) when called for the first
+	 * time and updates it if 'HEAD' has changed since the index was created.
+	 *
+	 * @return
+	 * 		The up-to-date index or {@code null} if 'HEAD' does not exist.
+	 * @throws IOException
+	 * 		If an error occurred while reading the commits or writing the
+	 * 		index.
+	 */
+	private CommitGraphIndex openCommitGraph() throws IOException {
+		try (Git git = openRepository()) {
+			final ObjectId head = git.getRepository().resolve(Constants.HEAD);
+			if (head == null) {
+				return null;
+			} else if (commitGraph != null &&
+					commitGraph.getHead().equals(head)) {
+				return commitGraph;
+			}
+			final Path file = getCommitGraphFile();
+			final CommitGraphIndex index = commitGraph != null
+					? commitGraph
+					: CommitGraphIndex.load(file, getRoot()).orElse(null);
+			commitGraph = index == null
+					? CommitGraphIndex.build(git, getRoot(), head)
+					: index.update(git, head);
+			if (commitGraph != index) {
+				commitGraph.save(file);
+			}
+			return commitGraph;
 		}
 	}
 
+	/**
+	 * Returns the file the commit-graph index is persisted in. If a mirror
+	 * cache is set, the index is stored next to the mirror such that it
+	 * outlives the target and is updated incrementally after fetching new
+	 * commits. Otherwise, it is stored in the '.git' directory of the target.
+	 *
+	 * @return
+	 * 		The file the commit-graph index is persisted in.
+	 */
+	private Path getCommitGraphFile() {
+		final Path dir = getMirrorCache()
+				.map(mc -> mc.resolve("git", getRepository()))
+				.orElseGet(() -> getTarget().resolve(".git"))
+				.resolve("libvcs4j");
+		final String key = ObjectId.fromRaw(Constants.newMessageDigest()
+				.digest((branch + '\0' + getRoot())
+						.getBytes(StandardCharsets.UTF_8)))
+				.abbreviate(16)
+				.name();
+		return dir.resolve("commit-graph-" + key);
+	}
+
 	@Override
 	protected List<String> listRevisionsImpl(final LocalDateTime pSince,
 			final LocalDateTime pUntil) throws IOException {
-		final Date since = toDate(pSince);
-		final Date until = toDate(pUntil);
+		final CommitGraphIndex index = openCommitGraph();
+		if (index == null) {
+			return Collections.emptyList();
+		}
+		final int[] window = selectWindow(index, pSince, pUntil);
+		return index.getIds(window[0], window[1]);
+	}
 
-		// Keep in mind that:
-		// - 'git log' returns commits in the following order:
-		//     [HEAD, HEAD^1, ..., initial]
-		// , i.e. the commits are traversed from newest to oldest.
-		// - The start predicate become true for the newest commit to include,
-		// and the end predicate must become true for the oldest commit to
-		// include.
-		final Predicate<RevCommit> startPredicate = commit ->
-				(commit.getAuthorIdent().getWhen().compareTo(until) <= 0);
-		final Predicate<RevCommit> endPredicate = commit ->
-				(commit.getAuthorIdent().getWhen().compareTo(since) <= 0);
+	@Override
+	protected List<String> listRevisionsImpl(final int pStartIdx,
+			final int pEndIdx) throws IOException {
+		final CommitGraphIndex index = openCommitGraph();
+		if (index == null) {
+			return Collections.emptyList();
+		}
+		final int[] window = selectWindow(index,
+				VCSEngineBuilder.DEFAULT_SINCE,
+				VCSEngineBuilder.DEFAULT_UNTIL);
+		final int size = window[1] - window[0];
+		if (pStartIdx >= size) {
+			return Collections.emptyList();
+		}
+		return index.getIds(window[0] + pStartIdx,
+				window[0] + Math.min(pEndIdx, size));
+	}
 
-		return enumerateRevisions(startPredicate, endPredicate);
+	/**
+	 * Selects the commits of the given datetime interval.
+	 *
+	 * Keep in mind that the (inclusive) end of the window is the newest
+	 * commit whose author time is not after {@code pUntil}, and the
+	 * (inclusive) start of the window is the newest commit, that is not
+	 * newer than the end, whose author time is not after {@code pSince}
+	 * (or the initial commit if there is no such commit). This is the same
+	 * selection a 'git log' traversal from newest to oldest commit would
+	 * make.
+	 *
+	 * @return
+	 * 		The start (inclusive) and end (exclusive) position of the window.
+	 */
+	private int[] selectWindow(final CommitGraphIndex pIndex,
+			final LocalDateTime pSince, final LocalDateTime pUntil) {
+		final int end = pIndex.findLatest(toDate(pUntil).getTime());
+		if (end < 0) {
+			return new int[]{0, 0};
+		}
+		final int start = pIndex.findLatest(toDate(pSince).getTime(), end);
+		return new int[]{Math.max(start, 0), end + 1};
 	}
 
 	@Override
 	protected List<String> listRevisionsImpl(final String pFrom,
 			final String pTo) throws IOException {
+		// Use the commit-graph index if both revisions are located on the
+		// chain.
+		final CommitGraphIndex index = openCommitGraph();
+		if (index == null) {
+			return Collections.emptyList();
+		}
+		final int end = pTo.isEmpty()
+				? index.size() - 1
+				: index.find(pTo, index.size() - 1);
+		final int start = end < 0 || pFrom.isEmpty()
+				? 0
+				: index.find(pFrom, end);
+		if (end >= 0 && start >= 0) {
+			return index.getIds(start, end + 1);
+		}
 
 		// Keep in mind that:
 		// - 'git log' returns commits in the following order:
@@ -578,6 +1033,34 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 		}
 	}
 
+	/**
+	 * Uses the object id of a file as blob id. The ids of all files of a
+	 * revision are read at once with a single tree walk.
+	 */
+	@Override
+	protected synchronized Optional<String> readBlobIdImpl(final String pPath,
+			final String pRevision) throws IOException {
+		Map<String, String> ids = blobIds.get(pRevision);
+		if (ids == null) {
+			ids = new HashMap<>();
+			final Repository repo = openRepository().getRepository();
+			try (RevWalk revWalk = new RevWalk(repo);
+				 TreeWalk treeWalk = new TreeWalk(repo)) {
+				final RevCommit commit = revWalk.parseCommit(
+						createId(pRevision));
+				treeWalk.addTree(commit.getTree());
+				treeWalk.setRecursive(true);
+				treeWalk.setFilter(createPathFilter());
+				while (treeWalk.next()) {
+					ids.put(treeWalk.getPathString(),
+							treeWalk.getObjectId(0).name());
+				}
+			}
+			blobIds.put(pRevision, ids);
+		}
+		return Optional.ofNullable(ids.get(toGitPath(pPath)));
+	}
+
 	@Override
 	public List<LineInfo> readLineInfoImpl(final VCSFile pFile)
 			throws IOException {
@@ -594,33 +1077,32 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 			Validate.isTrue(result != null, "Unable to find '%s'", path);
 			final int blameNumLines = result.getResultContents().size();
 			final List<String> lines = pFile.readLines();
-			final List<LineInfo> lineInfo = new ArrayList<>();
+			final LineInfoTable.Builder lineInfo =
+					new LineInfoTable.Builder(pFile, this);
+			/* Blamed lines share the commits they originate from. */
+			final Map<RevCommit, Integer> commits = new HashMap<>();
 
 			/* Copy result from blame. */
 			for (int i = 0; i < blameNumLines; i++) {
 				final PersonIdent pi = result.getSourceAuthor(i);
 				final RevCommit rc = result.getSourceCommit(i);
-				final LocalDateTime dt = LocalDateTime.ofInstant(
-						pi.getWhen().toInstant(),
-						pi.getTimeZone().toZoneId());
-				final LineInfo li = getModelFactory().createLineInfo(
-						rc.getName(), pi.getName(),
-						rc.getFullMessage().replaceAll("\r\n$|\n$", ""),
-						dt, i + 1, lines.get(i), pFile, this);
-				lineInfo.add(li);
+				final int commit = commits.computeIfAbsent(rc, __ ->
+						lineInfo.commit(rc.getName(), pi.getName(),
+								rc.getFullMessage()
+										.replaceAll("\r\n$|\n$", ""),
+								LocalDateTime.ofInstant(
+										pi.getWhen().toInstant(),
+										pi.getTimeZone().toZoneId())));
+				lineInfo.add(commit, i + 1, lines.get(i));
 			}
 			/* Handle EOL fails by duplicating the last blame result. */
 			if (blameNumLines > 0) { // Consider empty files.
 				for (int i = blameNumLines; i < lines.size(); i++) {
-					final LineInfo prev = lineInfo.get(i - 1);
-					final LineInfo next = getModelFactory().createLineInfo(
-							prev.getId(), prev.getAuthor(), prev.getMessage(),
-							prev.getDateTime(), prev.getLine(),  lines.get(i),
-							prev.getFile(), this);
-					lineInfo.add(next);
+					lineInfo.add(lineInfo.lastCommit(), lineInfo.lastLine(),
+							lines.get(i));
 				}
 			}
-			return lineInfo;
+			return getModelFactory().createLineInfoTable(lineInfo.build());
 		} catch (final GitAPIException e) {
 			throw new IOException(e);
 		}
@@ -668,20 +1150,212 @@ public class GitEngine extends AbstractIntervalVCSEngine {
 	@Override
 	protected void initImpl() throws IOException {
 		try {
+			final Optional<MirrorCache> mirrorCache = getMirrorCache();
+			if (mirrorCache.isPresent()) {
+				initFromMirror(mirrorCache.get());
+				return;
+			}
 			log.info("Cloning {} to {}", getRepository(), getTarget());
-			Git.cloneRepository()
+			try (Git git = Git.cloneRepository()
 					.setURI(getRepository())
 					.setDirectory(getTarget().toFile())
 					.setBranchesToClone(Collections.singleton(branch))
 					.setBranch(branch)
-					.call();
+					.setNoCheckout(isSparse())
+					.call()) {
+				if (isSparse()) {
+					// Without checkout, the local branch (HEAD refers to) is
+					// not created.
+					final Repository repo = git.getRepository();
+					final ObjectId head = repo.resolve(
+							Constants.R_REMOTES + "origin/" + branch);
+					if (head != null) {
+						updateRef(repo, Constants.R_HEADS + branch, head);
+					}
+				}
+			}
 		} catch (final GitAPIException e) {
 			throw new IOException(e);
 		}
 	}
 
+	/**
+	 * Fetches the repository into its mirror (cloning it if necessary) and
+	 * creates the target as a repository that borrows the objects of the
+	 * mirror via alternates (similar to 'git clone --shared'). Thus, only
+	 * new objects are transferred and the objects are not copied to the
+	 * target.
+	 */
+	@SuppressWarnings("try")
+	private void initFromMirror(final MirrorCache pMirrorCache)
+			throws IOException, GitAPIException {
+		final Path mirror = pMirrorCache.resolve("git", getRepository());
+		try (MirrorCache.Lock lock = pMirrorCache.lock(mirror)) {
+			if (!mirror.resolve("objects").toFile().isDirectory()) {
+				log.info("Creating mirror {} of {}", mirror, getRepository());
+				try (Git git = Git.init()
+						.setBare(true)
+						.setDirectory(mirror.toFile())
+						.call()) {
+					final StoredConfig config = git.getRepository().getConfig();
+					config.setString("remote", "origin", "url",
+							getRepository());
+					config.setStringList("remote", "origin", "fetch",
+							Arrays.asList("+refs/heads/*:refs/heads/*",
+									"+refs/tags/*:refs/tags/*"));
+					config.save();
+				}
+			}
+			log.info("Fetching {} into mirror {}", getRepository(), mirror);
+			try (Git git = Git.open(mirror.toFile())) {
+				git.fetch()
+						.setRemote("origin")
+						.setRemoveDeletedRefs(true)
+						.call();
+			}
+		}
+
+		final ObjectId head;
+		try (Git git = Git.open(mirror.toFile())) {
+			head = git.getRepository().resolve(Constants.R_HEADS + branch);
+		}
+		log.info("Creating {} from mirror {}", getTarget(), mirror);
+		try (Git git = Git.init().setDirectory(getTarget().toFile()).call()) {
+			final Repository repo = git.getRepository();
+			final Path alternates = repo.getDirectory().toPath()
+					.resolve("objects").resolve("info").resolve("alternates");
+			Files.createDirectories(alternates.getParent());
+			Files.write(alternates, Collections.singletonList(
+					mirror.resolve("objects").toString()),
+					StandardCharsets.UTF_8);
+			final StoredConfig config = repo.getConfig();
+			config.setString("remote", "origin", "url", getRepository());
+			config.setString("remote", "origin", "fetch",
+					"+refs/heads/*:refs/remotes/origin/*");
+			config.save();
+		}
+		// Reopen the repository to pick up the alternates.
+		try (Git git = openRepository()) {
+			final Repository repo = git.getRepository();
+			repo.updateRef(Constants.HEAD).link(Constants.R_HEADS + branch);
+			if (head != null) {
+				updateRef(repo, Constants.R_REMOTES + "origin/" + branch,
+						head);
+				updateRef(repo, Constants.R_HEADS + branch, head);
+				if (!isSparse()) {
+					git.reset().setMode(ResetCommand.ResetType.HARD).call();
+				}
+			}
+		}
+	}
+
+	private static void updateRef(final Repository pRepository,
+			final String pName, final ObjectId pId) throws IOException {
+		final RefUpdate update = pRepository.updateRef(pName);
+		update.setNewObjectId(pId);
+		update.update();
+	}
+
 	@Override
 	public FilenameFilter createVCSFileFilter() {
 		return (pDir, pName) -> !pName.equals(".git");
 	}
+
+	/**
+	 * Includes the files (and directories) selected by the glob filter of
+	 * this engine. Paths that are not located in the root directory are
+	 * expected to be filtered by a {@link PathFilter}.
+	 */
+	private class GlobTreeFilter extends TreeFilter {
+
+		@Override
+		public boolean include(final TreeWalk pWalker) {
+			final String path = pWalker.getPathString();
+			if (!pWalker.isSubtree()) {
+				return isSelected(path);
+			}
+			final String root = getRoot();
+			if (root.isEmpty()) {
+				return !getGlobFilter().isExcludedDirectory(path);
+			} else if (!path.startsWith(root + "/")) {
+				// A parent of the root directory (or the root itself).
+				return true;
+			}
+			return !getGlobFilter().isExcludedDirectory(
+					path.substring(root.length() + 1));
+		}
+
+		@Override
+		public boolean shouldBeRecursive() {
+			return true;
+		}
+
+		@Override
+		public TreeFilter clone() {
+			return this;
+		}
+	}
+
+	/**
+	 * Aborts a long running JGit operation by throwing a
+	 * {@link DeadlineExceededException} as soon as it reports progress after
+	 * the deadline has passed. Used to bound the time of inexact rename
+	 * detection as {@link RenameDetector} does not support cancellation, but
+	 * updates its progress monitor while scoring candidate pairs.
+	 */
+	private static class DeadlineMonitor implements ProgressMonitor {
+
+		/**
+		 * Signals that the deadline has passed. Has no stack trace as it is
+		 * used for control flow only.
+		 */
+		private static class DeadlineExceededException
+				extends RuntimeException {
+
+			private static final long serialVersionUID = 1;
+
+			private DeadlineExceededException() {
+				super(null, null, false, false);
+			}
+		}
+
+		/**
+		 * The deadline in terms of {@link System#nanoTime()}.
+		 */
+		private final long deadline;
+
+		private DeadlineMonitor(final Duration pTimeout) {
+			deadline = System.nanoTime() + pTimeout.toNanos();
+		}
+
+		private void check() {
+			if (System.nanoTime() - deadline > 0) {
+				throw new DeadlineExceededException();
+			}
+		}
+
+		@Override
+		public void start(final int pTotalTasks) {
+			check();
+		}
+
+		@Override
+		public void beginTask(final String pTitle, final int pTotalWork) {
+			check();
+		}
+
+		@Override
+		public void update(final int pCompleted) {
+			check();
+		}
+
+		@Override
+		public void endTask() {
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+	}
 }
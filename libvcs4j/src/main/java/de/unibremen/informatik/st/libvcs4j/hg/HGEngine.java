@@ -11,12 +11,15 @@ import com.aragost.javahg.commands.StatusResult;
 import com.aragost.javahg.commands.flags.AnnotateCommandFlags;
 import com.aragost.javahg.commands.flags.CatCommandFlags;
 import com.aragost.javahg.commands.flags.LogCommandFlags;
+import com.aragost.javahg.commands.flags.ManifestCommandFlags;
+import com.aragost.javahg.commands.flags.PullCommandFlags;
 import com.aragost.javahg.commands.flags.StatusCommandFlags;
 import com.aragost.javahg.commands.flags.UpdateCommandFlags;
 import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -27,6 +30,7 @@ import de.unibremen.informatik.st.libvcs4j.exception.IllegalRepositoryException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRevisionException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalTargetException;
 import de.unibremen.informatik.st.libvcs4j.engine.Changes;
+import de.unibremen.informatik.st.libvcs4j.engine.MirrorCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,17 +40,22 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.logging.LogManager;
 import java.util.regex.Pattern;
@@ -82,6 +91,17 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 
 	private Repository repository = null;
 
+	/**
+	 * The revision written to the target by the most recent sparse checkout.
+	 */
+	private String checkedOutRevision = null;
+
+	/**
+	 * The files written to the target by the most recent sparse checkout
+	 * (paths relative to the target).
+	 */
+	private final Set<String> checkedOutFiles = new HashSet<>();
+
 	/**
 	 * Creates a new Mercurial engine that processes all commits of the given
 	 * root directory and branch. Use {@link VCSEngineBuilder} for convenience.
@@ -281,6 +301,31 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		return getTarget().resolve(pPath).toString();
 	}
 
+	/**
+	 * Applies the root directory and the glob filter of this engine to the
+	 * given status command. Mercurial's glob syntax is (almost) a superset of
+	 * Java's glob syntax, such that the command may report changes of files
+	 * that are not selected, but no selected file is missed.
+	 */
+	private StatusCommand addFilePatterns(final StatusCommand pCmd) {
+		final String prefix = getRoot().isEmpty() ? "" : getRoot() + "/";
+		final List<String> includes = getGlobFilter().getIncludes();
+		if (!includes.isEmpty()) {
+			pCmd.include(includes.stream()
+					.map(g -> "glob:" + prefix + g)
+					.toArray(String[]::new));
+		} else if (!getRoot().isEmpty()) {
+			pCmd.include("path:" + getRoot());
+		}
+		final List<String> excludes = getGlobFilter().getExcludes();
+		if (!excludes.isEmpty()) {
+			pCmd.exclude(excludes.stream()
+					.map(g -> "glob:" + prefix + g)
+					.toArray(String[]::new));
+		}
+		return pCmd;
+	}
+
 	///////////////////////////////////////////////////////////////////////////
 
 	@Override
@@ -291,6 +336,10 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 	@Override
 	protected void checkoutImpl(final String pRevision) throws IOException {
 		Validate.validateState(repository != null);
+		if (isSparse()) {
+			checkoutSparse(pRevision);
+			return;
+		}
 		try {
 			UpdateCommandFlags.on(repository)
 					.rev(pRevision)
@@ -301,6 +350,62 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		}
 	}
 
+	/**
+	 * Writes the files of the given revision that are located in the root
+	 * directory and selected by the glob filter to the target. The working
+	 * directory of the repository is not updated. Files that did not change
+	 * since the previous call of this method are not written again.
+	 */
+	private void checkoutSparse(final String pRevision) throws IOException {
+		final Set<String> files;
+		final Set<String> changed = new HashSet<>();
+		try {
+			files = ManifestCommandFlags.on(repository)
+					.rev(pRevision)
+					.execute()
+					.stream()
+					.map(f -> normalizePath(f.getPath()))
+					.filter(this::isSelected)
+					.collect(Collectors.toSet());
+			if (checkedOutRevision != null) {
+				final StatusResult result = addFilePatterns(
+						StatusCommandFlags.on(repository))
+						.rev(checkedOutRevision, pRevision)
+						.execute();
+				Stream.of(result.getAdded(), result.getModified(),
+						result.getCopied().keySet(),
+						result.getCopied().values())
+						.flatMap(Collection::stream)
+						.map(HGEngine::normalizePath)
+						.forEach(changed::add);
+			}
+		} catch (final RuntimeException e) {
+			throw new IOException(e);
+		}
+
+		// Delete first as a removed file may become a directory.
+		for (final String path : checkedOutFiles) {
+			if (!files.contains(path)) {
+				deleteFromTarget(path);
+			}
+		}
+		for (final String path : files) {
+			if (!checkedOutFiles.contains(path) || changed.contains(path)) {
+				final Path file = getTarget().resolve(path);
+				Files.createDirectories(file.getParent());
+				try (InputStream is = CatCommandFlags.on(repository)
+						.rev(pRevision).execute(path)) {
+					Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+				} catch (final RuntimeException e) {
+					throw new IOException(e);
+				}
+			}
+		}
+		checkedOutRevision = pRevision;
+		checkedOutFiles.clear();
+		checkedOutFiles.addAll(files);
+	}
+
 	@Override
 	protected Changes createChangesImpl(final String pFromRev,
 			final String pToRev) throws IOException {
@@ -309,7 +414,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		final StatusResult result;
 		try {
 			final StatusCommand cmd = StatusCommandFlags.on(repository);
-			result = cmd.rev(pFromRev, pToRev).execute();
+			result = addFilePatterns(cmd).rev(pFromRev, pToRev).execute();
 		} catch (final RuntimeException e) {
 			throw new IOException(e);
 		}
@@ -371,7 +476,8 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 		try {
 			final Path path = Paths.get(getRoot(), pFile.getRelativePath());
 			final List<String> lines = pFile.readLinesWithEOL();
-			final List<LineInfo> lineInfo = new ArrayList<>();
+			final LineInfoTable.Builder lineInfo =
+					new LineInfoTable.Builder(pFile, this);
 
 			final AnnotateCommand cmd = AnnotateCommandFlags.on(repository);
 			final List<AnnotateLine> aLines = cmd
@@ -387,7 +493,7 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 				final LocalDateTime dt = LocalDateTime.ofInstant(
 						al.getChangeset().getTimestamp().getDate().toInstant(),
 						ZoneId.systemDefault());
-				final LineInfo li = getModelFactory().createLineInfo(
+				lineInfo.add(
 						al.getChangeset().getNode(),
 						al.getChangeset().getUser()
 								.replaceAll(" <.*@.*>$", ""),
@@ -397,11 +503,9 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 						// JavaHG does not handle non-ASCII chars very well as
 						// it uses the system encoding to decode the line.
 						// al.getLine(),
-						lines.get(i).replaceAll("\r\n$|\n$", ""),
-						pFile, this);
-				lineInfo.add(li);
+						lines.get(i).replaceAll("\r\n$|\n$", ""));
 			}
-			return lineInfo;
+			return getModelFactory().createLineInfoTable(lineInfo.build());
 		} catch (final RuntimeException e) {
 			throw new IOException(e);
 		}
@@ -565,14 +669,53 @@ public class HGEngine extends AbstractIntervalVCSEngine {
 	protected void initImpl() throws IOException {
 		Validate.validateState(repository == null);
 		try {
-			log.info("Cloning {} to {}", getRepository(), getTarget());
-			repository = Repository.clone(
-					getTarget().toFile(), getRepository());
+			final Optional<MirrorCache> mirrorCache = getMirrorCache();
+			final String source = mirrorCache.isPresent()
+					? updateMirror(mirrorCache.get())
+					: getRepository();
+			log.info("Cloning {} to {}", source, getTarget());
+			if (isSparse()) {
+				// Equivalent to 'hg clone --noupdate'.
+				repository = Repository.create(getTarget().toFile());
+				PullCommandFlags.on(repository).execute(source);
+			} else {
+				// Local clones hardlink the store of the mirror.
+				repository = Repository.clone(getTarget().toFile(), source);
+			}
 		} catch (final RuntimeException e) {
 			throw new IOException(e);
 		}
 	}
 
+	/**
+	 * Pulls the repository into its mirror (creating the mirror if
+	 * necessary). The mirror has no working directory.
+	 *
+	 * @return
+	 * 		The path of the mirror.
+	 */
+	@SuppressWarnings("try")
+	private String updateMirror(final MirrorCache pMirrorCache)
+			throws IOException {
+		final Path mirror = pMirrorCache.resolve("hg", getRepository());
+		try (MirrorCache.Lock lock = pMirrorCache.lock(mirror)) {
+			final Repository repo;
+			if (mirror.resolve(".hg").toFile().isDirectory()) {
+				repo = Repository.open(mirror.toFile());
+			} else {
+				log.info("Creating mirror {} of {}", mirror, getRepository());
+				repo = Repository.create(mirror.toFile());
+			}
+			try {
+				log.info("Pulling {} into mirror {}", getRepository(), mirror);
+				PullCommandFlags.on(repo).execute(getRepository());
+			} finally {
+				repo.close();
+			}
+		}
+		return mirror.toString();
+	}
+
 	@Override
 	public FilenameFilter createVCSFileFilter() {
 		return (dir, name) -> !name.equals(".hg");
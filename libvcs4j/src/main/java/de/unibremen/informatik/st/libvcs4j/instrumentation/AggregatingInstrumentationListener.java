@@ -0,0 +1,269 @@
+package de.unibremen.informatik.st.libvcs4j.instrumentation;
+
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the measurements of one or more {@link VCSEngine} instances.
+ * Stores the duration of each phase such that percentiles can be computed
+ * (see {@link #getPercentile(Phase, double)}) and sums up the counters. When
+ * an engine has finished (see {@link #engineFinished(VCSEngine)}), a report
+ * (see {@link #report()}) is printed to the stream passed to
+ * {@link #AggregatingInstrumentationListener(PrintStream)} or, by default,
+ * logged with level info.
+ *
+ * Instances of this class are thread-safe.
+ */
+public class AggregatingInstrumentationListener
+		implements InstrumentationListener {
+
+	/**
+	 * The {@link Logger} of this class.
+	 */
+	private static final Logger log = LoggerFactory
+			.getLogger(AggregatingInstrumentationListener.class);
+
+	/**
+	 * The percentiles printed by {@link #report()}.
+	 */
+	private static final double[] REPORTED_PERCENTILES = {50, 90, 99};
+
+	/**
+	 * The durations (in nanoseconds) of a phase. Grows on demand.
+	 */
+	private static class Samples {
+
+		private long[] values = new long[16];
+
+		private int size = 0;
+
+		private long total = 0;
+
+		synchronized void add(final long pValue) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = pValue;
+			total += pValue;
+		}
+
+		synchronized long[] sorted() {
+			final long[] copy = Arrays.copyOf(values, size);
+			Arrays.sort(copy);
+			return copy;
+		}
+
+		synchronized int size() {
+			return size;
+		}
+
+		synchronized long total() {
+			return total;
+		}
+
+		synchronized void clear() {
+			values = new long[16];
+			size = 0;
+			total = 0;
+		}
+	}
+
+	/**
+	 * The durations of each phase.
+	 */
+	private final Map<Phase, Samples> samples = new EnumMap<>(Phase.class);
+
+	/**
+	 * The value of each counter.
+	 */
+	private final Map<Counter, AtomicLong> counters =
+			new EnumMap<>(Counter.class);
+
+	/**
+	 * The stream to print the report to. Is {@code null} if the report
+	 * should be logged.
+	 */
+	private final PrintStream out;
+
+	/**
+	 * Creates a listener that logs its report when an engine has finished.
+	 */
+	public AggregatingInstrumentationListener() {
+		this(null);
+	}
+
+	/**
+	 * Creates a listener that prints its report to the given stream when an
+	 * engine has finished.
+	 *
+	 * @param pOut
+	 * 		The stream to print the report to. {@code null} logs the report.
+	 */
+	public AggregatingInstrumentationListener(final PrintStream pOut) {
+		out = pOut;
+		for (final Phase phase : Phase.values()) {
+			samples.put(phase, new Samples());
+		}
+		for (final Counter counter : Counter.values()) {
+			counters.put(counter, new AtomicLong());
+		}
+	}
+
+	@Override
+	public void phaseCompleted(final VCSEngine pEngine, final Phase pPhase,
+			final long pNanos) {
+		samples.get(pPhase).add(pNanos);
+	}
+
+	@Override
+	public void counterIncremented(final VCSEngine pEngine,
+			final Counter pCounter, final long pDelta) {
+		counters.get(pCounter).addAndGet(pDelta);
+	}
+
+	@Override
+	public void engineFinished(final VCSEngine pEngine) {
+		final String report = report();
+		if (out != null) {
+			out.print(report);
+			out.flush();
+		} else {
+			log.info("Instrumentation report of {}:{}{}",
+					pEngine.getRepository(), System.lineSeparator(), report);
+		}
+	}
+
+	/**
+	 * Returns how often the given phase has been completed.
+	 *
+	 * @param pPhase
+	 * 		The phase.
+	 * @return
+	 * 		The number of completions of {@code pPhase}.
+	 * @throws NullPointerException
+	 * 		If {@code pPhase} is {@code null}.
+	 */
+	public int getCount(final Phase pPhase) throws NullPointerException {
+		return samples.get(Validate.notNull(pPhase)).size();
+	}
+
+	/**
+	 * Returns the total duration of the given phase.
+	 *
+	 * @param pPhase
+	 * 		The phase.
+	 * @return
+	 * 		The total duration of {@code pPhase} in nanoseconds.
+	 * @throws NullPointerException
+	 * 		If {@code pPhase} is {@code null}.
+	 */
+	public long getTotalNanos(final Phase pPhase)
+			throws NullPointerException {
+		return samples.get(Validate.notNull(pPhase)).total();
+	}
+
+	/**
+	 * Returns the given percentile (nearest-rank method) of the durations of
+	 * the given phase.
+	 *
+	 * @param pPhase
+	 * 		The phase.
+	 * @param pPercentile
+	 * 		The percentile, for instance, {@code 99}.
+	 * @return
+	 * 		The percentile in nanoseconds or {@code 0} if {@code pPhase} has
+	 * 		not been completed yet.
+	 * @throws NullPointerException
+	 * 		If {@code pPhase} is {@code null}.
+	 * @throws IllegalArgumentException
+	 * 		If {@code pPercentile} is not in range (0, 100].
+	 */
+	public long getPercentile(final Phase pPhase, final double pPercentile)
+			throws NullPointerException, IllegalArgumentException {
+		Validate.notNull(pPhase);
+		Validate.isTrue(pPercentile > 0 && pPercentile <= 100,
+				"Percentile (%s) is not in range (0, 100]", pPercentile);
+		return percentile(samples.get(pPhase).sorted(), pPercentile);
+	}
+
+	/**
+	 * Returns the value of the given counter.
+	 *
+	 * @param pCounter
+	 * 		The counter.
+	 * @return
+	 * 		The value of {@code pCounter}.
+	 * @throws NullPointerException
+	 * 		If {@code pCounter} is {@code null}.
+	 */
+	public long getCounter(final Counter pCounter)
+			throws NullPointerException {
+		return counters.get(Validate.notNull(pCounter)).get();
+	}
+
+	/**
+	 * Discards all measurements.
+	 */
+	public void reset() {
+		samples.values().forEach(Samples::clear);
+		counters.values().forEach(c -> c.set(0));
+	}
+
+	/**
+	 * Creates a report listing, for each completed phase, the number of
+	 * completions, the total duration, the 50th, 90th, and 99th percentile,
+	 * and the maximum duration (all durations in milliseconds), followed by
+	 * the values of the counters.
+	 *
+	 * @return
+	 * 		The report.
+	 */
+	public String report() {
+		final StringBuilder builder = new StringBuilder();
+		final String nl = System.lineSeparator();
+		builder.append(String.format("%-15s %8s %12s %10s %10s %10s %10s",
+				"phase", "count", "total[ms]", "p50[ms]", "p90[ms]",
+				"p99[ms]", "max[ms]")).append(nl);
+		for (final Phase phase : Phase.values()) {
+			final long[] sorted = samples.get(phase).sorted();
+			if (sorted.length == 0) {
+				continue;
+			}
+			builder.append(String.format("%-15s %8d %12.3f",
+					phase, sorted.length, millis(Arrays.stream(sorted).sum())));
+			for (final double p : REPORTED_PERCENTILES) {
+				builder.append(String.format(" %10.3f",
+						millis(percentile(sorted, p))));
+			}
+			builder.append(String.format(" %10.3f",
+					millis(sorted[sorted.length - 1]))).append(nl);
+		}
+		for (final Counter counter : Counter.values()) {
+			builder.append(String.format("%-15s %8d",
+					counter, counters.get(counter).get())).append(nl);
+		}
+		return builder.toString();
+	}
+
+	private static long percentile(final long[] pSorted,
+			final double pPercentile) {
+		if (pSorted.length == 0) {
+			return 0;
+		}
+		final int rank = (int) Math.ceil(pPercentile / 100 * pSorted.length);
+		return pSorted[Math.max(rank, 1) - 1];
+	}
+
+	private static double millis(final long pNanos) {
+		return pNanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,28 @@
+package de.unibremen.informatik.st.libvcs4j.instrumentation;
+
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Counter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording the increment of a {@link Counter}.
+ */
+@Name("de.unibremen.informatik.st.libvcs4j.Counter")
+@Label("VCS Engine Counter")
+@Description("An incremented counter of a VCS engine")
+@Category("libvcs4j")
+@StackTrace(false)
+class CounterEvent extends jdk.jfr.Event {
+
+	@Label("Counter")
+	String counter;
+
+	@Label("Repository")
+	String repository;
+
+	@Label("Delta")
+	long delta;
+}
@@ -0,0 +1,40 @@
+package de.unibremen.informatik.st.libvcs4j.instrumentation;
+
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+
+/**
+ * Emits the measurements of a {@link VCSEngine} as Java Flight Recorder
+ * events (named 'de.unibremen.informatik.st.libvcs4j.Phase' and
+ * 'de.unibremen.informatik.st.libvcs4j.Counter'). The events are only
+ * created if they are enabled in the active recording, for instance, with
+ * '-XX:StartFlightRecording' and a settings file enabling category
+ * 'libvcs4j'. Phase events store the duration of a phase in a separate
+ * field because they are committed after the phase has completed.
+ */
+public class JfrInstrumentationListener implements InstrumentationListener {
+
+	@Override
+	public void phaseCompleted(final VCSEngine pEngine, final Phase pPhase,
+			final long pNanos) {
+		final PhaseEvent event = new PhaseEvent();
+		if (event.isEnabled()) {
+			event.phase = pPhase.name();
+			event.repository = pEngine.getRepository();
+			event.nanos = pNanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void counterIncremented(final VCSEngine pEngine,
+			final Counter pCounter, final long pDelta) {
+		final CounterEvent event = new CounterEvent();
+		if (event.isEnabled()) {
+			event.counter = pCounter.name();
+			event.repository = pEngine.getRepository();
+			event.delta = pDelta;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package de.unibremen.informatik.st.libvcs4j.instrumentation;
+
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Phase;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event recording the duration of a {@link Phase}.
+ */
+@Name("de.unibremen.informatik.st.libvcs4j.Phase")
+@Label("VCS Engine Phase")
+@Description("A completed phase of a VCS engine")
+@Category("libvcs4j")
+@StackTrace(false)
+class PhaseEvent extends jdk.jfr.Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Repository")
+	String repository;
+
+	@Label("Phase Duration")
+	@Timespan(Timespan.NANOSECONDS)
+	long nanos;
+}
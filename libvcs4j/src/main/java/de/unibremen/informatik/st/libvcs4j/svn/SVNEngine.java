@@ -4,6 +4,7 @@ import de.unibremen.informatik.st.libvcs4j.Commit;
 import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.Issue;
 import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
 import de.unibremen.informatik.st.libvcs4j.VCSFile;
@@ -14,7 +15,6 @@ import de.unibremen.informatik.st.libvcs4j.exception.IllegalIntervalException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRepositoryException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalRevisionException;
 import de.unibremen.informatik.st.libvcs4j.exception.IllegalTargetException;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import org.slf4j.Logger;
@@ -309,17 +309,25 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 		return revs;
 	}
 
-	@AllArgsConstructor
 	private class AnnotateHandler implements ISVNAnnotateHandler {
 
 		@NonNull
 		private final String revision;
 
-		@NonNull
-		private final VCSFile file;
-
 		@Getter
-		private final List<LineInfo> lineInfoList = new ArrayList<>();
+		private final LineInfoTable.Builder lineInfo;
+
+		/**
+		 * The commit message of {@link #revision}. Is read once for all
+		 * lines.
+		 */
+		private String message = null;
+
+		private AnnotateHandler(@NonNull final String pRevision,
+				@NonNull final VCSFile pFile) {
+			revision = pRevision;
+			lineInfo = new LineInfoTable.Builder(pFile, SVNEngine.this);
+		}
 
 		@Override
 		public void handleLine(final Date pDate, long pRevision,
@@ -335,14 +343,15 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 				final String pMergedAuthor, final String pMergedPath,
 				final int pLineNumber) throws SVNException {
 			try {
-				final LineInfo li = getModelFactory().createLineInfo(
-						revision, pAuthor,
-						createCommitImpl(revision, Collections.emptyList(),
-								Collections.emptyList()).getMessage(),
-						LocalDateTime.ofInstant(pDate.toInstant(),
-								ZoneId.systemDefault()),
-						pLineNumber + 1, pLine, file, SVNEngine.this);
-				lineInfoList.add(li);
+				final LocalDateTime dt = LocalDateTime.ofInstant(
+						pDate.toInstant(), ZoneId.systemDefault());
+				if (message == null) {
+					message = createCommitImpl(revision,
+							Collections.emptyList(),
+							Collections.emptyList()).getMessage();
+				}
+				lineInfo.add(revision, pAuthor, message, dt,
+						pLineNumber + 1, pLine);
 			} catch (final IOException e) {
 				throw new UncheckedIOException(e);
 			}
@@ -519,9 +528,9 @@ public class SVNEngine extends AbstractIntervalVCSEngine {
 					.doAnnotate(path.getURL(), revision,
 					SVNRevision.create(0), revision, handler);
 			final List<String> lines = pFile.readLinesWithEOL();
-			final List<LineInfo> lineInfoList = handler.lineInfoList;
-			Validate.validateState(lines.size() == lineInfoList.size());
-			return lineInfoList;
+			final LineInfoTable lineInfo = handler.lineInfo.build();
+			Validate.validateState(lines.size() == lineInfo.size());
+			return getModelFactory().createLineInfoTable(lineInfo);
 		} catch (final SVNException | UncheckedIOException e) {
 			throw new IOException(e);
 		} finally {
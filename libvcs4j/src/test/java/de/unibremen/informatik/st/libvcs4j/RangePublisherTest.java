@@ -0,0 +1,195 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RangePublisherTest {
+
+	private static class RecordingSubscriber
+			implements Flow.Subscriber<RevisionRange> {
+		final List<RevisionRange> ranges = new ArrayList<>();
+		final CountDownLatch terminated = new CountDownLatch(1);
+		Flow.Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(RevisionRange range) {
+			ranges.add(range);
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+			terminated.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+			terminated.countDown();
+		}
+	}
+
+	private final List<RevisionRange> ranges = Arrays.asList(
+			mock(RevisionRange.class),
+			mock(RevisionRange.class),
+			mock(RevisionRange.class));
+
+	private VCSEngine engine(Iterator<RevisionRange> iterator, Path target) {
+		VCSEngine engine = mock(VCSEngine.class);
+		when(engine.iterator()).thenReturn(iterator);
+		when(engine.getTarget()).thenReturn(target);
+		return engine;
+	}
+
+	private Path createTarget() throws IOException {
+		Path target = Files.createTempDirectory("range-publisher");
+		Files.write(target.resolve("file.txt"), new byte[]{1});
+		return target;
+	}
+
+	@Test
+	public void respectsDemand() throws IOException {
+		Path target = createTarget();
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		new RangePublisher(() -> engine(ranges.iterator(), target))
+				.withExecutor(Runnable::run)
+				.subscribe(subscriber);
+		assertThat(subscriber.ranges).isEmpty();
+
+		subscriber.subscription.request(2);
+		assertThat(subscriber.ranges).containsExactlyElementsOf(
+				ranges.subList(0, 2));
+		assertThat(subscriber.completed).isFalse();
+		assertThat(target).exists();
+
+		subscriber.subscription.request(1);
+		assertThat(subscriber.ranges).containsExactlyElementsOf(ranges);
+		assertThat(subscriber.completed).isTrue();
+		assertThat(subscriber.error).isNull();
+		assertThat(target).doesNotExist();
+	}
+
+	@Test
+	public void cancelDeletesTarget() throws IOException {
+		Path target = createTarget();
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(RevisionRange range) {
+				super.onNext(range);
+				subscription.cancel();
+			}
+		};
+		new RangePublisher(() -> engine(ranges.iterator(), target))
+				.withExecutor(Runnable::run)
+				.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		assertThat(subscriber.ranges).containsExactly(ranges.get(0));
+		assertThat(subscriber.completed).isFalse();
+		assertThat(subscriber.error).isNull();
+		assertThat(target).doesNotExist();
+	}
+
+	@Test
+	public void keepsTargetIfDisabled() throws IOException {
+		Path target = createTarget();
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		new RangePublisher(() -> engine(ranges.iterator(), target))
+				.withExecutor(Runnable::run)
+				.withDeleteTarget(false)
+				.subscribe(subscriber);
+		subscriber.subscription.request(5);
+
+		assertThat(subscriber.completed).isTrue();
+		assertThat(target).exists();
+		new DeleteTask(target).run();
+	}
+
+	@Test
+	public void signalsErrors() throws IOException {
+		Path target = createTarget();
+		Iterator<RevisionRange> failing = new Iterator<RevisionRange>() {
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public RevisionRange next() {
+				throw new UncheckedIOException(new IOException("checkout"));
+			}
+		};
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		new RangePublisher(() -> engine(failing, target))
+				.withExecutor(Runnable::run)
+				.subscribe(subscriber);
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.error)
+				.isInstanceOf(UncheckedIOException.class);
+		assertThat(target).doesNotExist();
+
+		RecordingSubscriber invalid = new RecordingSubscriber();
+		new RangePublisher(() -> engine(ranges.iterator(), target))
+				.withExecutor(Runnable::run)
+				.subscribe(invalid);
+		invalid.subscription.request(0);
+		assertThat(invalid.error)
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(invalid.ranges).isEmpty();
+	}
+
+	@Test
+	public void publishesOnExecutor() throws Exception {
+		Path target = createTarget();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			List<Thread> threads = new ArrayList<>();
+			RecordingSubscriber subscriber = new RecordingSubscriber() {
+				@Override
+				public void onNext(RevisionRange range) {
+					super.onNext(range);
+					threads.add(Thread.currentThread());
+					subscription.request(1);
+				}
+			};
+			new RangePublisher(() -> engine(ranges.iterator(), target))
+					.withExecutor(executor)
+					.subscribe(subscriber);
+			subscriber.subscription.request(1);
+
+			assertThat(subscriber.terminated.await(10, TimeUnit.SECONDS))
+					.isTrue();
+			assertThat(subscriber.ranges).containsExactlyElementsOf(ranges);
+			assertThat(subscriber.completed).isTrue();
+			assertThat(threads).doesNotContain(Thread.currentThread());
+			assertThat(target).doesNotExist();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
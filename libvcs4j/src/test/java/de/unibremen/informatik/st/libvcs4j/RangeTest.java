@@ -1,6 +1,7 @@
 package de.unibremen.informatik.st.libvcs4j;
 
 import de.unibremen.informatik.st.libvcs4j.engine.AbstractVSCEngine;
+import de.unibremen.informatik.st.libvcs4j.engine.Changes;
 import lombok.NonNull;
 import lombok.Value;
 import org.junit.Test;
@@ -8,12 +9,13 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.apache.commons.io.IOUtils.toByteArray;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -43,13 +45,82 @@ public class RangeTest {
 		}
 	}
 
+	/**
+	 * An engine that supports {@link VCSEngine#computeDiff(FileChange)}
+	 * only.
+	 */
+	private static final class DiffEngine extends AbstractVSCEngine {
+
+		private DiffEngine() {
+			super("repository", "", Paths.get("/tmp"));
+		}
+
+		@Override
+		public Path getOutput() {
+			return getTarget();
+		}
+
+		@Override
+		protected String validateMapRepository(final String repository) {
+			return repository;
+		}
+
+		@Override
+		protected String validateMapRoot(final String root) {
+			return root;
+		}
+
+		@Override
+		protected Path validateMapTarget(final Path target) {
+			return target;
+		}
+
+		@Override
+		protected List<String> validateMapRevisions(
+				final List<String> revisions) {
+			return revisions;
+		}
+
+		@Override
+		protected void checkoutImpl(final String revision) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected Changes createChangesImpl(final String fromRev,
+				final String toRev) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected byte[] readAllBytesImpl(final String path,
+				final String revision) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected List<LineInfo> readLineInfoImpl(final VCSFile file) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected Commit createCommitImpl(final String revision,
+				final List<FileChange> fileChanges, final List<Issue> issues) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected List<String> listRevisionsImpl() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
 	private final VCSModelFactory modelFactory = new VCSModelFactory() {};
 
 	private FileChange createFileChangeFromResource(String oldFile,
 			String newFile) throws IOException {
-		VCSEngine engine = mock(AbstractVSCEngine.class);
-		when(engine.getModelFactory()).thenReturn(modelFactory);
-		when(engine.computeDiff(any())).thenCallRealMethod();
+		VCSEngine engine = new DiffEngine();
+		engine.setModelFactory(modelFactory);
 		Revision revision1 = mock(Revision.class);
 		when(revision1.getId()).thenReturn("1");
 		when(revision1.getOutput()).thenReturn(Paths.get("/tmp"));
@@ -0,0 +1,63 @@
+package de.unibremen.informatik.st.libvcs4j;
+
+import de.unibremen.informatik.st.libvcs4j.testutils.ResourceExtractor;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class ShardedMinerTest {
+
+	private static String summarize(RevisionRange range) {
+		List<String> changes = range.getFileChanges().stream()
+				.map(fc -> fc.getType() + " " + fc.getNewFile()
+						.orElseGet(() -> fc.getOldFile().get())
+						.getRelativePath())
+				.sorted()
+				.collect(Collectors.toList());
+		return range.getOrdinal() + " " +
+				range.getPredecessorRevision()
+						.map(Revision::getId).orElse("-") + " " +
+				range.getRevision().getId() + " " + changes;
+	}
+
+	@Test
+	public void split() {
+		assertThat(ShardedMiner.split(0, 4)).containsExactly(0);
+		assertThat(ShardedMiner.split(2, 4)).containsExactly(0, 1, 2);
+		assertThat(ShardedMiner.split(10, 1)).containsExactly(0, 10);
+		assertThat(ShardedMiner.split(10, 3)).containsExactly(0, 3, 6, 10);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> ShardedMiner.split(10, 0));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new ShardedMiner(() -> null).withShards(0));
+	}
+
+	@Test
+	public void shardedEqualsSequential() throws IOException {
+		Path input = new ResourceExtractor()
+				.extractTarGZ("roolie.tar.gz")
+				.resolve("roolie");
+		String repository = input.toString();
+
+		List<String> expected = new ArrayList<>();
+		for (RevisionRange range : VCSEngineBuilder.ofSVN(repository)
+				.withStartIdx(0).withEndIdx(20).build()) {
+			expected.add(summarize(range));
+		}
+		assertThat(expected).hasSize(20);
+
+		List<String> actual = new ShardedMiner(() ->
+				VCSEngineBuilder.ofSVN(repository)
+						.withStartIdx(0).withEndIdx(20))
+				.withShards(3)
+				.mine(ShardedMinerTest::summarize);
+		assertThat(actual).isEqualTo(expected);
+	}
+}
@@ -0,0 +1,73 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CharsetGuesserTest {
+
+	@Test
+	public void validUTF8() {
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(new byte[0]))
+				.isEqualTo(-1);
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(
+				"public class A { /* plain ASCII */ }"
+						.getBytes(StandardCharsets.US_ASCII)))
+				.isEqualTo(-1);
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(
+				"Grüße, 日本語, 😀 and some more ASCII"
+						.getBytes(StandardCharsets.UTF_8)))
+				.isEqualTo(-1);
+	}
+
+	@Test
+	public void invalidUTF8() {
+		byte[] latin1 = "0123456789 Grüße"
+				.getBytes(StandardCharsets.ISO_8859_1);
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(latin1))
+				.isEqualTo(13);
+
+		byte[] utf16 = "ab".getBytes(StandardCharsets.UTF_16LE);
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(utf16))
+				.isEqualTo(1);
+
+		// Truncated sequence.
+		byte[] truncated = { 'a', (byte) 0xE2, (byte) 0x82 };
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(truncated))
+				.isEqualTo(1);
+
+		// Overlong encoding of '/'.
+		byte[] overlong = { (byte) 0xC0, (byte) 0xAF };
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(overlong))
+				.isEqualTo(0);
+
+		// Encoded surrogate.
+		byte[] surrogate = { (byte) 0xED, (byte) 0xA0, (byte) 0x80 };
+		assertThat(CharsetGuesser.indexOfInvalidUTF8(surrogate))
+				.isEqualTo(0);
+	}
+
+	@Test
+	public void guessFallsBackToDetector() {
+		CharsetGuesser guesser = new CharsetGuesser();
+		assertThat(guesser.guess("Grüße".getBytes(StandardCharsets.UTF_8)))
+				.hasValue(StandardCharsets.UTF_8);
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			builder.append("Die Straße führt über die Brücke. ");
+		}
+		byte[] latin1 = builder.toString()
+				.getBytes(StandardCharsets.ISO_8859_1);
+		assertThat(guesser.guess(latin1))
+				.map(Charset::name)
+				.hasValueSatisfying(name -> assertThat(name)
+						.isIn("ISO-8859-1", "windows-1252"));
+		// Cached.
+		assertThat(guesser.guess(latin1.clone()))
+				.isEqualTo(guesser.guess(latin1));
+	}
+}
@@ -0,0 +1,54 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class GlobFilterTest {
+
+	@Test
+	public void acceptAll() {
+		assertThat(GlobFilter.ACCEPT_ALL.isAcceptAll()).isTrue();
+		assertThat(GlobFilter.ACCEPT_ALL.test("a/b/C.java")).isTrue();
+		assertThat(GlobFilter.ACCEPT_ALL.isExcludedDirectory("a")).isFalse();
+	}
+
+	@Test
+	public void includes() {
+		GlobFilter filter = new GlobFilter(
+				Arrays.asList("src/main", "**/*.xml"),
+				Collections.emptyList());
+		assertThat(filter.isAcceptAll()).isFalse();
+		assertThat(filter.test("src/main/java/A.java")).isTrue();
+		assertThat(filter.test("src/test/java/A.java")).isFalse();
+		assertThat(filter.test("module/pom.xml")).isTrue();
+		assertThat(filter.test("pom.xml")).isFalse();
+	}
+
+	@Test
+	public void excludesTakePrecedence() {
+		GlobFilter filter = new GlobFilter(
+				Collections.singletonList("**.java"),
+				Collections.singletonList("**/generated"));
+		assertThat(filter.test("a/B.java")).isTrue();
+		assertThat(filter.test("a/generated/B.java")).isFalse();
+		assertThat(filter.test("a/B.kt")).isFalse();
+		assertThat(filter.isExcludedDirectory("a/generated")).isTrue();
+		assertThat(filter.isExcludedDirectory("a/generated/b")).isTrue();
+		assertThat(filter.isExcludedDirectory("a")).isFalse();
+	}
+
+	@Test
+	public void invalidGlobs() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new GlobFilter(
+				Collections.singletonList(""), Collections.emptyList()));
+		assertThatIllegalArgumentException().isThrownBy(() -> new GlobFilter(
+				Collections.singletonList("a/[b"), Collections.emptyList()));
+		assertThatIllegalArgumentException().isThrownBy(() -> new GlobFilter(
+				Collections.emptyList(), Collections.singletonList(null)));
+	}
+}
@@ -1,20 +1,33 @@
 package de.unibremen.informatik.st.libvcs4j.engine;
 
+import de.unibremen.informatik.st.libvcs4j.FileChange;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.eclipse.jgit.api.Git;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
 
 public class JsonSurferTest {
 
+	private final String repo = getClass()
+			.getResource("/jsonsurfer/jsonsurfer.bundle")
+			.getFile();
+
 	@Test
 	public void createOutputDirectory() {
-		final String repo = getClass()
-				.getResource("/jsonsurfer/jsonsurfer.bundle")
-				.getFile();
-
 		final VCSEngine vcs = VCSEngineBuilder
 				.ofGit(repo)
 				.withRoot("jsurfer-core/src/main")
@@ -24,4 +37,117 @@ public class JsonSurferTest {
 			assertTrue(range.getRevision().getOutput().toFile().exists());
 		}
 	}
+
+	private static List<String> summarize(final List<FileChange> changes,
+			final Predicate<String> filter) {
+		return changes.stream()
+				.map(fc -> fc.getType() + " " + fc.getOldFile()
+						.map(VCSFile::getRelativePath).orElse("-") + " " +
+						fc.getNewFile()
+								.map(VCSFile::getRelativePath).orElse("-"))
+				.filter(s -> Stream.of(s.split(" ")).skip(1)
+						.filter(p -> !p.equals("-"))
+						.allMatch(filter))
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void sparseCheckout() throws Exception {
+		final String root = "jsurfer-core/src/main";
+		final Predicate<String> selected = p ->
+				p.startsWith("java/") && !p.contains("/compiler/");
+
+		final VCSEngine reference = VCSEngineBuilder
+				.ofGit(repo)
+				.withRoot(root)
+				.build();
+		final VCSEngine sparse = VCSEngineBuilder
+				.ofGit(repo)
+				.withRoot(root)
+				.withIncludes("java/**")
+				.withExcludes("**/compiler")
+				.build();
+
+		final Iterator<RevisionRange> it = reference.iterator();
+		RevisionRange last = null;
+		for (RevisionRange range : sparse) {
+			assertTrue(it.hasNext());
+			final RevisionRange expected = it.next();
+			assertThat(range.getRevision().getId())
+					.isEqualTo(expected.getRevision().getId());
+			assertThat(range.getRevision().getFiles())
+					.extracting(VCSFile::getRelativePath)
+					.containsExactlyInAnyOrder(
+							expected.getRevision().getFiles().stream()
+									.map(VCSFile::getRelativePath)
+									.filter(selected)
+									.toArray(String[]::new));
+			assertThat(summarize(range.getFileChanges(), p -> true))
+					.isEqualTo(summarize(expected.getFileChanges(), selected));
+			last = range;
+		}
+		assertThat(last).isNotNull();
+
+		// Only the selected files are written to the target.
+		try (Stream<Path> walk = Files.walk(sparse.getTarget())) {
+			assertThat(walk.filter(Files::isRegularFile)
+					.map(p -> sparse.getTarget().relativize(p).toString())
+					.filter(p -> !p.startsWith(".git"))
+					.collect(Collectors.toList()))
+					.allMatch(p -> p.startsWith(root + "/"))
+					.allMatch(p -> selected.test(
+							p.substring(root.length() + 1)));
+		}
+
+		// The written files equal the files of a regular checkout.
+		final Path checkout = Files.createTempDirectory(null);
+		try (Git git = Git.cloneRepository()
+				.setURI("file://" + repo)
+				.setDirectory(checkout.toFile())
+				.call()) {
+			git.checkout().setName(last.getRevision().getId()).call();
+		}
+		for (VCSFile file : last.getRevision().getFiles()) {
+			assertThat(file.readAllBytes()).isEqualTo(Files.readAllBytes(
+					checkout.resolve(root).resolve(file.getRelativePath())));
+		}
+	}
+
+	@Test
+	public void checkoutRootOnly() throws IOException {
+		final VCSEngine sparse = VCSEngineBuilder
+				.ofGit(repo)
+				.withRoot("jsurfer-core/src/main")
+				.build();
+		final Path pom = sparse.getTarget().resolve("pom.xml");
+		for (RevisionRange ignored : sparse) {
+			assertThat(pom).doesNotExist();
+		}
+	}
+
+	@Test
+	public void mirrorCache() throws IOException {
+		final Path cache = Files.createTempDirectory(null);
+		final List<String> expected = ((AbstractVSCEngine) VCSEngineBuilder
+				.ofGit(repo).build()).listRevisions();
+
+		for (int run = 0; run < 2; run++) {
+			final VCSEngine vcs = VCSEngineBuilder
+					.ofGit(repo)
+					.withMirrorCache(cache)
+					.build();
+			assertThat(((AbstractVSCEngine) vcs).listRevisions())
+					.isEqualTo(expected);
+			final RevisionRange range = vcs.next().orElseThrow(
+					IllegalStateException::new);
+			assertThat(range.getRevision().getFiles()).isNotEmpty();
+			assertThat(vcs.getTarget().resolve(
+					".git/objects/info/alternates")).exists();
+		}
+		try (Stream<Path> mirrors = Files.list(cache.resolve("git"))) {
+			assertThat(mirrors.filter(Files::isDirectory).count())
+					.isEqualTo(1);
+		}
+	}
 }
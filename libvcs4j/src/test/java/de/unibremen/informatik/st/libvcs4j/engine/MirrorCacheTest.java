@@ -0,0 +1,57 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MirrorCacheTest {
+
+	@Test
+	public void key() {
+		String key = MirrorCache.key("https://github.com/a/repo.git");
+		assertThat(key).matches("repo\\.git-[0-9a-f]{16}");
+		assertThat(MirrorCache.key("https://github.com/a/repo.git"))
+				.isEqualTo(key);
+		assertThat(MirrorCache.key("https://github.com/b/repo.git"))
+				.isNotEqualTo(key);
+		assertThat(MirrorCache.key("file:///tmp/my repo/"))
+				.startsWith("my_repo-");
+	}
+
+	@Test
+	public void resolve() throws Exception {
+		Path dir = Files.createTempDirectory(null);
+		MirrorCache cache = new MirrorCache(dir);
+		assertThat(cache.resolve("git", "file:///tmp/repo"))
+				.hasParentRaw(dir.resolve("git"));
+		assertThat(cache.resolve("git", "file:///tmp/repo"))
+				.isNotEqualTo(cache.resolve("hg", "file:///tmp/repo"));
+	}
+
+	@Test
+	@SuppressWarnings("try")
+	public void lockIsExclusive() throws Exception {
+		MirrorCache cache = new MirrorCache(Files.createTempDirectory(null));
+		Path mirror = cache.resolve("git", "file:///tmp/repo");
+		CompletableFuture<Void> other;
+		try (MirrorCache.Lock lock = cache.lock(mirror)) {
+			other = CompletableFuture.runAsync(() -> {
+				try (MirrorCache.Lock l = cache.lock(mirror)) {
+					// acquired
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			assertThatThrownBy(() -> other.get(200, TimeUnit.MILLISECONDS))
+					.isInstanceOf(TimeoutException.class);
+		}
+		other.get(10, TimeUnit.SECONDS);
+	}
+}
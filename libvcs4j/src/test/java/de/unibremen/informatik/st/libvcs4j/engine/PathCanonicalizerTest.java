@@ -0,0 +1,63 @@
+package de.unibremen.informatik.st.libvcs4j.engine;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathCanonicalizerTest {
+
+	@Test
+	public void resolveDirectoryLinks() throws IOException {
+		Path dir = Files.createTempDirectory(null).toRealPath();
+		Path real = Files.createDirectories(dir.resolve("real"));
+		Files.write(real.resolve("A.java"), new byte[0]);
+		Path link = Files.createSymbolicLink(dir.resolve("link"), real);
+
+		PathCanonicalizer canonicalizer = new PathCanonicalizer(false);
+		for (String file : new String[]{"A.java", "B.java"}) {
+			assertThat(canonicalizer.canonicalize(
+					link.resolve(file).toString()))
+					.isEqualTo(real.resolve(file).toString())
+					.isEqualTo(link.resolve(file).toFile().getCanonicalPath());
+		}
+		assertThat(canonicalizer.canonicalize(
+				dir.resolve("missing/dir/C.java").toString()))
+				.isEqualTo(dir.resolve("missing/dir/C.java").toString());
+		assertThat(canonicalizer.canonicalize(
+				real.resolve("../real/A.java").toString()))
+				.isEqualTo(real.resolve("A.java").toString());
+	}
+
+	@Test
+	public void resolveCase() throws IOException {
+		Path dir = Files.createTempDirectory(null).toRealPath();
+		Files.write(dir.resolve("Foo.java"), new byte[0]);
+
+		PathCanonicalizer insensitive = new PathCanonicalizer(true);
+		assertThat(insensitive.canonicalize(
+				dir.resolve("foo.JAVA").toString()))
+				.isEqualTo(dir.resolve("Foo.java").toString());
+		assertThat(insensitive.canonicalize(
+				dir.resolve("Bar.java").toString()))
+				.isEqualTo(dir.resolve("Bar.java").toString());
+
+		PathCanonicalizer sensitive = new PathCanonicalizer(false);
+		assertThat(sensitive.canonicalize(
+				dir.resolve("foo.JAVA").toString()))
+				.isEqualTo(dir.resolve("foo.JAVA").toString());
+	}
+
+	@Test
+	public void probeCaseSensitivity() throws IOException {
+		Path dir = Files.createTempDirectory("probe");
+		assertThat(PathCanonicalizer.isCaseInsensitive(dir)).isEqualTo(
+				Files.exists(dir.resolveSibling(
+						dir.getFileName().toString().toUpperCase())));
+		assertThat(PathCanonicalizer.isCaseInsensitive(
+				Files.createDirectories(dir.resolve("123")))).isFalse();
+	}
+}
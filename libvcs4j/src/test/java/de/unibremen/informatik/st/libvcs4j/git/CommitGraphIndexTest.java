@@ -0,0 +1,156 @@
+package de.unibremen.informatik.st.libvcs4j.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommitGraphIndexTest {
+
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+
+	private Path dir;
+
+	private Git git;
+
+	private final List<String> commits = new ArrayList<>();
+
+	private String commit(String file, long time) throws Exception {
+		Path path = dir.resolve(file);
+		Files.createDirectories(path.getParent());
+		Files.write(path, ("" + commits.size()).getBytes());
+		git.add().addFilepattern(".").call();
+		PersonIdent ident = new PersonIdent("a", "a@b.c", new Date(time),
+				TimeZone.getTimeZone("UTC"));
+		RevCommit commit = git.commit()
+				.setMessage("" + commits.size())
+				.setAuthor(ident)
+				.setCommitter(ident)
+				.call();
+		commits.add(commit.getName());
+		return commit.getName();
+	}
+
+	private ObjectId head() throws Exception {
+		return git.getRepository().resolve(Constants.HEAD);
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		dir = Files.createTempDirectory(null);
+		git = Git.init().setDirectory(dir.toFile()).call();
+		// Author times are not monotonic (commit 3 is older than commit 2).
+		commit("src/a", 10 * DAY);
+		commit("src/b", 20 * DAY);
+		commit("src/c", 30 * DAY);
+		commit("src/d", 25 * DAY);
+		commit("src/e", 40 * DAY);
+	}
+
+	@Test
+	public void selectWindows() throws Exception {
+		CommitGraphIndex index = CommitGraphIndex.build(git, "", head());
+		assertThat(index.size()).isEqualTo(5);
+		assertThat(index.getIds(0, 5)).isEqualTo(commits);
+
+		assertThat(index.findLatest(5 * DAY)).isEqualTo(-1);
+		assertThat(index.findLatest(10 * DAY)).isEqualTo(0);
+		assertThat(index.findLatest(27 * DAY)).isEqualTo(3);
+		assertThat(index.findLatest(35 * DAY)).isEqualTo(3);
+		assertThat(index.findLatest(50 * DAY)).isEqualTo(4);
+
+		assertThat(index.findLatest(5 * DAY, 4)).isEqualTo(-1);
+		assertThat(index.findLatest(22 * DAY, 4)).isEqualTo(1);
+		assertThat(index.findLatest(30 * DAY, 4)).isEqualTo(3);
+		assertThat(index.findLatest(30 * DAY, 2)).isEqualTo(2);
+
+		for (int i = 0; i < commits.size(); i++) {
+			assertThat(index.find(commits.get(i), 4)).isEqualTo(i);
+			assertThat(index.find(commits.get(i).substring(0, 7), 4))
+					.isEqualTo(i);
+			assertThat(index.find(commits.get(i).toUpperCase(), 4))
+					.isEqualTo(i);
+			assertThat(index.find(commits.get(i), i - 1)).isEqualTo(-1);
+		}
+		assertThat(index.find("HEAD", 4)).isEqualTo(-1);
+		assertThat(index.find("", 4)).isEqualTo(-1);
+	}
+
+	@Test
+	public void limitToRoot() throws Exception {
+		commit("doc/readme", 50 * DAY);
+		commit("src/f", 60 * DAY);
+
+		CommitGraphIndex index = CommitGraphIndex.build(git, "doc", head());
+		assertThat(index.getIds(0, index.size()))
+				.containsExactly(commits.get(5));
+	}
+
+	@Test
+	public void saveAndLoad() throws Exception {
+		CommitGraphIndex index = CommitGraphIndex.build(git, "src", head());
+		Path file = dir.resolve("index");
+		index.save(file);
+
+		CommitGraphIndex loaded = CommitGraphIndex.load(file, "src")
+				.orElseThrow(IllegalStateException::new);
+		assertThat(loaded.getHead()).isEqualTo(head());
+		assertThat(loaded.getIds(0, loaded.size())).isEqualTo(commits);
+		assertThat(loaded.findLatest(27 * DAY)).isEqualTo(3);
+		assertThat(loaded.find(commits.get(2), 4)).isEqualTo(2);
+
+		assertThat(CommitGraphIndex.load(file, "doc")).isEmpty();
+		assertThat(CommitGraphIndex.load(dir.resolve("missing"), "src"))
+				.isEmpty();
+		Files.write(file, new byte[]{1, 2, 3});
+		assertThat(CommitGraphIndex.load(file, "src")).isEmpty();
+	}
+
+	@Test
+	public void updateIncrementally() throws Exception {
+		CommitGraphIndex index = CommitGraphIndex.build(git, "src", head());
+		assertThat(index.update(git, head())).isSameAs(index);
+
+		commit("src/f", 50 * DAY);
+		commit("doc/readme", 55 * DAY);
+		commit("src/g", 45 * DAY);
+		CommitGraphIndex updated = index.update(git, head());
+		CommitGraphIndex rebuilt = CommitGraphIndex.build(git, "src", head());
+		assertThat(updated.getHead()).isEqualTo(head());
+		assertThat(updated.getIds(0, updated.size()))
+				.isEqualTo(rebuilt.getIds(0, rebuilt.size()));
+		assertThat(updated.findLatest(47 * DAY)).isEqualTo(6);
+		for (String commit : rebuilt.getIds(0, rebuilt.size())) {
+			assertThat(updated.find(commit, updated.size() - 1))
+					.isEqualTo(rebuilt.find(commit, rebuilt.size() - 1));
+		}
+	}
+
+	@Test
+	public void rebuildRewrittenBranch() throws Exception {
+		CommitGraphIndex index = CommitGraphIndex.build(git, "", head());
+		git.reset()
+				.setMode(ResetCommand.ResetType.HARD)
+				.setRef(commits.get(2))
+				.call();
+		commit("src/x", 50 * DAY);
+
+		CommitGraphIndex updated = index.update(git, head());
+		assertThat(updated.getIds(0, updated.size())).containsExactly(
+				commits.get(0), commits.get(1), commits.get(2),
+				commits.get(5));
+	}
+}
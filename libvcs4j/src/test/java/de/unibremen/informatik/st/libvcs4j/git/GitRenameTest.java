@@ -0,0 +1,158 @@
+package de.unibremen.informatik.st.libvcs4j.git;
+
+import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.eclipse.jgit.api.Git;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class GitRenameTest {
+
+	private static String repository;
+
+	private static String lines(int n, String suffix) {
+		return IntStream.range(0, n)
+				.mapToObj(i -> "line " + i + " " + suffix)
+				.collect(Collectors.joining("\n", "", "\n"));
+	}
+
+	private static void write(Path dir, String path, String content)
+			throws IOException {
+		Path file = dir.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes());
+	}
+
+	@BeforeClass
+	public static void createRepository() throws Exception {
+		Path dir = Files.createTempDirectory(null);
+		try (Git git = Git.init().setDirectory(dir.toFile()).call()) {
+			write(dir, "A.java", lines(20, "a"));
+			write(dir, "B.java", lines(20, "b"));
+			write(dir, "C.java", lines(20, "c"));
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Initial").call();
+
+			// Exact rename A -> sub/A, inexact rename B -> D, modify C, add E.
+			Files.move(dir.resolve("A.java"), Files.createDirectories(
+					dir.resolve("sub")).resolve("A.java"));
+			Files.delete(dir.resolve("B.java"));
+			write(dir, "D.java", lines(20, "b") + "one more line\n");
+			write(dir, "C.java", lines(20, "C"));
+			write(dir, "E.java", lines(20, "e"));
+			git.add().addFilepattern(".").call();
+			git.rm().addFilepattern("A.java").addFilepattern("B.java").call();
+			git.commit().setMessage("Rename").call();
+		}
+		repository = "file://" + dir;
+	}
+
+	private static List<String> summarize(GitEngine engine)
+			throws IOException {
+		engine.next();
+		RevisionRange range = engine.next().orElseThrow(
+				IllegalStateException::new);
+		return range.getFileChanges().stream()
+				.map(GitRenameTest::summarize)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private static String summarize(FileChange fc) {
+		return fc.getType() + " " +
+				fc.getOldFile().map(VCSFile::getRelativePath).orElse("-") +
+				" " +
+				fc.getNewFile().map(VCSFile::getRelativePath).orElse("-");
+	}
+
+	@Test
+	public void exactAndInexactRenames() throws IOException {
+		GitEngine engine = (GitEngine) VCSEngineBuilder
+				.ofGit(repository)
+				.build();
+		assertThat(summarize(engine)).containsExactly(
+				"ADD - E.java",
+				"MODIFY C.java C.java",
+				"RELOCATE A.java sub/A.java",
+				"RELOCATE B.java D.java");
+	}
+
+	@Test
+	public void renameLimitDisablesInexactRenames() throws IOException {
+		GitEngine engine = (GitEngine) VCSEngineBuilder
+				.ofGit(repository)
+				.build();
+		engine.setRenameLimit(0);
+		assertThat(summarize(engine)).containsExactly(
+				"ADD - D.java",
+				"ADD - E.java",
+				"MODIFY C.java C.java",
+				"RELOCATE A.java sub/A.java",
+				"REMOVE B.java -");
+	}
+
+	@Test
+	public void renameTimeoutFallsBackToAddAndRemove() throws IOException {
+		GitEngine engine = (GitEngine) VCSEngineBuilder
+				.ofGit(repository)
+				.build();
+		engine.setRenameTimeout(Duration.ZERO);
+		assertThat(summarize(engine)).containsExactly(
+				"ADD - D.java",
+				"ADD - E.java",
+				"MODIFY C.java C.java",
+				"RELOCATE A.java sub/A.java",
+				"REMOVE B.java -");
+	}
+
+	@Test
+	public void renamesAreDetectedAgainAfterChangingSettings()
+			throws IOException {
+		GitEngine engine = (GitEngine) VCSEngineBuilder
+				.ofGit(repository)
+				.build();
+		List<String> revisions = engine.listRevisions();
+		String from = revisions.get(0);
+		String to = revisions.get(1);
+
+		engine.setRenameLimit(0);
+		assertThat(engine.createChangesImpl(from, to).getRelocated())
+				.hasSize(1);
+		engine.setRenameLimit(GitEngine.DEFAULT_RENAME_LIMIT);
+		assertThat(engine.createChangesImpl(from, to).getRelocated())
+				.hasSize(2);
+
+		// The same applies to the timeout.
+		engine.setRenameTimeout(Duration.ZERO);
+		assertThat(engine.createChangesImpl(from, to).getRelocated())
+				.hasSize(1);
+		engine.setRenameTimeout(GitEngine.DEFAULT_RENAME_TIMEOUT);
+		assertThat(engine.createChangesImpl(from, to).getRelocated())
+				.hasSize(2);
+	}
+
+	@Test
+	public void invalidSettings() {
+		GitEngine engine = (GitEngine) VCSEngineBuilder
+				.ofGit(repository)
+				.build();
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> engine.setRenameLimit(-1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> engine.setRenameTimeout(
+						Duration.ofSeconds(-1)));
+	}
+}
@@ -0,0 +1,98 @@
+package de.unibremen.informatik.st.libvcs4j.instrumentation;
+
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Counter;
+import de.unibremen.informatik.st.libvcs4j.InstrumentationListener.Phase;
+import de.unibremen.informatik.st.libvcs4j.RevisionRange;
+import de.unibremen.informatik.st.libvcs4j.VCSEngine;
+import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class AggregatingInstrumentationListenerTest {
+
+	private final String repo = getClass()
+			.getResource("/jsonsurfer/jsonsurfer.bundle")
+			.getFile();
+
+	@Test
+	public void percentiles() {
+		AggregatingInstrumentationListener listener =
+				new AggregatingInstrumentationListener();
+		for (int i = 100; i >= 1; i--) {
+			listener.phaseCompleted(null, Phase.CHECKOUT, i);
+		}
+		listener.counterIncremented(null, Counter.BYTES_READ, 10);
+		listener.counterIncremented(null, Counter.BYTES_READ, 5);
+
+		assertThat(listener.getCount(Phase.CHECKOUT)).isEqualTo(100);
+		assertThat(listener.getTotalNanos(Phase.CHECKOUT)).isEqualTo(5050);
+		assertThat(listener.getPercentile(Phase.CHECKOUT, 50)).isEqualTo(50);
+		assertThat(listener.getPercentile(Phase.CHECKOUT, 99)).isEqualTo(99);
+		assertThat(listener.getPercentile(Phase.CHECKOUT, 100)).isEqualTo(100);
+		assertThat(listener.getPercentile(Phase.CHECKOUT, 0.1)).isEqualTo(1);
+		assertThat(listener.getPercentile(Phase.COMPUTE_DIFF, 50)).isZero();
+		assertThat(listener.getCounter(Counter.BYTES_READ)).isEqualTo(15);
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				listener.getPercentile(Phase.CHECKOUT, 0));
+
+		listener.reset();
+		assertThat(listener.getCount(Phase.CHECKOUT)).isZero();
+		assertThat(listener.getCounter(Counter.BYTES_READ)).isZero();
+	}
+
+	@Test
+	public void measureEngine() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AggregatingInstrumentationListener listener =
+				new AggregatingInstrumentationListener(new PrintStream(out));
+		VCSEngine engine = VCSEngineBuilder
+				.ofGit(repo)
+				.withRoot("jsurfer-core/src/main")
+				.withStartIdx(0)
+				.withEndIdx(3)
+				.withInstrumentationListener(listener)
+				.build();
+
+		long bytes = 0;
+		int changes = 0;
+		for (RevisionRange range : engine) {
+			changes += range.getFileChanges().size();
+			for (VCSFile file : range.getRevision().getFiles()) {
+				bytes += file.readAllBytes().length;
+			}
+		}
+		assertThat(out.toString()).isEmpty();
+		assertThat(engine.next()).isEmpty();
+
+		assertThat(listener.getCount(Phase.CHECKOUT)).isEqualTo(3);
+		assertThat(listener.getCount(Phase.CREATE_CHANGES)).isEqualTo(2);
+		assertThat(listener.getCount(Phase.MAP_CHANGES)).isEqualTo(2);
+		assertThat(listener.getCount(Phase.CREATE_COMMIT)).isEqualTo(3);
+		assertThat(listener.getCount(Phase.LIST_FILES))
+				.isGreaterThanOrEqualTo(3);
+		assertThat(listener.getCount(Phase.ISSUE_LOOKUP)).isZero();
+		assertThat(listener.getCount(Phase.READ_ALL_BYTES)).isPositive();
+		// Files with unchanged contents are served from the blob store.
+		assertThat(listener.getCounter(Counter.BYTES_READ))
+				.isPositive()
+				.isLessThanOrEqualTo(bytes);
+		assertThat(listener.getCounter(Counter.FILES_TOUCHED))
+				.isEqualTo(changes);
+		assertThat(listener.getPercentile(Phase.CHECKOUT, 50)).isPositive();
+		assertThat(out.toString())
+				.contains("CHECKOUT")
+				.contains("BYTES_READ");
+
+		// The report is printed only once.
+		int length = out.size();
+		assertThat(engine.next()).isEmpty();
+		assertThat(out.size()).isEqualTo(length);
+	}
+}
@@ -1,9 +1,13 @@
 package de.unibremen.informatik.st.libvcs4j.single;
 
 import de.unibremen.informatik.st.libvcs4j.FileChange;
+import de.unibremen.informatik.st.libvcs4j.LineInfo;
+import de.unibremen.informatik.st.libvcs4j.LineInfoTable;
 import de.unibremen.informatik.st.libvcs4j.RevisionRange;
 import de.unibremen.informatik.st.libvcs4j.VCSEngine;
 import de.unibremen.informatik.st.libvcs4j.VCSEngineBuilder;
+import de.unibremen.informatik.st.libvcs4j.VCSFile;
+import de.unibremen.informatik.st.libvcs4j.VCSModelFactory;
 import de.unibremen.informatik.st.libvcs4j.filesystem.SingleEngine;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -16,9 +20,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class SingleEngineTest {
@@ -70,6 +79,9 @@ public class SingleEngineTest {
 		assertEquals(path, fileChange.getNewFile().get().toPath());
 		assertEquals("file.java",
 				fileChange.getNewFile().get().getRelativePath());
+		// Files are shared with the revision.
+		assertSame(range.getRevision().getFiles().get(0),
+				fileChange.getNewFile().get());
 	}
 
 	@Test
@@ -98,6 +110,69 @@ public class SingleEngineTest {
 		assertEquals(FileChange.Type.ADD, fc2.getType());
 	}
 
+	@Test
+	public void testLineInfoTableOfModelFactory() throws IOException {
+		Files.write(folder.newFile("file.txt").toPath(),
+				Arrays.asList("first", "second"));
+		final VCSEngine engine = new SingleEngine(folder.getRoot().toPath());
+		final List<LineInfo> custom = new ArrayList<>();
+		engine.setModelFactory(new VCSModelFactory() {
+			@Override
+			public List<LineInfo> createLineInfoTable(
+					final LineInfoTable table) {
+				for (final LineInfo li : table) {
+					custom.add(createLineInfo(li.getId(), li.getAuthor(),
+							li.getMessage(), li.getDateTime(), li.getLine(),
+							li.getContent(), li.getFile(),
+							li.getVCSEngine()));
+				}
+				return custom;
+			}
+		});
+
+		final VCSFile file = engine.next()
+				.orElseThrow(AssertionError::new)
+				.getFileChanges().get(0)
+				.getNewFile().orElseThrow(AssertionError::new);
+		final List<LineInfo> lineInfo = file.readLineInfo();
+		assertSame(custom, lineInfo);
+		assertEquals(2, lineInfo.size());
+		assertEquals("second", lineInfo.get(1).getContent());
+		assertEquals(2, lineInfo.get(1).getLine());
+		assertSame(file, lineInfo.get(1).getFile());
+	}
+
+	@Test
+	public void testLineInfoOfModelFactory() throws IOException {
+		Files.write(folder.newFile("file.txt").toPath(),
+				Arrays.asList("first", "second"));
+		final VCSEngine engine = new SingleEngine(folder.getRoot().toPath());
+		final List<LineInfo> custom = new ArrayList<>();
+		engine.setModelFactory(new VCSModelFactory() {
+			@Override
+			public LineInfo createLineInfo(final String id,
+					final String author, final String message,
+					final LocalDateTime dateTime, final int line,
+					final String content, final VCSFile file,
+					final VCSEngine engine) {
+				final LineInfo lineInfo = VCSModelFactory.super
+						.createLineInfo(id, author, message, dateTime,
+								line, content, file, engine);
+				custom.add(lineInfo);
+				return lineInfo;
+			}
+		});
+
+		final List<LineInfo> lineInfo = engine.next()
+				.orElseThrow(AssertionError::new)
+				.getFileChanges().get(0)
+				.getNewFile().orElseThrow(AssertionError::new)
+				.readLineInfo();
+		assertEquals(custom, lineInfo);
+		assertEquals(2, lineInfo.size());
+		assertEquals("first", lineInfo.get(0).getContent());
+	}
+
 	@Test
 	public void testConstructorWithNull() {
 		thrown.expect(NullPointerException.class);